@@ -83,11 +83,49 @@ public final class CharOperation {
 		if (pattern == null)
 			return true; // null pattern is equivalent to '*'
 
-		int patternEnd = pattern.length;
-		int nameEnd = name.length;
+		return match(pattern, 0, pattern.length, name, 0, name.length,
+				isCaseSensitive);
+	}
+
+	/**
+	 * Answers true if a sub-pattern matches the subpart of the given name,
+	 * false otherwise. This is the same as
+	 * {@link #match(char[], char[], boolean)} applied to the characters of the
+	 * pattern between <code>patternStart</code> (inclusive) and
+	 * <code>patternEnd</code> (exclusive), and to the characters of the name
+	 * between <code>nameStart</code> (inclusive) and <code>nameEnd</code>
+	 * (exclusive), without copying either array. A negative end stands for the
+	 * length of the array.
+	 * 
+	 * @param pattern
+	 *            the given pattern
+	 * @param patternStart
+	 *            the start index of the pattern, inclusive
+	 * @param patternEnd
+	 *            the end index of the pattern, exclusive
+	 * @param name
+	 *            the given name
+	 * @param nameStart
+	 *            the start index of the name, inclusive
+	 * @param nameEnd
+	 *            the end index of the name, exclusive
+	 * @param isCaseSensitive
+	 *            flag to know whether or not the matching should be case
+	 *            sensitive
+	 * @return true if the sub-pattern matches the subpart of the given name,
+	 *         false otherwise
+	 */
+	public static final boolean match(char[] pattern, int patternStart,
+			int patternEnd, char[] name, int nameStart, int nameEnd,
+			boolean isCaseSensitive) {
+
+		if (name == null)
+			return false; // null name cannot match
+		if (pattern == null)
+			return true; // null pattern is equivalent to '*'
 
-		int iPattern = 0;
-		int iName = 0;
+		int iPattern = patternStart;
+		int iName = nameStart;
 
 		if (patternEnd < 0)
 			patternEnd = pattern.length;
@@ -116,7 +154,7 @@ public final class CharOperation {
 		if (patternChar == '*') {
 			segmentStart = ++iPattern; // skip star
 		} else {
-			segmentStart = 0; // force iName check
+			segmentStart = patternStart; // force iName check
 		}
 		int prefixStart = iName;
 		checkSegment: while (iName < nameEnd) {
@@ -8,8 +8,12 @@
 
 package org.teiid.core.designer.util;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
@@ -22,6 +26,11 @@ public class ChecksumUtil {
 
     protected static final int BUFFER_SIZE = 1024;
 
+    /**
+     * The size of the buffer used to read files, which are read in far fewer and larger chunks than streams
+     */
+    protected static final int FILE_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Compute and return the checksum (using the default CRC-32 algorithm) of the contents on the specified stream. This method
      * closes the stream upon completion.
@@ -78,4 +87,32 @@ public class ChecksumUtil {
         return sizeInBytes;
     }
 
+    /**
+     * Compute and return the CRC-32 checksum of the contents of the specified file. The file is read through a
+     * {@link FileChannel} in large chunks, which is considerably faster than reading it as a stream for large files.
+     * 
+     * @param file the file for which the checksum is to be computed; may not be null
+     * @return the checksum value, the same as that computed by {@link #computeChecksum(InputStream)} for the file contents
+     * @throws IOException if there is an error reading the file
+     */
+    public static long computeChecksum( File file ) throws IOException {
+        final CRC32 checksum = new CRC32();
+        final FileInputStream stream = new FileInputStream(file);
+        try {
+            final FileChannel channel = stream.getChannel();
+            // A heap buffer, since CRC32 can only be updated from an array
+            final ByteBuffer buffer = ByteBuffer.allocate((int)Math.max(1L, Math.min(FILE_BUFFER_SIZE, channel.size())));
+            while (channel.read(buffer) > -1) {
+                if (!buffer.hasRemaining()) {
+                    checksum.update(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+            }
+            checksum.update(buffer.array(), 0, buffer.position());
+        } finally {
+            stream.close();
+        }
+        return checksum.getValue();
+    }
+
 }
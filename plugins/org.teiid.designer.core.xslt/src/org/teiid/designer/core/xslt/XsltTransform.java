@@ -9,6 +9,8 @@ package org.teiid.designer.core.xslt;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Map;
+import java.util.WeakHashMap;
 import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
@@ -25,6 +27,11 @@ import org.teiid.core.designer.util.CoreArgCheck;
  */
 public class XsltTransform {
 
+    /**
+     * The compiled stylesheet of each style. Templates are thread-safe, so each style is compiled only once.
+     */
+    private static final Map TEMPLATES = new WeakHashMap();
+
 	private final Style style;
 
 	/**
@@ -40,9 +47,26 @@ public class XsltTransform {
 		this.style = style;
 	}
     
+    /**
+     * Return the compiled stylesheet of the supplied style, compiling it the first time it is used.
+     * @param style the style; may not be null
+     * @return the Templates; never null
+     */
     protected static Templates getTemplates( final Style style ) throws IOException, TeiidDesignerException,
                                                                         TransformerConfigurationException {
         CoreArgCheck.isNotNull(style);
+        synchronized (TEMPLATES) {
+            Templates templates = (Templates)TEMPLATES.get(style);
+            if (templates == null) {
+                templates = compileTemplates(style);
+                TEMPLATES.put(style, templates);
+            }
+            return templates;
+        }
+    }
+
+    private static Templates compileTemplates( final Style style ) throws IOException, TeiidDesignerException,
+                                                                          TransformerConfigurationException {
         // Create a source for the stylesheet ...
         final StreamSource source = style.getStreamSource();
         
@@ -83,8 +107,19 @@ public class XsltTransform {
                                                             TransformerException,
                                                             TransformerConfigurationException {
     	CoreArgCheck.isNotNull(sourceDoc);
+        transform(CoreXsltPlugin.createSource(sourceDoc), output);
+    }
+
+    /**
+     * Transform the supplied source using the XSLT. A {@link javax.xml.transform.sax.SAXSource} whose reader generates the
+     * content feeds the XSLT processor without an intermediate document.
+     * @param source the source; may not be null
+     * @param output the OutputStream to which the transformed content is to be written
+     */
+    public void transform(final Source source, final OutputStream output) throws IOException, TeiidDesignerException,
+                                                                              TransformerException {
+        CoreArgCheck.isNotNull(source);
         CoreArgCheck.isNotNull(output);
-        final Source source = CoreXsltPlugin.createSource(sourceDoc);
         final StreamResult result = new StreamResult(output);
         
         // Transform the document in 'transformSource'
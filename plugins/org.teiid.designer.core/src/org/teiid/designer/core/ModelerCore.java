@@ -61,6 +61,7 @@ import org.teiid.core.designer.util.PluginUtilImpl;
 import org.teiid.core.designer.util.Stopwatch;
 import org.teiid.designer.WorkspaceUUIDService;
 import org.teiid.designer.core.ModelerCore.EXTENSION_POINT.EOBJECT_MATCHER_FACTORY;
+import org.teiid.designer.core.builder.ValidationResultCache;
 import org.teiid.designer.core.container.Container;
 import org.teiid.designer.core.container.ContainerImpl;
 import org.teiid.designer.core.container.ResourceDescriptor;
@@ -1711,6 +1712,9 @@ public class ModelerCore extends Plugin implements DeclarativeTransactionManager
         final IWorkspace workspace = getWorkspace();
         workspace.removeSaveParticipant(this);
 
+        // Persist the validation results for the next session ...
+        ValidationResultCache.saveDefault();
+
         // Shut down the model workspace manager ...
         IStatus wsMgrProblem = null;
         try {
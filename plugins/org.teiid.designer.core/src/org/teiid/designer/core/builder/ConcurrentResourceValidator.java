@@ -0,0 +1,20 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+/**
+ * A {@link ResourceValidator} whose {@link ResourceValidator#validate(org.eclipse.core.runtime.IProgressMonitor, Object,
+ * org.teiid.designer.core.validation.ValidationContext) validate} method may be called for different, already loaded, EMF
+ * resources on several threads at once, each thread using its own validation context. Markers are still added on a single
+ * thread. Validators that do not implement this interface always validate one resource at a time.
+ *
+ * @see ModelValidationScheduler
+ * @since 8.0
+ */
+public interface ConcurrentResourceValidator extends ResourceValidator {
+}
@@ -24,6 +24,7 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -262,6 +263,20 @@ public class ModelBuildUtil {
         return Collections.EMPTY_LIST;
     }
 
+    /**
+     * @return the workspace paths of the models with unsaved changes; never null
+     */
+    static Collection<IPath> getModifiedPaths() {
+        final Collection<IPath> result = new ArrayList<IPath>();
+        for (final Iterator iter = getModifiedResources().iterator(); iter.hasNext();) {
+            final IResource iResource = WorkspaceResourceFinderUtil.findIResource((Resource)iter.next());
+            if (iResource != null) {
+                result.add(iResource.getFullPath());
+            }
+        }
+        return result;
+    }
+
     public static List getModifiedResources( final List eResources ) {
         final List result = new ArrayList();
         if (eResources != null) {
@@ -314,14 +329,46 @@ public class ModelBuildUtil {
         }
     }
 
+    /**
+     * Index a model that was already opened on the build thread, so the indexer does not go through the model workspace to find
+     * it. Used by {@link ModelIndexingScheduler} worker threads.
+     */
+    static void indexResource( final IResource iResource,
+                               final ModelResource modelResource,
+                               final Resource emfResource,
+                               final ModelIndexer indexer ) {
+        try {
+            indexer.indexResource(iResource, modelResource, emfResource, true);
+        } catch (final Throwable e) {
+            ModelerCore.Util.log(IStatus.ERROR,
+                                 e,
+                                 ModelerCore.Util.getString("ModelBuilder.Error_indexing_model_resource_3", iResource.getFullPath())); //$NON-NLS-1$
+        }
+    }
+
     public static void indexResources( IProgressMonitor monitor,
                                        final Collection resources ) {
         // create a monitor if needed
         monitor = monitor != null ? monitor : new NullProgressMonitor();
-        // get all indexers and index
-        for (final Iterator indexerIter = INDEXERS.iterator(); indexerIter.hasNext();) {
-            final ResourceIndexer indexer = (ResourceIndexer)indexerIter.next();
-            indexResources(monitor, resources, indexer);
+        final Stopwatch totalWatch = new Stopwatch();
+        totalWatch.start();
+        int threadCount = 1;
+        if (resources.size() > 1 && ModelIndexingScheduler.isParallelIndexingEnabled()) {
+            // independent resources are indexed concurrently; see ModelIndexingScheduler
+            threadCount = ModelIndexingScheduler.getConfiguredThreadCount();
+            new ModelIndexingScheduler(threadCount).indexResources(monitor, resources, INDEXERS);
+        } else {
+            // get all indexers and index
+            for (final Iterator indexerIter = INDEXERS.iterator(); indexerIter.hasNext();) {
+                final ResourceIndexer indexer = (ResourceIndexer)indexerIter.next();
+                indexResources(monitor, resources, indexer);
+            }
+        }
+        totalWatch.stop();
+        if (ModelerCore.DEBUG_PROJECT_BUILDER && !resources.isEmpty()) {
+            final Object[] params = new Object[] {Integer.valueOf(resources.size()), Long.valueOf(totalWatch.getTotalDuration()),
+                Integer.valueOf(threadCount)};
+            ModelerCore.Util.log(IStatus.INFO, ModelerCore.Util.getString("ModelBuildUtil.DEBUG.Indexed_{0}_resources_in_{1}_ms_using_{2}_threads", params)); //$NON-NLS-1$
         }
     }
 
@@ -390,11 +437,11 @@ public class ModelBuildUtil {
         }
     }
 
-    private static void internalValidateResource( final IProgressMonitor monitor,
-                                                  final IResource iResource,
-                                                  final ResourceValidator validator,
-                                                  final ValidationContext context,
-                                                  final boolean clearMarkers ) {
+    static void internalValidateResource( final IProgressMonitor monitor,
+                                          final IResource iResource,
+                                          final ResourceValidator validator,
+                                          final ValidationContext context,
+                                          final boolean clearMarkers ) {
         // create a monitor if needed
         final IProgressMonitor progresssMonitor = (monitor != null ? monitor : new NullProgressMonitor());
 
@@ -406,88 +453,143 @@ public class ModelBuildUtil {
         progresssMonitor.setTaskName(MONITOR_RESOURCE_VALIDATION_MSG + iResource.getFullPath());
 
         // See if the model was marked as a duplicate ...
-        Object duplicateOfModel = null;
+        Object duplicateOfModel = getDuplicateOfModel(iResource);
+
+        // Add the markers to the sink of the build, or to one applied once this resource is done
+        ProblemMarkerSink markerSink = ProblemMarkerSink.getSink(context);
+        final boolean applyMarkers = (markerSink == null);
+        if (applyMarkers) {
+            markerSink = new ProblemMarkerSink();
+            context.setData(ProblemMarkerSink.CONTEXT_KEY, markerSink);
+        }
+        if (clearMarkers) {
+            markerSink.replaceMarkers(iResource);
+        }
+
         try {
-            duplicateOfModel = iResource.getSessionProperty(ModelerCore.DUPLICATE_MODEL_OF_IPATH_KEY);
+            // Try to validate; if this is the first time this resource is opened, the duplicate model
+            // session property might not be assigned, and a ModelWorkspaceException may be thrown when
+            // opening the model
+            if (duplicateOfModel == null) {
+                try {
+                    // Validate the model ...
+                    final Object objToValidate = getObjectToValidate(iResource);
+
+                    final Stopwatch totalWatch = new Stopwatch();
+                    totalWatch.start();
+                    validator.validate(progresssMonitor, objToValidate, context);
+                    totalWatch.stop();
+
+                    validator.addMarkers(context, iResource);
+                    context.clearResults();
+                } catch (final ModelerCoreException e) {
+                    excludeFromCache(context, iResource);
+                    final Throwable underlyingException = e.getException();
+                    if (underlyingException instanceof DuplicateResourceException) {
+                        // Look again for the duplicate of model path ...
+                        try {
+                            duplicateOfModel = iResource.getSessionProperty(ModelerCore.DUPLICATE_MODEL_OF_IPATH_KEY);
+                        } catch (final CoreException err) {
+                            ModelerCore.Util.log(err);
+                        }
+                    } else {
+                        ModelerCore.Util.log(e);
+                    }
+                }
+            }
+
+            // Now handle the case when this is a duplicate model ...
+
+            if (duplicateOfModel != null) {
+                excludeFromCache(context, iResource);
+                createDuplicateModelMarker(markerSink, iResource, duplicateOfModel);
+            }
+        } finally {
+            if (applyMarkers) {
+                context.setData(ProblemMarkerSink.CONTEXT_KEY, null);
+                applyMarkers(progresssMonitor, markerSink);
+            }
+        }
+    }
+
+    /**
+     * @return the path of the model the resource was found to duplicate, or null if it is not known to be a duplicate
+     */
+    static Object getDuplicateOfModel( final IResource iResource ) {
+        try {
+            return iResource.getSessionProperty(ModelerCore.DUPLICATE_MODEL_OF_IPATH_KEY);
         } catch (final CoreException err) {
             // Do nothing; treat as tho not a duplicate ...
+            return null;
         }
+    }
 
-        if (clearMarkers) {
-            clearResourceMarkers(iResource);
-        }
+    /**
+     * Find, loading it if needed, the EMF resource to validate for the given IResource.
+     * 
+     * @return the EMF resource, or the IResource itself if it does not wrap one
+     */
+    static Object getObjectToValidate( final IResource iResource ) {
+        final ModelWorkspace workspace = ModelerCore.getModelWorkspace();
+        final ModelResource mResource = workspace.findModelResource(iResource);
 
-        // Try to validate; if this is the first time this resource is opened, the duplicate model
-        // session property might not be assigned, and a ModelWorkspaceException may be thrown when
-        // opening the model
-        if (duplicateOfModel == null) {
+        // Find the Resource for the given IResource (unless IResource is VDB Resource)
+        // VDB IResources do not have a corresponding Emf Resource.
+        Resource resource = null;
+        if (!ModelUtil.isVdbArchiveFile(iResource)) {
             try {
-                // Validate the model ...
-                final ModelWorkspace workspace = ModelerCore.getModelWorkspace();
-                final ModelResource mResource = workspace.findModelResource(iResource);
-
-                // Find the Resource for the given IResource (unless IResource is VDB Resource)
-                // VDB IResources do not have a corresponding Emf Resource.
-                Resource resource = null;
-                if (!ModelUtil.isVdbArchiveFile(iResource)) {
-                    try {
-                        if (mResource != null && mResource.getEmfResource() != null) {
-                            resource = mResource.getEmfResource();
-                        } else {
-                            // Force a load if it not already loaded.
-                            if (iResource.getRawLocation() != null) {
-                                final URI uri = URI.createFileURI(iResource.getRawLocation().toString());
-                                resource = ModelerCore.getModelContainer().getResource(uri, true);
-                                if (resource != null) {
-                                    resource.setModified(false);
-                                }
-                            }
+                if (mResource != null && mResource.getEmfResource() != null) {
+                    resource = mResource.getEmfResource();
+                } else {
+                    // Force a load if it not already loaded.
+                    if (iResource.getRawLocation() != null) {
+                        final URI uri = URI.createFileURI(iResource.getRawLocation().toString());
+                        resource = ModelerCore.getModelContainer().getResource(uri, true);
+                        if (resource != null) {
+                            resource.setModified(false);
                         }
-                    } catch (final Exception e) {
-                        // Do nothing. IResources that do not wrap an emf Resource will throw an exception here...
-                        // Let the validator decide what to do if no emf Resource can be found.
                     }
                 }
-                final Object objToValidate = (resource != null ? (Object)resource : (Object)iResource);
-
-                final Stopwatch totalWatch = new Stopwatch();
-                totalWatch.start();
-                validator.validate(progresssMonitor, objToValidate, context);
-                totalWatch.stop();
-
-                validator.addMarkers(context, iResource);
-                context.clearResults();
-            } catch (final ModelerCoreException e) {
-                final Throwable underlyingException = e.getException();
-                if (underlyingException instanceof DuplicateResourceException) {
-                    // Look again for the duplicate of model path ...
-                    try {
-                        duplicateOfModel = iResource.getSessionProperty(ModelerCore.DUPLICATE_MODEL_OF_IPATH_KEY);
-                    } catch (final CoreException err) {
-                        ModelerCore.Util.log(err);
-                    }
-                } else {
-                    ModelerCore.Util.log(e);
-                }
+            } catch (final Exception e) {
+                // Do nothing. IResources that do not wrap an emf Resource will throw an exception here...
+                // Let the validator decide what to do if no emf Resource can be found.
             }
         }
+        return (resource != null ? (Object)resource : (Object)iResource);
+    }
 
-        // Now handle the case when this is a duplicate model ...
+    /**
+     * Mark the resource as a duplicate of another model, which is not validated.
+     */
+    static void createDuplicateModelMarker( final ProblemMarkerSink markerSink,
+                                            final IResource iResource,
+                                            final Object duplicateOfModel ) {
+        final Object[] params = new Object[] {duplicateOfModel};
+        final String msg = ModelerCore.Util.getString("ModelBuildUtil.ModelDuplicateOf_0", params); //$NON-NLS-1$
+        // The Model is a duplicate, so don't validate ...
+        markerSink.addProblem(iResource, Integer.valueOf(IMarker.SEVERITY_ERROR), duplicateOfModel, null, null, msg);
+    }
 
-        if (duplicateOfModel != null) {
-            try {
-                final Object[] params = new Object[] {duplicateOfModel};
-                final String msg = ModelerCore.Util.getString("ModelBuildUtil.ModelDuplicateOf_0", params); //$NON-NLS-1$
-                // The Model is a duplicate, so don't validate ...
-                final IMarker marker = iResource.createMarker(IMarker.PROBLEM);
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                marker.setAttribute(IMarker.LOCATION, duplicateOfModel);
-                marker.setAttribute(ModelerCore.MARKER_URI_PROPERTY, null);
-                marker.setAttribute(ModelerCore.TARGET_MARKER_URI_PROPERTY, null);
-                marker.setAttribute(IMarker.MESSAGE, msg);
-            } catch (final CoreException e) {
-                ModelerCore.Util.log(e);
-            }
+    /**
+     * Keep the problems of a resource that could not be validated completely out of the {@link ValidationResultCache}.
+     */
+    static void excludeFromCache( final ValidationContext context,
+                                  final IResource iResource ) {
+        final ValidationResultCache.Session cacheSession = (ValidationResultCache.Session)context.getData(ValidationResultCache.CONTEXT_KEY);
+        if (cacheSession != null) {
+            cacheSession.exclude(iResource);
+        }
+    }
+
+    /**
+     * Apply the markers collected by the sink, logging any failure.
+     */
+    static void applyMarkers( final IProgressMonitor monitor,
+                              final ProblemMarkerSink markerSink ) {
+        try {
+            markerSink.apply(monitor);
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
         }
     }
 
@@ -701,19 +803,64 @@ public class ModelBuildUtil {
 
         context.setResourceContainer(container); // may be null
 
-        clearResourceMarkers(iResources);
+        // The markers of the resources are replaced by those of the new problems once all are validated,
+        // leaving the markers of unchanged problems alone
+        final ProblemMarkerSink markerSink = new ProblemMarkerSink();
+        markerSink.replaceMarkers(iResources);
+        context.setData(ProblemMarkerSink.CONTEXT_KEY, markerSink);
+
+        final Stopwatch totalWatch = new Stopwatch();
+        totalWatch.start();
+        int threadCount = 1;
+        Collection resourcesToValidate = iResources;
+        ValidationResultCache.Session cacheSession = null;
+        try {
+            // Replay the problems of the resources that did not change since they were last validated, unless the problems
+            // depend on the other resources being validated
+            final ValidationResultCache resultCache = (validateInContext ? null : ValidationResultCache.getDefault());
+            if (resultCache != null) {
+                cacheSession = resultCache.startSession(context, VALIDATORS, getModifiedPaths());
+                resourcesToValidate = cacheSession.replay(iResources, markerSink);
+                context.setData(ValidationResultCache.CONTEXT_KEY, cacheSession);
+            }
 
-        // get all validators and validate
-        for (final Iterator validateIter = VALIDATORS.iterator(); validateIter.hasNext();) {
-            final ResourceValidator validator = (ResourceValidator)validateIter.next();
-            validator.validationStarted(iResources, context);
-            try {
-                for (final Iterator rsourceIter = iResources.iterator(); rsourceIter.hasNext();) {
-                    final IResource resource = (IResource)rsourceIter.next();
-                    internalValidateResource(progresssMonitor, resource, validator, context, false);
+            if (resourcesToValidate.size() > 1 && ModelValidationScheduler.isParallelValidationEnabled()) {
+                // independent resources are validated concurrently; see ModelValidationScheduler
+                threadCount = ModelValidationScheduler.getConfiguredThreadCount();
+                new ModelValidationScheduler(threadCount).validateResources(progresssMonitor, resourcesToValidate, context, VALIDATORS);
+            } else if (!resourcesToValidate.isEmpty()) {
+                // get all validators and validate
+                for (final Iterator validateIter = VALIDATORS.iterator(); validateIter.hasNext();) {
+                    final ResourceValidator validator = (ResourceValidator)validateIter.next();
+                    validator.validationStarted(resourcesToValidate, context);
+                    try {
+                        for (final Iterator rsourceIter = resourcesToValidate.iterator(); rsourceIter.hasNext();) {
+                            final IResource resource = (IResource)rsourceIter.next();
+                            internalValidateResource(progresssMonitor, resource, validator, context, false);
+                        }
+                    } finally {
+                        validator.validationEnded(context);
+                    }
                 }
-            } finally {
-                validator.validationEnded(context);
+            }
+
+            // A canceled build may not have validated every resource
+            if (cacheSession != null && !progresssMonitor.isCanceled()) {
+                cacheSession.record(markerSink);
+            }
+        } finally {
+            context.setData(ValidationResultCache.CONTEXT_KEY, null);
+            context.setData(ProblemMarkerSink.CONTEXT_KEY, null);
+            applyMarkers(progresssMonitor, markerSink);
+        }
+        totalWatch.stop();
+        if (ModelerCore.DEBUG_PROJECT_BUILDER && !iResources.isEmpty()) {
+            final Object[] params = new Object[] {Integer.valueOf(resourcesToValidate.size()), Long.valueOf(totalWatch.getTotalDuration()),
+                Integer.valueOf(threadCount)};
+            ModelerCore.Util.log(IStatus.INFO, ModelerCore.Util.getString("ModelBuildUtil.DEBUG.Validated_{0}_resources_in_{1}_ms_using_{2}_threads", params)); //$NON-NLS-1$
+            if (cacheSession != null) {
+                final Object[] cacheParams = new Object[] {Integer.valueOf(cacheSession.getReplayedCount()), Integer.valueOf(iResources.size())};
+                ModelerCore.Util.log(IStatus.INFO, ModelerCore.Util.getString("ModelBuildUtil.DEBUG.Replayed_{0}_of_{1}_resources_from_validation_cache", cacheParams)); //$NON-NLS-1$
             }
         }
 
@@ -63,6 +63,9 @@ public class ModelBuilder extends IncrementalProjectBuilder implements Ignorable
         // Clean all indexes for project
         ModelWorkspaceManager.getModelWorkspaceManager().deleteIndexes(proj, visitor);
 
+        // Validate all resources within project again on the next build
+        ValidationResultCache.removeFromDefault(proj.getFullPath());
+
         // Set build state to not indexed on all resources within project
         for (final Iterator iter = visitor.getResources().iterator(); iter.hasNext();) {
             IResource model = (IResource)iter.next();
@@ -124,17 +127,8 @@ public class ModelBuilder extends IncrementalProjectBuilder implements Ignorable
 			public Object run( final UnitOfWork uow ) throws ModelerCoreException {
                 // build the resources (index and validate)
                 final Container container = doGetContainer();
-                List resources = visitor.getResources();
-
-                // clear all markers on these resources as we are going to create fresh markers
-                for (Object resource : resources) {
-                    try {
-                        ((IResource)resource).deleteMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE);
-                    } catch (CoreException e) {
-                        ModelerCore.Util.log(e);
-                    }
-                }
 
+                // the markers of these resources are replaced by those of the new problems once all are validated
                 ModelBuildUtil.buildResources(monitor, visitor.getResources(), container, false);
 
                 return null;
@@ -176,9 +170,8 @@ public class ModelBuilder extends IncrementalProjectBuilder implements Ignorable
 			public boolean visit( final IResourceDelta delta ) throws CoreException {
                 IResource resource = delta.getResource();
                 if (isIncludedResource(resource)) {
+                    // its markers are replaced by those of the new problems once it is validated
                     resources.add(resource);
-                    // clear all markers on this resource, as we are going to create fresh markets
-                    resource.deleteMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE);
                 }
                 return true;
             }
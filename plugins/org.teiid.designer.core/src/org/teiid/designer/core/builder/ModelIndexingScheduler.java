@@ -0,0 +1,380 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.index.ModelIndexer;
+import org.teiid.designer.core.index.ResourceIndexer;
+import org.teiid.designer.core.workspace.ModelImportGraph;
+import org.teiid.designer.core.workspace.ModelResource;
+import org.teiid.designer.core.workspace.ModelWorkspaceManager;
+
+/**
+ * Indexes a collection of resources using a bounded pool of worker threads.
+ * <p>
+ * EMF resources are not thread safe, so all loading happens on the calling thread while no worker runs: the resources of a batch
+ * are opened and their references are resolved, which also loads the resources they import, and only then are they handed to the
+ * workers, which only read them and never look them up in the model workspace.
+ * The resources are indexed in waves taken from the {@link ModelImportGraph}; a resource is only indexed after every resource it
+ * directly or indirectly imports, so no model is read by one worker while another one is indexing it. Each wave is split into
+ * batches of at most {@link #BATCH_SIZE} resources, far fewer than the model workspace keeps open, so that opening the models of
+ * a batch does not close the others. Each worker indexes a whole resource with every model indexer, and each indexer creates its
+ * own indexing context per resource.
+ * </p>
+ * <p>
+ * Only {@link ModelIndexer}s run on the workers. Other indexers, and resources that could not be opened or resolved up front or
+ * that were closed again before a worker got to them, are run on the calling thread once the workers are done.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ModelIndexingScheduler {
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, that turns on parallel indexing. Defaults to false.
+     */
+    public static final String PARALLEL_INDEXING_PREF_KEY = "ModelBuildUtil.parallelIndexing"; //$NON-NLS-1$
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, holding the maximum number of indexing threads. Zero or less
+     * means one thread per available processor.
+     */
+    public static final String INDEXING_THREADS_PREF_KEY = "ModelBuildUtil.indexingThreads"; //$NON-NLS-1$
+
+    /**
+     * The system property that, when set, overrides the {@link #PARALLEL_INDEXING_PREF_KEY parallel indexing preference}.
+     */
+    public static final String PARALLEL_INDEXING_PROPERTY = "org.teiid.designer.build.parallelIndexing"; //$NON-NLS-1$
+
+    /**
+     * The maximum number of resources opened, and then handed to the workers, together
+     */
+    static final int BATCH_SIZE = 100;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * @return true if resources should be indexed by {@link ModelIndexingScheduler} rather than one at a time
+     */
+    public static boolean isParallelIndexingEnabled() {
+        final String property = System.getProperty(PARALLEL_INDEXING_PROPERTY);
+        if (property != null) {
+            return Boolean.valueOf(property).booleanValue();
+        }
+        if (ModelerCore.getPlugin() == null) {
+            // non plugin environment
+            return false;
+        }
+        return ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getBoolean(PARALLEL_INDEXING_PREF_KEY, false);
+    }
+
+    /**
+     * @return the maximum number of indexing threads set by the preferences; always positive
+     */
+    public static int getConfiguredThreadCount() {
+        int threads = 0;
+        if (ModelerCore.getPlugin() != null) {
+            threads = ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getInt(INDEXING_THREADS_PREF_KEY, 0);
+        }
+        return (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Group items into waves such that every item comes in a later wave than all of its dependencies. Items of the same wave do
+     * not depend on each other. Items that depend on each other through a cycle are put in waves of their own, in the order of the
+     * supplied list; dependencies that are not in the list are ignored.
+     *
+     * @param items the items to group, in their preferred order; may not be null
+     * @param dependencies map of item to the items it depends on; items without dependencies may be missing
+     * @return the waves, each in the order of the supplied list; never null
+     */
+    static <T> List<List<T>> computeWaves( final List<T> items,
+                                           final Map<T, ? extends Collection<T>> dependencies ) {
+        final List<List<T>> waves = new ArrayList<List<T>>();
+        final Set<T> remaining = new LinkedHashSet<T>(items);
+        while (!remaining.isEmpty()) {
+            final List<T> wave = new ArrayList<T>();
+            for (final T item : remaining) {
+                if (!dependsOnAny(item, dependencies, remaining)) {
+                    wave.add(item);
+                }
+            }
+            if (wave.isEmpty()) {
+                // every remaining item is in, or waits on, an import cycle
+                wave.add(remaining.iterator().next());
+            }
+            remaining.removeAll(wave);
+            waves.add(wave);
+        }
+        return waves;
+    }
+
+    /**
+     * Split each wave into batches of at most the given size, keeping the order of the waves and of their items.
+     *
+     * @param waves the waves, as returned by {@link #computeWaves(List, Map)}; may not be null
+     * @param batchSize the maximum number of items in a batch; must be positive
+     * @return the batches; never null
+     */
+    static <T> List<List<T>> computeBatches( final List<List<T>> waves,
+                                             final int batchSize ) {
+        final List<List<T>> batches = new ArrayList<List<T>>();
+        for (final List<T> wave : waves) {
+            for (int start = 0; start < wave.size(); start += batchSize) {
+                batches.add(new ArrayList<T>(wave.subList(start, Math.min(start + batchSize, wave.size()))));
+            }
+        }
+        return batches;
+    }
+
+    private static <T> boolean dependsOnAny( final T item,
+                                             final Map<T, ? extends Collection<T>> dependencies,
+                                             final Set<T> candidates ) {
+        final Collection<T> itemDependencies = dependencies.get(item);
+        if (itemDependencies != null) {
+            for (final T dependency : itemDependencies) {
+                if (dependency != item && candidates.contains(dependency)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private final int threadCount;
+
+    /**
+     * Construct an instance of ModelIndexingScheduler.
+     *
+     * @param threadCount the maximum number of indexing threads; must be positive
+     */
+    public ModelIndexingScheduler( final int threadCount ) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Index the resources with every supplied indexer. Progress is reported, and cancellation checked, on the calling thread as
+     * each resource completes; the monitor is worked once per resource and indexer.
+     *
+     * @param monitor the progress monitor; may be null
+     * @param resources the IResources to index; may not be null
+     * @param indexers the {@link ResourceIndexer}s to run, in order; may not be null
+     */
+    public void indexResources( IProgressMonitor monitor,
+                                final Collection resources,
+                                final Collection indexers ) {
+        monitor = monitor != null ? monitor : new NullProgressMonitor();
+        final List<IResource> ordered = new ArrayList<IResource>(resources);
+        final List<List<IResource>> waves = computeWaves(ordered, getDependencies(ordered));
+
+        final List<ModelIndexer> concurrentIndexers = new ArrayList<ModelIndexer>();
+        for (final Iterator iter = indexers.iterator(); iter.hasNext();) {
+            final Object indexer = iter.next();
+            if (indexer instanceof ModelIndexer) {
+                concurrentIndexers.add((ModelIndexer)indexer);
+            }
+        }
+
+        final AtomicBoolean canceled = new AtomicBoolean();
+        final Set<IResource> serialResources = new HashSet<IResource>();
+        final ExecutorService executor = createExecutor("Model Indexer", Math.min(this.threadCount, ordered.size())); //$NON-NLS-1$
+        try {
+            for (final List<IResource> batch : computeBatches(waves, BATCH_SIZE)) {
+                // Load the batch on this thread, in dependency order, while no worker runs
+                final List<IndexingTask> tasks = new ArrayList<IndexingTask>(batch.size());
+                for (final IResource resource : batch) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                    final IndexingTask task = prepare(resource, concurrentIndexers, canceled);
+                    if (task != null) {
+                        tasks.add(task);
+                    } else {
+                        serialResources.add(resource);
+                    }
+                }
+
+                final CompletionService<IndexingTask> completionService = new ExecutorCompletionService<IndexingTask>(executor);
+                for (final IndexingTask task : tasks) {
+                    completionService.submit(task);
+                }
+                // wait for the whole batch even when canceled, since the next one may read these models
+                for (int i = 0; i < tasks.size(); ++i) {
+                    final IndexingTask task = completionService.take().get();
+                    if (task.isIndexed()) {
+                        monitor.setTaskName(ModelerCore.Util.getString("ModelBuilder.Indexing_Resource___1") + task.resource.getFullPath()); //$NON-NLS-1$
+                        monitor.worked(concurrentIndexers.size());
+                    } else {
+                        // closed before it could be indexed
+                        serialResources.add(task.resource);
+                    }
+                    if (monitor.isCanceled()) {
+                        canceled.set(true);
+                    }
+                }
+                if (canceled.get()) {
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            canceled.set(true);
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final ExecutionException e) {
+            // indexing errors are logged by the task, so this is unexpected
+            canceled.set(true);
+            ModelerCore.Util.log(e.getCause());
+            return;
+        } finally {
+            executor.shutdown();
+        }
+
+        for (final IResource resource : ordered) {
+            final boolean serial = serialResources.contains(resource);
+            for (final Iterator iter = indexers.iterator(); iter.hasNext();) {
+                final ResourceIndexer indexer = (ResourceIndexer)iter.next();
+                if (serial || !(indexer instanceof ModelIndexer)) {
+                    ModelBuildUtil.indexResource(monitor, resource, indexer);
+                    monitor.worked(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Map each resource to the supplied resources it directly or indirectly imports, according to the {@link ModelImportGraph}.
+     */
+    static Map<IResource, Collection<IResource>> getDependencies( final List<IResource> resources ) {
+        final Map<IPath, IResource> resourcesByPath = new HashMap<IPath, IResource>();
+        for (final IResource resource : resources) {
+            resourcesByPath.put(resource.getFullPath(), resource);
+        }
+
+        final ModelImportGraph graph = ModelWorkspaceManager.getModelWorkspaceManager().getImportGraph();
+        final Map<IResource, Collection<IResource>> dependencies = new HashMap<IResource, Collection<IResource>>();
+        for (final IResource resource : resources) {
+            final Collection<IResource> imported = new ArrayList<IResource>();
+            for (final IPath path : graph.getImportsRecursive(resource.getFullPath())) {
+                final IResource importedResource = resourcesByPath.get(path);
+                if (importedResource != null) {
+                    imported.add(importedResource);
+                }
+            }
+            dependencies.put(resource, imported);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Open the model and resolve all of its references, so the indexers never load anything.
+     *
+     * @return the task indexing the opened model, or null if the resource should be indexed on the calling thread
+     */
+    private IndexingTask prepare( final IResource resource,
+                                  final List<ModelIndexer> indexers,
+                                  final AtomicBoolean canceled ) {
+        try {
+            final ModelResource modelResource = ModelerCore.getModelWorkspace().findModelResource(resource);
+            Resource emfResource = null;
+            if (modelResource != null) {
+                emfResource = modelResource.getEmfResource();
+                if (emfResource != null) {
+                    EcoreUtil.resolveAll(emfResource);
+                }
+            }
+            return new IndexingTask(resource, modelResource, emfResource, indexers, canceled);
+        } catch (final Throwable e) {
+            // indexing it on the calling thread will report the problem
+            return null;
+        }
+    }
+
+    private static class IndexingTask implements Callable<IndexingTask> {
+        final IResource resource;
+        private final ModelResource modelResource;
+        private final Resource emfResource;
+        private final List<ModelIndexer> indexers;
+        private final AtomicBoolean canceled;
+        private volatile boolean indexed;
+
+        IndexingTask( final IResource resource,
+                      final ModelResource modelResource,
+                      final Resource emfResource,
+                      final List<ModelIndexer> indexers,
+                      final AtomicBoolean canceled ) {
+            this.resource = resource;
+            this.modelResource = modelResource;
+            this.emfResource = emfResource;
+            this.indexers = indexers;
+            this.canceled = canceled;
+        }
+
+        @Override
+        public IndexingTask call() {
+            if (this.emfResource != null && !this.emfResource.isLoaded()) {
+                // the model was closed to make room for others, so indexing it would write an empty index
+                return this;
+            }
+            for (final Iterator<ModelIndexer> iter = this.indexers.iterator(); iter.hasNext() && !this.canceled.get();) {
+                ModelBuildUtil.indexResource(this.resource, this.modelResource, this.emfResource, iter.next());
+            }
+            this.indexed = true;
+            return this;
+        }
+
+        /**
+         * @return true if the model was indexed, or false if it was no longer loaded and should be indexed on the calling thread
+         */
+        boolean isIndexed() {
+            return this.indexed;
+        }
+    }
+
+    /**
+     * Create a fixed pool of daemon threads.
+     *
+     * @param threadName the prefix of the thread names
+     * @param threadCount the number of threads; at least one thread is created
+     * @return the executor; never null
+     */
+    static ExecutorService createExecutor( final String threadName,
+                                           final int threadCount ) {
+        return Executors.newFixedThreadPool(Math.max(1, threadCount), new ThreadFactory() {
+            @Override
+            public Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread(runnable, threadName + ' ' + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.teiid.core.designer.ModelerCoreException;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.resource.EmfResource;
+import org.teiid.designer.core.validation.ValidationContext;
+import org.teiid.designer.core.validation.ValidationResult;
+import org.teiid.designer.core.workspace.ModelImportGraph;
+
+/**
+ * Validates a collection of resources using a bounded pool of worker threads.
+ * <p>
+ * Only {@link ConcurrentResourceValidator}s are run on the workers; every other validator runs one resource at a time on the
+ * calling thread, as before. As with {@link ModelIndexingScheduler}, the resources are validated in waves taken from the
+ * {@link ModelImportGraph}, so no model is validated while a model it imports is still being validated, and each wave is split
+ * into batches whose models are loaded and resolved on the calling thread just before the workers validate them.
+ * </p>
+ * <p>
+ * Each worker thread validates into its own copy of the {@link ValidationContext}, made by {@link ValidationContext#copySettings()},
+ * so the rules never share results or cached state across threads. The results of each resource are handed back to the calling
+ * thread, which turns them into markers in the original resource order once the validator is done.
+ * </p>
+ * <p>
+ * Resources that are duplicates, that are not XMI models, that could not be loaded up front, or that were closed again before a
+ * worker got to them are validated on the calling thread.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ModelValidationScheduler {
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, that turns on parallel validation. Defaults to false.
+     */
+    public static final String PARALLEL_VALIDATION_PREF_KEY = "ModelBuildUtil.parallelValidation"; //$NON-NLS-1$
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, holding the maximum number of validation threads. Zero or less
+     * means one thread per available processor.
+     */
+    public static final String VALIDATION_THREADS_PREF_KEY = "ModelBuildUtil.validationThreads"; //$NON-NLS-1$
+
+    /**
+     * The system property that, when set, overrides the {@link #PARALLEL_VALIDATION_PREF_KEY parallel validation preference}.
+     */
+    public static final String PARALLEL_VALIDATION_PROPERTY = "org.teiid.designer.build.parallelValidation"; //$NON-NLS-1$
+
+    /**
+     * @return true if resources should be validated by {@link ModelValidationScheduler} rather than one at a time
+     */
+    public static boolean isParallelValidationEnabled() {
+        final String property = System.getProperty(PARALLEL_VALIDATION_PROPERTY);
+        if (property != null) {
+            return Boolean.valueOf(property).booleanValue();
+        }
+        if (ModelerCore.getPlugin() == null) {
+            // non plugin environment
+            return false;
+        }
+        return ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getBoolean(PARALLEL_VALIDATION_PREF_KEY, false);
+    }
+
+    /**
+     * @return the maximum number of validation threads set by the preferences; always positive
+     */
+    public static int getConfiguredThreadCount() {
+        int threads = 0;
+        if (ModelerCore.getPlugin() != null) {
+            threads = ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getInt(VALIDATION_THREADS_PREF_KEY, 0);
+        }
+        return (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    private final int threadCount;
+
+    /**
+     * Construct an instance of ModelValidationScheduler.
+     *
+     * @param threadCount the maximum number of validation threads; must be positive
+     */
+    public ModelValidationScheduler( final int threadCount ) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Validate the resources with every supplied validator, letting each validator add the markers of the resources once it is
+     * done with them; with a {@link ProblemMarkerSink} in the context, the existing markers are replaced when the sink is applied.
+     * Progress is reported, and cancellation checked, on the calling thread.
+     *
+     * @param monitor the progress monitor; may be null
+     * @param iResources the IResources to validate; may not be null
+     * @param context the validation context; its settings are copied for each worker thread
+     * @param validators the {@link ResourceValidator}s to run, in order; may not be null
+     */
+    public void validateResources( IProgressMonitor monitor,
+                                   final Collection iResources,
+                                   final ValidationContext context,
+                                   final Collection validators ) {
+        monitor = monitor != null ? monitor : new NullProgressMonitor();
+        final List<IResource> ordered = new ArrayList<IResource>(iResources);
+        final List<List<IResource>> waves = ModelIndexingScheduler.computeWaves(ordered, getDependencies(ordered));
+
+        final List<List<IResource>> batches = ModelIndexingScheduler.computeBatches(waves, ModelIndexingScheduler.BATCH_SIZE);
+
+        final ThreadLocal<ValidationContext> workerContexts = new ThreadLocal<ValidationContext>() {
+            @Override
+            protected ValidationContext initialValue() {
+                return context.copySettings();
+            }
+        };
+        final ExecutorService executor = ModelIndexingScheduler.createExecutor("Model Validator", Math.min(this.threadCount, ordered.size())); //$NON-NLS-1$
+        try {
+            for (final Iterator validateIter = validators.iterator(); validateIter.hasNext();) {
+                final ResourceValidator validator = (ResourceValidator)validateIter.next();
+                validator.validationStarted(iResources, context);
+                try {
+                    final Map<IResource, List> results = new HashMap<IResource, List>();
+                    final Set<IResource> serialResources = new HashSet<IResource>();
+                    if (validator instanceof ConcurrentResourceValidator) {
+                        validateConcurrently(monitor, batches, validator, executor, workerContexts, results, serialResources);
+                    }
+
+                    // Add the markers on this thread, and validate what the workers could not
+                    for (final IResource resource : ordered) {
+                        if (results.containsKey(resource)) {
+                            addMarkers(validator, context, resource, results.get(resource));
+                        } else if (serialResources.contains(resource) || !(validator instanceof ConcurrentResourceValidator)) {
+                            validateSerially(monitor, resource, validator, context);
+                        } else if (validator.isValidatorForObject(resource)) {
+                            // the validation failed or was canceled
+                            excludeFromCache(context, resource);
+                        }
+                    }
+                } finally {
+                    validator.validationEnded(context);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Run the validator on the workers, batch after batch. The models of each batch are loaded on this thread while no worker
+     * runs. Resources that were canceled or whose validation failed are in neither of the supplied collections.
+     *
+     * @param results the map to put the results the validator produced for each resource in
+     * @param serialResources the set to add the resources to that should be validated on the calling thread
+     */
+    private void validateConcurrently( final IProgressMonitor monitor,
+                                       final List<List<IResource>> batches,
+                                       final ResourceValidator validator,
+                                       final ExecutorService executor,
+                                       final ThreadLocal<ValidationContext> workerContexts,
+                                       final Map<IResource, List> results,
+                                       final Set<IResource> serialResources ) {
+        final AtomicBoolean canceled = new AtomicBoolean();
+        try {
+            for (final List<IResource> batch : batches) {
+                final List<ValidationTask> tasks = new ArrayList<ValidationTask>(batch.size());
+                for (final IResource resource : batch) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                    final EmfResource emfResource = prepare(resource);
+                    if (emfResource == null) {
+                        serialResources.add(resource);
+                    } else if (validator.isValidatorForObject(resource)) {
+                        tasks.add(new ValidationTask(resource, emfResource, validator, workerContexts, canceled));
+                    }
+                }
+                // resolve before any worker reads the models
+                for (final ValidationTask task : tasks) {
+                    EcoreUtil.resolveAll(task.emfResource);
+                }
+
+                final CompletionService<ValidationOutcome> completionService = new ExecutorCompletionService<ValidationOutcome>(executor);
+                for (final ValidationTask task : tasks) {
+                    completionService.submit(task);
+                }
+                // wait for the whole batch even when canceled, since the next one may read these models
+                for (int i = 0; i < tasks.size(); ++i) {
+                    final ValidationOutcome outcome = completionService.take().get();
+                    monitor.setTaskName(ModelBuildUtil.MONITOR_RESOURCE_VALIDATION_MSG + outcome.resource.getFullPath());
+                    if (outcome.unloaded) {
+                        serialResources.add(outcome.resource);
+                    } else if (outcome.results != null) {
+                        results.put(outcome.resource, outcome.results);
+                    }
+                    if (monitor.isCanceled()) {
+                        canceled.set(true);
+                    }
+                }
+                if (canceled.get()) {
+                    break;
+                }
+            }
+        } catch (final InterruptedException e) {
+            canceled.set(true);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            // validation errors are logged by the task, so this is unexpected
+            canceled.set(true);
+            ModelerCore.Util.log(e.getCause());
+        }
+    }
+
+    /**
+     * Map each resource to the supplied resources it directly or indirectly imports.
+     */
+    protected Map<IResource, Collection<IResource>> getDependencies( final List<IResource> resources ) {
+        return ModelIndexingScheduler.getDependencies(resources);
+    }
+
+    /**
+     * Open the model the validator will be given.
+     *
+     * @return the loaded XMI resource, or null if the resource should be validated on the calling thread
+     */
+    protected EmfResource prepare( final IResource resource ) {
+        if (ModelBuildUtil.getDuplicateOfModel(resource) != null) {
+            return null;
+        }
+        try {
+            final Object objToValidate = ModelBuildUtil.getObjectToValidate(resource);
+            if (objToValidate instanceof EmfResource && ((Resource)objToValidate).isLoaded()) {
+                return (EmfResource)objToValidate;
+            }
+        } catch (final Throwable e) {
+            // validating it on the calling thread will report the problem
+        }
+        return null;
+    }
+
+    /**
+     * Validate one resource on the calling thread, adding its markers.
+     */
+    protected void validateSerially( final IProgressMonitor monitor,
+                                     final IResource resource,
+                                     final ResourceValidator validator,
+                                     final ValidationContext context ) {
+        ModelBuildUtil.internalValidateResource(monitor, resource, validator, context, false);
+    }
+
+    /**
+     * Keep the problems of a resource that was not validated out of the validation result cache.
+     */
+    protected void excludeFromCache( final ValidationContext context,
+                                     final IResource resource ) {
+        ModelBuildUtil.excludeFromCache(context, resource);
+    }
+
+    /**
+     * Put the results of one resource into the shared context and let the validator turn them into markers.
+     */
+    private static void addMarkers( final ResourceValidator validator,
+                                    final ValidationContext context,
+                                    final IResource resource,
+                                    final List results ) {
+        context.clearResults();
+        for (final Iterator iter = results.iterator(); iter.hasNext();) {
+            context.addResult((ValidationResult)iter.next());
+        }
+        try {
+            validator.addMarkers(context, resource);
+        } catch (final ModelerCoreException e) {
+            ModelerCore.Util.log(e);
+        } finally {
+            context.clearResults();
+        }
+    }
+
+    private static class ValidationOutcome {
+        final IResource resource;
+        final List results;
+        final boolean unloaded;
+
+        ValidationOutcome( final IResource resource,
+                           final List results ) {
+            this(resource, results, false);
+        }
+
+        ValidationOutcome( final IResource resource,
+                           final List results,
+                           final boolean unloaded ) {
+            this.resource = resource;
+            this.results = results;
+            this.unloaded = unloaded;
+        }
+    }
+
+    private static class ValidationTask implements Callable<ValidationOutcome> {
+        private final IResource resource;
+        final EmfResource emfResource;
+        private final ResourceValidator validator;
+        private final ThreadLocal<ValidationContext> workerContexts;
+        private final AtomicBoolean canceled;
+
+        ValidationTask( final IResource resource,
+                        final EmfResource emfResource,
+                        final ResourceValidator validator,
+                        final ThreadLocal<ValidationContext> workerContexts,
+                        final AtomicBoolean canceled ) {
+            this.resource = resource;
+            this.emfResource = emfResource;
+            this.validator = validator;
+            this.workerContexts = workerContexts;
+            this.canceled = canceled;
+        }
+
+        @Override
+        public ValidationOutcome call() {
+            if (this.canceled.get()) {
+                return new ValidationOutcome(this.resource, null);
+            }
+            if (!this.emfResource.isLoaded()) {
+                // the model was closed to make room for others, so it would seem to have no problems
+                return new ValidationOutcome(this.resource, null, true);
+            }
+            final ValidationContext context = this.workerContexts.get();
+            context.clearResults();
+            try {
+                // the progress monitor belongs to the calling thread
+                this.validator.validate(new CancelMonitor(this.canceled), this.emfResource, context);
+                final List results = context.getValidationResults();
+                return new ValidationOutcome(this.resource, results == null ? new ArrayList() : new ArrayList(results));
+            } catch (final ModelerCoreException e) {
+                ModelerCore.Util.log(e);
+                return new ValidationOutcome(this.resource, null);
+            } finally {
+                context.clearResults();
+            }
+        }
+    }
+
+    /**
+     * A monitor that lets a worker see when the build was canceled.
+     */
+    private static class CancelMonitor extends NullProgressMonitor {
+        private final AtomicBoolean canceled;
+
+        CancelMonitor( final AtomicBoolean canceled ) {
+            this.canceled = canceled;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return this.canceled.get();
+        }
+
+        @Override
+        public void setCanceled( final boolean value ) {
+            if (value) {
+                this.canceled.set(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.validation.ValidationContext;
+import org.teiid.designer.core.validation.ValidationProblem;
+
+/**
+ * Collects the problem markers of validated resources and applies them to the workspace in one operation.
+ * <p>
+ * The problems of a resource whose markers are {@link #replaceMarkers(IResource) replaced} are compared with its existing
+ * {@link IMarker#PROBLEM} markers: markers with the same attributes as a problem are kept, only the new problems are created,
+ * and the markers of problems that went away are deleted. The problems of other resources are added as new markers. All the
+ * changes are made by one {@link IWorkspaceRunnable}, so the workspace reports a single resource delta for them. Resources that
+ * no longer exist are skipped, and the markers of a resource that cannot be changed are logged without keeping the markers of
+ * the other resources from being changed.
+ * </p>
+ * <p>
+ * During a build the sink is kept in the {@link ValidationContext} under {@link #CONTEXT_KEY}, where the
+ * {@link ResourceValidator}s find it when adding their markers.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ProblemMarkerSink {
+
+    /**
+     * The key of the sink in the {@link ValidationContext#getData(String) data} of a validation context
+     */
+    public static final String CONTEXT_KEY = ProblemMarkerSink.class.getName();
+
+    /**
+     * The attributes of a problem marker, in the order in which they are compared
+     */
+    static final String[] ATTRIBUTE_NAMES = new String[] {IMarker.SEVERITY, IMarker.LOCATION, ModelerCore.MARKER_URI_PROPERTY,
+        ModelerCore.TARGET_MARKER_URI_PROPERTY, IMarker.MESSAGE};
+
+    /**
+     * Return the sink of the supplied validation context.
+     *
+     * @param context the validation context; may be null
+     * @return the sink, or null if the markers of the context's results should be applied right away
+     */
+    public static ProblemMarkerSink getSink( final ValidationContext context ) {
+        return (context == null ? null : (ProblemMarkerSink)context.getData(CONTEXT_KEY));
+    }
+
+    /**
+     * Return the marker severity of a validation problem.
+     *
+     * @param severity the {@link IStatus} severity of the problem
+     * @return the {@link IMarker#SEVERITY} of its marker, or null if the marker should have no severity
+     */
+    public static Integer getMarkerSeverity( final int severity ) {
+        switch (severity) {
+            case IStatus.ERROR:
+                return Integer.valueOf(IMarker.SEVERITY_ERROR);
+            case IStatus.WARNING:
+                return Integer.valueOf(IMarker.SEVERITY_WARNING);
+            case IStatus.INFO:
+                return Integer.valueOf(IMarker.SEVERITY_INFO);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The attribute values of the problems of each resource, in the order they were added
+     */
+    private final Map<IResource, List<List<Object>>> problemsByResource;
+
+    /**
+     * The resources whose existing problem markers are replaced
+     */
+    private final Set<IResource> replacedResources;
+
+    private int createdCount;
+    private int deletedCount;
+    private int keptCount;
+
+    /**
+     * Construct an instance of ProblemMarkerSink.
+     */
+    public ProblemMarkerSink() {
+        this.problemsByResource = new LinkedHashMap<IResource, List<List<Object>>>();
+        this.replacedResources = new LinkedHashSet<IResource>();
+    }
+
+    /**
+     * Replace the existing problem markers of the resource, and of its members, with the problems added for it.
+     *
+     * @param resource the resource; may not be null
+     */
+    public synchronized void replaceMarkers( final IResource resource ) {
+        CoreArgCheck.isNotNull(resource);
+        this.replacedResources.add(resource);
+    }
+
+    /**
+     * Replace the existing problem markers of each of the resources with the problems added for it.
+     *
+     * @param resources the {@link IResource}s; may not be null
+     */
+    public synchronized void replaceMarkers( final Collection resources ) {
+        CoreArgCheck.isNotNull(resources);
+        for (final Iterator iter = resources.iterator(); iter.hasNext();) {
+            replaceMarkers((IResource)iter.next());
+        }
+    }
+
+    /**
+     * Add a marker for a validation problem.
+     *
+     * @param resource the resource the marker is created on; may not be null
+     * @param locationPath the location of the problem
+     * @param locationUri the URI of the object with the problem
+     * @param targetUri the URI of the target of the object with the problem
+     * @param problem the problem; may not be null
+     */
+    public void addProblem( final IResource resource,
+                            final String locationPath,
+                            final String locationUri,
+                            final String targetUri,
+                            final ValidationProblem problem ) {
+        addProblem(resource, getMarkerSeverity(problem.getSeverity()), locationPath, locationUri, targetUri, problem.getMessage());
+    }
+
+    /**
+     * Add a problem marker with the supplied attributes.
+     *
+     * @param resource the resource the marker is created on; may not be null
+     * @param severity the {@link IMarker#SEVERITY}, or null for none
+     * @param location the {@link IMarker#LOCATION}
+     * @param locationUri the {@link ModelerCore#MARKER_URI_PROPERTY}
+     * @param targetUri the {@link ModelerCore#TARGET_MARKER_URI_PROPERTY}
+     * @param message the {@link IMarker#MESSAGE}
+     */
+    public synchronized void addProblem( final IResource resource,
+                                         final Integer severity,
+                                         final Object location,
+                                         final String locationUri,
+                                         final String targetUri,
+                                         final String message ) {
+        CoreArgCheck.isNotNull(resource);
+        List<List<Object>> problems = this.problemsByResource.get(resource);
+        if (problems == null) {
+            problems = new ArrayList<List<Object>>();
+            this.problemsByResource.put(resource, problems);
+        }
+        problems.add(Arrays.asList(new Object[] {severity, location, locationUri, targetUri, message}));
+    }
+
+    /**
+     * Return the attribute values, in {@link #ATTRIBUTE_NAMES} order, of the problems added for the resource so far.
+     *
+     * @param resource the resource; may not be null
+     * @return the problems in the order they were added; never null
+     */
+    synchronized List<List<Object>> getProblems( final IResource resource ) {
+        final List<List<Object>> problems = this.problemsByResource.get(resource);
+        return (problems == null ? new ArrayList<List<Object>>(0) : new ArrayList<List<Object>>(problems));
+    }
+
+    /**
+     * Make the marker changes for all the collected problems in one workspace operation, and empty the sink.
+     *
+     * @param monitor the progress monitor; may be null
+     * @throws CoreException if the markers could not be changed
+     */
+    public void apply( final IProgressMonitor monitor ) throws CoreException {
+        final Map<IResource, List<List<Object>>> problems;
+        final Set<IResource> replaced;
+        synchronized (this) {
+            problems = new LinkedHashMap<IResource, List<List<Object>>>(this.problemsByResource);
+            replaced = new LinkedHashSet<IResource>(this.replacedResources);
+            this.problemsByResource.clear();
+            this.replacedResources.clear();
+        }
+        final Set<IResource> resources = new LinkedHashSet<IResource>(replaced);
+        resources.addAll(problems.keySet());
+        if (resources.isEmpty()) {
+            return;
+        }
+
+        final IWorkspaceRunnable op = new IWorkspaceRunnable() {
+            @Override
+            public void run( final IProgressMonitor progressMonitor ) throws CoreException {
+                for (final IResource resource : resources) {
+                    if (!resource.exists()) {
+                        // defect 16537 - a deleted resource has no markers
+                        continue;
+                    }
+                    List<List<Object>> resourceProblems = problems.get(resource);
+                    if (resourceProblems == null) {
+                        resourceProblems = new ArrayList<List<Object>>(0);
+                    }
+                    try {
+                        if (replaced.contains(resource)) {
+                            replaceMarkers(resource, resourceProblems);
+                        } else {
+                            createMarkers(resource, resourceProblems);
+                        }
+                    } catch (final CoreException e) {
+                        ModelerCore.Util.log(e);
+                    }
+                }
+            }
+        };
+        final IWorkspace workspace = resources.iterator().next().getWorkspace();
+        workspace.run(op, null, IWorkspace.AVOID_UPDATE, (monitor != null ? monitor : new NullProgressMonitor()));
+    }
+
+    /**
+     * @return the number of markers created by this sink
+     */
+    public int getCreatedCount() {
+        return this.createdCount;
+    }
+
+    /**
+     * @return the number of markers deleted by this sink
+     */
+    public int getDeletedCount() {
+        return this.deletedCount;
+    }
+
+    /**
+     * @return the number of existing markers kept by this sink because their problem was found again
+     */
+    public int getKeptCount() {
+        return this.keptCount;
+    }
+
+    /**
+     * Diff the problems against the existing markers of the resource, creating and deleting only what changed.
+     */
+    void replaceMarkers( final IResource resource,
+                         final List<List<Object>> problems ) throws CoreException {
+        if (!resource.exists()) {
+            // defect 16537 - a deleted resource has no markers to replace
+            return;
+        }
+
+        // Index the existing markers of the resource itself by their attributes ...
+        final IMarker[] existing = resource.findMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE);
+        final Map<List<Object>, List<IMarker>> markersByProblem = new HashMap<List<Object>, List<IMarker>>();
+        final List<IMarker> obsolete = new ArrayList<IMarker>();
+        for (int i = 0; i < existing.length; ++i) {
+            if (!resource.equals(existing[i].getResource())) {
+                // markers of members of the resource are always replaced
+                obsolete.add(existing[i]);
+                continue;
+            }
+            final List<Object> problem = Arrays.asList(existing[i].getAttributes(ATTRIBUTE_NAMES));
+            List<IMarker> markers = markersByProblem.get(problem);
+            if (markers == null) {
+                markers = new ArrayList<IMarker>(1);
+                markersByProblem.put(problem, markers);
+            }
+            markers.add(existing[i]);
+        }
+
+        // ... keep one for each problem found again ...
+        final List<List<Object>> added = new ArrayList<List<Object>>();
+        for (final List<Object> problem : problems) {
+            final List<IMarker> markers = markersByProblem.get(problem);
+            if (markers != null && !markers.isEmpty()) {
+                markers.remove(markers.size() - 1);
+                ++this.keptCount;
+            } else {
+                added.add(problem);
+            }
+        }
+
+        // ... and delete the rest before creating the new ones
+        for (final List<IMarker> markers : markersByProblem.values()) {
+            obsolete.addAll(markers);
+        }
+        if (!obsolete.isEmpty()) {
+            resource.getWorkspace().deleteMarkers(obsolete.toArray(new IMarker[obsolete.size()]));
+            this.deletedCount += obsolete.size();
+        }
+        createMarkers(resource, added);
+    }
+
+    private void createMarkers( final IResource resource,
+                                final List<List<Object>> problems ) throws CoreException {
+        for (final List<Object> problem : problems) {
+            final IMarker marker = resource.createMarker(IMarker.PROBLEM);
+            marker.setAttributes(ATTRIBUTE_NAMES, problem.toArray());
+            ++this.createdCount;
+        }
+    }
+}
@@ -0,0 +1,696 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.teiid.core.designer.util.ChecksumUtil;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.validation.ValidationContext;
+import org.teiid.designer.core.workspace.ModelWorkspaceManager;
+
+/**
+ * A persistent cache of the validation problems of workspace resources, so that a build can replay the problems of a resource
+ * that has not changed since it was last validated instead of validating it again.
+ * <p>
+ * The problems of a resource are recorded with its fingerprint: the length and checksum of the resource's file and of every file
+ * it directly or indirectly imports, according to the {@link org.teiid.designer.core.workspace.ModelImportGraph}. The cache as a
+ * whole is bound to a configuration made of the {@link ResourceValidator}s and the validation preferences in effect; when a build
+ * starts with a different configuration, or the cache was written by a different version of the product, every entry is
+ * discarded.
+ * </p>
+ * <p>
+ * Only problems a resource's fingerprint accounts for can be replayed, so results are not recorded for resources with errors,
+ * which are often about models outside of the imports (missing or duplicate models, for example), nor for resources whose own
+ * model, or an imported one, has unsaved changes. Since the import graph only covers model projects, results are not recorded
+ * either for resources that are, or import a file that is, unknown to the graph. Cleaning a project discards the entries of its
+ * resources.
+ * </p>
+ * <p>
+ * During a build the {@link Session} is kept in the {@link ValidationContext} under {@link #CONTEXT_KEY}. The cache is written to
+ * {@link #CACHE_FILE_NAME} in the {@link ModelerCore} state location when the plugin stops.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ValidationResultCache {
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, that turns on the validation result cache. Defaults to false.
+     */
+    public static final String VALIDATION_CACHE_PREF_KEY = "ModelBuildUtil.validationCache"; //$NON-NLS-1$
+
+    /**
+     * The system property that, when set, overrides the {@link #VALIDATION_CACHE_PREF_KEY validation cache preference}.
+     */
+    public static final String VALIDATION_CACHE_PROPERTY = "org.teiid.designer.build.validationCache"; //$NON-NLS-1$
+
+    /**
+     * The name of the file, in the {@link ModelerCore} state location, holding the cache.
+     */
+    public static final String CACHE_FILE_NAME = "validationResults.dat"; //$NON-NLS-1$
+
+    /**
+     * The key of the build's {@link Session} in the {@link ValidationContext#getData(String) data} of a validation context
+     */
+    public static final String CONTEXT_KEY = ValidationResultCache.class.getName();
+
+    /**
+     * The checksum recorded for a file that does not exist or is not accessible
+     */
+    static final long NO_FILE = -1L;
+
+    /**
+     * The longest string in a problem that is recorded; it must fit in the modified UTF-8 of {@link DataOutputStream#writeUTF}
+     */
+    private static final int MAX_STRING_LENGTH = 16 * 1024;
+
+    private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+    private static final int CACHE_SIGNATURE = 0x4D585652;
+    private static final int CACHE_FORMAT_VERSION = 1;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte INTEGER_VALUE = 1;
+    private static final byte STRING_VALUE = 2;
+
+    private static ValidationResultCache defaultCache;
+
+    /**
+     * @return true if builds should replay the problems of unchanged resources from the {@link #getDefault() default cache}
+     */
+    public static boolean isCacheEnabled() {
+        final String property = System.getProperty(VALIDATION_CACHE_PROPERTY);
+        if (property != null) {
+            return Boolean.valueOf(property).booleanValue();
+        }
+        if (ModelerCore.getPlugin() == null) {
+            // non plugin environment
+            return false;
+        }
+        return ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getBoolean(VALIDATION_CACHE_PREF_KEY, false);
+    }
+
+    /**
+     * @return the cache in the {@link ModelerCore} state location, or null if the cache is not {@link #isCacheEnabled() enabled}
+     *         or there is no state location
+     */
+    public static synchronized ValidationResultCache getDefault() {
+        if (!isCacheEnabled() || ModelerCore.getPlugin() == null) {
+            return null;
+        }
+        if (defaultCache == null) {
+            defaultCache = new ValidationResultCache(ModelerCore.getPlugin().getStateLocation().append(CACHE_FILE_NAME).toFile());
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Write the default cache to its store file, if it was used during this session.
+     */
+    public static synchronized void saveDefault() {
+        if (defaultCache != null) {
+            defaultCache.save();
+        }
+    }
+
+    /**
+     * Discard the entries of the resources in the project from the default cache, if it was used during this session or is
+     * {@link #isCacheEnabled() enabled}.
+     *
+     * @param projectPath the workspace path of the project; may not be null
+     */
+    public static synchronized void removeFromDefault( final IPath projectPath ) {
+        final ValidationResultCache cache = (defaultCache != null ? defaultCache : getDefault());
+        if (cache != null) {
+            cache.removeAll(projectPath);
+        }
+    }
+
+    /** Map of resource path to its fingerprint and problems */
+    private final Map<IPath, Entry> entries = new HashMap<IPath, Entry>();
+
+    private final File storeFile;
+    private final String version;
+
+    /** The validators and preferences the entries were recorded with */
+    private List<String> configuration = Collections.emptyList();
+
+    private boolean initialized;
+    private boolean dirty;
+
+    /**
+     * Construct an instance of ValidationResultCache.
+     *
+     * @param storeFile the file in which the cache is persisted between sessions; may be null if the cache is not persisted
+     */
+    public ValidationResultCache( final File storeFile ) {
+        this(storeFile, ModelerCore.ILicense.VERSION);
+    }
+
+    /**
+     * Construct an instance of ValidationResultCache.
+     *
+     * @param storeFile the file in which the cache is persisted between sessions; may be null if the cache is not persisted
+     * @param version the product version; a store file written by another version is ignored
+     */
+    ValidationResultCache( final File storeFile,
+                           final String version ) {
+        this.storeFile = storeFile;
+        this.version = (version == null ? "" : version); //$NON-NLS-1$
+    }
+
+    /**
+     * Start using the cache for a build. If the validators or validation preferences differ from those the entries were recorded
+     * with, all the entries are discarded.
+     *
+     * @param context the validation context of the build; may not be null
+     * @param validators the {@link ResourceValidator}s of the build; may not be null
+     * @param modifiedPaths the workspace paths of the models with unsaved changes; may not be null
+     * @return the session of the build; never null
+     */
+    public synchronized Session startSession( final ValidationContext context,
+                                              final Collection validators,
+                                              final Collection<IPath> modifiedPaths ) {
+        CoreArgCheck.isNotNull(context);
+        CoreArgCheck.isNotNull(validators);
+        CoreArgCheck.isNotNull(modifiedPaths);
+        ensureLoaded();
+        final List<String> newConfiguration = getConfiguration(context, validators);
+        if (!newConfiguration.equals(this.configuration)) {
+            this.entries.clear();
+            this.configuration = newConfiguration;
+            this.dirty = true;
+        }
+        return new Session(modifiedPaths);
+    }
+
+    /**
+     * Discard the entry of a resource.
+     *
+     * @param path the workspace path of the resource; may not be null
+     */
+    public synchronized void remove( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureLoaded();
+        if (this.entries.remove(path) != null) {
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Discard the entries of all resources under a folder or project.
+     *
+     * @param path the workspace path of the container; may not be null
+     */
+    public synchronized void removeAll( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureLoaded();
+        for (final Iterator<IPath> iter = this.entries.keySet().iterator(); iter.hasNext();) {
+            if (path.isPrefixOf(iter.next())) {
+                iter.remove();
+                this.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Discard all entries.
+     */
+    public synchronized void clear() {
+        ensureLoaded();
+        if (!this.entries.isEmpty()) {
+            this.entries.clear();
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * @return the number of resources whose problems are cached
+     */
+    public synchronized int size() {
+        ensureLoaded();
+        return this.entries.size();
+    }
+
+    // ==================================================================================
+    // P E R S I S T E N C E
+    // ==================================================================================
+
+    /**
+     * Write the cache to its store file, replacing any existing one. Nothing is written if the cache did not change during this
+     * session or if it has no store file.
+     */
+    public synchronized void save() {
+        if (this.storeFile == null || !this.dirty) return;
+        final File folder = this.storeFile.getParentFile();
+        if (folder != null && !folder.isDirectory()) folder.mkdirs();
+
+        // Write to a temporary file first, so the cache is never seen half written
+        final File tempFile = new File(this.storeFile.getPath() + TEMP_FILE_EXTENSION);
+        boolean written = false;
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(CACHE_SIGNATURE);
+            out.writeInt(CACHE_FORMAT_VERSION);
+            out.writeUTF(this.version);
+            out.writeInt(this.configuration.size());
+            for (final String setting : this.configuration) {
+                out.writeUTF(setting);
+            }
+            out.writeInt(this.entries.size());
+            for (final Map.Entry<IPath, Entry> mapEntry : this.entries.entrySet()) {
+                out.writeUTF(mapEntry.getKey().toString());
+                mapEntry.getValue().write(out);
+            }
+            out.close();
+            written = true;
+        } catch (final IOException e) {
+            ModelerCore.Util.log(IStatus.WARNING, e, ModelerCore.Util.getString("ValidationResultCache.Error_saving_cache_0", this.storeFile)); //$NON-NLS-1$
+        } finally {
+            if (!written) {
+                if (out != null) {
+                    try {
+                        out.close();
+                    } catch (final IOException e) {
+                        // do nothing
+                    }
+                }
+                tempFile.delete();
+            }
+        }
+        if (!written) return;
+
+        this.storeFile.delete();
+        if (tempFile.renameTo(this.storeFile)) {
+            this.dirty = false;
+        } else {
+            tempFile.delete();
+            ModelerCore.Util.log(IStatus.WARNING, ModelerCore.Util.getString("ValidationResultCache.Error_saving_cache_0", this.storeFile)); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Read the cache from its store file. A store file written by another version of the product, or in another format, is
+     * ignored.
+     *
+     * @return true if the store file was read
+     */
+    protected synchronized boolean load() {
+        if (this.storeFile == null || !this.storeFile.isFile()) return false;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.storeFile)));
+            if (in.readInt() != CACHE_SIGNATURE || in.readInt() != CACHE_FORMAT_VERSION) return false;
+            if (!this.version.equals(in.readUTF())) return false;
+            final int settingCount = in.readInt();
+            final List<String> settings = new ArrayList<String>(settingCount);
+            for (int i = 0; i < settingCount; ++i) {
+                settings.add(in.readUTF());
+            }
+            final int count = in.readInt();
+            final Map<IPath, Entry> read = new HashMap<IPath, Entry>(Math.max(16, count * 2));
+            for (int i = 0; i < count; ++i) {
+                final IPath path = new Path(in.readUTF());
+                read.put(path, Entry.read(in));
+            }
+            this.configuration = settings;
+            this.entries.putAll(read);
+            return true;
+        } catch (final IOException e) {
+            ModelerCore.Util.log(IStatus.WARNING, e, ModelerCore.Util.getString("ValidationResultCache.Error_loading_cache_0", this.storeFile)); //$NON-NLS-1$
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (final IOException e) {
+                    // do nothing
+                }
+            }
+        }
+    }
+
+    // ==================================================================================
+    // W O R K S P A C E   A C C E S S
+    // ==================================================================================
+
+    /**
+     * Return the settings that affect the problems found by the validators: the validator classes, then the validation
+     * preferences of the context in name order.
+     *
+     * @param context the validation context of the build
+     * @param validators the {@link ResourceValidator}s of the build
+     * @return the settings; never null
+     */
+    protected List<String> getConfiguration( final ValidationContext context,
+                                             final Collection validators ) {
+        final List<String> result = new ArrayList<String>();
+        for (final Iterator iter = validators.iterator(); iter.hasNext();) {
+            result.add(iter.next().getClass().getName());
+        }
+        if (context.hasPreferences()) {
+            final Map<String, String> options = new TreeMap<String, String>(ModelerCore.getValidationPreferences().getOptions());
+            for (final Map.Entry<String, String> option : options.entrySet()) {
+                result.add(option.getKey() + '=' + option.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the workspace paths of the resources directly or indirectly imported by a resource.
+     *
+     * @param path the workspace path of the importing resource
+     * @return the paths of the imported resources; never null
+     */
+    protected Collection<IPath> getImportsRecursive( final IPath path ) {
+        return ModelWorkspaceManager.getModelWorkspaceManager().getImportGraph().getImportsRecursive(path);
+    }
+
+    /**
+     * Return whether the imports of a resource are known to the import graph.
+     *
+     * @param path the workspace path of the resource
+     * @return true if the graph records the imports of the resource
+     */
+    protected boolean isInImportGraph( final IPath path ) {
+        return ModelWorkspaceManager.getModelWorkspaceManager().getImportGraph().contains(path);
+    }
+
+    /**
+     * Return the local file of the resource at the specified path.
+     *
+     * @param path the workspace path
+     * @return the file, or null if the resource does not exist, is not accessible or is not a local file
+     */
+    protected File getLocalFile( final IPath path ) {
+        final IWorkspace workspace = ModelerCore.getWorkspace();
+        if (workspace == null) return null;
+        final IResource resource = workspace.getRoot().findMember(path);
+        if (resource == null || !resource.isAccessible() || resource.getLocation() == null) return null;
+        final File file = resource.getLocation().toFile();
+        return (file.isFile() ? file : null);
+    }
+
+    // ==================================================================================
+    // P R I V A T E   M E T H O D S
+    // ==================================================================================
+
+    private void ensureLoaded() {
+        if (!this.initialized) {
+            this.initialized = true;
+            load();
+        }
+    }
+
+    synchronized Entry getEntry( final IPath path ) {
+        ensureLoaded();
+        return this.entries.get(path);
+    }
+
+    synchronized void putEntry( final IPath path,
+                                final Entry entry ) {
+        ensureLoaded();
+        this.entries.put(path, entry);
+        this.dirty = true;
+    }
+
+    /**
+     * @return true if the problems can be recorded and replayed: they hold no errors, and only values that can be persisted
+     */
+    static boolean isRecordable( final List<List<Object>> problems ) {
+        final Integer error = Integer.valueOf(IMarker.SEVERITY_ERROR);
+        for (final List<Object> problem : problems) {
+            if (error.equals(problem.get(0))) {
+                return false;
+            }
+            for (final Object value : problem) {
+                if (value != null && !(value instanceof Integer)
+                    && !(value instanceof String && ((String)value).length() <= MAX_STRING_LENGTH)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The lengths and checksums of the files a resource's problems were found in, and the problems themselves.
+     */
+    static class Entry {
+        final String[] paths;
+        final long[] lengths;
+        final long[] checksums;
+        final List<List<Object>> problems;
+
+        Entry( final String[] paths,
+               final long[] lengths,
+               final long[] checksums,
+               final List<List<Object>> problems ) {
+            this.paths = paths;
+            this.lengths = lengths;
+            this.checksums = checksums;
+            this.problems = problems;
+        }
+
+        /**
+         * @return true if the entry was recorded from the same files, with the same contents, as the supplied fingerprint
+         */
+        boolean matches( final Entry fingerprint ) {
+            return Arrays.equals(this.paths, fingerprint.paths) && Arrays.equals(this.lengths, fingerprint.lengths)
+                   && Arrays.equals(this.checksums, fingerprint.checksums);
+        }
+
+        void write( final DataOutputStream out ) throws IOException {
+            out.writeInt(this.paths.length);
+            for (int i = 0; i < this.paths.length; ++i) {
+                out.writeUTF(this.paths[i]);
+                out.writeLong(this.lengths[i]);
+                out.writeLong(this.checksums[i]);
+            }
+            out.writeInt(this.problems.size());
+            for (final List<Object> problem : this.problems) {
+                for (final Object value : problem) {
+                    if (value == null) {
+                        out.writeByte(NULL_VALUE);
+                    } else if (value instanceof Integer) {
+                        out.writeByte(INTEGER_VALUE);
+                        out.writeInt(((Integer)value).intValue());
+                    } else {
+                        out.writeByte(STRING_VALUE);
+                        out.writeUTF((String)value);
+                    }
+                }
+            }
+        }
+
+        static Entry read( final DataInputStream in ) throws IOException {
+            final int fileCount = in.readInt();
+            final String[] paths = new String[fileCount];
+            final long[] lengths = new long[fileCount];
+            final long[] checksums = new long[fileCount];
+            for (int i = 0; i < fileCount; ++i) {
+                paths[i] = in.readUTF();
+                lengths[i] = in.readLong();
+                checksums[i] = in.readLong();
+            }
+            final int problemCount = in.readInt();
+            final List<List<Object>> problems = new ArrayList<List<Object>>(problemCount);
+            for (int i = 0; i < problemCount; ++i) {
+                final Object[] problem = new Object[ProblemMarkerSink.ATTRIBUTE_NAMES.length];
+                for (int j = 0; j < problem.length; ++j) {
+                    final byte type = in.readByte();
+                    if (type == INTEGER_VALUE) {
+                        problem[j] = Integer.valueOf(in.readInt());
+                    } else if (type == STRING_VALUE) {
+                        problem[j] = in.readUTF();
+                    } else if (type != NULL_VALUE) {
+                        throw new IOException(ModelerCore.Util.getString("ValidationResultCache.Unexpected_value_type_0", Byte.valueOf(type))); //$NON-NLS-1$
+                    }
+                }
+                problems.add(Arrays.asList(problem));
+            }
+            return new Entry(paths, lengths, checksums, problems);
+        }
+    }
+
+    /**
+     * The use of the cache by one build. Fingerprints are computed before the resources are validated, so a file changed during
+     * the build makes its entry stale. A session is only used by the thread running the build.
+     */
+    public class Session {
+
+        /** The workspace paths of the models with unsaved changes */
+        private final Set<IPath> modifiedPaths;
+
+        /** The lengths and checksums of the files read by this session, by workspace path */
+        private final Map<IPath, long[]> fileStates = new HashMap<IPath, long[]>();
+
+        /** The fingerprints of the resources validated during the build, by resource */
+        private final Map<IResource, Entry> fingerprints = new HashMap<IResource, Entry>();
+
+        private int replayedCount;
+
+        Session( final Collection<IPath> modifiedPaths ) {
+            this.modifiedPaths = new HashSet<IPath>(modifiedPaths);
+        }
+
+        /**
+         * Add the cached problems of the unchanged resources to the sink. The other resources must be validated, and their
+         * problems {@link #record(ProblemMarkerSink) recorded} once they are.
+         *
+         * @param iResources the {@link IResource}s of the build; may not be null
+         * @param markerSink the sink of the build's markers; may not be null
+         * @return the resources that must be validated, in the same order; never null
+         */
+        public List<IResource> replay( final Collection iResources,
+                                       final ProblemMarkerSink markerSink ) {
+            final List<IResource> toValidate = new ArrayList<IResource>(iResources.size());
+            for (final Iterator iter = iResources.iterator(); iter.hasNext();) {
+                final IResource iResource = (IResource)iter.next();
+                final Entry fingerprint = getFingerprint(iResource.getFullPath());
+                if (fingerprint != null) {
+                    final Entry cached = getEntry(iResource.getFullPath());
+                    if (cached != null && cached.matches(fingerprint)) {
+                        for (final List<Object> problem : cached.problems) {
+                            markerSink.addProblem(iResource, (Integer)problem.get(0), problem.get(1), (String)problem.get(2),
+                                                  (String)problem.get(3), (String)problem.get(4));
+                        }
+                        ++this.replayedCount;
+                        continue;
+                    }
+                    this.fingerprints.put(iResource, fingerprint);
+                }
+                toValidate.add(iResource);
+            }
+            return toValidate;
+        }
+
+        /**
+         * Do not record the problems of the resource, because it could not be validated completely.
+         *
+         * @param iResource the resource; may not be null
+         */
+        public void exclude( final IResource iResource ) {
+            this.fingerprints.remove(iResource);
+        }
+
+        /**
+         * Record the problems the sink holds for each validated resource that was not {@link #exclude(IResource) excluded}. The
+         * entries of resources whose problems cannot be recorded are discarded.
+         *
+         * @param markerSink the sink of the build's markers, before it is applied; may not be null
+         */
+        public void record( final ProblemMarkerSink markerSink ) {
+            for (final Map.Entry<IResource, Entry> mapEntry : this.fingerprints.entrySet()) {
+                final IPath path = mapEntry.getKey().getFullPath();
+                final List<List<Object>> problems = markerSink.getProblems(mapEntry.getKey());
+                if (isRecordable(problems)) {
+                    final Entry fingerprint = mapEntry.getValue();
+                    putEntry(path, new Entry(fingerprint.paths, fingerprint.lengths, fingerprint.checksums, problems));
+                } else {
+                    remove(path);
+                }
+            }
+            this.fingerprints.clear();
+        }
+
+        /**
+         * @return the number of resources whose problems were replayed rather than validated
+         */
+        public int getReplayedCount() {
+            return this.replayedCount;
+        }
+
+        /**
+         * Compute the fingerprint of a resource: the length and checksum of its file followed by those of its imports in path
+         * order.
+         *
+         * @return the fingerprint, or null if the problems of the resource cannot be cached
+         */
+        Entry getFingerprint( final IPath path ) {
+            final List<IPath> imports = new ArrayList<IPath>(getImportsRecursive(path));
+            imports.remove(path);
+            Collections.sort(imports, new Comparator<IPath>() {
+                @Override
+                public int compare( final IPath path1,
+                                    final IPath path2 ) {
+                    return path1.toString().compareTo(path2.toString());
+                }
+            });
+            imports.add(0, path);
+
+            final String[] paths = new String[imports.size()];
+            final long[] lengths = new long[paths.length];
+            final long[] checksums = new long[paths.length];
+            for (int i = 0; i < paths.length; ++i) {
+                final IPath file = imports.get(i);
+                // Validating a model with unsaved changes, or importing one, finds the problems of its unsaved state
+                if (this.modifiedPaths.contains(file)) return null;
+                final long[] state = getFileState(file);
+                if (state == null || (i == 0 && state[1] == NO_FILE)) return null;
+                // The imports of a file unknown to the graph, such as one outside of a model project, are not covered
+                if (state[1] != NO_FILE && !isInImportGraph(file)) return null;
+                paths[i] = file.toString();
+                lengths[i] = state[0];
+                checksums[i] = state[1];
+            }
+            return new Entry(paths, lengths, checksums, null);
+        }
+
+        /**
+         * @return the length and checksum of the file, {@link #NO_FILE} if it does not exist, or null if it cannot be read
+         */
+        private long[] getFileState( final IPath path ) {
+            long[] state = this.fileStates.get(path);
+            if (state == null && !this.fileStates.containsKey(path)) {
+                final File file = getLocalFile(path);
+                if (file == null) {
+                    state = new long[] {NO_FILE, NO_FILE};
+                } else {
+                    try {
+                        final long length = file.length();
+                        state = new long[] {length, ChecksumUtil.computeChecksum(file)};
+                    } catch (final IOException e) {
+                        // validation will report the problem, and its results are not recorded
+                        state = null;
+                    }
+                }
+                this.fileStates.put(path, state);
+            }
+            return state;
+        }
+    }
+}
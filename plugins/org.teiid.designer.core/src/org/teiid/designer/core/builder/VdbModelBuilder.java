@@ -377,81 +377,83 @@ public class VdbModelBuilder {
             // Do nothing; treat as tho not a duplicate ...
         }
 
+        // Add the markers to the sink of the build, or to one applied once this resource is done
+        ProblemMarkerSink markerSink = ProblemMarkerSink.getSink(context);
+        final boolean applyMarkers = (markerSink == null);
+        if (applyMarkers) {
+            markerSink = new ProblemMarkerSink();
+            context.setData(ProblemMarkerSink.CONTEXT_KEY, markerSink);
+        }
         if (clearMarkers) {
-            clearResourceMarkers(iResource);
+            markerSink.replaceMarkers(iResource);
         }
 
-        // Try to validate; if this is the first time this resource is opened, the duplicate model
-        // session property might not be assigned, and a ModelWorkspaceException may be thrown when
-        // opening the model
-        if (duplicateOfModel == null) {
-        	this.builtResources.add(iResource);
-            try {
-                // Validate the model ...
-                final ModelWorkspace workspace = ModelerCore.getModelWorkspace();
-                final ModelResource mResource = workspace.findModelResource(iResource);
-
-                // Find the Resource for the given IResource (unless IResource is VDB Resource)
-                // VDB IResources do not have a corresponding Emf Resource.
-                Resource resource = null;
-                if (!ModelUtil.isVdbArchiveFile(iResource)) {
-                    try {
-                        if (mResource != null && mResource.getEmfResource() != null) {
-                            resource = mResource.getEmfResource();
-                        } else {
-                            // Force a load if it not already loaded.
-                            if (iResource.getRawLocation() != null) {
-                                final URI uri = URI.createFileURI(iResource.getRawLocation().toString());
-                                resource = ModelerCore.getModelContainer().getResource(uri, true);
-                                if (resource != null) {
-                                    resource.setModified(false);
+        try {
+            // Try to validate; if this is the first time this resource is opened, the duplicate model
+            // session property might not be assigned, and a ModelWorkspaceException may be thrown when
+            // opening the model
+            if (duplicateOfModel == null) {
+            	this.builtResources.add(iResource);
+                try {
+                    // Validate the model ...
+                    final ModelWorkspace workspace = ModelerCore.getModelWorkspace();
+                    final ModelResource mResource = workspace.findModelResource(iResource);
+
+                    // Find the Resource for the given IResource (unless IResource is VDB Resource)
+                    // VDB IResources do not have a corresponding Emf Resource.
+                    Resource resource = null;
+                    if (!ModelUtil.isVdbArchiveFile(iResource)) {
+                        try {
+                            if (mResource != null && mResource.getEmfResource() != null) {
+                                resource = mResource.getEmfResource();
+                            } else {
+                                // Force a load if it not already loaded.
+                                if (iResource.getRawLocation() != null) {
+                                    final URI uri = URI.createFileURI(iResource.getRawLocation().toString());
+                                    resource = ModelerCore.getModelContainer().getResource(uri, true);
+                                    if (resource != null) {
+                                        resource.setModified(false);
+                                    }
                                 }
                             }
+                        } catch (final Exception e) {
+                            // Do nothing. IResources that do not wrap an emf Resource will throw an exception here...
+                            // Let the validator decide what to do if no emf Resource can be found.
                         }
-                    } catch (final Exception e) {
-                        // Do nothing. IResources that do not wrap an emf Resource will throw an exception here...
-                        // Let the validator decide what to do if no emf Resource can be found.
                     }
-                }
-                final Object objToValidate = (resource != null ? (Object)resource : (Object)iResource);
-
-                final Stopwatch totalWatch = new Stopwatch();
-                totalWatch.start();
-                validator.validate(progresssMonitor, objToValidate, context);
-                totalWatch.stop();
-
-                validator.addMarkers(context, iResource);
-                context.clearResults();
-            } catch (final ModelerCoreException e) {
-                final Throwable underlyingException = e.getException();
-                if (underlyingException instanceof DuplicateResourceException) {
-                    // Look again for the duplicate of model path ...
-                    try {
-                        duplicateOfModel = iResource.getSessionProperty(ModelerCore.DUPLICATE_MODEL_OF_IPATH_KEY);
-                    } catch (final CoreException err) {
-                        ModelerCore.Util.log(err);
+                    final Object objToValidate = (resource != null ? (Object)resource : (Object)iResource);
+
+                    final Stopwatch totalWatch = new Stopwatch();
+                    totalWatch.start();
+                    validator.validate(progresssMonitor, objToValidate, context);
+                    totalWatch.stop();
+
+                    validator.addMarkers(context, iResource);
+                    context.clearResults();
+                } catch (final ModelerCoreException e) {
+                    final Throwable underlyingException = e.getException();
+                    if (underlyingException instanceof DuplicateResourceException) {
+                        // Look again for the duplicate of model path ...
+                        try {
+                            duplicateOfModel = iResource.getSessionProperty(ModelerCore.DUPLICATE_MODEL_OF_IPATH_KEY);
+                        } catch (final CoreException err) {
+                            ModelerCore.Util.log(err);
+                        }
+                    } else {
+                        ModelerCore.Util.log(e);
                     }
-                } else {
-                    ModelerCore.Util.log(e);
                 }
             }
-        }
 
-        // Now handle the case when this is a duplicate model ...
+            // Now handle the case when this is a duplicate model ...
 
-        if (duplicateOfModel != null) {
-            try {
-                final Object[] params = new Object[] {duplicateOfModel};
-                final String msg = ModelerCore.Util.getString("ModelBuildUtil.ModelDuplicateOf_0", params); //$NON-NLS-1$
-                // The Model is a duplicate, so don't validate ...
-                final IMarker marker = iResource.createMarker(IMarker.PROBLEM);
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                marker.setAttribute(IMarker.LOCATION, duplicateOfModel);
-                marker.setAttribute(ModelerCore.MARKER_URI_PROPERTY, null);
-                marker.setAttribute(ModelerCore.TARGET_MARKER_URI_PROPERTY, null);
-                marker.setAttribute(IMarker.MESSAGE, msg);
-            } catch (final CoreException e) {
-                ModelerCore.Util.log(e);
+            if (duplicateOfModel != null) {
+                ModelBuildUtil.createDuplicateModelMarker(markerSink, iResource, duplicateOfModel);
+            }
+        } finally {
+            if (applyMarkers) {
+                context.setData(ProblemMarkerSink.CONTEXT_KEY, null);
+                ModelBuildUtil.applyMarkers(progresssMonitor, markerSink);
             }
         }
     }
@@ -664,20 +666,29 @@ public class VdbModelBuilder {
 
         context.setResourceContainer(container); // may be null
 
-        clearResourceMarkers(iResources);
+        // The markers of the resources are replaced by those of the new problems once all are validated,
+        // leaving the markers of unchanged problems alone
+        final ProblemMarkerSink markerSink = new ProblemMarkerSink();
+        markerSink.replaceMarkers(iResources);
+        context.setData(ProblemMarkerSink.CONTEXT_KEY, markerSink);
 
-        // get all validators and validate
-        for (final Iterator validateIter = VALIDATORS.iterator(); validateIter.hasNext();) {
-            final ResourceValidator validator = (ResourceValidator)validateIter.next();
-            validator.validationStarted(iResources, context);
-            try {
-                for (final Iterator rsourceIter = iResources.iterator(); rsourceIter.hasNext();) {
-                    final IResource resource = (IResource)rsourceIter.next();
-                    internalValidateResource(progresssMonitor, resource, validator, context, false);
+        try {
+            // get all validators and validate
+            for (final Iterator validateIter = VALIDATORS.iterator(); validateIter.hasNext();) {
+                final ResourceValidator validator = (ResourceValidator)validateIter.next();
+                validator.validationStarted(iResources, context);
+                try {
+                    for (final Iterator rsourceIter = iResources.iterator(); rsourceIter.hasNext();) {
+                        final IResource resource = (IResource)rsourceIter.next();
+                        internalValidateResource(progresssMonitor, resource, validator, context, false);
+                    }
+                } finally {
+                    validator.validationEnded(context);
                 }
-            } finally {
-                validator.validationEnded(context);
             }
+        } finally {
+            context.setData(ProblemMarkerSink.CONTEXT_KEY, null);
+            ModelBuildUtil.applyMarkers(progresssMonitor, markerSink);
         }
 
         // clear the context after validation to free up memory
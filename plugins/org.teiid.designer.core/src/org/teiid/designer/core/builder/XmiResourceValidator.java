@@ -10,7 +10,6 @@ package org.teiid.designer.core.builder;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -34,7 +33,7 @@ import org.teiid.designer.core.workspace.ModelWorkspace;
  *
  * @since 8.0
  */
-public class XmiResourceValidator implements ResourceValidator {
+public class XmiResourceValidator implements ConcurrentResourceValidator {
     
     //==================================================================================
     //                     I N T E R F A C E   M E T H O D S
@@ -102,6 +101,9 @@ public class XmiResourceValidator implements ResourceValidator {
     @Override
 	public void addMarkers(final ValidationContext context, final IResource iResource) throws ModelerCoreException {
         if (context != null && context.hasResults()) {
+            // Add the markers to the sink of the build, or apply them together once all are collected
+            final ProblemMarkerSink buildSink = ProblemMarkerSink.getSink(context);
+            final ProblemMarkerSink markerSink = (buildSink != null ? buildSink : new ProblemMarkerSink());
             final List results = context.getValidationResults();
             try {
                 for (final Iterator iter = results.iterator(); iter.hasNext();) {
@@ -126,14 +128,16 @@ public class XmiResourceValidator implements ResourceValidator {
                                 probURI = rsltLocationUri;
                             } // endif
                             
-                            createProblemMarker(probLocPath, probURI, targetUri,
-                                    problems[probCnt], iResource);
+                            markerSink.addProblem(iResource, probLocPath, probURI, targetUri, problems[probCnt]);
                         }
                         if(result.isFatalResource()) {
-                            return;                
+                            break;
                         }
                     }
                 }
+                if (buildSink == null) {
+                    markerSink.apply(null);
+                }
             } catch (CoreException err) {
                 throw new ModelerCoreException(err);
             }
@@ -198,43 +202,5 @@ public class XmiResourceValidator implements ResourceValidator {
     @Override
 	public void validationEnded(final ValidationContext context) {
     }
-    
-    // ==================================================================================
-    //                         P R I V A T E   M E T H O D S
-    // ==================================================================================
-
-    /**
-     * Create a marker given a validationProblem
-     */
-    private void createProblemMarker(final String locationPath, final String locationUri, final String targetUri, 
-                                     final ValidationProblem problem, final IResource resource) throws CoreException {
-                                         
-        IMarker marker = resource.createMarker(IMarker.PROBLEM);
-        marker.setAttribute(IMarker.LOCATION, locationPath);
-        marker.setAttribute(ModelerCore.MARKER_URI_PROPERTY, locationUri);
-        marker.setAttribute(ModelerCore.TARGET_MARKER_URI_PROPERTY, targetUri);
-        marker.setAttribute(IMarker.MESSAGE, problem.getMessage());
-
-        setMarkerSeverity(marker, problem);
-    }
-    
-    /**
-     * Get the set the severity on the marker given the validation problem.
-     */
-    private void setMarkerSeverity(final IMarker marker, final ValidationProblem problem) throws CoreException {
-        switch(problem.getSeverity()) {
-            case IStatus.ERROR:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                break;
-            case IStatus.WARNING:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-                break;
-            case IStatus.INFO:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
-                break;
-            default:
-                return;
-        }
-    }
 
 }
@@ -8,6 +8,7 @@
 package org.teiid.designer.core.compare;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.emf.mapping.Mapping;
 import org.eclipse.emf.mapping.MappingFactory;
 
@@ -31,7 +32,8 @@ public abstract class AbstractEObjectMatcher implements EObjectMatcher {
         final Mapping nested = factory.createMapping();
         nested.getOutputs().add(output);
         nested.getInputs().add(input);
-        parentMapping.getNested().add(nested);
+        // the new mapping cannot already be nested, so skip the linear uniqueness check of add
+        ((InternalEList)parentMapping.getNested()).addUnique(nested);
     }
 
 }
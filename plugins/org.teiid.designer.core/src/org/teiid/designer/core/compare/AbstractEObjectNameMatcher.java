@@ -76,6 +76,8 @@ public abstract class AbstractEObjectNameMatcher extends AbstractEObjectMatcher
                     final EClass inputMetaclass = inputEntity.eClass();
                     final EClass outputMetaclass = output.eClass();
                     if ( inputMetaclass.equals(outputMetaclass) ) {
+                        // an input is matched at most once
+                        inputByName.remove(key);
                         inputs.remove(inputEntity);
                         outputIter.remove();
                         addMapping(inputEntity,output,mapping,factory);
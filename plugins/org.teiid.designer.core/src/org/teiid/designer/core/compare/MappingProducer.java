@@ -9,15 +9,18 @@ package org.teiid.designer.core.compare;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.emf.mapping.Mapping;
 import org.eclipse.emf.mapping.MappingFactory;
 import org.teiid.core.designer.ModelerCoreException;
@@ -100,8 +103,8 @@ public class MappingProducer {
         // -------------------------------------------------------------
         // Create the outer Mapping object ...
         final Mapping mappingRoot = factory.createMapping();
-        final List inputCopies = new LinkedList(inputs);
-        final List outputCopies = new LinkedList(outputs);
+        final List inputCopies = new MatchCandidateList(inputs);
+        final List outputCopies = new MatchCandidateList(outputs);
 
         // Copy all of the inputs/outputs into the mapping root inputs/outputs
         mappingRoot.getInputs().addAll(inputs);
@@ -180,17 +183,19 @@ public class MappingProducer {
             }
 
             // Find the nested mappings that were added by this second phase, and then
-            // process them. Do this by removing the ones that existed above
+            // process them. Do this by skipping the ones that existed above
             final List nested = parentMapping.getNested();
             if (nested.size() != existingNested.size()) {
                 // Must have added at least one ...
+                final Set existing = new HashSet(existingNested);
                 final List newNestedMappings = new ArrayList(parentMapping.getNested());
-                newNestedMappings.removeAll(existingNested);
                 final Iterator newNestedIter = newNestedMappings.iterator();
                 while (newNestedIter.hasNext()) {
                     final Mapping newNested = (Mapping)newNestedIter.next();
-                    // Go through all of the mappings under new mappings ...
-                    doProcessMapping(factory, newNested);
+                    if (!existing.contains(newNested)) {
+                        // Go through all of the mappings under new mappings ...
+                        doProcessMapping(factory, newNested);
+                    }
                 }
             }
 
@@ -229,8 +234,8 @@ public class MappingProducer {
                 while (refIter.hasNext()) {
                     final EReference ref = (EReference)refIter.next();
                     // Get the values for this ref from the input and output object ...
-                    final List inputValues = new LinkedList();
-                    final List outputValues = new LinkedList();
+                    final List inputValues = new MatchCandidateList();
+                    final List outputValues = new MatchCandidateList();
                     if (ref.isMany()) {
                         inputValues.addAll((List)inputObj.eGet(ref));
                         outputValues.addAll((List)outputObj.eGet(ref));
@@ -291,7 +296,7 @@ public class MappingProducer {
             final EObject input = (EObject)inputIter.next();
             final Mapping deletionMapping = factory.createMapping();
             deletionMapping.getInputs().add(input);
-            mapping.getNested().add(deletionMapping);
+            ((InternalEList)mapping.getNested()).addUnique(deletionMapping);
         }
 
         final Iterator outputIter = outputs.iterator();
@@ -299,7 +304,7 @@ public class MappingProducer {
             final EObject output = (EObject)outputIter.next();
             final Mapping additionMapping = factory.createMapping();
             additionMapping.getOutputs().add(output);
-            mapping.getNested().add(additionMapping);
+            ((InternalEList)mapping.getNested()).addUnique(additionMapping);
         }
 
     }
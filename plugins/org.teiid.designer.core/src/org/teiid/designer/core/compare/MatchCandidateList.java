@@ -0,0 +1,303 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.compare;
+
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A linked list of the objects remaining to be matched by {@link EObjectMatcher}s, whose elements are also indexed by hash.
+ * <p>
+ * Matchers remove each object they match from the lists of inputs and outputs, either through the iterator they are walking or
+ * with {@link #remove(Object)}. Both take constant time here, as does {@link #contains(Object)}, so matching all the children
+ * of an object takes time linear in their number. Positional access takes linear time, as in any linked list.
+ * </p>
+ * <p>
+ * The elements of these lists are normally all different. Equal elements are allowed, but removing or looking up an element
+ * that occurs more than once takes linear time.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class MatchCandidateList extends AbstractSequentialList {
+
+    private static final class Node {
+        Object element;
+        Node previous;
+        Node next;
+
+        Node( final Object element ) {
+            this.element = element;
+        }
+    }
+
+    private final Node header;
+
+    /**
+     * The node of each element that occurs once, or the number of occurrences of an element that occurs more than once
+     */
+    private final Map index;
+
+    private int size;
+
+    /**
+     * Construct an empty instance of MatchCandidateList.
+     */
+    public MatchCandidateList() {
+        this.header = new Node(null);
+        this.header.previous = this.header;
+        this.header.next = this.header;
+        this.index = new HashMap();
+    }
+
+    /**
+     * Construct an instance of MatchCandidateList holding the supplied objects, in order.
+     *
+     * @param objects the objects; may not be null
+     */
+    public MatchCandidateList( final Collection objects ) {
+        this();
+        for (final Iterator iter = objects.iterator(); iter.hasNext();) {
+            linkBefore(iter.next(), this.header);
+        }
+    }
+
+    /**
+     * @see java.util.AbstractCollection#size()
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @see java.util.AbstractCollection#contains(java.lang.Object)
+     */
+    @Override
+    public boolean contains( final Object object ) {
+        return this.index.containsKey(object);
+    }
+
+    /**
+     * @see java.util.AbstractList#add(java.lang.Object)
+     */
+    @Override
+    public boolean add( final Object object ) {
+        linkBefore(object, this.header);
+        return true;
+    }
+
+    /**
+     * Remove the first occurrence of the object.
+     *
+     * @see java.util.AbstractCollection#remove(java.lang.Object)
+     */
+    @Override
+    public boolean remove( final Object object ) {
+        final Object indexed = this.index.get(object);
+        if (indexed instanceof Node) {
+            unlink((Node)indexed);
+            return true;
+        }
+        if (indexed != null) {
+            unlink(find(object, null));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @see java.util.AbstractList#clear()
+     */
+    @Override
+    public void clear() {
+        this.header.previous = this.header;
+        this.header.next = this.header;
+        this.index.clear();
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * @see java.util.AbstractSequentialList#listIterator(int)
+     */
+    @Override
+    public ListIterator listIterator( final int index ) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return new CandidateIterator(index);
+    }
+
+    private Node linkBefore( final Object element,
+                             final Node successor ) {
+        final Node node = new Node(element);
+        node.previous = successor.previous;
+        node.next = successor;
+        successor.previous.next = node;
+        successor.previous = node;
+        this.size++;
+        this.modCount++;
+        addToIndex(node);
+        return node;
+    }
+
+    private void unlink( final Node node ) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        this.size--;
+        this.modCount++;
+        removeFromIndex(node);
+    }
+
+    private void addToIndex( final Node node ) {
+        final Object indexed = this.index.get(node.element);
+        if (indexed == null && !this.index.containsKey(node.element)) {
+            this.index.put(node.element, node);
+        } else if (indexed instanceof Node) {
+            this.index.put(node.element, Integer.valueOf(2));
+        } else {
+            this.index.put(node.element, Integer.valueOf(((Integer)indexed).intValue() + 1));
+        }
+    }
+
+    private void removeFromIndex( final Node node ) {
+        final Object indexed = this.index.get(node.element);
+        if (indexed instanceof Node) {
+            this.index.remove(node.element);
+            return;
+        }
+        final int count = ((Integer)indexed).intValue() - 1;
+        if (count == 1) {
+            this.index.put(node.element, find(node.element, node));
+        } else {
+            this.index.put(node.element, Integer.valueOf(count));
+        }
+    }
+
+    /**
+     * @return the first node other than the excluded one holding the element, which must be in the list
+     */
+    private Node find( final Object element,
+                       final Node excluded ) {
+        for (Node node = this.header.next; node != this.header; node = node.next) {
+            if (node != excluded && (element == null ? node.element == null : element.equals(node.element))) {
+                return node;
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    private class CandidateIterator implements ListIterator {
+        private Node next;
+        private Node lastReturned;
+        private int nextIndex;
+        private int expectedModCount = modCount;
+
+        CandidateIterator( final int index ) {
+            this.next = header.next;
+            for (int i = 0; i < index; i++) {
+                this.next = this.next.next;
+            }
+            this.nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex < size;
+        }
+
+        @Override
+        public Object next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.lastReturned = this.next;
+            this.next = this.next.next;
+            this.nextIndex++;
+            return this.lastReturned.element;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return this.nextIndex > 0;
+        }
+
+        @Override
+        public Object previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            this.next = this.next.previous;
+            this.lastReturned = this.next;
+            this.nextIndex--;
+            return this.lastReturned.element;
+        }
+
+        @Override
+        public int nextIndex() {
+            return this.nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return this.nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (this.lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (this.next == this.lastReturned) {
+                // removing the element returned by previous()
+                this.next = this.lastReturned.next;
+            } else {
+                this.nextIndex--;
+            }
+            unlink(this.lastReturned);
+            this.lastReturned = null;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public void set( final Object object ) {
+            checkForComodification();
+            if (this.lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            removeFromIndex(this.lastReturned);
+            this.lastReturned.element = object;
+            addToIndex(this.lastReturned);
+        }
+
+        @Override
+        public void add( final Object object ) {
+            checkForComodification();
+            linkBefore(object, this.next);
+            this.nextIndex++;
+            this.lastReturned = null;
+            this.expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
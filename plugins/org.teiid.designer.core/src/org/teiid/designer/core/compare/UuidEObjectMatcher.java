@@ -88,6 +88,7 @@ public class UuidEObjectMatcher extends AbstractEObjectMatcher {
                  *  would be expensive.
                  */
                 if (input.eIsProxy() || output.eIsProxy()) {
+                    idToInput.remove(id);
                     inputs.remove(input);
                     outputIter.remove();
                     addMapping(input, output, mapping, factory);
@@ -96,6 +97,7 @@ public class UuidEObjectMatcher extends AbstractEObjectMatcher {
                     final EClass inputMetaclass = input.eClass();
                     final EClass outputMetaclass = output.eClass();
                     if (inputMetaclass.equals(outputMetaclass)) {
+                        idToInput.remove(id);
                         inputs.remove(input);
                         outputIter.remove();
                         addMapping(input, output, mapping, factory);
@@ -207,6 +207,24 @@ public class ModelIndexer implements ResourceIndexer {
                 }
             }
         }
+        indexResource(resource, mResource, emfResource, addResource);
+    }
+
+    /**
+     * Index a resource whose model the caller has already looked up and opened, so the model workspace is not used to find it.
+     * 
+     * @param resource the resource to index; may not be null
+     * @param mResource the model resource of the resource; may be null if the resource is not a model
+     * @param emfResource the open EMF resource of the model; if null, nothing is indexed
+     * @param addResource true to add the resource to its index, false to remove it
+     * @throws ModelerCoreException if the index could not be written
+     * @since 8.0
+     */
+    public void indexResource( final IResource resource,
+                               final ModelResource mResource,
+                               final Resource emfResource,
+                               final boolean addResource ) throws ModelerCoreException {
+        CoreArgCheck.isNotNull(resource);
 
         // relative path in workspace
         IPath path = resource.getFullPath();
@@ -10,12 +10,12 @@ package org.teiid.designer.core.metadata.runtime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.common.util.EList;
@@ -63,7 +63,8 @@ import org.teiid.designer.metamodels.core.Annotation;
  */
 public class RuntimeAdapter extends RecordFactory {
 
-    private static HashMap metaClassUriMap = new HashMap();
+    // read and written by concurrent indexing jobs
+    private static final Map metaClassUriMap = new ConcurrentHashMap();
 
     // ==================================================================================
     // P U B L I C M E T H O D S
@@ -1783,7 +1784,7 @@ public class RuntimeAdapter extends RecordFactory {
 
         if (obj instanceof EObject) {
             // If metaclass, look in cache first
-            if (isMetaClass) {
+            if (isMetaClass && ((EClass)obj).getName() != null) {
                 String cachedUri = (String)metaClassUriMap.get(((EClass)obj).getName());
                 if (cachedUri != null) {
                     return cachedUri;
@@ -1792,7 +1793,7 @@ public class RuntimeAdapter extends RecordFactory {
             // If haven't returned, create a new URI
             EObject eObj = (EObject)obj;
             String theUri = ModelerCore.getModelEditor().getUri(eObj).toString();
-            if (isMetaClass) {
+            if (isMetaClass && ((EClass)obj).getName() != null) {
                 // Add new URI to cache
                 metaClassUriMap.put(((EClass)obj).getName(), theUri);
             }
@@ -7,8 +7,8 @@
  */
 package org.teiid.designer.core.metamodel.aspect;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.teiid.designer.core.ModelerCore;
@@ -34,11 +34,12 @@ public class AspectManager {
     // Modified 3/20/07 - BML (reviewed by John V.)
     // Defect 23839 - the call to the MetamodelRegistry's MetamodelAspect factory is expensive.
     // So, let's cache the aspects in this manager
-    private static Map  sqlAspectMap = new HashMap();
-    private static Map  validationAspectMap = new HashMap();
-    private static Map  umlDiagramAspectMap = new HashMap();
-    private static Map  relationshipsAspectMap = new HashMap();
-    private static Map  modelImportsAspectMap = new HashMap();
+    // (the caches are filled concurrently by parallel indexing and validation)
+    private static Map  sqlAspectMap = new ConcurrentHashMap();
+    private static Map  validationAspectMap = new ConcurrentHashMap();
+    private static Map  umlDiagramAspectMap = new ConcurrentHashMap();
+    private static Map  relationshipsAspectMap = new ConcurrentHashMap();
+    private static Map  modelImportsAspectMap = new ConcurrentHashMap();
     // --------------------------------------------------------
     
     
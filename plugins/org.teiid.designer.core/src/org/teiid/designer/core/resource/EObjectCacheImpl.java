@@ -7,41 +7,63 @@
  */
 package org.teiid.designer.core.resource;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.ecore.EObject;
 import org.teiid.core.designer.id.ObjectID;
+import org.teiid.core.designer.id.UUID;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelerCore;
 
 
 
 /**
- * EObjectCacheImpl - manager of maps containing EObject instances for resources
- * in a resource set.  The maps are keyed on the UUID associated with the EObject.
+ * EObjectCacheImpl - cache of the EObject instances of a resource, keyed on the UUID associated with the EObject.
+ * <p>
+ * UUID keys are stored directly as their two <code>long</code> halves in a single open-addressing table, so an entry needs no
+ * objects of its own and {@link #get(ObjectID)}, {@link #add(EObject, boolean)} and {@link #remove(ObjectID, boolean)} take
+ * constant time however many EObjects are cached. Collisions are resolved by linear probing; removing an entry shifts the
+ * entries probed after it back instead of leaving a marker, so lookups do not slow down as entries come and go. Keys that are
+ * not UUIDs are kept in a separate map. An identity index of the cached EObjects answers {@link #containsValue(EObject)}
+ * without a scan.
+ * </p>
  * @since 8.0
  */
 public class EObjectCacheImpl implements EObjectCache {
 
-    private static final int MAX_MAP_SIZE = 1500;
-    private static final int MAP_CONSOLIDATION_SIZE = 300;
+    private static final int INITIAL_CAPACITY = 64;
 
-    private final Collection mapOfMaps;
-    private Map currentMap;
+    /** The table grows when more than 3/4 of its slots are used */
+    private static final int LOAD_FACTOR_NUMERATOR = 3;
+    private static final int LOAD_FACTOR_DENOMINATOR = 4;
+
+    /** The size assumed for object references and object headers when estimating memory usage */
+    private static final int REFERENCE_SIZE = 8;
+    private static final int OBJECT_HEADER_SIZE = 16;
+
+    /** The most and least significant halves of the UUID keys, and the EObject values; an empty slot has a null value */
+    private long[] mostSigBits;
+    private long[] leastSigBits;
+    private EObject[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    /** Entries whose key is not a UUID, including those without a key */
+    private final Map<ObjectID, EObject> otherValues = new HashMap<ObjectID, EObject>();
+
+    /** The key each cached EObject was last added with */
+    private final Map<EObject, ObjectID> keysByValue = new IdentityHashMap<EObject, ObjectID>();
 
     // ==================================================================================
     //                        C O N S T R U C T O R S
     // ==================================================================================
 
     public EObjectCacheImpl() {
-        this.currentMap = createMap();
-        this.mapOfMaps  = new ArrayList();
-        this.mapOfMaps.add(this.currentMap);
+        allocate(INITIAL_CAPACITY);
     }
 
     //==================================================================================
@@ -69,40 +91,21 @@ public class EObjectCacheImpl implements EObjectCache {
                     final boolean recurse) {
         CoreArgCheck.isNotNull(value);
 
-        final Object key = getCacheKey(value);
+        final ObjectID key = getCacheKey(value);
 
-        // If the manager already has an EObject for this key then remove it.
+        // If the cache already has an EObject for this key then it is replaced.
         // A new EObject instance may have been instantiated due to reloading
-        // a resource so we want this instance in the maps now.
-        final Map eObjMap = findMapForKey(key);
-        if (eObjMap != null) {
-            eObjMap.remove(key);
-        }
-
-        // Add the new value to the current map
-        if (this.currentMap.size() < MAX_MAP_SIZE) {
-            this.currentMap.put(key, value);
+        // a resource so we want this instance in the cache now.
+        final EObject oldValue;
+        if (key instanceof UUID) {
+            oldValue = put(UUID.getPart1(key), UUID.getPart2(key), value);
         } else {
-            boolean newMap = true;
-
-            // Add to existing map if one has room
-            for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-                final Map next = (Map)iter.next();
-                if (next != this.currentMap && next.size() < MAX_MAP_SIZE) {
-                    this.currentMap = next;
-                    this.currentMap.put(key, value);
-                    newMap = false;
-                    break;
-                }
-            }
-
-            // need to create a new map
-            if (newMap) {
-                this.currentMap = createMap();
-                mapOfMaps.add(this.currentMap);
-                this.currentMap.put(key, value);
-            }
+            oldValue = this.otherValues.put(key, value);
+        }
+        if (oldValue != null && oldValue != value) {
+            unindex(oldValue, key);
         }
+        this.keysByValue.put(value, key);
 
         // Continue the add operation which will add this EObject
         // instance to the cache along with the contents of this
@@ -124,20 +127,11 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public void clear() {
-        try {
-            for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-                Map next = (Map)iter.next();
-                next.clear();
-                iter.remove();
-            }
-            // Reset the state back to when it was first constructed
-            this.currentMap = createMap();
-            this.mapOfMaps.add(this.currentMap);
-
-        } finally {
-            runGC();
-        }
-
+        // Reset the state back to when it was first constructed
+        allocate(INITIAL_CAPACITY);
+        this.size = 0;
+        this.otherValues.clear();
+        this.keysByValue.clear();
     }
 
     /**
@@ -146,16 +140,10 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public boolean containsKey(final ObjectID key) {
-        if (this.currentMap.containsKey(key)) {
-            return true;
+        if (key instanceof UUID) {
+            return find(UUID.getPart1(key), UUID.getPart2(key)) >= 0;
         }
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            if (next != this.currentMap && next.containsKey(key)) {
-                return true;
-            }
-        }
-        return false;
+        return this.otherValues.containsKey(key);
     }
 
     /**
@@ -164,16 +152,7 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public boolean containsValue(final EObject value) {
-        if (this.currentMap.containsValue(value)) {
-            return true;
-        }
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            if (next != this.currentMap && next.containsValue(value)) {
-                return true;
-            }
-        }
-        return false;
+        return this.keysByValue.containsKey(value);
     }
 
     /**
@@ -185,11 +164,11 @@ public class EObjectCacheImpl implements EObjectCache {
         if (key == null) {
             return null;
         }
-        final Map map = findMapForKey(key);
-        if (map != null) {
-            return (EObject)map.get(key);
+        if (key instanceof UUID) {
+            final int slot = find(UUID.getPart1(key), UUID.getPart2(key));
+            return (slot >= 0 ? this.values[slot] : null);
         }
-        return null;
+        return this.otherValues.get(key);
     }
 
     /**
@@ -201,16 +180,9 @@ public class EObjectCacheImpl implements EObjectCache {
                        final boolean recurse) {
         CoreArgCheck.isNotNull(value);
 
-        final Object key = getCacheKey(value);
-
-        final Map map = findMapForValue(value);
-        if (map != null) {
-            map.remove(key);
-
-            // See if we should consolidate this map
-            if(map != this.currentMap && map.size() < MAP_CONSOLIDATION_SIZE) {
-                consolidateMap(map);
-            }
+        final ObjectID key = getCacheKey(value);
+        if (get(key) == value) {
+            removeKey(key);
         }
 
         // Remove the entire tree
@@ -245,17 +217,7 @@ public class EObjectCacheImpl implements EObjectCache {
                        final boolean recurse) {
         CoreArgCheck.isNotNull(key);
 
-        EObject value = null;
-
-        final Map map = findMapForKey(key);
-        if (map != null) {
-            value = (EObject)map.remove(key);
-
-            // See if we should consolidate this map
-            if(map != this.currentMap && map.size() < MAP_CONSOLIDATION_SIZE) {
-                consolidateMap(map);
-            }
-        }
+        final EObject value = removeKey(key);
 
         // Remove the entire tree
         if (recurse && value != null) {
@@ -286,12 +248,7 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public int size() {
-        int size = 0;
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            size += next.size();
-        }
-        return size;
+        return this.size + this.otherValues.size();
     }
 
     /**
@@ -300,93 +257,225 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public EObject[] values() {
-        final List values = new ArrayList(size());
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            values.addAll(next.values());
+        final EObject[] result = new EObject[size()];
+        int count = 0;
+        for (int i = 0; i != this.values.length; ++i) {
+            if (this.values[i] != null) {
+                result[count++] = this.values[i];
+            }
         }
-        return (EObject[])values.toArray(new EObject[values.size()]);
+        for (final EObject value : this.otherValues.values()) {
+            result[count++] = value;
+        }
+        return result;
     }
 
     // ==================================================================================
-    //                    P R O T E C T E D   M E T H O D S
+    //                    S T A T I S T I C S
     // ==================================================================================
 
-    protected Object getCacheKey(final EObject value) {
-        CoreArgCheck.isNotNull(value);
-        return ModelerCore.getObjectId(value);
+    /**
+     * @return the number of slots in the table of UUID keys
+     */
+    public int getCapacity() {
+        return this.values.length;
     }
 
-    protected void consolidateMap(final Map map) {
-        if(map == this.currentMap) {
-            return;
-        }
-
-        try {
-            // Try currentMap first
-            final int size = map.size();
-            if (this.currentMap.size() + size < MAX_MAP_SIZE) {
-                this.currentMap.putAll(map);
-                this.mapOfMaps.remove(map);
-                return;
-            }
+    /**
+     * @return the number of entries whose key is not a UUID
+     */
+    public int getOtherKeyCount() {
+        return this.otherValues.size();
+    }
 
-            // Check other maps in the list
-            for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-                final Map next = (Map)iter.next();
-                if ((next != this.currentMap) && (next.size() + size < MAX_MAP_SIZE)) {
-                    next.putAll(map);
-                    this.mapOfMaps.remove(map);
-                    return;
+    /**
+     * @return the length of the longest probe sequence in the table of UUID keys; 1 if every key is in its home slot, 0 if the
+     *         table is empty
+     */
+    public int getMaxProbeLength() {
+        int max = 0;
+        for (int i = 0; i != this.values.length; ++i) {
+            if (this.values[i] != null) {
+                final int length = ((i - slot(this.mostSigBits[i], this.leastSigBits[i])) & this.mask) + 1;
+                if (length > max) {
+                    max = length;
                 }
             }
-
-        } finally {
-            runGC();
         }
+        return max;
+    }
 
+    /**
+     * Estimate the memory used by the cache itself, excluding the cached EObjects and their keys, assuming 8-byte references.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedMemorySize() {
+        final long capacity = this.values.length;
+        // the three arrays of the table
+        long bytes = 3 * OBJECT_HEADER_SIZE + capacity * (8 + 8 + REFERENCE_SIZE);
+        // the identity index holds keys and values in one array, at most 2/3 full
+        bytes += OBJECT_HEADER_SIZE + 3L * this.keysByValue.size() * REFERENCE_SIZE;
+        // a hash map entry per key that is not a UUID, plus its table slot
+        bytes += this.otherValues.size() * (OBJECT_HEADER_SIZE + 4L * REFERENCE_SIZE);
+        return bytes;
     }
 
-    protected Map findMapForValue(final EObject eObject){
-        final Object id = ModelerCore.getObjectId(eObject);
-        return findMapForKey(id);
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer("EObjectCacheImpl [size="); //$NON-NLS-1$
+        sb.append(size());
+        sb.append(", capacity="); //$NON-NLS-1$
+        sb.append(getCapacity());
+        sb.append(", otherKeys="); //$NON-NLS-1$
+        sb.append(getOtherKeyCount());
+        sb.append(", estimatedBytes="); //$NON-NLS-1$
+        sb.append(getEstimatedMemorySize());
+        sb.append(']');
+        return sb.toString();
     }
 
-    protected Map findMapForKey(final Object id) {
-        if(id == null) {
-            return null;
-        }
+    // ==================================================================================
+    //                    P R O T E C T E D   M E T H O D S
+    // ==================================================================================
 
-        //check current map first;
-        if(this.currentMap.containsKey(id) ) {
-            return this.currentMap;
-        }
+    protected ObjectID getCacheKey(final EObject value) {
+        CoreArgCheck.isNotNull(value);
+        return ModelerCore.getObjectId(value);
+    }
 
-        final Iterator maps = mapOfMaps.iterator();
-        while(maps.hasNext() ) {
-            final Map next = (Map)maps.next();
-            if(next != this.currentMap && next.containsKey(id) ) {
-                return next;
+    // ==================================================================================
+    //                    P R I V A T E   M E T H O D S
+    // ==================================================================================
+
+    private void allocate(final int capacity) {
+        this.mostSigBits = new long[capacity];
+        this.leastSigBits = new long[capacity];
+        this.values = new EObject[capacity];
+        this.mask = capacity - 1;
+        this.threshold = capacity / LOAD_FACTOR_DENOMINATOR * LOAD_FACTOR_NUMERATOR;
+    }
+
+    /**
+     * Spread both halves of a UUID over the bits of the hash; the version and variant bits of UUIDs are nearly constant, and
+     * the table uses only the low bits.
+     */
+    private int slot(final long mostSig,
+                     final long leastSig) {
+        long hash = mostSig ^ Long.rotateLeft(leastSig, 32);
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int)(hash ^ (hash >>> 33)) & this.mask;
+    }
+
+    /**
+     * @return the slot of the key, or -1 if it is not in the table
+     */
+    private int find(final long mostSig,
+                     final long leastSig) {
+        for (int i = slot(mostSig, leastSig);; i = (i + 1) & this.mask) {
+            if (this.values[i] == null) {
+                return -1;
+            }
+            if (this.mostSigBits[i] == mostSig && this.leastSigBits[i] == leastSig) {
+                return i;
             }
         }
+    }
 
+    /**
+     * @return the value previously associated with the key, or null
+     */
+    private EObject put(final long mostSig,
+                        final long leastSig,
+                        final EObject value) {
+        int i = slot(mostSig, leastSig);
+        for (; this.values[i] != null; i = (i + 1) & this.mask) {
+            if (this.mostSigBits[i] == mostSig && this.leastSigBits[i] == leastSig) {
+                final EObject oldValue = this.values[i];
+                this.values[i] = value;
+                return oldValue;
+            }
+        }
+        this.mostSigBits[i] = mostSig;
+        this.leastSigBits[i] = leastSig;
+        this.values[i] = value;
+        if (++this.size > this.threshold) {
+            grow();
+        }
         return null;
     }
 
+    private void grow() {
+        final long[] oldMostSigBits = this.mostSigBits;
+        final long[] oldLeastSigBits = this.leastSigBits;
+        final EObject[] oldValues = this.values;
+        allocate(oldValues.length * 2);
+        for (int j = 0; j != oldValues.length; ++j) {
+            if (oldValues[j] != null) {
+                int i = slot(oldMostSigBits[j], oldLeastSigBits[j]);
+                while (this.values[i] != null) {
+                    i = (i + 1) & this.mask;
+                }
+                this.mostSigBits[i] = oldMostSigBits[j];
+                this.leastSigBits[i] = oldLeastSigBits[j];
+                this.values[i] = oldValues[j];
+            }
+        }
+    }
+
     /**
-     * @return Returns the mapOfMaps.
-     * @since 4.3
+     * Remove the entry in a slot, moving back any entry further along the same probe sequence so none is left unreachable.
      */
-    protected Collection getMapOfMaps() {
-        return this.mapOfMaps;
+    private void removeSlot(final int slot) {
+        int hole = slot;
+        for (int i = (slot + 1) & this.mask; this.values[i] != null; i = (i + 1) & this.mask) {
+            // The entry can fill the hole if its home slot is not between the hole and the entry
+            final int home = slot(this.mostSigBits[i], this.leastSigBits[i]);
+            if (((i - home) & this.mask) >= ((i - hole) & this.mask)) {
+                this.mostSigBits[hole] = this.mostSigBits[i];
+                this.leastSigBits[hole] = this.leastSigBits[i];
+                this.values[hole] = this.values[i];
+                hole = i;
+            }
+        }
+        this.values[hole] = null;
+        --this.size;
     }
 
-    protected Map createMap() {
-        return new HashMap();
+    /**
+     * @return the removed value, or null if there was none
+     */
+    private EObject removeKey(final ObjectID key) {
+        final EObject value;
+        if (key instanceof UUID) {
+            final int slot = find(UUID.getPart1(key), UUID.getPart2(key));
+            if (slot < 0) {
+                return null;
+            }
+            value = this.values[slot];
+            removeSlot(slot);
+        } else {
+            if (!this.otherValues.containsKey(key)) {
+                return null;
+            }
+            value = this.otherValues.remove(key);
+        }
+        unindex(value, key);
+        return value;
     }
 
-    protected void runGC() {
-//        System.gc();
-//        Thread.yield();
+    /**
+     * Remove a value from the identity index, unless it has since been added with another key
+     */
+    private void unindex(final EObject value,
+                         final ObjectID key) {
+        final ObjectID indexedKey = this.keysByValue.get(value);
+        if (indexedKey == key || (indexedKey != null && indexedKey.equals(key))) {
+            this.keysByValue.remove(value);
+        }
     }
 }
@@ -120,6 +120,10 @@ public class MtkXmiHandler extends SAXXMIHandler {
     private void addNamespaceConversions() {
         final Resource resource = this.xmlResource;
         final ResourceSet resourceSet = this.resourceSet;
+        if (resourceSet == null) {
+            // there is no URI converter to register the conversions with
+            return;
+        }
         for (final Iterator iter = this.targetNamespaces.iterator(); iter.hasNext();) {
             final String targetNamespace = (String)iter.next();
             final URI logicalURI = URI.createURI(targetNamespace);
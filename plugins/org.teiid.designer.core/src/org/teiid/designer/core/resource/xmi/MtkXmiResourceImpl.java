@@ -79,6 +79,12 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
     public static final Map<EObject, String> DETACHED_EOBJECT_TO_UUID_MAP = XMLResourceImpl.DETACHED_EOBJECT_TO_ID_MAP;
     public static final Map<String, EObject> DETACHED_UUID_TO_EOBJECT_MAP = Collections.synchronizedMap(new WeakHashMap<String, EObject>());
 
+    /**
+     * The load option holding a resource {@link #parse(URI, Container, Map) parsed} from the same model file, whose contents are
+     * moved into the resource being loaded rather than parsing the model file again.
+     */
+    public static final String OPTION_PARSED_RESOURCE = "MtkXmiResourceImpl.parsedResource"; //$NON-NLS-1$
+
     // The Container, MetamodelRegistry and ProxiedObjectManager instances; may be null
     private Container container;
     private MetamodelRegistry registry;
@@ -90,6 +96,12 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
 
     private XmlXResourceDelegate delegate = new XmlXResourceDelegate();
 
+    // The container used to parse a resource in a resource set other than the container
+    private Container parseContainer;
+
+    // True while objects are attached or detached whose UUIDs are restored separately, as when reading a snapshot
+    private boolean restoringUuids;
+
     /**
      * Constructor for MtkXMIResourceImpl.
      * 
@@ -107,6 +119,33 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
         delegate.initialize(this);
     }
 
+    /**
+     * Parse a model file into a resource of a resource set other than the container. Since nothing else refers to the new
+     * resource, this may be done on any thread that alone uses the resource set; the contents can later be moved into a resource
+     * of the container with the {@link #OPTION_PARSED_RESOURCE} load option. The namespace conversions found while parsing are
+     * registered with the URI converter of the resource set, and are registered with the container when the contents are moved.
+     * 
+     * @param uri the URI of the model file
+     * @param resourceSet the resource set to parse the model in, used by the calling thread only; may not be null
+     * @param container the container whose metamodels are used to parse the model; may not be null
+     * @param options the load options
+     * @return the loaded resource
+     * @throws IOException if the model file cannot be read
+     */
+    public static MtkXmiResourceImpl parse( final URI uri,
+                                           final ResourceSet resourceSet,
+                                           final Container container,
+                                           final Map options ) throws IOException {
+        CoreArgCheck.isNotNull(resourceSet);
+        CoreArgCheck.isNotNull(container);
+        final MtkXmiResourceImpl resource = new MtkXmiResourceImpl(uri);
+        resourceSet.getResources().add(resource);
+        resource.parseContainer = container;
+        resource.registry = container.getMetamodelRegistry();
+        resource.load(options);
+        return resource;
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -117,7 +156,9 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
         if (isTrackingModification()) {
             eObject.eAdapters().add(modificationTrackingAdapter);
         }
-        delegate.attachedHelper(this, eObject);
+        if (!restoringUuids) {
+            delegate.attachedHelper(this, eObject);
+        }
     }
 
     /**
@@ -127,7 +168,9 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
      */
     @Override
     protected void detachedHelper( EObject eObject ) {
-        delegate.detachedHelper(this, eObject);
+        if (!restoringUuids) {
+            delegate.detachedHelper(this, eObject);
+        }
         if (isTrackingModification()) {
             eObject.eAdapters().remove(modificationTrackingAdapter);
         }
@@ -279,25 +322,38 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
                 }
             }
 
-            XMLHelper xmiHelper = createXMLHelper();
-            MtkXmiResourceLoader loader = new MtkXmiResourceLoader(xmiHelper, getContainer());
-            loader.load(this, inputStream, options == null ? Collections.EMPTY_MAP : options);
-            // Loop through contents to ensure even transient objects created by EMF during the load have a UUID.
-            // This is a very inefficient way of handling this problem, but no other reasonable solution is currently apparent.
-            for (Iterator iter = getAllContents(); iter.hasNext();) {
-                EObject eObject = (EObject)iter.next();
-                if (getUuid(eObject) == null) {
-                    String uuid = MtkXmiResourceImpl.DETACHED_EOBJECT_TO_UUID_MAP.remove(eObject);
-                    if (uuid == null) {
-                        uuid = IDGenerator.getInstance().create().toString();
-                    } else {
-                        MtkXmiResourceImpl.DETACHED_UUID_TO_EOBJECT_MAP.remove(uuid);
+            // Take the contents of a model already parsed, or load large models from their binary snapshot if there is a
+            // current one, rather than parsing the XMI
+            final MtkXmiResourceImpl parsed = getParsedResource(options);
+            final XmiSnapshotCache snapshots = (parsed == null ? getSnapshotCache() : null);
+            final File modelFile = getSnapshotModelFile(snapshots);
+            if (parsed != null) {
+                moveContents(parsed);
+            } else if (modelFile == null || !loadSnapshot(snapshots, modelFile)) {
+                XMLHelper xmiHelper = createXMLHelper();
+                MtkXmiResourceLoader loader = new MtkXmiResourceLoader(xmiHelper, this.parseContainer != null ? this.parseContainer : getContainer());
+                loader.load(this, inputStream, options == null ? Collections.EMPTY_MAP : options);
+                // Loop through contents to ensure even transient objects created by EMF during the load have a UUID.
+                // This is a very inefficient way of handling this problem, but no other reasonable solution is currently apparent.
+                for (Iterator iter = getAllContents(); iter.hasNext();) {
+                    EObject eObject = (EObject)iter.next();
+                    if (getUuid(eObject) == null) {
+                        String uuid = MtkXmiResourceImpl.DETACHED_EOBJECT_TO_UUID_MAP.remove(eObject);
+                        if (uuid == null) {
+                            uuid = IDGenerator.getInstance().create().toString();
+                        } else {
+                            MtkXmiResourceImpl.DETACHED_UUID_TO_EOBJECT_MAP.remove(uuid);
+                        }
+                        setID(eObject, uuid);
                     }
-                    setID(eObject, uuid);
                 }
-            }
-            if (xmiHelper instanceof MtkXmiHelper) {
-                this.prefixesToURIs = ((MtkXmiHelper)xmiHelper).getPrefixesToURIs();
+                if (xmiHelper instanceof MtkXmiHelper) {
+                    this.prefixesToURIs = ((MtkXmiHelper)xmiHelper).getPrefixesToURIs();
+                }
+
+                if (modelFile != null) {
+                    saveSnapshot(snapshots, modelFile);
+                }
             }
 
             // commit the txn if we started it.
@@ -319,6 +375,107 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
         }
     }
 
+    /**
+     * @return the resource parsed from the same model file, as given by the {@link #OPTION_PARSED_RESOURCE} load option, or null
+     */
+    private MtkXmiResourceImpl getParsedResource( final Map options ) {
+        final Object parsed = (options == null ? null : options.get(OPTION_PARSED_RESOURCE));
+        if (parsed instanceof MtkXmiResourceImpl && parsed != this && getURI().equals(((MtkXmiResourceImpl)parsed).getURI())) {
+            return (MtkXmiResourceImpl)parsed;
+        }
+        return null;
+    }
+
+    /**
+     * Move the contents of a resource parsed from the same model file into this resource, keeping their UUIDs. The parsed
+     * resource is left empty.
+     */
+    private void moveContents( final MtkXmiResourceImpl parsed ) {
+        // Take the UUIDs first, so none are generated as the objects are attached to this resource
+        for (final Iterator iter = parsed.getEObjectToIDMap().entrySet().iterator(); iter.hasNext();) {
+            final Map.Entry entry = (Map.Entry)iter.next();
+            setID((EObject)entry.getKey(), (String)entry.getValue());
+        }
+        parsed.restoringUuids = true;
+        try {
+            getContents().addAll(new ArrayList(parsed.getContents()));
+        } finally {
+            parsed.restoringUuids = false;
+        }
+        parsed.getEObjectToIDMap().clear();
+        parsed.getIDToEObjectMap().clear();
+
+        this.prefixesToURIs = parsed.getNamespacePrefixToUris();
+        moveNamespaceConversions(parsed);
+        getErrors().addAll(parsed.getErrors());
+        getWarnings().addAll(parsed.getWarnings());
+    }
+
+    /**
+     * Register the namespace conversions to this model found while parsing it, as loading this resource would have.
+     */
+    private void moveNamespaceConversions( final MtkXmiResourceImpl parsed ) {
+        final ResourceSet parsedResourceSet = parsed.getResourceSet();
+        final ResourceSet resourceSet = getResourceSet();
+        if (parsedResourceSet == null || resourceSet == null) {
+            return;
+        }
+        final Map uriMap = resourceSet.getURIConverter().getURIMap();
+        for (final Iterator iter = parsedResourceSet.getURIConverter().getURIMap().entrySet().iterator(); iter.hasNext();) {
+            final Map.Entry entry = (Map.Entry)iter.next();
+            if (getURI().equals(entry.getValue())) {
+                uriMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the cache of binary snapshots to load this resource from, or null if snapshots are not used
+     */
+    protected XmiSnapshotCache getSnapshotCache() {
+        return XmiSnapshotCache.getDefault();
+    }
+
+    /**
+     * @return the model file to load from, and save to, the snapshot cache, or null if this resource is not to use the cache
+     */
+    private File getSnapshotModelFile( final XmiSnapshotCache snapshots ) {
+        if (snapshots == null || !getURI().isFile()) {
+            return null;
+        }
+        final File modelFile = new File(getURI().toFileString());
+        return (modelFile.isFile() && snapshots.isSnapshotCandidate(modelFile) ? modelFile : null);
+    }
+
+    /**
+     * Load the contents from the snapshot of the model file. A snapshot that cannot be read is discarded by the cache, leaving
+     * this resource empty so it can be loaded from the XMI instead.
+     * 
+     * @return true if the contents were loaded from the snapshot
+     */
+    private boolean loadSnapshot( final XmiSnapshotCache snapshots,
+                                  final File modelFile ) {
+        this.restoringUuids = true;
+        try {
+            return snapshots.load(this, modelFile);
+        } finally {
+            this.restoringUuids = false;
+        }
+    }
+
+    /**
+     * Save a snapshot of the contents just loaded from the model file. Failing to save it does not affect this resource.
+     */
+    private void saveSnapshot( final XmiSnapshotCache snapshots,
+                               final File modelFile ) {
+        try {
+            snapshots.save(this, modelFile);
+        } catch (final Exception e) {
+            ModelerCore.Util.log(IStatus.WARNING, e, ModelerCore.Util.getString("MtkXmiResourceImpl.Unable_to_save_snapshot", getURI())); //$NON-NLS-1$
+            snapshots.remove(getURI());
+        }
+    }
+
     /**
      * @see org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl#doSave(java.io.OutputStream, java.util.Map)
      */
@@ -919,6 +1076,13 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
         return this.prefixesToURIs;
     }
 
+    /**
+     * @param prefixesToURIs the namespace prefixes and URIs of the model, as read by {@link MtkXmiHelper#getPrefixesToURIs()}
+     */
+    void setNamespacePrefixToUris( final List prefixesToURIs ) {
+        this.prefixesToURIs = prefixesToURIs;
+    }
+
     /**
      * @see org.eclipse.emf.ecore.resource.Resource#getURIFragment(org.eclipse.emf.ecore.EObject)
      */
@@ -0,0 +1,419 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource.xmi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.emf.common.util.BasicEMap;
+import org.eclipse.emf.common.util.EMap;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.URIHandlerImpl;
+import org.eclipse.xsd.XSDPackage;
+import org.teiid.core.designer.util.ChecksumUtil;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.ModelerCore;
+
+/**
+ * A cache of binary snapshots of {@link MtkXmiResourceImpl XMI model resources}, so that a large model can be loaded again
+ * without parsing its XMI.
+ * <p>
+ * A snapshot holds the contents of a resource in the EMF {@link org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl binary
+ * format}, which keeps references to other resources as unresolved proxy URIs, followed by the namespace prefixes read from the
+ * XMI and the UUID of every object. Each resource has at most one snapshot, which records the length and checksum of the
+ * model file it was taken from; a snapshot that no longer matches the model file, or that was written by a different version
+ * of the product, is ignored and replaced the next time the model is loaded from XMI. A snapshot that cannot be read is
+ * deleted.
+ * </p>
+ * <p>
+ * Snapshots are only taken of models at least {@link #MINIMUM_FILE_SIZE} bytes long, since smaller models are read quickly
+ * enough from XMI, and never of models containing XML Schema components, whose loading has side effects on the resource set.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class XmiSnapshotCache {
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, that turns on model snapshots. Defaults to false.
+     */
+    public static final String SNAPSHOTS_PREF_KEY = "MtkXmiResourceImpl.snapshots"; //$NON-NLS-1$
+
+    /**
+     * The system property that, when set, overrides the {@link #SNAPSHOTS_PREF_KEY snapshots preference}.
+     */
+    public static final String SNAPSHOTS_PROPERTY = "org.teiid.designer.xmiSnapshots"; //$NON-NLS-1$
+
+    /**
+     * The length, in bytes, below which model files are not snapshot.
+     */
+    public static final long MINIMUM_FILE_SIZE = 1024 * 1024;
+
+    /**
+     * The name of the folder, in the {@link ModelerCore} state location, holding the snapshots.
+     */
+    public static final String SNAPSHOT_FOLDER_NAME = "xmiSnapshots"; //$NON-NLS-1$
+
+    private static final String SNAPSHOT_FILE_EXTENSION = ".snapshot"; //$NON-NLS-1$
+    private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+    private static final int SNAPSHOT_SIGNATURE = 0x4D584D53;
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static XmiSnapshotCache defaultCache;
+
+    /**
+     * @return true if models should be loaded from, and saved to, the {@link #getDefault() default snapshot cache}
+     */
+    public static boolean isSnapshotEnabled() {
+        final String property = System.getProperty(SNAPSHOTS_PROPERTY);
+        if (property != null) {
+            return Boolean.valueOf(property).booleanValue();
+        }
+        if (ModelerCore.getPlugin() == null) {
+            // non plugin environment
+            return false;
+        }
+        return ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getBoolean(SNAPSHOTS_PREF_KEY, false);
+    }
+
+    /**
+     * @return the snapshot cache in the {@link ModelerCore} state location, or null if snapshots are not
+     *         {@link #isSnapshotEnabled() enabled} or there is no state location
+     */
+    public static synchronized XmiSnapshotCache getDefault() {
+        if (!isSnapshotEnabled() || ModelerCore.getPlugin() == null) {
+            return null;
+        }
+        if (defaultCache == null) {
+            final File folder = ModelerCore.getPlugin().getStateLocation().append(SNAPSHOT_FOLDER_NAME).toFile();
+            defaultCache = new XmiSnapshotCache(folder);
+        }
+        return defaultCache;
+    }
+
+    private final File folder;
+    private final String version;
+    private final long minimumFileSize;
+
+    /**
+     * Construct an instance of XmiSnapshotCache.
+     *
+     * @param folder the folder holding the snapshots; created when the first snapshot is saved
+     */
+    public XmiSnapshotCache( final File folder ) {
+        this(folder, ModelerCore.ILicense.VERSION);
+    }
+
+    /**
+     * Construct an instance of XmiSnapshotCache.
+     *
+     * @param folder the folder holding the snapshots; created when the first snapshot is saved
+     * @param version the product version; snapshots saved by other versions are ignored
+     */
+    XmiSnapshotCache( final File folder,
+                      final String version ) {
+        this(folder, version, MINIMUM_FILE_SIZE);
+    }
+
+    /**
+     * Construct an instance of XmiSnapshotCache.
+     *
+     * @param folder the folder holding the snapshots; created when the first snapshot is saved
+     * @param version the product version; snapshots saved by other versions are ignored
+     * @param minimumFileSize the length, in bytes, below which model files are not snapshot
+     */
+    XmiSnapshotCache( final File folder,
+                      final String version,
+                      final long minimumFileSize ) {
+        CoreArgCheck.isNotNull(folder);
+        this.folder = folder;
+        this.version = (version == null ? "" : version); //$NON-NLS-1$
+        this.minimumFileSize = minimumFileSize;
+    }
+
+    /**
+     * @return the folder holding the snapshots
+     */
+    public File getFolder() {
+        return this.folder;
+    }
+
+    /**
+     * @param uri the URI of a resource
+     * @return the file holding the snapshot of the resource, which may not exist
+     */
+    public File getSnapshotFile( final URI uri ) {
+        final String uriString = uri.toString();
+        final String name = Integer.toHexString(uriString.hashCode()) + Integer.toHexString(uriString.length());
+        return new File(this.folder, name + SNAPSHOT_FILE_EXTENSION);
+    }
+
+    /**
+     * @param modelFile the model file of a resource
+     * @return true if the model file is large enough to be worth a snapshot
+     */
+    public boolean isSnapshotCandidate( final File modelFile ) {
+        return modelFile.length() >= this.minimumFileSize;
+    }
+
+    /**
+     * Load the contents of the resource from its snapshot, if there is one that matches the model file. The resource is expected
+     * to be empty. If the snapshot cannot be read, because it is truncated or corrupt, the snapshot is deleted and the resource is
+     * emptied again.
+     *
+     * @param resource the resource to load
+     * @param modelFile the model file of the resource
+     * @return true if the resource was loaded from its snapshot, or false if there is no snapshot matching the model file or it
+     *         cannot be read
+     */
+    public boolean load( final MtkXmiResourceImpl resource,
+                         final File modelFile ) {
+        final File snapshotFile = getSnapshotFile(resource.getURI());
+        if (!snapshotFile.isFile()) {
+            return false;
+        }
+        try {
+            return read(resource, modelFile, snapshotFile);
+        } catch (final IOException e) {
+            discard(resource, snapshotFile, e);
+        } catch (final RuntimeException e) {
+            discard(resource, snapshotFile, e);
+        }
+        return false;
+    }
+
+    private boolean read( final MtkXmiResourceImpl resource,
+                          final File modelFile,
+                          final File snapshotFile ) throws IOException {
+        final InputStream stream = new BufferedInputStream(new FileInputStream(snapshotFile), BUFFER_SIZE);
+        try {
+            if (!readHeader(new DataInputStream(stream), resource.getURI(), modelFile)) {
+                return false;
+            }
+
+            final EObjectInputStream input = new EObjectInputStream(stream, createOptions());
+            input.loadResource(resource);
+
+            final int prefixCount = input.readCompressedInt();
+            final EMap prefixesToURIs = new BasicEMap();
+            for (int i = 0; i < prefixCount; i++) {
+                final String prefix = input.readString();
+                prefixesToURIs.put(prefix, input.readString());
+            }
+            resource.setNamespacePrefixToUris(prefixesToURIs);
+
+            // The UUIDs are in the same order as the objects
+            final int idCount = input.readCompressedInt();
+            int index = 0;
+            for (final Iterator iter = resource.getAllContents(); iter.hasNext(); index++) {
+                final EObject eObject = (EObject)iter.next();
+                if (index == idCount) {
+                    throw new IOException(ModelerCore.Util.getString("XmiSnapshotCache.Snapshot_does_not_match_contents", snapshotFile)); //$NON-NLS-1$
+                }
+                resource.setID(eObject, input.readString());
+            }
+            if (index != idCount) {
+                throw new IOException(ModelerCore.Util.getString("XmiSnapshotCache.Snapshot_does_not_match_contents", snapshotFile)); //$NON-NLS-1$
+            }
+            return true;
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Delete a snapshot that cannot be read, and empty the resource partially loaded from it.
+     */
+    private void discard( final MtkXmiResourceImpl resource,
+                          final File snapshotFile,
+                          final Exception e ) {
+        ModelerCore.Util.log(IStatus.WARNING, e, ModelerCore.Util.getString("XmiSnapshotCache.Unable_to_read_snapshot", resource.getURI())); //$NON-NLS-1$
+        resource.getContents().clear();
+        resource.getEObjectToIDMap().clear();
+        resource.getIDToEObjectMap().clear();
+        resource.setNamespacePrefixToUris(new ArrayList());
+        snapshotFile.delete();
+    }
+
+    /**
+     * Save a snapshot of the resource, replacing any existing one, if it can be {@link #canSave(MtkXmiResourceImpl) saved}.
+     *
+     * @param resource the resource, just loaded from the model file
+     * @param modelFile the model file of the resource
+     * @return true if the snapshot was saved
+     * @throws IOException if the snapshot cannot be written
+     */
+    public boolean save( final MtkXmiResourceImpl resource,
+                         final File modelFile ) throws IOException {
+        if (!canSave(resource)) {
+            return false;
+        }
+        final File snapshotFile = getSnapshotFile(resource.getURI());
+        if (!this.folder.isDirectory() && !this.folder.mkdirs()) {
+            throw new IOException(ModelerCore.Util.getString("XmiSnapshotCache.Unable_to_create_folder", this.folder)); //$NON-NLS-1$
+        }
+
+        // Write to a temporary file first, so a snapshot is never seen half written
+        final File tempFile = new File(this.folder, snapshotFile.getName() + TEMP_FILE_EXTENSION);
+        boolean written = false;
+        final OutputStream stream = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE);
+        try {
+            final DataOutputStream header = new DataOutputStream(stream);
+            writeHeader(header, resource.getURI(), modelFile);
+            header.flush();
+
+            final EObjectOutputStream output = new EObjectOutputStream(stream, createOptions());
+            output.saveResource(resource);
+
+            final List prefixesToURIs = resource.getNamespacePrefixToUris();
+            final List entries = new ArrayList();
+            if (prefixesToURIs != null) {
+                for (final Iterator iter = prefixesToURIs.iterator(); iter.hasNext();) {
+                    final Object next = iter.next();
+                    if (next instanceof Map.Entry) {
+                        entries.add(next);
+                    }
+                }
+            }
+            output.writeCompressedInt(entries.size());
+            for (final Iterator iter = entries.iterator(); iter.hasNext();) {
+                final Map.Entry entry = (Map.Entry)iter.next();
+                output.writeString((String)entry.getKey());
+                output.writeString((String)entry.getValue());
+            }
+
+            final List ids = new ArrayList();
+            for (final Iterator iter = resource.getAllContents(); iter.hasNext();) {
+                ids.add(resource.getID((EObject)iter.next()));
+            }
+            output.writeCompressedInt(ids.size());
+            for (final Iterator iter = ids.iterator(); iter.hasNext();) {
+                output.writeString((String)iter.next());
+            }
+            output.flush();
+            written = true;
+        } finally {
+            stream.close();
+            if (!written) {
+                tempFile.delete();
+            }
+        }
+
+        snapshotFile.delete();
+        if (!tempFile.renameTo(snapshotFile)) {
+            tempFile.delete();
+            throw new IOException(ModelerCore.Util.getString("XmiSnapshotCache.Unable_to_write_snapshot", snapshotFile)); //$NON-NLS-1$
+        }
+        return true;
+    }
+
+    /**
+     * @param resource the resource
+     * @return true if a snapshot of the resource can be saved
+     */
+    public boolean canSave( final MtkXmiResourceImpl resource ) {
+        if (!resource.getErrors().isEmpty()) {
+            return false;
+        }
+        for (final Iterator iter = resource.getAllContents(); iter.hasNext();) {
+            final EObject eObject = (EObject)iter.next();
+            if (eObject.eIsProxy() || resource.getID(eObject) == null) {
+                return false;
+            }
+            // XSD components are updated, and their namespaces mapped in the resource set, as they are read from XMI
+            final EPackage ePackage = eObject.eClass().getEPackage();
+            if (ePackage != null && XSDPackage.eNS_URI.equals(ePackage.getNsURI())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Delete the snapshot of a resource.
+     *
+     * @param uri the URI of the resource
+     * @return true if there was a snapshot and it was deleted
+     */
+    public boolean remove( final URI uri ) {
+        final File snapshotFile = getSnapshotFile(uri);
+        return snapshotFile.isFile() && snapshotFile.delete();
+    }
+
+    /**
+     * Delete all snapshots.
+     */
+    public void clear() {
+        final File[] files = this.folder.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++) {
+                final String name = files[i].getName();
+                if (name.endsWith(SNAPSHOT_FILE_EXTENSION) || name.endsWith(TEMP_FILE_EXTENSION)) {
+                    files[i].delete();
+                }
+            }
+        }
+    }
+
+    private Map createOptions() {
+        final Map options = new HashMap();
+        // References to other models are kept relative to the model, as they are in the XMI
+        options.put(XMLResource.OPTION_URI_HANDLER, new URIHandlerImpl());
+        return options;
+    }
+
+    private void writeHeader( final DataOutputStream header,
+                              final URI uri,
+                              final File modelFile ) throws IOException {
+        header.writeInt(SNAPSHOT_SIGNATURE);
+        header.writeInt(SNAPSHOT_FORMAT_VERSION);
+        header.writeUTF(this.version);
+        header.writeUTF(uri.toString());
+        header.writeLong(modelFile.length());
+        header.writeLong(ChecksumUtil.computeChecksum(modelFile));
+    }
+
+    /**
+     * @return true if the header matches this cache, the resource and the current contents of the model file
+     */
+    private boolean readHeader( final DataInputStream header,
+                                final URI uri,
+                                final File modelFile ) throws IOException {
+        if (header.readInt() != SNAPSHOT_SIGNATURE || header.readInt() != SNAPSHOT_FORMAT_VERSION) {
+            return false;
+        }
+        if (!this.version.equals(header.readUTF()) || !uri.toString().equals(header.readUTF())) {
+            return false;
+        }
+        // Compare the lengths first, since computing the checksum reads the whole model file
+        if (header.readLong() != modelFile.length()) {
+            return false;
+        }
+        return header.readLong() == ChecksumUtil.computeChecksum(modelFile);
+    }
+}
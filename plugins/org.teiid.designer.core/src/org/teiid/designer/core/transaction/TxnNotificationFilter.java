@@ -12,7 +12,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,13 +37,49 @@ import org.teiid.designer.metamodels.transformation.TransformationContainer;
 
 
 /**
+ * Coalesces the notifications of a transaction into one {@link SourcedNotification} per notifier.
+ * <p>
+ * The NotifierEventSet instances are indexed by notifier, and by each object that contained their notifier when they were
+ * indexed. Notifications that add an object to a container index the event sets of that object and its descendants under
+ * their new ancestors, so the ancestor index always includes the current ancestors; entries for objects that are no longer
+ * ancestors are verified with {@link #isAncestor(Object, Object)} before use and dropped. Each notification is then processed
+ * in time proportional to the depth of its notifier rather than to the number of event sets, and the event sets discarded
+ * during large transactions are released as the transaction goes.
+ * </p>
+ *
  * @since 8.0
  */
 public class TxnNotificationFilter {
 
+    /**
+     * The minimum number of discarded event sets before they are removed from the event set list and the ancestor index
+     */
+    private static final int MIN_DISCARDED_TO_COMPACT = 256;
+
+    /**
+     * The NotifierEventSet instances in the order they were created; discarded instances are empty until compacted
+     */
     private final List eventSets;
+
+    /**
+     * The non-empty NotifierEventSet for each notifier, keyed by identity
+     */
+    private final Map eventSetsByNotifier;
+
+    /**
+     * The set of NotifierEventSet instances whose notifier was contained by each object, keyed by identity
+     */
+    private final Map eventSetsByAncestor;
+
     private final ResourceSet resourceSet;
 
+    private int eventSetCount;
+    private int discardedCount;
+
+    private int notificationsIn;
+    private int notificationsIgnored;
+    private int notificationsOut;
+
     // ==================================================================================
     // C O N S T R U C T O R S
     // ==================================================================================
@@ -52,6 +90,8 @@ public class TxnNotificationFilter {
     public TxnNotificationFilter( final ResourceSet theResourceSet ) {
         CoreArgCheck.isNotNull(theResourceSet);
         this.eventSets = new ArrayList();
+        this.eventSetsByNotifier = new IdentityHashMap();
+        this.eventSetsByAncestor = new IdentityHashMap();
         this.resourceSet = theResourceSet;
     }
 
@@ -68,12 +108,14 @@ public class TxnNotificationFilter {
 
         // Get a SourcedNotification for each NotifierEventSet
         List result = new ArrayList(this.eventSets.size());
+        this.notificationsOut = 0;
         for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
             NotifierEventSet es = (NotifierEventSet)i.next();
             if (!es.isEmpty()) {
                 SourcedNotification sn = es.getSourcedNotification(source);
                 if (sn != null) {
                     result.add(sn);
+                    this.notificationsOut += es.size();
                 }
             }
         }
@@ -89,6 +131,13 @@ public class TxnNotificationFilter {
             es.clear();
         }
         this.eventSets.clear();
+        this.eventSetsByNotifier.clear();
+        this.eventSetsByAncestor.clear();
+        this.eventSetCount = 0;
+        this.discardedCount = 0;
+        this.notificationsIn = 0;
+        this.notificationsIgnored = 0;
+        this.notificationsOut = 0;
     }
 
     /**
@@ -99,20 +148,30 @@ public class TxnNotificationFilter {
      * @since 5.0
      */
     public boolean addNotification( final Notification notification ) {
+        ++this.notificationsIn;
+
+        // Keep the ancestor index up to date with objects added to new containers, even
+        // if the notification itself is ignored
+        if (notification != null) {
+            updateAncestorIndex(notification);
+        }
+
         // If the notification can be ignored then return
         if (isIgnorable(notification)) {
+            ++this.notificationsIgnored;
             return false;
         }
 
-        // Remove any empty NotifierEventSet instances
-        removeEmptyEventSets();
-
         // If there is an existing NotifierEventSet instance for this notifier then
         // simple add the new notification to that instance
         final Object notifier = notification.getNotifier();
         NotifierEventSet eventSet = getExistingEventSet(notifier);
         if (eventSet != null) {
             eventSet.addNotification(notification);
+            if (eventSet.isEmpty()) {
+                discard(eventSet);
+                compact();
+            }
             return true;
         }
 
@@ -120,20 +179,23 @@ public class TxnNotificationFilter {
         // object then create a new NotifierEventSet instance and return
         final Object feature = notification.getFeature();
         if (feature == null && (notifier instanceof Resource || notifier instanceof ResourceSet)) {
-            eventSet = new NotifierEventSet(notifier);
-            eventSet.addNotification(notification);
-            this.eventSets.add(eventSet);
+            addEventSet(notifier, notification);
             return true;
         }
 
         // If the new notifier is the ancestor of the notifier for an existing NotifierEventSet
         // instance then we should remove the existing instance and create a new NotifierEventSet
         // for the parent notifier
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
-            NotifierEventSet es = (NotifierEventSet)i.next();
+        final Set descendants = (Set)this.eventSetsByAncestor.get(notifier);
+        if (descendants != null) {
+            for (Iterator i = descendants.iterator(); i.hasNext();) {
+                NotifierEventSet es = (NotifierEventSet)i.next();
 
-            // If the new notifier is the ancestor of the notifier for an existing NotifierEventSet
-            if (!es.isEmpty() && isAncestor(notifier, es.getNotifier())) {
+                // Drop event sets that were discarded or are no longer descendants of the new notifier
+                if (es.isEmpty() || !isAncestor(notifier, es.getNotifier())) {
+                    i.remove();
+                    continue;
+                }
 
                 // One exception to this is when the notifier for a remove notification is not
                 // a child of any NotifierEventSet added objects. We don't want to remove
@@ -143,18 +205,44 @@ public class TxnNotificationFilter {
                 if (isRemove(notification) && !isAncestor(es.getAddObjects(), notifier)) {
                     // do nothing
                 } else {
-                    es.clear();
                     i.remove();
+                    discard(es);
                 }
             }
+            if (descendants.isEmpty()) {
+                this.eventSetsByAncestor.remove(notifier);
+            }
         }
-        eventSet = new NotifierEventSet(notifier);
-        eventSet.addNotification(notification);
-        this.eventSets.add(eventSet);
+        addEventSet(notifier, notification);
+        compact();
 
         return true;
     }
 
+    /**
+     * @return the number of notifications passed to {@link #addNotification(Notification)} since this filter was last cleared
+     * @since 8.0
+     */
+    public int getNotificationsIn() {
+        return this.notificationsIn;
+    }
+
+    /**
+     * @return the number of notifications ignored by {@link #addNotification(Notification)} since this filter was last cleared
+     * @since 8.0
+     */
+    public int getNotificationsIgnored() {
+        return this.notificationsIgnored;
+    }
+
+    /**
+     * @return the number of notifications in the result of the last call to {@link #getSourcedNotifications(Object)}
+     * @since 8.0
+     */
+    public int getNotificationsOut() {
+        return this.notificationsOut;
+    }
+
     // ==================================================================================
     // P R O T E C T E D M E T H O D S
     // ==================================================================================
@@ -265,23 +353,29 @@ public class TxnNotificationFilter {
         // Check if the notifier for this notification is a descendant of one of the
         // notifiers in an existing NotifierEventSet. If we have captured notifications
         // for the parent object, then we can ignore the notifications for the child.
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
-            NotifierEventSet es = (NotifierEventSet)i.next();
+        NotifierEventSet parentSet = null;
+        for (Iterator i = getAncestors(notifier).iterator(); i.hasNext();) {
+            NotifierEventSet es = getExistingEventSet(i.next());
 
             // If the NotifierEventSet notifier is a parent of the notification's notifier
-            // then we can ignore the child notification
-            if (!es.isEmpty() && isAncestor(es.getNotifier(), notifier)) {
-
-                // One exception to this is when the notifier for a remove notification is not
-                // a child of any NotifierEventSet added objects. We don't want to ignore
-                // notifications in which an object is removed from one eContainer and
-                // added to a newly created eContainer (e.g. remove column from an existing
-                // table and add it to a new created table)
-                if (isRemove(notification) && !isAncestor(es.getAddObjects(), notifier)) {
-                    return false;
-                }
-                return true;
+            // then we can ignore the child notification. Use the first such NotifierEventSet
+            // to be created.
+            if (es != null && (parentSet == null || es.getIndex() < parentSet.getIndex())
+                && isAncestor(es.getNotifier(), notifier)) {
+                parentSet = es;
+            }
+        }
+        if (parentSet != null) {
+
+            // One exception to this is when the notifier for a remove notification is not
+            // a child of any NotifierEventSet added objects. We don't want to ignore
+            // notifications in which an object is removed from one eContainer and
+            // added to a newly created eContainer (e.g. remove column from an existing
+            // table and add it to a new created table)
+            if (isRemove(notification) && !isAncestor(parentSet.getAddObjects(), notifier)) {
+                return false;
             }
+            return true;
         }
 
         return false;
@@ -393,26 +487,101 @@ public class TxnNotificationFilter {
      * @return
      */
     protected NotifierEventSet getExistingEventSet( final Object notifier ) {
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
-            NotifierEventSet es = (NotifierEventSet)i.next();
-            if (es.getNotifier() == notifier) {
-                return es;
-            }
+        if (notifier == null) {
+            return null;
         }
-        return null;
+        return (NotifierEventSet)this.eventSetsByNotifier.get(notifier);
     }
 
     /**
-     * Check all existing NotifierEventSet instances and remove those that current are empty
+     * Remove all empty NotifierEventSet instances from the event set list and the ancestor index
      */
     protected void removeEmptyEventSets() {
         for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
             NotifierEventSet eventSet = (NotifierEventSet)i.next();
             if (eventSet.isEmpty()) {
                 eventSet.clear();
+                if (this.eventSetsByNotifier.get(eventSet.getNotifier()) == eventSet) {
+                    this.eventSetsByNotifier.remove(eventSet.getNotifier());
+                }
                 i.remove();
             }
         }
+        this.discardedCount = 0;
+
+        // Rebuild the ancestor index from the remaining event sets
+        this.eventSetsByAncestor.clear();
+        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
+            index((NotifierEventSet)i.next());
+        }
+    }
+
+    /**
+     * Index the NotifierEventSet instances of the objects added to a container by the specified notification, and of their
+     * descendants, under their new ancestors.
+     * 
+     * @param notification
+     * @since 8.0
+     */
+    protected void updateAncestorIndex( final Notification notification ) {
+        if (this.eventSetsByNotifier.isEmpty()) {
+            return;
+        }
+        final Object notifier = notification.getNotifier();
+        final Object feature = notification.getFeature();
+        if (!(notifier instanceof Resource || notifier instanceof ResourceSet || (feature instanceof EReference && ((EReference)feature).isContainment()))) {
+            return;
+        }
+        final Object newVal = notification.getNewValue();
+        switch (notification.getEventType()) {
+            case Notification.ADD:
+            case Notification.SET: {
+                reindex(newVal);
+                break;
+            }
+            case Notification.ADD_MANY: {
+                if (newVal instanceof List) {
+                    for (Iterator i = ((List)newVal).iterator(); i.hasNext();) {
+                        reindex(i.next());
+                    }
+                }
+                break;
+            }
+            default: {
+                // do nothing
+            }
+        }
+    }
+
+    /**
+     * Return the objects that may be ancestors of the specified object according to {@link #isAncestor(Object, Object)}: its
+     * containers, the resources directly containing it or any of its containers, and the resource sets of those resources.
+     * 
+     * @param obj
+     * @return the possible ancestors, nearest first
+     * @since 8.0
+     */
+    protected List getAncestors( final Object obj ) {
+        final List result = new ArrayList();
+        if (obj instanceof EObject) {
+            for (InternalEObject eObject = (InternalEObject)obj; eObject != null; eObject = eObject.eInternalContainer()) {
+                if (eObject != obj) {
+                    result.add(eObject);
+                }
+                final Resource resource = eObject.eDirectResource();
+                if (resource != null) {
+                    result.add(resource);
+                    if (resource.getResourceSet() != null) {
+                        result.add(resource.getResourceSet());
+                    }
+                }
+            }
+        } else if (obj instanceof Resource) {
+            if (((Resource)obj).getResourceSet() != null) {
+                result.add(((Resource)obj).getResourceSet());
+            }
+        }
+        return result;
     }
 
     /**
@@ -424,6 +593,16 @@ public class TxnNotificationFilter {
      */
     protected boolean isAncestor( final Collection ancestors,
                                   final Object obj ) {
+        if (ancestors instanceof Set && ancestors.size() > 1) {
+            // Look up the possible ancestors of the object rather than testing each of the candidates
+            for (Iterator i = getAncestors(obj).iterator(); i.hasNext();) {
+                final Object ancestor = i.next();
+                if (ancestors.contains(ancestor) && isAncestor(ancestor, obj)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         if (ancestors != null && !ancestors.isEmpty()) {
             for (Iterator i = ancestors.iterator(); i.hasNext();) {
                 if (isAncestor(i.next(), obj)) {
@@ -469,6 +648,74 @@ public class TxnNotificationFilter {
         return false;
     }
 
+    // ==================================================================================
+    // P R I V A T E M E T H O D S
+    // ==================================================================================
+
+    private void addEventSet( final Object notifier,
+                              final Notification notification ) {
+        final NotifierEventSet eventSet = new NotifierEventSet(notifier, this.eventSetCount++);
+        eventSet.addNotification(notification);
+        if (eventSet.isEmpty()) {
+            return;
+        }
+        this.eventSets.add(eventSet);
+        this.eventSetsByNotifier.put(notifier, eventSet);
+        index(eventSet);
+    }
+
+    /**
+     * Clear the specified event set and remove it from the notifier index. It stays in the event set list and the ancestor index
+     * until {@link #compact()}.
+     */
+    private void discard( final NotifierEventSet eventSet ) {
+        eventSet.clear();
+        if (this.eventSetsByNotifier.get(eventSet.getNotifier()) == eventSet) {
+            this.eventSetsByNotifier.remove(eventSet.getNotifier());
+        }
+        ++this.discardedCount;
+    }
+
+    /**
+     * Remove the discarded event sets once there are enough of them for this to take time proportional to the number discarded
+     */
+    private void compact() {
+        if (this.discardedCount >= MIN_DISCARDED_TO_COMPACT && this.discardedCount > this.eventSets.size() / 2) {
+            removeEmptyEventSets();
+        }
+    }
+
+    private void index( final NotifierEventSet eventSet ) {
+        for (Iterator i = getAncestors(eventSet.getNotifier()).iterator(); i.hasNext();) {
+            final Object ancestor = i.next();
+            Set descendants = (Set)this.eventSetsByAncestor.get(ancestor);
+            if (descendants == null) {
+                descendants = new HashSet();
+                this.eventSetsByAncestor.put(ancestor, descendants);
+            }
+            descendants.add(eventSet);
+        }
+    }
+
+    private void reindex( final Object obj ) {
+        if (obj == null) {
+            return;
+        }
+        final NotifierEventSet eventSet = getExistingEventSet(obj);
+        if (eventSet != null) {
+            index(eventSet);
+        }
+        final Set descendants = (Set)this.eventSetsByAncestor.get(obj);
+        if (descendants != null) {
+            for (Iterator i = new ArrayList(descendants).iterator(); i.hasNext();) {
+                final NotifierEventSet es = (NotifierEventSet)i.next();
+                if (!es.isEmpty()) {
+                    index(es);
+                }
+            }
+        }
+    }
+
     // ==================================================================================
     // I N N E R C L A S S
     // ==================================================================================
@@ -479,7 +726,8 @@ public class TxnNotificationFilter {
     private class NotifierEventSet {
 
         private final Object notifier;
-        private final List notifications;
+        private final int index;
+        private final Set notifications;
         private final Map addEvents;
         private final Map removeEvents;
         private final Set addObjects;
@@ -492,9 +740,11 @@ public class TxnNotificationFilter {
         /**
          * @since 4.3
          */
-        public NotifierEventSet( final Object theNotifier ) {
+        public NotifierEventSet( final Object theNotifier,
+                                 final int theIndex ) {
             this.notifier = theNotifier;
-            this.notifications = new ArrayList();
+            this.index = theIndex;
+            this.notifications = new LinkedHashSet();
             this.addEvents = new HashMap();
             this.removeEvents = new HashMap();
             this.addObjects = new HashSet();
@@ -729,13 +979,20 @@ public class TxnNotificationFilter {
                 }
             }
 
-            return (Notification)this.notifications.get(0);
+            return (Notification)this.notifications.iterator().next();
         }
 
         public Object getNotifier() {
             return this.notifier;
         }
 
+        /**
+         * @return the order in which this NotifierEventSet was created
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
         public SourcedNotification getSourcedNotification( final Object source ) {
             SourcedNotification sn = null;
             if (!isEmpty()) {
@@ -755,6 +1012,10 @@ public class TxnNotificationFilter {
             return this.notifications.isEmpty();
         }
 
+        public int size() {
+            return this.notifications.size();
+        }
+
         public void clear() {
             this.notifications.clear();
             this.addEvents.clear();
@@ -288,6 +288,9 @@ public class UnitOfWorkImpl implements UnitOfWork {
         } else {
             System.out.println("\nTxnNotificationFilter result:"); //$NON-NLS-1$
         }
+        System.out.println("   notifications in: " + this.filter.getNotificationsIn() //$NON-NLS-1$
+                           + ", ignored: " + this.filter.getNotificationsIgnored() //$NON-NLS-1$
+                           + ", out: " + this.filter.getNotificationsOut()); //$NON-NLS-1$
         for (Iterator i = sns.iterator(); i.hasNext();) {
             SourcedNotificationImpl sn = (SourcedNotificationImpl)i.next();
             System.out.println(sn.getNotifier());
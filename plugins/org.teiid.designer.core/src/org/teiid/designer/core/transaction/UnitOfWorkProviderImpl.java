@@ -9,9 +9,10 @@ package org.teiid.designer.core.transaction;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.teiid.core.designer.id.LongIDFactory;
@@ -24,7 +25,20 @@ import org.teiid.designer.core.ModelerCore;
  */
 public class UnitOfWorkProviderImpl implements UnitOfWorkProvider {
     private final static boolean DEBUG = false;
-    private final static HashMap current = new HashMap();
+    /**
+     * The number of units of work created between two removals of the entries of dead threads
+     */
+    private final static int PRUNE_INTERVAL = 64;
+
+    /**
+     * The current unit of work of each thread. Each thread only reads and replaces its own entry, so no lock is needed.
+     */
+    private final static Map current = new ConcurrentHashMap();
+
+    private final static AtomicLong lookupCount = new AtomicLong();
+    private final static AtomicLong createdCount = new AtomicLong();
+    private final static AtomicLong pruneCount = new AtomicLong();
+    private final static AtomicLong prunedThreadCount = new AtomicLong();
 
     private final ResourceSet resources;
     private final Collection undoableListeners;
@@ -49,31 +63,71 @@ public class UnitOfWorkProviderImpl implements UnitOfWorkProvider {
      */
     @Override
 	public UnitOfWork getCurrent() {
-        UnitOfWork uow = null;
-        synchronized (current) {
-            final Iterator threads = current.entrySet().iterator();
-            while (threads.hasNext()) {
-                final Map.Entry entry = (Map.Entry)threads.next();
-                if (entry.getKey() == Thread.currentThread()) {
-                    uow = (UnitOfWork)entry.getValue();
-                    // If this uow is complete... don't use it
-                    if (uow.isComplete()) {
-                        uow = null;
-                    }
-                } else if (!((Thread)entry.getKey()).isAlive()) {
-                    // Maintenance of map of current threads to ensure we don't
-                    // create a memory leak.
-                    threads.remove();
-                }
+        lookupCount.incrementAndGet();
+        final Thread thread = Thread.currentThread();
+        UnitOfWork uow = (UnitOfWork)current.get(thread);
+        // If this uow is complete... don't use it
+        if (uow == null || uow.isComplete()) {
+            uow = new UnitOfWorkImpl(resources);
+            current.put(thread, uow);
+            if (createdCount.incrementAndGet() % PRUNE_INTERVAL == 0) {
+                pruneDeadThreads();
             }
+        }
+
+        return uow;
+    }
 
-            if (uow == null) {
-                uow = new UnitOfWorkImpl(resources);
-                current.put(Thread.currentThread(), uow);
+    /**
+     * Maintenance of map of current threads to ensure we don't create a memory leak. This is only done every
+     * {@link #PRUNE_INTERVAL} new units of work rather than on every call to {@link #getCurrent()}, so the map holds at most that
+     * many entries of dead threads.
+     */
+    static void pruneDeadThreads() {
+        pruneCount.incrementAndGet();
+        final Iterator threads = current.keySet().iterator();
+        while (threads.hasNext()) {
+            if (!((Thread)threads.next()).isAlive()) {
+                threads.remove();
+                prunedThreadCount.incrementAndGet();
             }
         }
+    }
 
-        return uow;
+    /**
+     * @return the number of threads with a current unit of work, including dead threads not yet pruned
+     */
+    static int getThreadCount() {
+        return current.size();
+    }
+
+    /**
+     * @return the number of calls to {@link #getCurrent()} by all providers
+     */
+    public static long getLookupCount() {
+        return lookupCount.get();
+    }
+
+    /**
+     * @return the number of units of work created by {@link #getCurrent()} because the thread had none or its last one was
+     *         complete
+     */
+    public static long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * @return the number of times the entries of dead threads were searched for
+     */
+    public static long getPruneCount() {
+        return pruneCount.get();
+    }
+
+    /**
+     * @return the number of entries of dead threads that were removed
+     */
+    public static long getPrunedThreadCount() {
+        return prunedThreadCount.get();
     }
 
     /**
@@ -83,13 +137,11 @@ public class UnitOfWorkProviderImpl implements UnitOfWorkProvider {
      */
     @Override
 	public void cleanup( final Thread thread ) {
-        synchronized (current) {
-            if (DEBUG) {
-                System.out.println(ModelerCore.Util.getString("UnitOfWorkProviderImpl.Removing__2") + current.get(thread)); //$NON-NLS-1$
-            }
-
-            current.remove(thread);
+        if (DEBUG) {
+            System.out.println(ModelerCore.Util.getString("UnitOfWorkProviderImpl.Removing__2") + current.get(thread)); //$NON-NLS-1$
         }
+
+        current.remove(thread);
     }
 
     @Override
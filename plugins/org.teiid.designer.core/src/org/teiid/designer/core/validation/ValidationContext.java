@@ -109,6 +109,26 @@ public class ValidationContext {
         this.preferenceStatusMap = new HashMap<String, Integer>();   
     }
 
+    /**
+     * Create a context with the same settings, preferences and scope as this one, but none of its state or results. Used to
+     * validate resources on another thread; the state of a context may only be used by one thread at a time.
+     * 
+     * @return the new context; never null
+     * @since 8.0
+     */
+    public ValidationContext copySettings() {
+        final ValidationContext copy = new ValidationContext(this.preferenceQualifier);
+        copy.preferenceStatusMap.putAll(this.preferenceStatusMap);
+        copy.resourcesToValidate = this.resourcesToValidate;
+        copy.resourcesInScope = this.resourcesInScope;
+        copy.resourceContainer = this.resourceContainer;
+        copy.useServerIndexes = this.useServerIndexes;
+        copy.useIndexesToResolve = this.useIndexesToResolve;
+        copy.cacheMappingRootResults = this.cacheMappingRootResults;
+        copy.indexDirectory = this.indexDirectory;
+        return copy;
+    }
+
     /**
      * Add the uuid to the context, these uuid strings are used to check uniqueness.
      */
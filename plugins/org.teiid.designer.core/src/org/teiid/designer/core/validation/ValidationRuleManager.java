@@ -64,7 +64,7 @@ public class ValidationRuleManager {
      * @param eClass the {@link org.eclipse.emf.ecore.EClass} instance - may not be null
      * @param ruleSet the set of validation rules to associate with this EClass - may not be null.
      */
-    public void addRuleSet(final EClass eClass, final ValidationRuleSet ruleSet) {
+    public synchronized void addRuleSet(final EClass eClass, final ValidationRuleSet ruleSet) {
         CoreArgCheck.isNotNull(eClass);
         CoreArgCheck.isNotNull(ruleSet);
 
@@ -78,7 +78,7 @@ public class ValidationRuleManager {
      * @param eResource the {@link org.eclipse.emf.ecore.resource.Resource} instance - may not be null
      * @param ruleSet the set of validation rules to associate with this Resource - may not be null.
      */
-    public void addRuleSet(final Resource eResource, final ValidationRuleSet ruleSet) {
+    public synchronized void addRuleSet(final Resource eResource, final ValidationRuleSet ruleSet) {
         CoreArgCheck.isNotNull(eResource);
         CoreArgCheck.isNotNull(ruleSet);
 
@@ -105,7 +105,7 @@ public class ValidationRuleManager {
 			if(validationAspect == null || validationAspect.shouldValidate((EObject)object, context)) {
 		        final EClass key = ((EObject)object).eClass();
 		        // Retrieve the rule set from the cache
-		        ruleSet = (ValidationRuleSet) this.cache.get(key);
+		        ruleSet = getCachedRuleSet(key);
 				// If the rule set does not exist then retrieve it from the
 				// MetamodelAspect associated with that object
 				if (ruleSet == null) {
@@ -131,7 +131,7 @@ public class ValidationRuleManager {
             final Class key = object.getClass();
             
             // Retrieve the rule set from the cache
-            ruleSet = (ValidationRuleSet) this.cache.get(key);
+            ruleSet = getCachedRuleSet(key);
             
             // If the rule set does not exist then recreate it
             if (ruleSet == null) {
@@ -145,6 +145,14 @@ public class ValidationRuleManager {
         return ruleSet;
     }
 
+    /**
+     * The cache reorders its entries on every lookup, so lookups are synchronized with additions; the rules themselves are looked
+     * up and run outside the lock so several resources can be validated at once.
+     */
+    private synchronized ValidationRuleSet getCachedRuleSet(final Object key) {
+        return (ValidationRuleSet) this.cache.get(key);
+    }
+
     /**
      * Add all the core rules to the ruleSet.
      * @param ruleSet ValidationRuleSet object to be updated.
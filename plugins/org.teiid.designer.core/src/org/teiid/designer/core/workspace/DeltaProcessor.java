@@ -60,6 +60,12 @@ public class DeltaProcessor implements IResourceChangeListener {
             return;
         }
 
+        // keep the resource lookup table and the import graph current before any listener gets a chance to query them
+        if (ResourceChangeUtilities.isPostChange(event)) {
+            manager.getResourceLookup().processDelta(delta);
+            manager.getImportGraph().processDelta(delta);
+        }
+
         List deltaResourceList = new ArrayList();
         deltaResourceList.add(delta);
         buildDeltaResourceList(event, delta, deltaResourceList);
@@ -7,6 +7,9 @@
  */
 package org.teiid.designer.core.workspace;
 
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.teiid.designer.core.util.OverflowingLRUCache;
@@ -14,6 +17,16 @@ import org.teiid.designer.core.util.OverflowingLRUCache;
 
 /**
  * An LRU cache of <code>ModelBuffers</code>.
+ * <p>
+ * Besides the limit on the number of buffers, the cache may be given a limit on the estimated memory held by its buffers.
+ * When the buffers together exceed that limit, the least recently used buffers without unsaved changes are closed until the
+ * cache is back within it. The buffer most recently added is never closed this way, even if it alone exceeds the limit.
+ * </p>
+ * <p>
+ * The estimated size of a buffer is recorded when it is added, and kept as a running total so that adding a buffer does not
+ * need to visit all the others. When the estimate of a buffer in the cache changes, {@link #updateEstimatedSize(Object, long)}
+ * must be called to keep the total current.
+ * </p>
  *
  * @since 8.0
  */
@@ -22,13 +35,129 @@ public class ModelBufferCache extends OverflowingLRUCache {
      */
     private static final long serialVersionUID = 1L;
 
+    private final long memoryLimit;
+    private long evictionCount;
+
+    /** The estimated size of each buffer in the cache as recorded in {@link #estimatedSize}, by buffer */
+    private final Map estimatedSizes = new IdentityHashMap();
+    private long estimatedSize;
+
     /**
      * Constructs a new buffer cache of the given size.
      */
     public ModelBufferCache(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Constructs a new buffer cache of the given size, also limited by the estimated memory held by its buffers.
+     *
+     * @param size the maximum number of buffers
+     * @param memoryLimit the maximum estimated size of all buffers, in bytes; zero or less for no limit
+     */
+    public ModelBufferCache(int size, long memoryLimit) {
         super(size);
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * @return the maximum estimated size of all buffers, in bytes, or zero or less if there is no limit
+     */
+    public long getMemoryLimit() {
+        return this.memoryLimit;
+    }
+
+    /**
+     * @return the estimated size of all buffers in the cache, in bytes
+     */
+    public long getEstimatedSize() {
+        return this.estimatedSize;
+    }
+
+    /**
+     * Record a new estimated size for a buffer in the cache. Buffers that are not in the cache are ignored.
+     *
+     * @param value the buffer
+     * @param size the new estimated size of the buffer, in bytes
+     */
+    public void updateEstimatedSize(final Object value, final long size) {
+        final Long previous = (Long)this.estimatedSizes.get(value);
+        if (previous != null) {
+            this.estimatedSizes.put(value, Long.valueOf(size));
+            this.estimatedSize += size - previous.longValue();
+        }
+    }
+
+    /**
+     * @return the number of buffers closed to make room for others
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Returns the estimated size of a buffer in the cache, in bytes.
+     */
+    protected long getEstimatedSize(final Object value) {
+        if (value instanceof ModelBufferImpl) {
+            return ((ModelBufferImpl)value).getEstimatedSize();
+        }
+        return 0;
+    }
+
+    @Override
+    public Object put(final Object key, final Object value) {
+        // Count the new buffer first, since the cache may shrink before the put returns
+        if (value != null && !this.estimatedSizes.containsKey(value)) {
+            final long size = getEstimatedSize(value);
+            this.estimatedSizes.put(value, Long.valueOf(size));
+            this.estimatedSize += size;
+        }
+        final Object previous = super.put(key, value);
+        if (previous != value) {
+            uncount(previous);
+        }
+        return previous;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        final Object previous = super.remove(key);
+        uncount(previous);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.estimatedSizes.clear();
+        this.estimatedSize = 0;
     }
-        
+
+    private void uncount(final Object value) {
+        final Long size = (Long)this.estimatedSizes.remove(value);
+        if (size != null) {
+            this.estimatedSize -= size.longValue();
+        }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Entry eldest) {
+        super.removeEldestEntry(eldest);
+        if (this.memoryLimit > 0) {
+            // Close the least recently used buffers first, but never the one just added, which is last
+            int remaining = size() - 1;
+            for (final Iterator iter = entrySet().iterator(); this.estimatedSize > this.memoryLimit && remaining > 0 && iter.hasNext(); remaining--) {
+                final Entry entry = (Entry)iter.next();
+                final Long entrySize = (Long)this.estimatedSizes.get(entry.getValue());
+                if (entrySize != null && entrySize.longValue() > 0 && close(entry)) {
+                    iter.remove();
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns true if the buffer is successfully closed and
      * removed from the cache, otherwise false.
@@ -45,9 +174,12 @@ public class ModelBufferCache extends OverflowingLRUCache {
                 return false;
             }
             buffer.close();
+            this.evictionCount++;
+            // the caller removes the entry
+            uncount(value);
             return true;
         }
         return false;
     }
-    
+
 }
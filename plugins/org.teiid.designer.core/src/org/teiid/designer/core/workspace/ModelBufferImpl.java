@@ -13,7 +13,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.zip.Checksum;
 
@@ -24,7 +27,11 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xsd.util.XSDResourceImpl;
@@ -40,6 +47,7 @@ import org.teiid.designer.core.container.ContainerImpl;
 import org.teiid.designer.core.container.DuplicateResourceException;
 import org.teiid.designer.core.container.ResourceAction;
 import org.teiid.designer.core.resource.EmfResource;
+import org.teiid.designer.core.resource.xmi.MtkXmiResourceImpl;
 import org.teiid.designer.core.transaction.UnitOfWork;
 import org.teiid.designer.core.util.ModelContents;
 import org.teiid.designer.metamodels.core.ModelAnnotation;
@@ -52,6 +60,14 @@ import org.teiid.designer.metamodels.core.extension.XPackage;
  */
 public class ModelBufferImpl implements ModelBuffer {
 
+    /**
+     * The estimated size, in bytes, of an EObject without any of its feature values, and of each feature value that is set
+     */
+    private static final int OBJECT_SIZE = 64;
+    private static final int FEATURE_VALUE_SIZE = 16;
+    private static final int LIST_SIZE = 32;
+    private static final int STRING_SIZE = 40;
+
     private final IFile file;
     private final Openable owner;
     private final ResourceSet emfResourceSet;
@@ -63,6 +79,8 @@ public class ModelBufferImpl implements ModelBuffer {
     private long lastChecksum;
     private long lastFileSize;
     private String errorMessage;
+    private long estimatedSize = -1;
+    private long loadTime = -1;
 
     /**
      * Flag that is set to true just before the contents of the IFile are set, and set to false when the lastModificationStamp is
@@ -177,8 +195,13 @@ public class ModelBufferImpl implements ModelBuffer {
         if (!isClosed()) {
             this.emfResource.unload();
             this.contents = null;
+            synchronized (this) {
+                this.estimatedSize = -1;
+            }
             updateCachedFileInformation();
             this.errorMessage = null;
+            // let the buffer manager know the resource no longer holds its contents
+            getEstimatedSize();
         }
     }
 
@@ -239,7 +262,16 @@ public class ModelBufferImpl implements ModelBuffer {
                     this.emfResource = action.getResource();
                     File file = this.file.getLocation().toFile();
                     if (file.canRead() && file.exists() && file.length() != 0 && !this.emfResource.isLoaded()) {
-                        this.emfResource.load(this.emfResourceSet.getLoadOptions());
+                        final long start = System.currentTimeMillis();
+                        Map options = this.emfResourceSet.getLoadOptions();
+                        final MtkXmiResourceImpl parsed = ModelLoadScheduler.takeParsedResource(uri);
+                        if (parsed != null) {
+                            // take the contents already parsed by the ModelLoadScheduler
+                            options = new HashMap(options);
+                            options.put(MtkXmiResourceImpl.OPTION_PARSED_RESOURCE, parsed);
+                        }
+                        this.emfResource.load(options);
+                        this.loadTime = System.currentTimeMillis() - start;
                         justLoaded = true;
                     }
                 } catch (DuplicateResourceException e) {
@@ -442,6 +474,7 @@ public class ModelBufferImpl implements ModelBuffer {
                 this.emfResource.unload();
 
                 this.contents = null;
+                this.estimatedSize = -1;
             } catch (CoreException theException) {
                 ModelerCore.Util.log(IStatus.ERROR, theException, theException.getMessage());
             } finally {
@@ -635,6 +668,83 @@ public class ModelBufferImpl implements ModelBuffer {
         return lastChecksum;
     }
 
+    /**
+     * Returns the number of milliseconds it took to load the model's resource when this buffer was opened, or -1 if the
+     * resource was not loaded by this buffer.
+     */
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * Returns an estimate of the memory, in bytes, held by the model's resource. The estimate is based on the number of objects
+     * in the model and the values of their features, and is computed the first time it is requested after the buffer is
+     * opened or unloaded; changes made to the model afterwards are not reflected. A new estimate is reported to the buffer
+     * manager, which keeps the total of its open buffers.
+     *
+     * @return the estimated size, or zero if the buffer is closed
+     */
+    public long getEstimatedSize() {
+        final long size;
+        synchronized (this) {
+            if (isClosed()) {
+                return 0;
+            }
+            if (this.estimatedSize >= 0) {
+                return this.estimatedSize;
+            }
+            size = estimateSize(this.emfResource);
+            this.estimatedSize = size;
+        }
+        // outside the lock on this buffer, since the buffer manager locks its open buffers while asking for estimates
+        if (this.owner instanceof OpenableImpl) {
+            ((OpenableImpl)this.owner).getBufferManager().estimatedSizeChanged(this, size);
+        }
+        return size;
+    }
+
+    private static long estimateSize( final Resource resource ) {
+        long size = 0;
+        for (final TreeIterator iter = resource.getAllContents(); iter.hasNext();) {
+            final Object next = iter.next();
+            if (!(next instanceof EObject)) {
+                continue;
+            }
+            final EObject eObject = (EObject)next;
+            size += OBJECT_SIZE;
+            final List features = eObject.eClass().getEAllStructuralFeatures();
+            for (int i = 0; i < features.size(); i++) {
+                final EStructuralFeature feature = (EStructuralFeature)features.get(i);
+                if (feature.isTransient() || feature.isDerived() || !eObject.eIsSet(feature)) {
+                    continue;
+                }
+                // Contained objects are counted as the iteration reaches them
+                size += estimateSize(feature, eObject.eGet(feature, false));
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize( final EStructuralFeature feature,
+                                      final Object value ) {
+        if (value instanceof String) {
+            return FEATURE_VALUE_SIZE + STRING_SIZE + 2L * ((String)value).length();
+        }
+        if (value instanceof Collection) {
+            final Collection values = (Collection)value;
+            if (feature instanceof EReference) {
+                // Only the references themselves; iterating might resolve proxies
+                return LIST_SIZE + FEATURE_VALUE_SIZE * (values.size() + 1L);
+            }
+            long size = FEATURE_VALUE_SIZE + LIST_SIZE;
+            for (final Iterator iter = values.iterator(); iter.hasNext();) {
+                size += estimateSize(feature, iter.next());
+            }
+            return size;
+        }
+        return FEATURE_VALUE_SIZE;
+    }
+
     /**
      * @see org.teiid.designer.core.workspace.ModelBuffer#isInProcessOfSaving()
      * @since 4.2
@@ -10,10 +10,13 @@ package org.teiid.designer.core.workspace;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -40,13 +43,51 @@ import org.teiid.designer.core.util.OverflowingLRUCache;
 
 /**
  * The buffer manager manages the set of open buffers.
- * It implements an LRU cache of buffers.
+ * It implements an LRU cache of buffers, limited by both the number of buffers and the
+ * {@link #getConfiguredMemoryLimit() estimated memory} they hold.
  *
  * @since 8.0
  */
 public class ModelBufferManager implements ModelBufferFactory {
 
-    protected static final int DEFAULT_MODEL_BUFFER_CACHE_LIMIT = 300;
+    protected static final int DEFAULT_MODEL_BUFFER_CACHE_LIMIT = 1000;
+
+    /**
+     * The fraction of the maximum heap that open buffers may hold when no memory limit is configured
+     */
+    protected static final double DEFAULT_MODEL_BUFFER_MEMORY_FRACTION = 0.4;
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, holding the maximum estimated memory, in megabytes, held by
+     * open buffers. Zero or less means {@link #DEFAULT_MODEL_BUFFER_MEMORY_FRACTION a fraction} of the maximum heap.
+     */
+    public static final String MODEL_BUFFER_MEMORY_LIMIT_PREF_KEY = "ModelBufferManager.memoryLimit"; //$NON-NLS-1$
+
+    /**
+     * The system property that, when set, overrides the {@link #MODEL_BUFFER_MEMORY_LIMIT_PREF_KEY memory limit preference}.
+     */
+    public static final String MODEL_BUFFER_MEMORY_LIMIT_PROPERTY = "org.teiid.designer.modelBufferMemoryLimit"; //$NON-NLS-1$
+
+    /**
+     * @return the maximum estimated memory, in bytes, that open buffers may hold
+     */
+    public static long getConfiguredMemoryLimit() {
+        long megabytes = 0;
+        final String property = System.getProperty(MODEL_BUFFER_MEMORY_LIMIT_PROPERTY);
+        if (property != null) {
+            try {
+                megabytes = Long.parseLong(property.trim());
+            } catch (final NumberFormatException err) {
+                ModelerCore.Util.log(IStatus.WARNING, ModelerCore.Util.getString("ModelBufferManager.Invalid_memory_limit", property)); //$NON-NLS-1$
+            }
+        } else if (ModelerCore.getPlugin() != null) {
+            megabytes = ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getLong(MODEL_BUFFER_MEMORY_LIMIT_PREF_KEY, 0);
+        }
+        if (megabytes > 0) {
+            return megabytes * 1024 * 1024;
+        }
+        return (long)(Runtime.getRuntime().maxMemory() * DEFAULT_MODEL_BUFFER_MEMORY_FRACTION);
+    }
 
     private static ModelBufferManager DEFAULT_MODEL_BUFFER_MANAGER;
 
@@ -64,7 +105,15 @@ public class ModelBufferManager implements ModelBufferFactory {
      * Cache of buffers. The key and value for an entry
      * in the table is the identical buffer.
      */
-    private final OverflowingLRUCache openBuffers;
+    private final ModelBufferCache openBuffers;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * The time, in milliseconds, it took to load each model the last time its buffer was opened, by the model's path
+     */
+    private final Map loadTimes = new ConcurrentHashMap();
 
     /**
      * The finder that is used to identify which {@link ResourceSet} should be used when creating
@@ -78,19 +127,29 @@ public class ModelBufferManager implements ModelBufferFactory {
      * Creates a new buffer manager.
      */
     public ModelBufferManager() {
-        this(DEFAULT_MODEL_BUFFER_CACHE_LIMIT);
+        this(DEFAULT_MODEL_BUFFER_CACHE_LIMIT, getConfiguredMemoryLimit());
     }
 
     /**
      * Creates a new buffer manager with a custom size.
      */
     protected ModelBufferManager( int cacheSize ) {
+        this(cacheSize, 0);
+    }
+
+    /**
+     * Creates a new buffer manager with a custom size and memory limit.
+     *
+     * @param cacheSize the maximum number of open buffers
+     * @param memoryLimit the maximum estimated memory, in bytes, held by open buffers; zero or less for no limit
+     */
+    protected ModelBufferManager( int cacheSize, long memoryLimit ) {
         Stopwatch stopwatch = null;
         if ( ModelerCore.DEBUG_MODEL_WORKSPACE ) {
             stopwatch = new Stopwatch();
             stopwatch.start();
         }
-        this.openBuffers = new ModelBufferCache(cacheSize);
+        this.openBuffers = new ModelBufferCache(cacheSize, memoryLimit);
         this.resourceSetFinder = new DefaultContainerResourceSetFinder();
         if ( ModelerCore.DEBUG_MODEL_WORKSPACE ) {
             stopwatch.stop();
@@ -238,7 +297,19 @@ public class ModelBufferManager implements ModelBufferFactory {
      * when it opens it's buffer.
      */
     protected void addBuffer(final ModelBuffer buffer) {
-        openBuffers.put(buffer.getOwner(), buffer);
+        if (buffer instanceof ModelBufferImpl) {
+            if (((ModelBufferImpl)buffer).getLoadTime() >= 0) {
+                final Openable owner = buffer.getOwner();
+                if (owner instanceof ModelWorkspaceItem) {
+                    loadTimes.put(((ModelWorkspaceItem)owner).getPath(), Long.valueOf(((ModelBufferImpl)buffer).getLoadTime()));
+                }
+            }
+            // estimate the size before taking the lock; the cache records it when the buffer is added
+            ((ModelBufferImpl)buffer).getEstimatedSize();
+        }
+        synchronized (openBuffers) {
+            openBuffers.put(buffer.getOwner(), buffer);
+        }
     }
 
     /**
@@ -248,7 +319,63 @@ public class ModelBufferManager implements ModelBufferFactory {
      */
     public ModelBuffer getOpenBuffer(Openable owner) {
         CoreArgCheck.isNotNull(owner);
-        return (ModelBuffer)openBuffers.get(owner);
+        final ModelBuffer buffer;
+        synchronized (openBuffers) {
+            // getting an entry reorders the cache, so it needs the same lock as put and remove
+            buffer = (ModelBuffer)openBuffers.get(owner);
+        }
+        (buffer != null ? hitCount : missCount).incrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Returns the number of times {@link #getOpenBuffer(Openable)} found an open buffer.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of times {@link #getOpenBuffer(Openable)} found no open buffer.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of buffers closed to keep the open buffers within the cache's limits.
+     */
+    public long getEvictionCount() {
+        synchronized (openBuffers) {
+            return openBuffers.getEvictionCount();
+        }
+    }
+
+    /**
+     * Returns the estimated memory, in bytes, held by the open buffers.
+     */
+    public long getEstimatedSize() {
+        synchronized (openBuffers) {
+            return openBuffers.getEstimatedSize();
+        }
+    }
+
+    /**
+     * Records a new estimated size for an open buffer. This is called by the buffer when its estimate changes.
+     */
+    protected void estimatedSizeChanged(final ModelBuffer buffer, final long size) {
+        synchronized (openBuffers) {
+            openBuffers.updateEstimatedSize(buffer, size);
+        }
+    }
+
+    /**
+     * Returns the time, in milliseconds, it took to load each model the last time its buffer was opened.
+     *
+     * @return the load times, by the {@link IPath path} of the model
+     */
+    public Map getLoadTimes() {
+        return Collections.unmodifiableMap(loadTimes);
     }
 
     /**
@@ -275,7 +402,9 @@ public class ModelBufferManager implements ModelBufferFactory {
      * Removes a buffer from the table of open buffers.
      */
     protected void removeBuffer(final ModelBuffer buffer) {
-        openBuffers.remove(buffer.getOwner());
+        synchronized (openBuffers) {
+            openBuffers.remove(buffer.getOwner());
+        }
     }
 
     public ResourceSetFinder getResourceSetFinder() {
@@ -0,0 +1,602 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.ModelerCore;
+
+/**
+ * ModelImportGraph is a workspace-wide graph of the model import declarations. For every model, XSD and VDB archive file in an
+ * open model project the graph records the workspace paths of the resources it imports (its forward edges) and, in a second
+ * table, the paths of the resources that import it (its reverse edges).
+ * <p>
+ * The graph is populated lazily on the first query. The import declarations of a file are only read when the file's local time
+ * stamp differs from the one recorded in the graph, so after a restart only files changed outside of the session are re-read.
+ * Resource deltas mark files as stale (see {@link #processDelta(IResourceDelta)}) and stale files are re-read before the next
+ * query is answered. Forward and reverse queries therefore only touch the edges they return.
+ * </p>
+ * <p>
+ * Only projects with the model nature are covered. A resource in any other project is unknown to the graph (see
+ * {@link #contains(IPath)}): it has no imports and no importers, and neither do the resources it imports unless they are in a
+ * model project themselves. Callers that need the complete imports of a resource must check that the resource and every
+ * resource it imports are known to the graph.
+ * </p>
+ * <p>
+ * The import declarations of stale files are read without holding the lock on the graph, so resource deltas are processed while
+ * they are read. One thread at a time reads them, and other queries wait until it has published what it read; a file that is
+ * removed or changed again while it is read is not published, and is read again if it was changed.
+ * </p>
+ * <p>
+ * The graph is persisted to {@link #GRAPH_FILE_NAME} in the index directory when the {@link ModelWorkspaceManager} shuts down.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ModelImportGraph {
+
+    /** The name of the file, within the index directory, in which the graph is persisted */
+    public static final String GRAPH_FILE_NAME = "modelImports.dat"; //$NON-NLS-1$
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final IPath[] EMPTY_PATH_ARRAY = new IPath[0];
+
+    /** Map of resource path to the paths of the resources it imports */
+    private final Map<IPath, Set<IPath>> imports = new HashMap<IPath, Set<IPath>>();
+
+    /** Map of resource path to the paths of the resources importing it */
+    private final Map<IPath, Set<IPath>> importers = new HashMap<IPath, Set<IPath>>();
+
+    /** Map of resource path to the local time stamp of the file when its imports were read */
+    private final Map<IPath, Long> stamps = new HashMap<IPath, Long>();
+
+    /** Paths of resources whose imports must be re-read before answering the next query */
+    private final Set<IPath> staleResources = new LinkedHashSet<IPath>();
+
+    /** Paths of stale resources whose imports are being read by the {@link #reader} */
+    private final Set<IPath> readingResources = new HashSet<IPath>();
+
+    /** The thread reading the imports of stale resources, or null */
+    private Thread reader;
+
+    private final File storeFile;
+
+    private boolean initialized;
+
+    /**
+     * Construct an instance of ModelImportGraph.
+     *
+     * @param storeFile the file in which the graph is persisted between sessions; may be null if the graph is not persisted
+     */
+    public ModelImportGraph( final File storeFile ) {
+        this.storeFile = storeFile;
+    }
+
+    // ==================================================================================
+    // Q U E R I E S
+    // ==================================================================================
+
+    /**
+     * Return the workspace paths of the resources directly imported by the resource at the specified path.
+     *
+     * @param path the workspace path of the importing resource; may not be null
+     * @return the paths of the imported resources; never null
+     */
+    public IPath[] getImports( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureCurrent();
+        synchronized (this) {
+            return toArray(this.imports.get(path));
+        }
+    }
+
+    /**
+     * Return the workspace paths of the resources that directly import the resource at the specified path.
+     *
+     * @param path the workspace path of the imported resource; may not be null
+     * @return the paths of the importing resources; never null
+     */
+    public IPath[] getImporters( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureCurrent();
+        synchronized (this) {
+            return toArray(this.importers.get(path));
+        }
+    }
+
+    /**
+     * Return the workspace paths of all resources that directly or indirectly import the resource at the specified path. The
+     * specified path itself is not part of the result unless it participates in an import cycle.
+     *
+     * @param path the workspace path of the imported resource; may not be null
+     * @return the paths of the importing resources in breadth-first order; never null
+     */
+    public Collection<IPath> getImportersRecursive( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureCurrent();
+        synchronized (this) {
+            return closure(path, this.importers);
+        }
+    }
+
+    /**
+     * Return the workspace paths of all resources directly or indirectly imported by the resource at the specified path. The
+     * specified path itself is not part of the result unless it participates in an import cycle.
+     *
+     * @param path the workspace path of the importing resource; may not be null
+     * @return the paths of the imported resources in breadth-first order; never null
+     */
+    public Collection<IPath> getImportsRecursive( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureCurrent();
+        synchronized (this) {
+            return closure(path, this.imports);
+        }
+    }
+
+    /**
+     * Return whether the resource at the specified path is known to this graph, that is whether it is a model, XSD or VDB archive
+     * file in an open model project.
+     *
+     * @param path the workspace path of the resource; may not be null
+     * @return true if the imports of the resource are recorded in this graph
+     */
+    public boolean contains( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureCurrent();
+        synchronized (this) {
+            return this.stamps.containsKey(path);
+        }
+    }
+
+    /**
+     * @return the number of resources known to this graph
+     */
+    public int size() {
+        ensureCurrent();
+        synchronized (this) {
+            return this.stamps.size();
+        }
+    }
+
+    // ==================================================================================
+    // M A I N T E N A N C E
+    // ==================================================================================
+
+    /**
+     * Update the graph from the supplied resource delta tree. Resources that were added or whose content changed are marked stale
+     * and re-read lazily; removed resources are dropped immediately.
+     *
+     * @param rootDelta the root of the resource delta tree; may not be null
+     */
+    public synchronized void processDelta( final IResourceDelta rootDelta ) {
+        CoreArgCheck.isNotNull(rootDelta);
+        // Anything that happens before the first query is picked up by the time stamp check
+        if (!this.initialized) return;
+
+        try {
+            rootDelta.accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit( final IResourceDelta delta ) {
+                    return processResourceDelta(delta);
+                }
+            });
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
+            // Fall back to reconciling with the workspace on the next query
+            this.initialized = false;
+        }
+    }
+
+    boolean processResourceDelta( final IResourceDelta delta ) {
+        final IResource resource = delta.getResource();
+        final IPath path = resource.getFullPath();
+        switch (delta.getKind()) {
+            case IResourceDelta.ADDED:
+                if (resource.getType() == IResource.FILE && isGraphPath(path)) this.staleResources.add(path);
+                return true;
+            case IResourceDelta.REMOVED:
+                if (resource.getType() != IResource.FILE || isGraphPath(path)) removeAll(path);
+                return false;
+            case IResourceDelta.CHANGED:
+                if (resource.getType() == IResource.FILE) {
+                    if (isGraphPath(path) && (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) this.staleResources.add(path);
+                } else if (resource.getType() == IResource.PROJECT && (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+                    // reconcile with the workspace on the next query when a project is opened
+                    if (((IProject)resource).isOpen()) this.initialized = false;
+                    else removeAll(path);
+                    return false;
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Record the imports of the resource at the specified path, replacing any previously recorded imports.
+     *
+     * @param path the workspace path of the importing resource; may not be null
+     * @param importPaths the workspace paths of the imported resources; may be null or empty
+     * @param stamp the local time stamp of the resource at the time its imports were read
+     */
+    protected synchronized void setImports( final IPath path,
+                                            final IPath[] importPaths,
+                                            final long stamp ) {
+        CoreArgCheck.isNotNull(path);
+        removeEdges(path);
+        this.stamps.put(path, stamp);
+        this.staleResources.remove(path);
+        if (importPaths == null || importPaths.length == 0) return;
+
+        final Set<IPath> targets = new HashSet<IPath>(importPaths.length);
+        for (final IPath importPath : importPaths) {
+            if (importPath == null || !targets.add(importPath)) continue;
+            Set<IPath> sources = this.importers.get(importPath);
+            if (sources == null) {
+                sources = new HashSet<IPath>();
+                this.importers.put(importPath, sources);
+            }
+            sources.add(path);
+        }
+        this.imports.put(path, targets);
+    }
+
+    /**
+     * Remove the resource at the specified path, and every resource below it, from the graph. The reverse edges of the removed
+     * resources are kept since the resources importing them still declare the imports; they are corrected once the importing
+     * resources change.
+     *
+     * @param path the workspace path of the removed resource, folder or project; may not be null
+     */
+    protected synchronized void removeAll( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        if (this.stamps.containsKey(path)) {
+            removeResource(path);
+            return;
+        }
+
+        // A container (or a resource not yet read) was removed, so remove every known resource beneath it
+        final Collection<IPath> contained = new ArrayList<IPath>();
+        for (final IPath knownPath : this.stamps.keySet()) {
+            if (path.isPrefixOf(knownPath)) contained.add(knownPath);
+        }
+        for (final IPath knownPath : contained) {
+            removeResource(knownPath);
+        }
+        for (final Iterator<IPath> iter = this.staleResources.iterator(); iter.hasNext();) {
+            if (path.isPrefixOf(iter.next())) iter.remove();
+        }
+        for (final Iterator<IPath> iter = this.readingResources.iterator(); iter.hasNext();) {
+            if (path.isPrefixOf(iter.next())) iter.remove();
+        }
+    }
+
+    /**
+     * Discard the content of the graph. The graph is rebuilt from the workspace on the next query.
+     */
+    public synchronized void clear() {
+        this.imports.clear();
+        this.importers.clear();
+        this.stamps.clear();
+        this.staleResources.clear();
+        this.readingResources.clear();
+        this.initialized = false;
+    }
+
+    // ==================================================================================
+    // P E R S I S T E N C E
+    // ==================================================================================
+
+    /**
+     * Write the graph to its store file. Nothing is written if the graph was never queried during this session or if it has no
+     * store file.
+     */
+    public synchronized void save() {
+        if (this.storeFile == null || !this.initialized) return;
+        // Stale resources are not written so they are re-read during the next session
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.storeFile)));
+            out.writeInt(FORMAT_VERSION);
+            int count = 0;
+            for (final IPath path : this.stamps.keySet()) {
+                if (!this.staleResources.contains(path)) ++count;
+            }
+            out.writeInt(count);
+            for (final Map.Entry<IPath, Long> entry : this.stamps.entrySet()) {
+                final IPath path = entry.getKey();
+                if (this.staleResources.contains(path)) continue;
+                out.writeUTF(path.toString());
+                out.writeLong(entry.getValue().longValue());
+                final Set<IPath> targets = this.imports.get(path);
+                out.writeInt(targets == null ? 0 : targets.size());
+                if (targets != null) {
+                    for (final IPath target : targets) {
+                        out.writeUTF(target.toString());
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            ModelerCore.Util.log(IStatus.WARNING, e, ModelerCore.Util.getString("ModelImportGraph.Error_saving_import_graph_0", this.storeFile)); //$NON-NLS-1$
+            this.storeFile.delete();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (final IOException e) {
+                    // do nothing
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the graph from its store file. Entries read from the file are subsequently checked against the time stamps of the
+     * workspace files.
+     *
+     * @return true if the store file was read
+     */
+    protected synchronized boolean load() {
+        if (this.storeFile == null || !this.storeFile.exists()) return false;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.storeFile)));
+            if (in.readInt() != FORMAT_VERSION) return false;
+            final int count = in.readInt();
+            for (int i = 0; i < count; ++i) {
+                final IPath path = new Path(in.readUTF());
+                final long stamp = in.readLong();
+                final IPath[] targets = new IPath[in.readInt()];
+                for (int j = 0; j < targets.length; ++j) {
+                    targets[j] = new Path(in.readUTF());
+                }
+                setImports(path, targets, stamp);
+            }
+            return true;
+        } catch (final IOException e) {
+            ModelerCore.Util.log(IStatus.WARNING, e, ModelerCore.Util.getString("ModelImportGraph.Error_loading_import_graph_0", this.storeFile)); //$NON-NLS-1$
+            this.imports.clear();
+            this.importers.clear();
+            this.stamps.clear();
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (final IOException e) {
+                    // do nothing
+                }
+            }
+        }
+    }
+
+    // ==================================================================================
+    // W O R K S P A C E   A C C E S S
+    // ==================================================================================
+
+    /**
+     * Collect the model, XSD and VDB archive files in open model projects along with their local time stamps.
+     *
+     * @return the map of workspace path to local time stamp; never null
+     */
+    protected Map<IPath, Long> collectWorkspaceResources() {
+        final Map<IPath, Long> result = new HashMap<IPath, Long>();
+        final IWorkspace workspace = ModelerCore.getWorkspace();
+        if (workspace == null || workspace.getRoot() == null) return result;
+
+        final IResourceVisitor visitor = new IResourceVisitor() {
+            @Override
+            public boolean visit( final IResource resource ) {
+                if (resource.getType() != IResource.FILE) return true;
+                if (isGraphResource(resource)) result.put(resource.getFullPath(), resource.getLocalTimeStamp());
+                return false;
+            }
+        };
+        for (final IProject project : workspace.getRoot().getProjects()) {
+            if (!project.isOpen() || !ModelerCore.hasModelNature(project)) continue;
+            try {
+                project.accept(visitor);
+            } catch (final CoreException e) {
+                ModelerCore.Util.log(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the local time stamp of the resource at the specified path.
+     *
+     * @param path the workspace path
+     * @return the local time stamp, or {@link IResource#NULL_STAMP} if the resource does not exist or is not tracked by this graph
+     */
+    protected long getTimeStamp( final IPath path ) {
+        final IWorkspace workspace = ModelerCore.getWorkspace();
+        if (workspace == null) return IResource.NULL_STAMP;
+        final IResource resource = workspace.getRoot().findMember(path);
+        if (resource == null || !resource.exists() || !resource.getProject().isOpen() || !isGraphResource(resource)) return IResource.NULL_STAMP;
+        return resource.getLocalTimeStamp();
+    }
+
+    /**
+     * Read the import declarations of the resource at the specified path.
+     *
+     * @param path the workspace path
+     * @return the workspace paths of the imported resources; never null
+     */
+    protected IPath[] readImports( final IPath path ) {
+        final IWorkspace workspace = ModelerCore.getWorkspace();
+        if (workspace == null) return EMPTY_PATH_ARRAY;
+        final IResource resource = workspace.getRoot().findMember(path);
+        if (resource == null) return EMPTY_PATH_ARRAY;
+        return WorkspaceResourceFinderUtil.getDependentResourcePaths(resource);
+    }
+
+    // ==================================================================================
+    // P R I V A T E   M E T H O D S
+    // ==================================================================================
+
+    static boolean isGraphPath( final IPath path ) {
+        return ModelUtil.isModelFile(path) || ModelUtil.isXsdFile(path) || ModelUtil.isVdbArchiveFile(path);
+    }
+
+    static boolean isGraphResource( final IResource resource ) {
+        return ModelUtil.isModelFile(resource) || ModelUtil.isXsdFile(resource) || ModelUtil.isVdbArchiveFile(resource);
+    }
+
+    /**
+     * Bring the graph up to date: reconcile with the workspace if this is the first query, then re-read all stale resources.
+     * Must be called without holding the lock on this graph.
+     */
+    private void ensureCurrent() {
+        synchronized (this) {
+            if (!this.initialized) {
+                this.initialized = true;
+                if (this.stamps.isEmpty()) load();
+                reconcile();
+            }
+            // Queries issued while reading imports are answered from the graph as it is
+            if (this.reader == Thread.currentThread()) return;
+            while (this.reader != null) {
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (this.staleResources.isEmpty()) return;
+            this.reader = Thread.currentThread();
+        }
+        try {
+            readStaleResources();
+        } finally {
+            synchronized (this) {
+                this.reader = null;
+                this.readingResources.clear();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Read the imports of the stale resources without holding the lock on this graph, and publish them under the lock. Repeated
+     * until no resource is stale, since resources may be marked stale while others are read.
+     */
+    private void readStaleResources() {
+        while (true) {
+            final IPath[] stale;
+            synchronized (this) {
+                if (this.staleResources.isEmpty()) return;
+                stale = this.staleResources.toArray(new IPath[this.staleResources.size()]);
+                this.staleResources.clear();
+                this.readingResources.addAll(Arrays.asList(stale));
+            }
+
+            final long[] stampsRead = new long[stale.length];
+            final IPath[][] importsRead = new IPath[stale.length][];
+            for (int i = 0; i < stale.length; ++i) {
+                stampsRead[i] = getTimeStamp(stale[i]);
+                if (stampsRead[i] != IResource.NULL_STAMP) importsRead[i] = readImports(stale[i]);
+            }
+
+            synchronized (this) {
+                for (int i = 0; i < stale.length; ++i) {
+                    // Skip resources removed, or marked stale again, while they were read
+                    if (!this.readingResources.remove(stale[i]) || this.staleResources.contains(stale[i])) continue;
+                    if (stampsRead[i] == IResource.NULL_STAMP) removeResource(stale[i]);
+                    else setImports(stale[i], importsRead[i], stampsRead[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop entries for resources that no longer exist and mark those that were added or changed as stale.
+     */
+    private void reconcile() {
+        final Map<IPath, Long> workspaceResources = collectWorkspaceResources();
+        final Collection<IPath> removed = new ArrayList<IPath>();
+        for (final IPath path : this.stamps.keySet()) {
+            if (!workspaceResources.containsKey(path)) removed.add(path);
+        }
+        for (final IPath path : removed) {
+            removeResource(path);
+        }
+        for (final Map.Entry<IPath, Long> entry : workspaceResources.entrySet()) {
+            final Long known = this.stamps.get(entry.getKey());
+            if (known == null || !known.equals(entry.getValue())) this.staleResources.add(entry.getKey());
+        }
+    }
+
+    private void removeResource( final IPath path ) {
+        removeEdges(path);
+        this.stamps.remove(path);
+        this.staleResources.remove(path);
+        this.readingResources.remove(path);
+    }
+
+    private void removeEdges( final IPath path ) {
+        final Set<IPath> targets = this.imports.remove(path);
+        if (targets == null) return;
+        for (final IPath target : targets) {
+            final Set<IPath> sources = this.importers.get(target);
+            if (sources == null) continue;
+            sources.remove(path);
+            if (sources.isEmpty()) this.importers.remove(target);
+        }
+    }
+
+    private static Collection<IPath> closure( final IPath start,
+                                              final Map<IPath, Set<IPath>> edges ) {
+        final Set<IPath> result = new LinkedHashSet<IPath>();
+        final LinkedList<IPath> queue = new LinkedList<IPath>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final Set<IPath> next = edges.get(queue.removeFirst());
+            if (next == null) continue;
+            for (final IPath path : next) {
+                if (result.add(path)) queue.add(path);
+            }
+        }
+        return result;
+    }
+
+    private static IPath[] toArray( final Set<IPath> paths ) {
+        if (paths == null || paths.isEmpty()) return EMPTY_PATH_ARRAY;
+        return paths.toArray(new IPath[paths.size()]);
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.container.Container;
+import org.teiid.designer.core.resource.xmi.MtkXmiResourceImpl;
+
+/**
+ * Opens a collection of XMI models, parsing their files on a bounded pool of worker threads.
+ * <p>
+ * Parsing a model file needs nothing shared with other models, so each worker {@link MtkXmiResourceImpl#parse parses} a model
+ * into a resource set of its own, whose URI converter starts with the mappings of the container's. The models are then opened
+ * one at a time on the calling thread, as they would be otherwise, except that each one takes the contents already parsed
+ * rather than reading its file. Models are opened in import order according to the {@link ModelImportGraph}, so the models a
+ * model refers to are open before it. Workers stay a few models ahead of the calling thread, so that at most a few parsed models
+ * wait to be opened at any time.
+ * </p>
+ * <p>
+ * A model that a worker fails to parse is opened from its file as usual, which reports the problem. The time spent in each
+ * phase is recorded and, with {@link ModelerCore#DEBUG_MODEL_WORKSPACE}, logged.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ModelLoadScheduler {
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, that turns on opening all models of a project when the project
+     * is opened. Defaults to false.
+     */
+    public static final String WARM_UP_PREF_KEY = "ModelWorkspace.warmUp"; //$NON-NLS-1$
+
+    /**
+     * The preference, in the {@link ModelerCore#PLUGIN_ID} node, holding the maximum number of parsing threads. Zero or less
+     * means one thread per available processor.
+     */
+    public static final String WARM_UP_THREADS_PREF_KEY = "ModelWorkspace.warmUpThreads"; //$NON-NLS-1$
+
+    /**
+     * The system property that, when set, overrides the {@link #WARM_UP_PREF_KEY warm-up preference}.
+     */
+    public static final String WARM_UP_PROPERTY = "org.teiid.designer.workspace.warmUp"; //$NON-NLS-1$
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * The scheduler opening models on the current thread, if any
+     */
+    private static final ThreadLocal<ModelLoadScheduler> OPENING_SCHEDULER = new ThreadLocal<ModelLoadScheduler>();
+
+    /**
+     * @return true if the models of a project should be opened by {@link ModelLoadScheduler} when the project is opened
+     */
+    public static boolean isWarmUpEnabled() {
+        final String property = System.getProperty(WARM_UP_PROPERTY);
+        if (property != null) {
+            return Boolean.valueOf(property).booleanValue();
+        }
+        if (ModelerCore.getPlugin() == null) {
+            // non plugin environment
+            return false;
+        }
+        return ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getBoolean(WARM_UP_PREF_KEY, false);
+    }
+
+    /**
+     * @return the maximum number of parsing threads set by the preferences; always positive
+     */
+    public static int getConfiguredThreadCount() {
+        int threads = 0;
+        if (ModelerCore.getPlugin() != null) {
+            threads = ModelerCore.getPreferences(ModelerCore.PLUGIN_ID).getInt(WARM_UP_THREADS_PREF_KEY, 0);
+        }
+        return (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Schedule a job that opens all XMI models of the project. The job holds the project as its scheduling rule, and may be
+     * canceled between models.
+     *
+     * @param project the model project; may not be null
+     * @return the scheduled job
+     */
+    public static Job warmUp( final ModelProject project ) {
+        final String name = ModelerCore.Util.getString("ModelLoadScheduler.Opening_models", project.getItemName()); //$NON-NLS-1$
+        final Job job = new Job(name) {
+            @Override
+            protected IStatus run( final IProgressMonitor monitor ) {
+                try {
+                    final List<ModelResource> models = findXmiModels(project);
+                    monitor.beginTask(getName(), models.size());
+                    new ModelLoadScheduler(getConfiguredThreadCount()).loadModels(monitor, models);
+                } catch (final CoreException e) {
+                    return e.getStatus();
+                } finally {
+                    monitor.done();
+                }
+                return (monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS);
+            }
+        };
+        job.setRule(project.getResource());
+        job.setPriority(Job.LONG);
+        job.schedule();
+        return job;
+    }
+
+    /**
+     * @return the model resources of the XMI model files in the project
+     * @throws CoreException if the project cannot be visited
+     */
+    static List<ModelResource> findXmiModels( final ModelProject project ) throws CoreException {
+        final List<ModelResource> models = new ArrayList<ModelResource>();
+        final ModelWorkspace workspace = ModelerCore.getModelWorkspace();
+        project.getResource().accept(new IResourceVisitor() {
+            @Override
+            public boolean visit( final IResource resource ) {
+                if (resource.getType() == IResource.FILE && ModelUtil.isXmiFile(resource)) {
+                    final ModelResource model = workspace.findModelResource(resource);
+                    if (model != null) {
+                        models.add(model);
+                    }
+                }
+                return true;
+            }
+        });
+        return models;
+    }
+
+    /**
+     * Take the resource parsed from a model file, if the model is being opened by a {@link ModelLoadScheduler} on the current
+     * thread. The resource is handed over once only.
+     *
+     * @param uri the URI of a model file
+     * @return the resource already parsed from the model file, or null
+     */
+    static MtkXmiResourceImpl takeParsedResource( final URI uri ) {
+        final ModelLoadScheduler scheduler = OPENING_SCHEDULER.get();
+        return (scheduler != null ? scheduler.parsedResources.remove(uri) : null);
+    }
+
+    /**
+     * Order items such that every item comes after all of its dependencies, and otherwise in the order of the supplied list. A
+     * cycle of dependencies is broken at the item of the cycle reached first, which comes after the rest of the cycle; dependencies
+     * that are not in the list are ignored.
+     *
+     * @param items the items to order, in their preferred order; may not be null
+     * @param dependencies map of item to the items it directly depends on; items without dependencies may be missing
+     * @return the ordered items; never null
+     */
+    static <T> List<T> sortByDependencies( final List<T> items,
+                                           final Map<T, ? extends Collection<T>> dependencies ) {
+        final Set<T> candidates = new HashSet<T>(items);
+        final Set<T> visited = new HashSet<T>();
+        final List<T> result = new ArrayList<T>(items.size());
+        for (final T item : items) {
+            visit(item, dependencies, candidates, visited, result);
+        }
+        return result;
+    }
+
+    private static <T> void visit( final T item,
+                                   final Map<T, ? extends Collection<T>> dependencies,
+                                   final Set<T> candidates,
+                                   final Set<T> visited,
+                                   final List<T> result ) {
+        if (!visited.add(item)) {
+            // already ordered, or being ordered further up a cycle
+            return;
+        }
+        final Collection<T> itemDependencies = dependencies.get(item);
+        if (itemDependencies != null) {
+            for (final T dependency : itemDependencies) {
+                if (candidates.contains(dependency)) {
+                    visit(dependency, dependencies, candidates, visited, result);
+                }
+            }
+        }
+        result.add(item);
+    }
+
+    private final int threadCount;
+    // The parsed resources waiting to be taken by the ModelBufferImpl opening the model with the same URI, on the calling thread
+    private final Map<URI, MtkXmiResourceImpl> parsedResources = new HashMap<URI, MtkXmiResourceImpl>();
+    private final AtomicLong parseTime = new AtomicLong();
+    private final Map<IPath, Long> parseTimes = new ConcurrentHashMap<IPath, Long>();
+    private long waitTime;
+    private long openTime;
+    private long elapsedTime;
+    private int parsedCount;
+    private int failedCount;
+
+    /**
+     * Construct an instance of ModelLoadScheduler.
+     *
+     * @param threadCount the maximum number of parsing threads; must be positive
+     */
+    public ModelLoadScheduler( final int threadCount ) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Open the models that are not yet loaded. Progress is reported, and cancellation checked, on the calling thread as each
+     * model is opened; the monitor is worked once per model.
+     *
+     * @param monitor the progress monitor; may be null
+     * @param models the {@link ModelResource}s of XMI model files; may not be null
+     */
+    public void loadModels( IProgressMonitor monitor,
+                            final Collection<ModelResource> models ) {
+        monitor = monitor != null ? monitor : new NullProgressMonitor();
+        final long start = System.currentTimeMillis();
+
+        final List<ModelResource> unloaded = new ArrayList<ModelResource>(models.size());
+        for (final ModelResource model : models) {
+            if (!model.isLoaded() && model.getResource() != null && model.getResource().getLocation() != null) {
+                unloaded.add(model);
+            }
+        }
+        if (unloaded.isEmpty()) {
+            return;
+        }
+        final List<ModelResource> ordered = sortByDependencies(unloaded, getDependencies(unloaded));
+
+        Container container = null;
+        try {
+            container = ModelerCore.getModelContainer();
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
+            return;
+        }
+        final Map options = Collections.unmodifiableMap(new HashMap(container.getLoadOptions()));
+        final URIConverter uriConverter = container.getURIConverter();
+
+        // Keep the workers a few models ahead of the models being opened
+        final int window = this.threadCount * 2;
+        final List<Future<MtkXmiResourceImpl>> parses = new ArrayList<Future<MtkXmiResourceImpl>>(ordered.size());
+        final ExecutorService executor = createExecutor("Model Parser", Math.min(this.threadCount, ordered.size())); //$NON-NLS-1$
+        try {
+            for (int i = 0; i < ordered.size(); ++i) {
+                while (parses.size() < ordered.size() && parses.size() <= i + window) {
+                    final ModelResource next = ordered.get(parses.size());
+                    final ResourceSet resourceSet = createResourceSet(uriConverter);
+                    parses.add(executor.submit(new ParseTask(getUri(next), next.getPath(), resourceSet, container, options)));
+                }
+                if (monitor.isCanceled()) {
+                    break;
+                }
+
+                final ModelResource model = ordered.get(i);
+                final URI uri = getUri(model);
+                final long waitStart = System.currentTimeMillis();
+                final MtkXmiResourceImpl parsed = getParsed(parses.get(i));
+                final long openStart = System.currentTimeMillis();
+                this.waitTime += openStart - waitStart;
+
+                monitor.setTaskName(ModelerCore.Util.getString("ModelLoadScheduler.Opening_model", model.getPath())); //$NON-NLS-1$
+                if (parsed != null) {
+                    this.parsedCount++;
+                    this.parsedResources.put(uri, parsed);
+                } else {
+                    this.failedCount++;
+                }
+                final ModelLoadScheduler previous = OPENING_SCHEDULER.get();
+                OPENING_SCHEDULER.set(this);
+                try {
+                    model.getEmfResource();
+                } catch (final ModelWorkspaceException e) {
+                    ModelerCore.Util.log(e);
+                } finally {
+                    OPENING_SCHEDULER.set(previous);
+                    this.parsedResources.remove(uri);
+                }
+                this.openTime += System.currentTimeMillis() - openStart;
+                monitor.worked(1);
+            }
+        } finally {
+            // models not yet parsed are no longer needed if canceled
+            for (final Future<MtkXmiResourceImpl> parse : parses) {
+                parse.cancel(false);
+            }
+            executor.shutdown();
+            this.elapsedTime = System.currentTimeMillis() - start;
+        }
+
+        if (ModelerCore.DEBUG_MODEL_WORKSPACE) {
+            final Object[] params = new Object[] {Integer.valueOf(this.parsedCount), Integer.valueOf(this.failedCount),
+                Long.valueOf(getParseTime()), Long.valueOf(this.waitTime), Long.valueOf(this.openTime), Long.valueOf(this.elapsedTime)};
+            ModelerCore.Util.log(IStatus.INFO, ModelerCore.Util.getString("ModelLoadScheduler.DEBUG.Timings", params)); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * @return the number of models opened from contents parsed by the workers
+     */
+    public int getParsedCount() {
+        return this.parsedCount;
+    }
+
+    /**
+     * @return the number of models the workers could not parse, which were opened from their files instead
+     */
+    public int getFailedCount() {
+        return this.failedCount;
+    }
+
+    /**
+     * @return the milliseconds spent parsing by all workers together
+     */
+    public long getParseTime() {
+        return this.parseTime.get();
+    }
+
+    /**
+     * @return the milliseconds each model took to parse, by model path; models not parsed are missing
+     */
+    public Map<IPath, Long> getParseTimes() {
+        return Collections.unmodifiableMap(this.parseTimes);
+    }
+
+    /**
+     * @return the milliseconds the calling thread waited for the workers to parse the next model
+     */
+    public long getWaitTime() {
+        return this.waitTime;
+    }
+
+    /**
+     * @return the milliseconds the calling thread spent opening models, after they were parsed
+     */
+    public long getOpenTime() {
+        return this.openTime;
+    }
+
+    /**
+     * @return the milliseconds taken by the last call to {@link #loadModels(IProgressMonitor, Collection)}
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * @return the URI used by the {@link ModelBufferImpl} of the model
+     */
+    private static URI getUri( final ModelResource model ) {
+        return URI.createFileURI(model.getResource().getLocation().toString());
+    }
+
+    /**
+     * Map each model to the supplied models it directly imports, according to the {@link ModelImportGraph}.
+     */
+    private static Map<ModelResource, Collection<ModelResource>> getDependencies( final List<ModelResource> models ) {
+        final Map<IPath, ModelResource> modelsByPath = new HashMap<IPath, ModelResource>();
+        for (final ModelResource model : models) {
+            modelsByPath.put(model.getPath(), model);
+        }
+
+        final ModelImportGraph graph = ModelWorkspaceManager.getModelWorkspaceManager().getImportGraph();
+        final Map<ModelResource, Collection<ModelResource>> dependencies = new HashMap<ModelResource, Collection<ModelResource>>();
+        for (final ModelResource model : models) {
+            final Collection<ModelResource> imported = new ArrayList<ModelResource>();
+            final IPath[] paths = graph.getImports(model.getPath());
+            for (int i = 0; i < paths.length; i++) {
+                final ModelResource importedModel = modelsByPath.get(paths[i]);
+                if (importedModel != null) {
+                    imported.add(importedModel);
+                }
+            }
+            dependencies.put(model, imported);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Create a resource set to parse one model in, whose URI converter starts with a copy of the mappings of the container's URI
+     * converter. Called on the calling thread, so the container's mappings are never read while the calling thread changes them.
+     */
+    private static ResourceSet createResourceSet( final URIConverter containerUriConverter ) {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final URIConverter uriConverter = new ExtensibleURIConverterImpl();
+        uriConverter.getURIMap().putAll(containerUriConverter.getURIMap());
+        resourceSet.setURIConverter(uriConverter);
+        return resourceSet;
+    }
+
+    /**
+     * @return the parsed resource, or null if it could not be parsed
+     */
+    private static MtkXmiResourceImpl getParsed( final Future<MtkXmiResourceImpl> parse ) {
+        try {
+            return parse.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException e) {
+            // opening the model from its file will report the problem
+            return null;
+        }
+    }
+
+    private class ParseTask implements Callable<MtkXmiResourceImpl> {
+        private final URI uri;
+        private final IPath path;
+        private final ResourceSet resourceSet;
+        private final Container container;
+        private final Map options;
+
+        ParseTask( final URI uri,
+                   final IPath path,
+                   final ResourceSet resourceSet,
+                   final Container container,
+                   final Map options ) {
+            this.uri = uri;
+            this.path = path;
+            this.resourceSet = resourceSet;
+            this.container = container;
+            this.options = options;
+        }
+
+        @Override
+        public MtkXmiResourceImpl call() throws Exception {
+            final long start = System.currentTimeMillis();
+            final MtkXmiResourceImpl resource = MtkXmiResourceImpl.parse(this.uri, this.resourceSet, this.container, this.options);
+            final long time = System.currentTimeMillis() - start;
+            parseTime.addAndGet(time);
+            parseTimes.put(this.path, Long.valueOf(time));
+            return resource;
+        }
+    }
+
+    /**
+     * Create a fixed pool of daemon threads.
+     */
+    private static ExecutorService createExecutor( final String threadName,
+                                                   final int threadCount ) {
+        return Executors.newFixedThreadPool(Math.max(1, threadCount), new ThreadFactory() {
+            @Override
+            public Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread(runnable, threadName + ' ' + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
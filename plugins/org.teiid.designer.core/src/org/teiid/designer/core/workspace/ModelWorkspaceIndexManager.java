@@ -23,6 +23,7 @@ import org.teiid.designer.core.index.Index;
  * This class provides a caching mechanism for Dimension's workspace to locate and re-use Index files without closing and re-opening
  * the files. Without caching, Indexes are opened and closed for each query otherwise, creating a substantial unneeded performance
  * penalty.
+ * The public methods are synchronized, since index files may be created by several indexing threads at once.
  * @since 8.0
  */
 public class ModelWorkspaceIndexManager {
@@ -47,7 +48,7 @@ public class ModelWorkspaceIndexManager {
      * @return the Index
      * @since 5.0
      */
-    public Index addIndex(String indexFileName, String fullPathIndexName, String resourceFileName, boolean reuseExistingFile) {
+    public synchronized Index addIndex(String indexFileName, String fullPathIndexName, String resourceFileName, boolean reuseExistingFile) {
 
         Index newIndex = null;
 
@@ -81,7 +82,7 @@ public class ModelWorkspaceIndexManager {
      * @return
      * @since 5.0
      */
-    public Index getIndex(String indexFileName, String fullPathIndexName, String resourceFileName) {
+    public synchronized Index getIndex(String indexFileName, String fullPathIndexName, String resourceFileName) {
         if( doCache ) {
             Index cachedIndex = (Index)currentIndexes.get(indexFileName);
             if( cachedIndex != null ) {
@@ -108,7 +109,7 @@ public class ModelWorkspaceIndexManager {
      * @return
      * @since 5.0
      */
-    public Index getIndex(String indexFileName, String fullPathIndexName) {
+    public synchronized Index getIndex(String indexFileName, String fullPathIndexName) {
         if( doCache ) {
             Index cachedIndex = (Index)currentIndexes.get(indexFileName);
             if( cachedIndex != null ) {
@@ -134,7 +135,7 @@ public class ModelWorkspaceIndexManager {
      * @return Index - may be null if index file does not exist on file system and is not cached by this manager
      * @since 5.0
      */
-    public Index getExistingIndex(String indexFileName) {
+    public synchronized Index getExistingIndex(String indexFileName) {
         Index cachedIndex = (Index)currentIndexes.get(indexFileName);
         return cachedIndex;
     }
@@ -145,7 +146,7 @@ public class ModelWorkspaceIndexManager {
      * @return Index array
      * @since 5.0
      */
-    public Index[] getExistingIndexes(File[] indexFiles) {
+    public synchronized Index[] getExistingIndexes(File[] indexFiles) {
         ArrayList tmp = new ArrayList();
 
         for(int i=0; i<indexFiles.length; i++ ) {
@@ -172,7 +173,7 @@ public class ModelWorkspaceIndexManager {
      * @return
      * @since 5.0
      */
-    public Index getNewIndex(String indexFileName, String fullPathIndexName, String resourceFileName) {
+    public synchronized Index getNewIndex(String indexFileName, String fullPathIndexName, String resourceFileName) {
         if( doCache ) {
             Index cachedIndex = (Index)currentIndexes.get(indexFileName);
             if( cachedIndex != null ) {
@@ -200,7 +201,7 @@ public class ModelWorkspaceIndexManager {
      * @return
      * @since 5.0
      */
-    public Index getNewIndex(String indexFileName, String fullPathIndexName) {
+    public synchronized Index getNewIndex(String indexFileName, String fullPathIndexName) {
         if( doCache ) {
             Index cachedIndex = (Index)currentIndexes.get(indexFileName);
             if( cachedIndex != null ) {
@@ -226,7 +227,7 @@ public class ModelWorkspaceIndexManager {
      * @param indexFileName
      * @since 5.0
      */
-    public void disposeIndex(String indexFileName) {
+    public synchronized void disposeIndex(String indexFileName) {
         Index existingIndex = (Index)currentIndexes.get(indexFileName);
         if( existingIndex != null ) {
             //System.out.println("  ModelWorkspaceIndexManager.disposeIndex()  Index File = " + indexFileName);
@@ -241,7 +242,7 @@ public class ModelWorkspaceIndexManager {
      * @param index
      * @since 5.0
      */
-    public void disposeIndex(Index index) {
+    public synchronized void disposeIndex(Index index) {
         this.disposeIndex(index.getIndexFile().getName());
     }
 
@@ -251,7 +252,7 @@ public class ModelWorkspaceIndexManager {
      *
      * @since 5.0
      */
-    public void clear() {
+    public synchronized void clear() {
         for(Iterator iter = currentIndexes.values().iterator(); iter.hasNext(); ) {
             Index nextIndex = (Index)iter.next();
             if( nextIndex != null ) {
@@ -266,7 +267,7 @@ public class ModelWorkspaceIndexManager {
      *
      * @since 5.0
      */
-    public void disposeAll() {
+    public synchronized void disposeAll() {
         Collection copyOfIndexes = new ArrayList(currentIndexes.values());
         for(Iterator iter = copyOfIndexes.iterator(); iter.hasNext(); ) {
             Index nextIndex = (Index)iter.next();
@@ -277,7 +278,7 @@ public class ModelWorkspaceIndexManager {
         currentIndexes.clear();
     }
 
-    public void closeIndex(Index index) {
+    public synchronized void closeIndex(Index index) {
         // Close the index
         index.close();
         // Remove it (if it exists) from the cache
@@ -290,7 +291,7 @@ public class ModelWorkspaceIndexManager {
      *
      * @since 5.0
      */
-    public void closeAll() {
+    public synchronized void closeAll() {
         Collection copyOfIndexes = new ArrayList(currentIndexes.values());
         for(Iterator iter = copyOfIndexes.iterator(); iter.hasNext(); ) {
             Index nextIndex = (Index)iter.next();
@@ -184,6 +184,9 @@ public class ModelWorkspaceManager implements XmiHeaderCache {
             final IWorkspace workspace = ModelerCore.getWorkspace();
             workspace.removeResourceChangeListener(manager.getDeltaProcessor());
 
+            // Persist the import graph for the next session
+            manager.getImportGraph().save();
+
             // Shutdown the manager
             manager.shutdownManager();
             manager.getIndexManager().disposeAll();
@@ -254,6 +257,10 @@ public class ModelWorkspaceManager implements XmiHeaderCache {
 
     private final ModelWorkspaceIndexManager indexManager = new ModelWorkspaceIndexManager();
 
+    private final WorkspaceResourceLookup resourceLookup = new WorkspaceResourceLookup();
+
+    private final ModelImportGraph importGraph = new ModelImportGraph(new File(IndexUtil.INDEX_PATH, ModelImportGraph.GRAPH_FILE_NAME));
+
     /**
      * Construct an instance of ModelWorkspaceManager.
      */
@@ -461,6 +468,9 @@ public class ModelWorkspaceManager implements XmiHeaderCache {
                         if (parentInfo != null) parentInfo.addChild(project);
                     }
                     project.open(null);
+                    if (ModelLoadScheduler.isWarmUpEnabled()) {
+                        ModelLoadScheduler.warmUp(project);
+                    }
                 }
                 break;
             default:
@@ -708,6 +718,25 @@ public class ModelWorkspaceManager implements XmiHeaderCache {
         return this.indexManager;
     }
 
+    /**
+     * Return the workspace-wide graph of model imports, kept current from resource deltas.
+     * 
+     * @return the import graph; never null
+     */
+    public ModelImportGraph getImportGraph() {
+        return this.importGraph;
+    }
+
+    /**
+     * Return the lookup table from workspace path, file name and model UUID to the files of all open projects, kept current from
+     * resource deltas.
+     * 
+     * @return the resource lookup table; never null
+     */
+    public WorkspaceResourceLookup getResourceLookup() {
+        return this.resourceLookup;
+    }
+
     /**
      * Returns the info for the element.
      */
@@ -833,6 +862,9 @@ public class ModelWorkspaceManager implements XmiHeaderCache {
             final ModelWorkspaceItem workspaceItem = create(resource, null);
             if (resource.getType() == IResource.PROJECT || resource.getType() == IResource.ROOT) if (workspaceItem instanceof Openable) ((Openable)workspaceItem).open(null);
         }
+
+        // build the path, name and UUID lookup table used by the WorkspaceResourceFinderUtil
+        this.resourceLookup.initialize();
         ModelUtil.setModelWorkspaceManagerInitialized();
     }
 
@@ -11,6 +11,7 @@ import org.eclipse.core.resources.ISaveContext;
 import org.eclipse.core.resources.ISaveParticipant;
 import org.eclipse.core.runtime.IStatus;
 import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.builder.ValidationResultCache;
 
 /**
  * ModelWorkspaceManagerSaveParticipantSaveParticipant
@@ -68,6 +69,8 @@ public class ModelWorkspaceManagerSaveParticipant implements ISaveParticipant {
             ModelerCore.Util.log(IStatus.INFO,
                                  ModelerCore.Util.getString("ModelWorkspaceManagerSaveParticipant.DEBUG.saving(_context_)_4", context)); //$NON-NLS-1$
         }
+        // Persist the validation results, so they survive a session that does not shut down cleanly
+        ValidationResultCache.saveDefault();
     }
 
 }
@@ -13,7 +13,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -188,31 +190,13 @@ public class WorkspaceResourceFinderUtil {
     public static IResource[] findIResourceByName( final String name ) {
         if (name == null || name.length() == 0 || getWorkspace() == null) return EMPTY_IRESOURCE_ARRAY;
 
-        // Collect all IResources within all IProjects
-        final FileResourceCollectorVisitor visitor = new FileResourceCollectorVisitor();
-        if (getWorkspace() != null && getWorkspace().getRoot() != null) {
-            final IProject[] projects = getWorkspace().getRoot().getProjects();
-            for (final IProject project : projects)
-                try {
-                    project.accept(visitor);
-                } catch (final CoreException e) {
-                    // do nothing
-                }
-        }
-
         // Try to match the specified resource name with one of the IResource instances
-        final boolean removeExtension = (name.indexOf('.') == -1);
-        final IFile[] fileResources = visitor.getFileResources();
-        final ArrayList tmp = new ArrayList();
+        final IFile[] fileResources = getResourceLookup().findByName(name);
+        final ArrayList tmp = new ArrayList(fileResources.length);
         for (final IFile fileResource : fileResources)
-            if (fileResource != null) {
-                IPath path = fileResource.getFullPath();
-                // Do not process file names staring with '.' since these
-                // are considered reserved for Eclipse specific files
-                if (path.lastSegment().charAt(0) == '.') continue;
-                if (removeExtension) path = path.removeFileExtension();
-                if (name.equalsIgnoreCase(path.lastSegment())) tmp.add(fileResource);
-            }
+            // Do not process file names staring with '.' since these
+            // are considered reserved for Eclipse specific files
+            if (fileResource.getName().charAt(0) != '.') tmp.add(fileResource);
 
         // If no matching resources are found return an empty array
         if (tmp.size() == 0) return EMPTY_IRESOURCE_ARRAY;
@@ -233,29 +217,11 @@ public class WorkspaceResourceFinderUtil {
     public static IResource findIResourceByPath( final IPath workspacePath ) {
         if (workspacePath == null || workspacePath.isEmpty() || getWorkspace() == null) return null;
 
-        // Collect all IResources within all IProjects
-        final FileResourceCollectorVisitor visitor = new FileResourceCollectorVisitor();
-        if (getWorkspace() != null && getWorkspace().getRoot() != null) {
-            final IProject[] projects = getWorkspace().getRoot().getProjects();
-            for (final IProject project : projects)
-                try {
-                    project.accept(visitor);
-                } catch (final CoreException e) {
-                    // do nothing
-                }
-        }
-
-        final IFile[] fileResources = visitor.getFileResources();
-        for (final IFile fileResource : fileResources)
-            if (fileResource != null) {
-                final IPath path = fileResource.getFullPath();
-                // Do not process file names staring with '.' since these
-                // are considered reserved for Eclipse specific files
-                if (path.lastSegment().charAt(0) == '.') continue;
-                if (path.equals(workspacePath)) return fileResource;
-            }
-
-        return null;
+        final IFile fileResource = getResourceLookup().findByPath(workspacePath);
+        // Do not process file names staring with '.' since these
+        // are considered reserved for Eclipse specific files
+        if (fileResource == null || fileResource.getName().charAt(0) == '.') return null;
+        return fileResource;
     }
 
     /**
@@ -268,28 +234,7 @@ public class WorkspaceResourceFinderUtil {
     public static IResource findIResourceByUUID( final String stringifiedUuid ) {
         if (CoreStringUtil.isEmpty(stringifiedUuid) || !stringifiedUuid.startsWith(UUID.PROTOCOL) || getWorkspace() == null) return null;
 
-        // Collect all IResources within all IProjects
-        final FileResourceCollectorVisitor visitor = new FileResourceCollectorVisitor();
-        if (getWorkspace() != null && getWorkspace().getRoot() != null) {
-            final IProject[] projects = getWorkspace().getRoot().getProjects();
-            for (final IProject project : projects)
-                try {
-                    project.accept(visitor);
-                } catch (final CoreException e) {
-                    // do nothing
-                }
-        }
-
-        final IFile[] fileResources = visitor.getFileResources();
-        for (final IFile fileResource : fileResources) {
-            final IFile iResource = fileResource;
-            if (iResource != null && !ModelUtil.isXsdFile(iResource)) {
-                final XMIHeader header = ModelUtil.getXmiHeader(iResource);
-                if (header != null && stringifiedUuid.equals(header.getUUID())) return iResource;
-            }
-        }
-
-        return null;
+        return getResourceLookup().findByUuid(stringifiedUuid);
     }
 
     public static String getAbsoluteLocation( final File base,
@@ -631,57 +576,75 @@ public class WorkspaceResourceFinderUtil {
         return getResourcesThatUse(resource, null);
     }
 
+    /**
+     * Return the resources that directly import the specified resource. The importers are looked up in the workspace
+     * {@link ModelImportGraph import graph} so only the import declarations of the resources returned are examined.
+     * 
+     * @param resource the imported resource
+     * @param filter the filter the importing resources must pass; may be null
+     * @return the collection of importing IResource instances; never null
+     */
     public static Collection getResourcesThatUse( final IResource resource,
                                                   final ResourceFilter filter ) {
-        // search the workspace for any models that import anything beneath the path that is moving
-        final Collection allResources = getAllWorkspaceResources(filter);
         final Collection colDependentResources = new ArrayList();
+        if (resource == null || getWorkspace() == null) return colDependentResources;
 
         // check to see if any of the resources found depend upon the specified resource:
-        final IPath targetPath = resource.getFullPath();
-        for (final Iterator iter = allResources.iterator(); iter.hasNext();) {
-            final IResource nextResource = (IResource)iter.next();
-            final IPath[] paths = getDependentResourcePaths(nextResource);
-            for (final IPath path : paths)
-                if (path.equals(targetPath)) {
-                    final String modelPath = nextResource.getFullPath().toString();
-                    // If the URI is to the Teiid Designer built-in datatypes resource or to one
-                    // of the Emf XMLSchema resources then continue since there is no
-                    // ModelReference to add.
-                    if (modelPath != null && !isGlobalResource(modelPath)) colDependentResources.add(nextResource);
-                    break;
-                }
+        final IPath[] paths = getImportGraph().getImporters(resource.getFullPath());
+        for (final IPath path : paths) {
+            final IResource nextResource = getWorkspace().getRoot().findMember(path);
+            if (isDependentResource(nextResource, filter)) colDependentResources.add(nextResource);
         }
 
         return colDependentResources;
     }
 
+    /**
+     * Add the resources that directly or indirectly import the specified resource to the supplied collection. Resources that do
+     * not pass the filter are neither added nor followed.
+     * 
+     * @param resource the imported resource
+     * @param filter the filter the importing resources must pass; may be null
+     * @param dependentResources the collection the importing IResource instances are added to
+     */
     public static void getResourcesThatUseRecursive( final IResource resource,
                                                      final ResourceFilter filter,
                                                      final Collection dependentResources ) {
-        // search the workspace for any models that import anything beneath the path that is moving
-        final Collection allResources = getAllWorkspaceResources(filter);
-
-        // check to see if any of the resources found depend upon the specified resource:
-        final IPath targetPath = resource.getFullPath();
-        for (final Iterator iter = allResources.iterator(); iter.hasNext();) {
-            final IResource nextResource = (IResource)iter.next();
-            final IPath[] paths = getDependentResourcePaths(nextResource);
-            for (final IPath path : paths)
-                if (path.equals(targetPath)) {
-                    final String modelPath = nextResource.getFullPath().toString();
-                    // If the URI is to the Teiid Designer built-in datatypes resource or to one
-                    // of the Emf XMLSchema resources then continue since there is no
-                    // ModelReference to add.
-                    if (modelPath != null && !isGlobalResource(modelPath) && !dependentResources.contains(nextResource)) {
-                        dependentResources.add(nextResource);
-                        getResourcesThatUseRecursive(nextResource, filter, dependentResources);
-                    }
-                    break;
+        if (resource == null || getWorkspace() == null) return;
+
+        final ModelImportGraph graph = getImportGraph();
+        final Set visited = new HashSet(dependentResources);
+        final LinkedList queue = new LinkedList();
+        queue.add(resource);
+        while (!queue.isEmpty()) {
+            final IResource target = (IResource)queue.removeFirst();
+            final IPath[] paths = graph.getImporters(target.getFullPath());
+            for (final IPath path : paths) {
+                final IResource nextResource = getWorkspace().getRoot().findMember(path);
+                if (isDependentResource(nextResource, filter) && visited.add(nextResource)) {
+                    dependentResources.add(nextResource);
+                    queue.add(nextResource);
                 }
+            }
         }
     }
 
+    /**
+     * Return true if the resource found through the import graph should be returned as a dependent resource.
+     */
+    private static boolean isDependentResource( final IResource resource,
+                                                final ResourceFilter filter ) {
+        if (resource == null || resource.getType() != IResource.FILE || !resource.exists()) return false;
+        // Do not process file names starting with '.' since these
+        // are considered reserved for Eclipse specific files
+        if (resource.getName().charAt(0) == '.') return false;
+        if (filter != null && !filter.accept(resource)) return false;
+        // If the URI is to the Teiid Designer built-in datatypes resource or to one
+        // of the Emf XMLSchema resources then continue since there is no
+        // ModelReference to add.
+        return !isGlobalResource(resource.getFullPath().toString());
+    }
+
     /**
      * Return IResource[] array representing vdb archive IResource instances in the workspace that contain a version of any
      * IResource in the specified collection. If the method is called outside of the Eclipse runtime environment, or if the
@@ -784,6 +747,20 @@ public class WorkspaceResourceFinderUtil {
         return result;
     }
 
+    /**
+     * Returns the workspace-wide lookup table of file resources.
+     */
+    private static WorkspaceResourceLookup getResourceLookup() {
+        return ModelWorkspaceManager.getModelWorkspaceManager().getResourceLookup();
+    }
+
+    /**
+     * Returns the workspace-wide graph of model imports.
+     */
+    private static ModelImportGraph getImportGraph() {
+        return ModelWorkspaceManager.getModelWorkspaceManager().getImportGraph();
+    }
+
     /**
      * Returns the workbench associated with this object.
      */
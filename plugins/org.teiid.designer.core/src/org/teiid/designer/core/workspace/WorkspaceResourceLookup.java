@@ -0,0 +1,379 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.xmi.XMIHeader;
+
+/**
+ * WorkspaceResourceLookup is an in-memory lookup table from workspace path, lower-case file name and model UUID to the file
+ * resources of all open projects. It backs the <code>findIResourceByPath</code>, <code>findIResourceByName</code> and
+ * <code>findIResourceByUUID</code> methods of {@link WorkspaceResourceFinderUtil}.
+ * <p>
+ * The table is built when the {@link ModelWorkspaceManager} starts and is kept current from resource deltas (see
+ * {@link #processDelta(IResourceDelta)}). The UUID of a model is read from its XMI header the first time a UUID lookup is made
+ * after the model was added or changed. When several models declare the same UUID, as copies of a model do, the lookup returns the
+ * one that comes first in the order the workspace visits its files.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class WorkspaceResourceLookup {
+
+    private static final IFile[] EMPTY_FILE_ARRAY = new IFile[0];
+
+    /**
+     * Orders workspace paths the way a resource visitor reaches them: projects and the members of a container are visited in
+     * name order, and a container before its members.
+     */
+    static final Comparator<IPath> VISIT_ORDER = new Comparator<IPath>() {
+        @Override
+        public int compare( final IPath path1,
+                            final IPath path2 ) {
+            final int count = Math.min(path1.segmentCount(), path2.segmentCount());
+            for (int i = 0; i < count; i++) {
+                final int result = path1.segment(i).compareTo(path2.segment(i));
+                if (result != 0) return result;
+            }
+            return path1.segmentCount() - path2.segmentCount();
+        }
+    };
+
+    /** Map of workspace path to file */
+    private final Map<IPath, IFile> filesByPath = new HashMap<IPath, IFile>();
+
+    /** Map of lower-case file name, including the extension, to the files with that name */
+    private final Map<String, Set<IFile>> filesByName = new HashMap<String, Set<IFile>>();
+
+    /** Map of lower-case file name, excluding the extension, to the files with that name */
+    private final Map<String, Set<IFile>> filesByBaseName = new HashMap<String, Set<IFile>>();
+
+    /** Map of stringified model UUID to the workspace paths of the model files declaring it, in {@link #VISIT_ORDER} */
+    private final Map<String, SortedSet<IPath>> pathsByUuid = new HashMap<String, SortedSet<IPath>>();
+
+    /** Map of workspace path to the stringified UUID recorded in {@link #pathsByUuid} */
+    private final Map<IPath, String> uuidsByPath = new HashMap<IPath, String>();
+
+    /** Model files whose UUID has to be read before the next UUID lookup */
+    private final Set<IFile> pendingUuids = new LinkedHashSet<IFile>();
+
+    private boolean initialized;
+
+    // ==================================================================================
+    // L O O K U P S
+    // ==================================================================================
+
+    /**
+     * Return the file at the specified workspace path.
+     *
+     * @param path the workspace path; may not be null
+     * @return the file, or null if no file exists at that path in an open project
+     */
+    public synchronized IFile findByPath( final IPath path ) {
+        CoreArgCheck.isNotNull(path);
+        ensureInitialized();
+        return this.filesByPath.get(path);
+    }
+
+    /**
+     * Return the files with the specified name, ignoring case. If the name has no file extension the files are matched on their
+     * name without extension.
+     *
+     * @param name the file name; may not be null
+     * @return the matching files; never null
+     */
+    public synchronized IFile[] findByName( final String name ) {
+        CoreArgCheck.isNotNull(name);
+        ensureInitialized();
+        final Map<String, Set<IFile>> map = (name.indexOf('.') == -1 ? this.filesByBaseName : this.filesByName);
+        final Set<IFile> files = map.get(name.toLowerCase());
+        if (files == null || files.isEmpty()) return EMPTY_FILE_ARRAY;
+        return files.toArray(new IFile[files.size()]);
+    }
+
+    /**
+     * Return the model file whose XMI header declares the specified UUID. If several models declare the UUID, the one the
+     * workspace visits first is returned.
+     *
+     * @param stringifiedUuid the stringified UUID; may not be null
+     * @return the model file, or null if no model declares that UUID
+     */
+    public synchronized IFile findByUuid( final String stringifiedUuid ) {
+        CoreArgCheck.isNotNull(stringifiedUuid);
+        ensureInitialized();
+        readPendingUuids();
+        final SortedSet<IPath> paths = this.pathsByUuid.get(stringifiedUuid);
+        if (paths == null) return null;
+        return this.filesByPath.get(paths.first());
+    }
+
+    /**
+     * @return the number of files in this lookup table
+     */
+    public synchronized int size() {
+        ensureInitialized();
+        return this.filesByPath.size();
+    }
+
+    // ==================================================================================
+    // M A I N T E N A N C E
+    // ==================================================================================
+
+    /**
+     * Build the table from the files of all open projects, discarding any previous content.
+     */
+    public synchronized void initialize() {
+        clear();
+        this.initialized = true;
+        for (final IFile file : collectWorkspaceFiles()) {
+            add(file);
+        }
+    }
+
+    /**
+     * Discard the content of the table. The table is rebuilt on the next lookup.
+     */
+    public synchronized void clear() {
+        this.filesByPath.clear();
+        this.filesByName.clear();
+        this.filesByBaseName.clear();
+        this.pathsByUuid.clear();
+        this.uuidsByPath.clear();
+        this.pendingUuids.clear();
+        this.initialized = false;
+    }
+
+    /**
+     * Update the table from the supplied resource delta tree.
+     *
+     * @param rootDelta the root of the resource delta tree; may not be null
+     */
+    public synchronized void processDelta( final IResourceDelta rootDelta ) {
+        CoreArgCheck.isNotNull(rootDelta);
+        if (!this.initialized) return;
+
+        try {
+            rootDelta.accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit( final IResourceDelta delta ) {
+                    return processResourceDelta(delta);
+                }
+            });
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
+            // rebuild on the next lookup
+            this.initialized = false;
+        }
+    }
+
+    boolean processResourceDelta( final IResourceDelta delta ) {
+        final IResource resource = delta.getResource();
+        switch (delta.getKind()) {
+            case IResourceDelta.ADDED:
+                if (resource.getType() == IResource.FILE) add((IFile)resource);
+                return true;
+            case IResourceDelta.REMOVED:
+                removeAll(resource.getFullPath());
+                return false;
+            case IResourceDelta.CHANGED:
+                if (resource.getType() == IResource.FILE) {
+                    // the UUID in the header may have changed
+                    if ((delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0 && isUuidCandidate((IFile)resource)) {
+                        removeUuid(resource.getFullPath());
+                        this.pendingUuids.add((IFile)resource);
+                    }
+                } else if (resource.getType() == IResource.PROJECT && (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+                    removeAll(resource.getFullPath());
+                    final IProject project = (IProject)resource;
+                    if (project.isOpen()) {
+                        for (final IFile file : collectFiles(project)) {
+                            add(file);
+                        }
+                    }
+                    return false;
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Add the specified file to this table.
+     *
+     * @param file the file; may not be null
+     */
+    protected synchronized void add( final IFile file ) {
+        final IPath path = file.getFullPath();
+        if (this.filesByPath.put(path, file) != null) return;
+
+        final String name = file.getName().toLowerCase();
+        addToSet(this.filesByName, name, file);
+        addToSet(this.filesByBaseName, getBaseName(name), file);
+        if (isUuidCandidate(file)) this.pendingUuids.add(file);
+    }
+
+    /**
+     * Remove the file at the specified path, or all files below the specified container path, from this table.
+     *
+     * @param path the workspace path of a file, folder or project; may not be null
+     */
+    protected synchronized void removeAll( final IPath path ) {
+        if (this.filesByPath.containsKey(path)) {
+            remove(path);
+            return;
+        }
+        final Collection<IPath> contained = new ArrayList<IPath>();
+        for (final IPath knownPath : this.filesByPath.keySet()) {
+            if (path.isPrefixOf(knownPath)) contained.add(knownPath);
+        }
+        for (final IPath knownPath : contained) {
+            remove(knownPath);
+        }
+    }
+
+    // ==================================================================================
+    // W O R K S P A C E   A C C E S S
+    // ==================================================================================
+
+    /**
+     * @return the files of all open projects in the workspace; never null
+     */
+    protected Collection<IFile> collectWorkspaceFiles() {
+        final Collection<IFile> result = new ArrayList<IFile>();
+        final IWorkspace workspace = ModelerCore.getWorkspace();
+        if (workspace == null || workspace.getRoot() == null) return result;
+        for (final IProject project : workspace.getRoot().getProjects()) {
+            if (project.isOpen()) result.addAll(collectFiles(project));
+        }
+        return result;
+    }
+
+    /**
+     * Read the stringified UUID from the XMI header of the specified model file.
+     *
+     * @param file the model file
+     * @return the UUID, or null if the file has no XMI header
+     */
+    protected String readUuid( final IFile file ) {
+        final XMIHeader header = ModelUtil.getXmiHeader(file);
+        return (header == null ? null : header.getUUID());
+    }
+
+    // ==================================================================================
+    // P R I V A T E   M E T H O D S
+    // ==================================================================================
+
+    private static Collection<IFile> collectFiles( final IProject project ) {
+        final Collection<IFile> result = new ArrayList<IFile>();
+        try {
+            project.accept(new IResourceVisitor() {
+                @Override
+                public boolean visit( final IResource resource ) {
+                    if (resource.getType() == IResource.FILE && resource.exists()) result.add((IFile)resource);
+                    return true;
+                }
+            });
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
+        }
+        return result;
+    }
+
+    private static boolean isUuidCandidate( final IFile file ) {
+        final IPath path = file.getFullPath();
+        return ModelUtil.isModelFile(path) && !ModelUtil.isXsdFile(path);
+    }
+
+    private static String getBaseName( final String name ) {
+        final int index = name.lastIndexOf('.');
+        return (index == -1 ? name : name.substring(0, index));
+    }
+
+    private static void addToSet( final Map<String, Set<IFile>> map,
+                                  final String key,
+                                  final IFile file ) {
+        Set<IFile> files = map.get(key);
+        if (files == null) {
+            files = new LinkedHashSet<IFile>(2);
+            map.put(key, files);
+        }
+        files.add(file);
+    }
+
+    private static void removeFromSet( final Map<String, Set<IFile>> map,
+                                       final String key,
+                                       final IFile file ) {
+        final Set<IFile> files = map.get(key);
+        if (files == null) return;
+        files.remove(file);
+        if (files.isEmpty()) map.remove(key);
+    }
+
+    private void ensureInitialized() {
+        if (!this.initialized) initialize();
+    }
+
+    private void readPendingUuids() {
+        if (this.pendingUuids.isEmpty()) return;
+        final IFile[] pending = this.pendingUuids.toArray(new IFile[this.pendingUuids.size()]);
+        this.pendingUuids.clear();
+        for (final IFile file : pending) {
+            final String uuid = readUuid(file);
+            if (uuid == null) continue;
+            final IPath path = file.getFullPath();
+            // a changed file may still be recorded under its previous UUID
+            removeUuid(path);
+            this.uuidsByPath.put(path, uuid);
+            SortedSet<IPath> paths = this.pathsByUuid.get(uuid);
+            if (paths == null) {
+                paths = new TreeSet<IPath>(VISIT_ORDER);
+                this.pathsByUuid.put(uuid, paths);
+            }
+            paths.add(path);
+        }
+    }
+
+    private void remove( final IPath path ) {
+        final IFile file = this.filesByPath.remove(path);
+        if (file == null) return;
+        final String name = file.getName().toLowerCase();
+        removeFromSet(this.filesByName, name, file);
+        removeFromSet(this.filesByBaseName, getBaseName(name), file);
+        removeUuid(path);
+        this.pendingUuids.remove(file);
+    }
+
+    private void removeUuid( final IPath path ) {
+        final String uuid = this.uuidsByPath.remove(path);
+        if (uuid == null) return;
+        final SortedSet<IPath> paths = this.pathsByUuid.get(uuid);
+        if (paths == null) return;
+        paths.remove(path);
+        if (paths.isEmpty()) this.pathsByUuid.remove(uuid);
+    }
+}
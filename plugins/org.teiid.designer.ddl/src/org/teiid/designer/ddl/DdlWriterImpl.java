@@ -13,8 +13,11 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -22,10 +25,7 @@ import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.ecore.resource.Resource;
-import org.jdom.Document;
-import org.jdom.output.XMLOutputter;
 import org.teiid.core.designer.util.CoreArgCheck;
-import org.teiid.designer.common.xml.JdomHelper;
 import org.teiid.designer.core.ModelEditor;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.resource.EmfResource;
@@ -33,6 +33,7 @@ import org.teiid.designer.core.util.ModelContents;
 import org.teiid.designer.core.workspace.ModelResource;
 import org.teiid.designer.core.workspace.ModelWorkspaceException;
 import org.teiid.designer.core.workspace.ModelWorkspaceSelections;
+import org.teiid.designer.core.xslt.CoreXsltPlugin;
 import org.teiid.designer.core.xslt.Style;
 import org.teiid.designer.core.xslt.XsltTransform;
 
@@ -214,18 +215,20 @@ public class DdlWriterImpl implements DdlWriter {
         // Write the DDL ...
         try {
 
-            // Phase 1: Create the intermediate XML document ...
-            final Document intDoc = formatter.createDocument();
-
-            // Phase 2: Transform the intermediate XML document using the stylesheet ...
+            // The intermediate XML form is streamed from the models rather than built as a document ...
             final Style style = this.options.getStyle();
             if (style != null) {
+                // Transform the intermediate form using the stylesheet ...
                 final XsltTransform xform = new XsltTransform(style);
-                xform.transform(intDoc, stream);
+                xform.transform(formatter.createSource(), stream);
             } else {
                 // Write the intermediate form out to the stream ...
-                XMLOutputter outputter = new XMLOutputter(JdomHelper.getFormat("  ", true)); //$NON-NLS-1$
-                outputter.output(intDoc, stream);
+                final Transformer serializer = CoreXsltPlugin.createFactory().newTransformer();
+                // Indent by two spaces, as the intermediate form has always been written
+                serializer.setOutputProperty(OutputKeys.INDENT, "yes"); //$NON-NLS-1$
+                serializer.setOutputProperty("{http://saxon.sf.net/}indent-spaces", "2"); //$NON-NLS-1$ //$NON-NLS-2$
+                serializer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2"); //$NON-NLS-1$ //$NON-NLS-2$
+                serializer.transform(formatter.createSource(), new StreamResult(stream));
             }
         } catch (TransformerConfigurationException e) {
             final int code = TRANSFORMER_CONFIGURATION_EXCEPTION;
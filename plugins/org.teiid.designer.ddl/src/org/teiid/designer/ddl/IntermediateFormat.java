@@ -21,9 +21,10 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
-import org.jdom.Attribute;
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
 import org.jdom.Document;
-import org.jdom.Element;
+import org.jdom.input.SAXHandler;
 import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelEditor;
@@ -48,15 +49,31 @@ import org.teiid.designer.metamodels.relational.Schema;
 import org.teiid.designer.metamodels.relational.SearchabilityType;
 import org.teiid.designer.metamodels.relational.Table;
 import org.teiid.designer.metamodels.relational.UniqueKey;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
 
 
 /**
  * IntermediateFormat
+ * <p>
+ * The intermediate XML form of the models is {@link #write(ContentHandler) written} as SAX events while the models are walked,
+ * so that it can be {@link #createSource() fed} to the XSLT processor or serialized without first building a document of the
+ * whole model in memory.
+ * </p>
  *
  * @since 8.0
  */
 public class IntermediateFormat {
 
+    private static final String NO_NAMESPACE = ""; //$NON-NLS-1$
+    private static final String CDATA = "CDATA"; //$NON-NLS-1$
+
     public static final String FALSE_VALUE = DdlPlugin.Util.getString("IntermediateFormat.falseValue"); //$NON-NLS-1$
     public static final String TRUE_VALUE = DdlPlugin.Util.getString("IntermediateFormat.trueValue"); //$NON-NLS-1$
 
@@ -386,38 +403,45 @@ public class IntermediateFormat {
     // Helper methods for setting attributes
     // =========================================================================
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final String value ) {
         if (value != null && value.trim().length() != 0) {
-            final Attribute attrib = new Attribute(attributeName, value);
-            element.setAttribute(attrib);
+            attributes.addAttribute(NO_NAMESPACE, attributeName, attributeName, CDATA, value);
         }
     }
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final Object value ) {
         if (value != null) {
-            final Attribute attrib = new Attribute(attributeName, value.toString());
-            element.setAttribute(attrib);
+            attributes.addAttribute(NO_NAMESPACE, attributeName, attributeName, CDATA, value.toString());
         }
     }
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final boolean value ) {
         final String strValue = value ? TRUE_VALUE : FALSE_VALUE;
-        final Attribute attrib = new Attribute(attributeName, strValue);
-        element.setAttribute(attrib);
+        attributes.addAttribute(NO_NAMESPACE, attributeName, attributeName, CDATA, strValue);
     }
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final int value ) {
         final String strValue = Integer.toString(value);
-        final Attribute attrib = new Attribute(attributeName, strValue);
-        element.setAttribute(attrib);
+        attributes.addAttribute(NO_NAMESPACE, attributeName, attributeName, CDATA, strValue);
+    }
+
+    protected void startElement( final ContentHandler handler,
+                                 final String tag,
+                                 final AttributesImpl attributes ) throws SAXException {
+        handler.startElement(NO_NAMESPACE, tag, tag, attributes);
+    }
+
+    protected void endElement( final ContentHandler handler,
+                               final String tag ) throws SAXException {
+        handler.endElement(NO_NAMESPACE, tag, tag);
     }
 
     // =========================================================================
@@ -425,56 +449,92 @@ public class IntermediateFormat {
     // =========================================================================
 
     /**
-     * @param emfResource
-     * @param monitor
-     * @return
+     * Create the intermediate document of the whole model in memory. {@link #createSource()} or {@link #write(ContentHandler)}
+     * produce the same content without holding it all at once.
+     * 
+     * @return the document; never null
      */
     public Document createDocument() {
-        final Element ddlElement = new Element(Xml.DDL.TAG);
-        final Document doc = new Document(ddlElement);
+        final SAXHandler handler = new SAXHandler();
+        try {
+            write(handler);
+        } catch (SAXException e) {
+            // The JDOM builder does not throw, and the models are only read ...
+            throw new IllegalStateException(e);
+        }
+        return handler.getDocument();
+    }
 
+    /**
+     * Create a source of the intermediate form, which writes the content to the consumer of the source as the models are walked.
+     * 
+     * @return the source; never null
+     */
+    public Source createSource() {
+        return new SAXSource(new IntermediateFormatReader(), new InputSource());
+    }
+
+    /**
+     * Write the intermediate form of the models as SAX events.
+     * 
+     * @param handler the handler of the events; may not be null
+     * @throws SAXException if the handler fails
+     */
+    public void write( final ContentHandler handler ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         final Date now = new Date(System.currentTimeMillis());
 
         // Set the model-level attributes ...
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_INFO_COMMENTS, options.isGenerateInfoComments());
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_TABLE_COMMENTS, options.isGenerateTableComments());
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_COLUMN_COMMENTS, options.isGenerateColumnComments());
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_DROPS, options.isGenerateDropStatements());
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_TOOL, exporterTool);
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_VERSION, exporterVersion);
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_DATE, DATE_FORMATTER.format(now));
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_TIME, TIME_FORMATTER.format(now));
+        final AttributesImpl ddlAttributes = new AttributesImpl();
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_INFO_COMMENTS, options.isGenerateInfoComments());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_TABLE_COMMENTS, options.isGenerateTableComments());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_COLUMN_COMMENTS, options.isGenerateColumnComments());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_DROPS, options.isGenerateDropStatements());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_TOOL, exporterTool);
+        setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_VERSION, exporterVersion);
+        synchronized (DATE_FORMATTER) {
+            setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_DATE, DATE_FORMATTER.format(now));
+        }
+        synchronized (TIME_FORMATTER) {
+            setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_TIME, TIME_FORMATTER.format(now));
+        }
+
+        handler.startDocument();
+        startElement(handler, Xml.DDL.TAG, ddlAttributes);
 
         // -------------------------------------------------------------------------
         // Walk the models that have at least some content to be written out ...
         // -------------------------------------------------------------------------
 
-        // visit the model here
+        // visit the model here; the unique names are only used when enforced
         final ModelVisitor visitor = new RelationalEntityUniquenessEnforcer();
         final ModelVisitorProcessor processor = new ConcurrentModelVisitorProcessor(visitor);
 
         final Iterator iter = modelWrappers.iterator();
         while (iter.hasNext()) {
             final ModelWrapper wrapper = (ModelWrapper)iter.next();
-            try {
-                processor.walk(wrapper.getEmfResource(), ModelVisitorProcessor.DEPTH_INFINITE);
-            } catch (ModelerCoreException e) {
-                // handle the exception
+            if (this.options.isUniqueNamesEnforced()) {
+                try {
+                    processor.walk(wrapper.getEmfResource(), ModelVisitorProcessor.DEPTH_INFINITE);
+                } catch (ModelerCoreException e) {
+                    // handle the exception
+                }
             }
-            create(ddlElement, wrapper); // this method calls other methods to walk the tree
+            create(handler, wrapper); // this method calls other methods to walk the tree
         }
 
-        return doc;
+        endElement(handler, Xml.DDL.TAG);
+        handler.endDocument();
     }
 
     /**
      * Method to create document contents for a ModelWrapper object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the ModelWrapper that contains some objects to be written to the document content; may not be null
      */
-    protected void create( final Element parent,
-                           final ModelWrapper wrapper ) {
+    protected void create( final ContentHandler parent,
+                           final ModelWrapper wrapper ) throws SAXException {
         final Resource emfResource = wrapper.getEmfResource();
         final ModelAnnotation modelAnnotation = wrapper.getContents().getModelAnnotation();
 
@@ -498,8 +558,7 @@ public class IntermediateFormat {
         final String primaryMetamodel = mmDesc != null ? mmDesc.getName() : primaryMetamodelUri;
 
         // Set the model-level attributes ...
-        final Element modelElement = new Element(Xml.Model.TAG);
-        parent.addContent(modelElement);
+        final AttributesImpl modelElement = new AttributesImpl();
         setAttribute(modelElement, Xml.Model.Attributes.NAME, wrapper.getModelName());
         setAttribute(modelElement, Xml.Model.Attributes.UUID, getModelEditor().getObjectID(modelAnnotation));
         setAttribute(modelElement, Xml.Model.Attributes.MODEL_FILENAME, wrapper.getModelFilename());
@@ -508,6 +567,7 @@ public class IntermediateFormat {
         }
         setAttribute(modelElement, Xml.Model.Attributes.METAMODEL, primaryMetamodel);
         setAttribute(modelElement, Xml.Model.Attributes.METAMODEL_URL, primaryMetamodelUri);
+        startElement(parent, Xml.Model.TAG, modelElement);
 
         // -------------------------------------------------------------------------
         // Walk the root-level objects and call the corresponding method ...
@@ -516,8 +576,9 @@ public class IntermediateFormat {
         final Iterator iter = emfResource.getContents().iterator();
         while (iter.hasNext()) {
             final EObject eObj = (EObject)iter.next();
-            create(modelElement, eObj, wrapper); // this method calls other methods to walk the tree
+            create(parent, eObj, wrapper); // this method calls other methods to walk the tree
         }
+        endElement(parent, Xml.Model.TAG);
 
     }
 
@@ -525,12 +586,12 @@ public class IntermediateFormat {
      * Method to create document contents for a general EObject. This method does nothing, since there are overloaded forms of
      * this method that handle specific types of EObjects.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final EObject eObj,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         if (eObj instanceof Catalog) {
             create(parent, (Catalog)eObj, wrapper);
         } else if (eObj instanceof Schema) {
@@ -555,12 +616,12 @@ public class IntermediateFormat {
      * Method to create document contents for a Catalog object. This method does nothing for processing the Catalog object itself,
      * but
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the Catalog representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final Catalog catalog,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(catalog);
 
@@ -580,12 +641,12 @@ public class IntermediateFormat {
     /**
      * Method to create document contents for a Schema object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the Schema representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final Schema schema,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(schema);
 
@@ -594,35 +655,35 @@ public class IntermediateFormat {
             return;
         }
 
-        Element parentOfNewElements = parent;
-        if (this.options.isGenerateSchema()) {
-            final Element schemaElement = new Element(Xml.Schema.TAG);
-            parent.addContent(schemaElement);
-
+        final boolean isSchemaGenerated = this.options.isGenerateSchema();
+        if (isSchemaGenerated) {
+            final AttributesImpl schemaElement = new AttributesImpl();
             setAttribute(schemaElement, Xml.Schema.Attributes.NAME, getObjectNameInDdl(schema));
             setAttribute(schemaElement, Xml.Schema.Attributes.UUID, editor.getObjectID(schema));
             setAttribute(schemaElement, Xml.Schema.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(schema));
-
-            parentOfNewElements = schemaElement;
+            startElement(parent, Xml.Schema.TAG, schemaElement);
         }
 
         // Walk the contents and create any elements for this object's children ...
         final Iterator iter = schema.eContents().iterator();
         while (iter.hasNext()) {
             final EObject eobj = (EObject)iter.next();
-            create(parentOfNewElements, eobj, wrapper);
+            create(parent, eobj, wrapper);
+        }
+        if (isSchemaGenerated) {
+            endElement(parent, Xml.Schema.TAG);
         }
     }
 
     /**
      * Method to create document contents for a Table object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final Table table,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(table);
 
@@ -631,9 +692,7 @@ public class IntermediateFormat {
             return;
         }
 
-        final Element tableElement = new Element(Xml.Table.TAG);
-        parent.addContent(tableElement);
-
+        final AttributesImpl tableElement = new AttributesImpl();
         setAttribute(tableElement, Xml.Table.Attributes.NAME, getObjectNameInDdl(table));
         setAttribute(tableElement, Xml.Table.Attributes.UUID, editor.getObjectID(table));
         setAttribute(tableElement, Xml.Table.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(table));
@@ -641,13 +700,15 @@ public class IntermediateFormat {
         if (annotation != null) {
             setAttribute(tableElement, Xml.Table.Attributes.DESCRIPTION, annotation.getDescription());
         }
+        startElement(parent, Xml.Table.TAG, tableElement);
 
         // Process the columns ...
         final Iterator iter = table.getColumns().iterator();
         while (iter.hasNext()) {
             final EObject eobj = (EObject)iter.next();
-            create(tableElement, eobj, wrapper);
+            create(parent, eobj, wrapper);
         }
+        endElement(parent, Xml.Table.TAG);
 
         if (table instanceof BaseTable) {
             final BaseTable baseTable = (BaseTable)table;
@@ -676,16 +737,15 @@ public class IntermediateFormat {
     /**
      * Method to create document contents for a Column object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final Column column,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(column);
-        final Element columnElement = new Element(Xml.Column.TAG);
-        parent.addContent(columnElement);
+        final AttributesImpl columnElement = new AttributesImpl();
         setAttribute(columnElement, Xml.Column.Attributes.NAME, getObjectNameInDdl(column));
         setAttribute(columnElement, Xml.Column.Attributes.UUID, editor.getObjectID(column));
         final Annotation annotation = wrapper.getContents().getAnnotation(column);
@@ -729,6 +789,8 @@ public class IntermediateFormat {
         if (searchType != null) {
         }
         setAttribute(columnElement, Xml.Column.Attributes.SEARCH_TYPE, null);
+        startElement(parent, Xml.Column.TAG, columnElement);
+        endElement(parent, Xml.Column.TAG);
 
     }
 
@@ -788,17 +850,15 @@ public class IntermediateFormat {
     /**
      * Method to create document contents for a PrimaryKey object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final PrimaryKey pkey,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(pkey);
-        final Element pkElement = new Element(Xml.PrimaryKey.TAG);
-        parent.addContent(pkElement);
-
+        final AttributesImpl pkElement = new AttributesImpl();
         setAttribute(pkElement, Xml.PrimaryKey.Attributes.NAME, getUniqueObjectName(pkey));
         setAttribute(pkElement, Xml.PrimaryKey.Attributes.UUID, editor.getObjectID(pkey));
         setAttribute(pkElement, Xml.PrimaryKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(pkey));
@@ -808,33 +868,35 @@ public class IntermediateFormat {
         if (pkTable != null) { // should never be null, but check just in case ...
             setAttribute(pkElement, Xml.PrimaryKey.Attributes.TABLE_NAME, getObjectNameInDdl(pkTable));
         }
+        startElement(parent, Xml.PrimaryKey.TAG, pkElement);
 
         // Process the columns that the primary key references ...
         final List columns = pkey.getColumns();
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element pkColumnElement = new Element(Xml.PrimaryKeyColumn.TAG);
+            final AttributesImpl pkColumnElement = new AttributesImpl();
             setAttribute(pkColumnElement, Xml.PrimaryKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
             setAttribute(pkColumnElement, Xml.PrimaryKeyColumn.Attributes.UUID, editor.getObjectID(column));
-            pkElement.addContent(pkColumnElement);
+            startElement(parent, Xml.PrimaryKeyColumn.TAG, pkColumnElement);
+            endElement(parent, Xml.PrimaryKeyColumn.TAG);
         }
+        endElement(parent, Xml.PrimaryKey.TAG);
 
     }
 
     /**
      * Method to create document contents for a UniqueKey object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final UniqueKey ukey,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(ukey);
-        final Element pkElement = new Element(Xml.UniqueKey.TAG);
-        parent.addContent(pkElement);
+        final AttributesImpl pkElement = new AttributesImpl();
         setAttribute(pkElement, Xml.UniqueKey.Attributes.NAME, getUniqueObjectName(ukey));
         setAttribute(pkElement, Xml.UniqueKey.Attributes.UUID, editor.getObjectID(ukey));
         setAttribute(pkElement, Xml.UniqueKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(ukey));
@@ -844,33 +906,35 @@ public class IntermediateFormat {
         if (ukTable != null) { // should never be null, but check just in case ...
             setAttribute(pkElement, Xml.PrimaryKey.Attributes.TABLE_NAME, getObjectNameInDdl(ukTable));
         }
+        startElement(parent, Xml.UniqueKey.TAG, pkElement);
 
         // Process the columns that the unique key references ...
         final List columns = ukey.getColumns();
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element pkColumnElement = new Element(Xml.UniqueKeyColumn.TAG);
+            final AttributesImpl pkColumnElement = new AttributesImpl();
             setAttribute(pkColumnElement, Xml.UniqueKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
             setAttribute(pkColumnElement, Xml.UniqueKeyColumn.Attributes.UUID, editor.getObjectID(column));
-            pkElement.addContent(pkColumnElement);
+            startElement(parent, Xml.UniqueKeyColumn.TAG, pkColumnElement);
+            endElement(parent, Xml.UniqueKeyColumn.TAG);
         }
+        endElement(parent, Xml.UniqueKey.TAG);
 
     }
 
     /**
      * Method to create document contents for a ForeignKey object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final ForeignKey fkey,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(fkey);
-        final Element fkElement = new Element(Xml.ForeignKey.TAG);
-        parent.addContent(fkElement);
+        final AttributesImpl fkElement = new AttributesImpl();
         setAttribute(fkElement, Xml.ForeignKey.Attributes.NAME, getUniqueObjectName(fkey));
         setAttribute(fkElement, Xml.ForeignKey.Attributes.UUID, editor.getObjectID(fkey));
         setAttribute(fkElement, Xml.ForeignKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(fkey));
@@ -891,6 +955,7 @@ public class IntermediateFormat {
             }
             pkColumns = ukey.getColumns();
         }
+        startElement(parent, Xml.ForeignKey.TAG, fkElement);
 
         // Process the columns that the foreign key references ...
         final List columns = fkey.getColumns();
@@ -898,7 +963,7 @@ public class IntermediateFormat {
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element fkColumnElement = new Element(Xml.ForignKeyColumn.TAG);
+            final AttributesImpl fkColumnElement = new AttributesImpl();
             setAttribute(fkColumnElement, Xml.ForignKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
             setAttribute(fkColumnElement, Xml.ForignKeyColumn.Attributes.UUID, editor.getObjectID(column));
             // Find the corresponding column in the primary key; do this by order, but be tolerant
@@ -907,20 +972,22 @@ public class IntermediateFormat {
                 final Column pkColumn = (Column)pkColumns.get(index);
                 setAttribute(fkColumnElement, Xml.ForignKeyColumn.Attributes.PK_COLUMN_NAME, getObjectNameInDdl(pkColumn));
             }
-            fkElement.addContent(fkColumnElement);
+            startElement(parent, Xml.ForignKeyColumn.TAG, fkColumnElement);
+            endElement(parent, Xml.ForignKeyColumn.TAG);
             ++index;
         }
+        endElement(parent, Xml.ForeignKey.TAG);
     }
 
     /**
      * Method to create document contents for an Index object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param parent the handler to which the content is written; may not be null
      * @param eobj the Index representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler parent,
                            final Index index,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         CoreArgCheck.isNotNull(parent);
         CoreArgCheck.isNotNull(index);
 
@@ -929,32 +996,34 @@ public class IntermediateFormat {
             return;
         }
 
-        final Element indexElement = new Element(Xml.Index.TAG);
-        parent.addContent(indexElement);
+        final AttributesImpl indexElement = new AttributesImpl();
         setAttribute(indexElement, Xml.Index.Attributes.NAME, getUniqueObjectName(index));
         setAttribute(indexElement, Xml.Index.Attributes.UUID, editor.getObjectID(index));
         setAttribute(indexElement, Xml.Index.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(index));
 
-        // Process the columns that the primary key references ...
+        // Process the table that contains the index, which is the owner of the last column ...
         final List columns = index.getColumns();
-        final Element indexColumnElement = new Element(Xml.IndexColumns.TAG);
-        indexElement.addContent(indexColumnElement);
-        Table indexedTable = null;
+        if (!columns.isEmpty()) {
+            final Table indexedTable = (Table)((Column)columns.get(columns.size() - 1)).getOwner();
+            if (indexedTable != null) { // should never be null, but just in case ...
+                setAttribute(indexElement, Xml.ForeignKey.Attributes.TABLE_NAME, getObjectNameInDdl(indexedTable));
+            }
+        }
+        startElement(parent, Xml.Index.TAG, indexElement);
+
+        // Process the columns that the index references ...
+        startElement(parent, Xml.IndexColumns.TAG, new AttributesImpl());
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element indexedColumnElement = new Element(Xml.IndexColumn.TAG);
+            final AttributesImpl indexedColumnElement = new AttributesImpl();
             setAttribute(indexedColumnElement, Xml.IndexColumn.Attributes.NAME, getObjectNameInDdl(column));
             setAttribute(indexedColumnElement, Xml.IndexColumn.Attributes.UUID, editor.getObjectID(column));
-            indexColumnElement.addContent(indexedColumnElement);
-            indexedTable = (Table)column.getOwner();
-        }
-
-        // Process the table that contains the foreign key ...
-        if (indexedTable != null) { // should never be null, but just in case ...
-            setAttribute(indexElement, Xml.ForeignKey.Attributes.TABLE_NAME, getObjectNameInDdl(indexedTable));
+            startElement(parent, Xml.IndexColumn.TAG, indexedColumnElement);
+            endElement(parent, Xml.IndexColumn.TAG);
         }
-
+        endElement(parent, Xml.IndexColumns.TAG);
+        endElement(parent, Xml.Index.TAG);
     }
 
     /**
@@ -996,4 +1065,79 @@ public class IntermediateFormat {
         return getObjectNameInDdl(entity);
     }
 
+    /**
+     * The reader of the {@link IntermediateFormat#createSource() source}, which {@link IntermediateFormat#write(ContentHandler)
+     * writes} the intermediate form to the content handler given by the consumer of the source.
+     */
+    private class IntermediateFormatReader implements XMLReader {
+        private final Map features = new HashMap();
+        private final Map properties = new HashMap();
+        private ContentHandler contentHandler;
+        private DTDHandler dtdHandler;
+        private EntityResolver entityResolver;
+        private ErrorHandler errorHandler;
+
+        IntermediateFormatReader() {
+            this.features.put("http://xml.org/sax/features/namespaces", Boolean.TRUE); //$NON-NLS-1$
+        }
+
+        public void parse( final InputSource input ) throws SAXException {
+            write(this.contentHandler);
+        }
+
+        public void parse( final String systemId ) throws SAXException {
+            write(this.contentHandler);
+        }
+
+        public boolean getFeature( final String name ) {
+            return Boolean.TRUE.equals(this.features.get(name));
+        }
+
+        public void setFeature( final String name,
+                                final boolean value ) {
+            this.features.put(name, Boolean.valueOf(value));
+        }
+
+        public Object getProperty( final String name ) {
+            return this.properties.get(name);
+        }
+
+        public void setProperty( final String name,
+                                 final Object value ) {
+            this.properties.put(name, value);
+        }
+
+        public ContentHandler getContentHandler() {
+            return this.contentHandler;
+        }
+
+        public void setContentHandler( final ContentHandler handler ) {
+            this.contentHandler = handler;
+        }
+
+        public DTDHandler getDTDHandler() {
+            return this.dtdHandler;
+        }
+
+        public void setDTDHandler( final DTDHandler handler ) {
+            this.dtdHandler = handler;
+        }
+
+        public EntityResolver getEntityResolver() {
+            return this.entityResolver;
+        }
+
+        public void setEntityResolver( final EntityResolver resolver ) {
+            this.entityResolver = resolver;
+        }
+
+        public ErrorHandler getErrorHandler() {
+            return this.errorHandler;
+        }
+
+        public void setErrorHandler( final ErrorHandler handler ) {
+            this.errorHandler = handler;
+        }
+    }
+
 }
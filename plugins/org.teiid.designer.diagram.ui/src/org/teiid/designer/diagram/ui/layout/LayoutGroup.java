@@ -22,6 +22,8 @@ import org.teiid.designer.diagram.ui.model.DiagramModelNode;
  * @since 8.0
  */
 public class LayoutGroup implements LayoutNode {
+    private static final int MAX_SPRING_LAYOUT_NODES = 150;
+
     private double thisX;
     private double thisY;
     
@@ -148,12 +150,11 @@ public class LayoutGroup implements LayoutNode {
         switch( type ) {
             case LayoutHelper.COMPLEX_LAYOUT: {
             	int numNodes = this.getLayoutNodes().size();
-            	int nConn = nConnections;
-            	
-            	double connRatio = (double)nConn/(double)numNodes;
             		
-            	if( numNodes > 400 && connRatio > 1.2 ) {
-					LayoutUtilities.runColumnLayout(this);
+            	// The spring layout visits every pair of nodes on every iteration, so large networks use the
+            	// force-directed layout instead
+            	if( numNodes > MAX_SPRING_LAYOUT_NODES ) {
+					LayoutUtilities.runForceDirectedLayout(this);
             	} else {
 					LayoutUtilities.runSpringLayout(this);
             	}
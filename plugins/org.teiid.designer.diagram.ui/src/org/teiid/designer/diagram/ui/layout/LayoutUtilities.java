@@ -13,6 +13,7 @@ import java.util.Iterator;
 import java.util.List;
 import org.eclipse.draw2d.geometry.Point;
 import org.teiid.designer.diagram.ui.connection.NodeConnectionModel;
+import org.teiid.designer.diagram.ui.layout.spring.ForceDirectedLayout;
 import org.teiid.designer.diagram.ui.layout.spring.SpringLayout;
 import org.teiid.designer.diagram.ui.model.DiagramModelNode;
 
@@ -165,6 +166,13 @@ public class LayoutUtilities {
 		return result;
 	}
     
+    public static int runForceDirectedLayout(final LayoutGroup layoutGroup) {
+        ForceDirectedLayout layout = new ForceDirectedLayout(layoutGroup.getLayoutNodes());
+        layout.setStartLocation(20, 20);
+        
+        return layout.run();
+    }
+    
     public static int runTreeLayout(final LayoutGroup layoutGroup) {
         int result = 0;
         
@@ -0,0 +1,1007 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.diagram.ui.layout.spring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * BarnesHutSpring
+ * Force-directed layout engine for large diagrams.
+ * <p>
+ * Unlike {@link Spring}, which keeps n x n distance matrices and visits every pair of nodes on every iteration, this engine
+ * works on an edge list and approximates the repulsion between far away nodes with the center of mass of the quadtree cell
+ * that contains them (Barnes-Hut), so each iteration costs O(n log n + e).
+ * </p>
+ * <p>
+ * The graph is first coarsened by repeatedly merging matched neighbors. The coarsest graph is laid out from random positions,
+ * and each finer graph starts from the positions of the graph above it, so every level is a complete layout that the next
+ * one only refines. If the progress monitor is canceled, the current level is copied down to the nodes and the layout is left
+ * at that refinement.
+ * </p>
+ * <p>
+ * The engine only works on its own arrays, so {@link #compute(IProgressMonitor)} may run on any thread.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class BarnesHutSpring {
+
+    /**
+     * The default opening angle; cells whose size divided by their distance is below it are treated as one body
+     */
+    public static final double DEFAULT_THETA = 1.0;
+
+    /**
+     * The default tolerance, as a fraction of the edge length, of the average move below which a level is converged
+     */
+    public static final double DEFAULT_EPSILON = 0.01;
+
+    /**
+     * The default maximum number of iterations for each level
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 300;
+
+    /** Coarsening stops when a graph has no more nodes than this */
+    private static final int COARSEST_NODE_COUNT = 16;
+
+    /** Coarsening stops when a level keeps more than this fraction of the nodes of the level below it */
+    private static final double MIN_COARSENING_RATIO = 0.75;
+
+    /** The relative strength of the repulsive force */
+    private static final double REPULSION = 0.2;
+
+    /** The step length is multiplied or divided by this to cool or heat the system */
+    private static final double COOLING = 0.9;
+
+    /** The number of improving iterations after which the step length grows again */
+    private static final int HEATING_PERIOD = 5;
+
+    /** The maximum number of passes made to push overlapping nodes apart */
+    private static final int MAX_OVERLAP_PASSES = 100;
+
+    /** The number of passes after which remaining overlaps are spread by scaling the whole layout */
+    private static final int OVERLAP_PASSES_PER_SCALING = 5;
+
+    /** The factor by which the layout is scaled when pushing does not remove the overlaps */
+    private static final double OVERLAP_SCALING = 1.1;
+
+    /** The layout is kept at least this many times larger than the area of its nodes */
+    private static final double MAX_NODE_DENSITY_INVERSE = 4.0;
+
+    /** Quadtree cells smaller than this are not split; coincident bodies share their leaf */
+    private static final double MIN_CELL_SIZE = 1.0E-6;
+
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+
+    private final int nNodes;
+    private final double[] widths;
+    private final double[] heights;
+    private int[] edgeSources;
+    private int[] edgeTargets;
+    private int nEdges;
+
+    private double edgeLength = 100.0;
+    private double spacing = 10.0;
+    private double theta = DEFAULT_THETA;
+    private double epsilon = DEFAULT_EPSILON;
+    private int maxIterations = DEFAULT_MAX_ITERATIONS;
+    private long seed = 0L;
+
+    private List levels;
+    private Random random;
+    private double[] centerX;
+    private double[] centerY;
+    private int iterationCount;
+
+    // The quadtree is kept in parallel arrays that are reused by every iteration
+    private int[] cellChildren;
+    private int[] cellBodies;
+    private double[] cellMasses;
+    private double[] cellX;
+    private double[] cellY;
+    private double[] cellCenterX;
+    private double[] cellCenterY;
+    private double[] cellHalfSizes;
+    private int nCells;
+    private int[] stack;
+
+    /**
+     * Construct an instance of BarnesHutSpring.
+     *
+     * @param nNodes the number of nodes to lay out
+     */
+    public BarnesHutSpring( int nNodes ) {
+        this.nNodes = nNodes;
+        this.widths = new double[nNodes];
+        this.heights = new double[nNodes];
+        this.edgeSources = new int[Math.max(nNodes, 4)];
+        this.edgeTargets = new int[Math.max(nNodes, 4)];
+    }
+
+    /**
+     * @return the number of nodes to lay out
+     */
+    public int getNodeCount() {
+        return nNodes;
+    }
+
+    /**
+     * @return the number of edges added, including duplicates and loops
+     */
+    public int getEdgeCount() {
+        return nEdges;
+    }
+
+    /**
+     * Set the size of a node; it is only used to push overlapping nodes apart.
+     */
+    public void setSize( int node,
+                         double width,
+                         double height ) {
+        widths[node] = width;
+        heights[node] = height;
+    }
+
+    /**
+     * Add an edge between two nodes. The direction is ignored, loops are dropped and parallel edges pull harder.
+     */
+    public void addEdge( int source,
+                         int target ) {
+        if (source < 0 || source >= nNodes || target < 0 || target >= nNodes) {
+            throw new IllegalArgumentException("Edge " + source + "->" + target + " is not between nodes of this layout"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (nEdges == edgeSources.length) {
+            edgeSources = grow(edgeSources);
+            edgeTargets = grow(edgeTargets);
+        }
+        edgeSources[nEdges] = source;
+        edgeTargets[nEdges] = target;
+        nEdges++;
+        levels = null;
+    }
+
+    public double getEdgeLength() {
+        return edgeLength;
+    }
+
+    public void setEdgeLength( double d ) {
+        edgeLength = d;
+    }
+
+    public double getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * @param d the minimum gap left between nodes when overlaps are removed
+     */
+    public void setSpacing( double d ) {
+        spacing = d;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * @param d the opening angle; 0 computes the exact repulsion between all pairs of nodes
+     */
+    public void setTheta( double d ) {
+        theta = d;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public void setEpsilon( double d ) {
+        epsilon = d;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations( int i ) {
+        maxIterations = i;
+    }
+
+    /**
+     * @param l the seed of the random initial positions and matchings; the same graph and seed give the same layout
+     */
+    public void setSeed( long l ) {
+        seed = l;
+        levels = null;
+    }
+
+    /**
+     * @return the number of graphs, including the original one, that {@link #compute(IProgressMonitor)} lays out; each one is
+     *         reported to the progress monitor as one unit of work
+     */
+    public int getLevelCount() {
+        if (levels == null) {
+            coarsen();
+        }
+        return levels.size();
+    }
+
+    /**
+     * @return the number of iterations made by the last computation, over all levels
+     */
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * @return the x coordinate of the center of the node; the layout's bounds start at 0
+     */
+    public double getCenterX( int node ) {
+        return centerX[node];
+    }
+
+    /**
+     * @return the y coordinate of the center of the node; the layout's bounds start at 0
+     */
+    public double getCenterY( int node ) {
+        return centerY[node];
+    }
+
+    /**
+     * Lay out the nodes.
+     *
+     * @param monitor the progress monitor, checked for cancellation on every iteration; may be null
+     * @return true if every level was refined, false if the layout was canceled before the original graph converged
+     */
+    public boolean compute( IProgressMonitor monitor ) {
+        final IProgressMonitor theMonitor = (monitor != null ? monitor : new NullProgressMonitor());
+        if (levels == null) {
+            coarsen();
+        }
+        random = new Random(seed);
+        iterationCount = 0;
+        centerX = new double[nNodes];
+        centerY = new double[nNodes];
+        if (nNodes == 0) {
+            return true;
+        }
+
+        boolean completed = true;
+        int iLevel = levels.size() - 1;
+        Level level = (Level)levels.get(iLevel);
+        initialize(level);
+        while (true) {
+            if (!layout(level, theMonitor)) {
+                completed = false;
+                break;
+            }
+            theMonitor.worked(1);
+            if (iLevel == 0) {
+                break;
+            }
+            iLevel--;
+            final Level finer = (Level)levels.get(iLevel);
+            prolong(level, finer);
+            level = finer;
+        }
+
+        // After a cancellation, copy the refined level down to the original nodes
+        while (iLevel > 0) {
+            iLevel--;
+            final Level finer = (Level)levels.get(iLevel);
+            prolong(level, finer);
+            level = finer;
+        }
+        System.arraycopy(level.x, 0, centerX, 0, nNodes);
+        System.arraycopy(level.y, 0, centerY, 0, nNodes);
+
+        scaleToEdgeLength();
+        if (completed) {
+            removeOverlaps(theMonitor);
+        }
+        normalize();
+        return completed;
+    }
+
+    // =========================================================================
+    // C O A R S E N I N G
+    // =========================================================================
+
+    /**
+     * A graph in compressed adjacency form. Every edge is listed at both of its ends.
+     */
+    private static final class Level {
+        int n;
+        int[] adjacencyStart; // n + 1 offsets into adjacency
+        int[] adjacency;
+        double[] weights;
+        double[] masses;
+        int[] parents; // node of the next coarser level; null for the coarsest level
+        double[] x;
+        double[] y;
+    }
+
+    private void coarsen() {
+        final Random rand = new Random(seed);
+        levels = new ArrayList();
+        final double[] masses = new double[nNodes];
+        Arrays.fill(masses, 1.0);
+        final int[] identity = new int[nNodes];
+        for (int i = 0; i < nNodes; i++) {
+            identity[i] = i;
+        }
+        double[] ones = new double[nEdges];
+        Arrays.fill(ones, 1.0);
+        Level level = createLevel(nNodes, identity, edgeSources, edgeTargets, ones, nEdges, masses);
+        levels.add(level);
+
+        while (level.n > COARSEST_NODE_COUNT) {
+            final int nCoarse = match(level, rand);
+            if (nCoarse > MIN_COARSENING_RATIO * level.n) {
+                level.parents = null;
+                break;
+            }
+            final double[] coarseMasses = new double[nCoarse];
+            for (int i = 0; i < level.n; i++) {
+                coarseMasses[level.parents[i]] += level.masses[i];
+            }
+            final int nAdjacent = level.adjacency.length;
+            final int[] sources = new int[nAdjacent];
+            final int[] targets = new int[nAdjacent];
+            final double[] weights = new double[nAdjacent];
+            int count = 0;
+            for (int i = 0; i < level.n; i++) {
+                for (int k = level.adjacencyStart[i]; k < level.adjacencyStart[i + 1]; k++) {
+                    final int j = level.adjacency[k];
+                    if (i < j) {
+                        sources[count] = i;
+                        targets[count] = j;
+                        weights[count] = level.weights[k];
+                        count++;
+                    }
+                }
+            }
+            level = createLevel(nCoarse, level.parents, sources, targets, weights, count, coarseMasses);
+            levels.add(level);
+        }
+    }
+
+    /**
+     * Match each node with its unmatched neighbor of heaviest edge relative to their combined mass, then let unmatched nodes
+     * with a single neighbor join it. Sets the parents of the level.
+     *
+     * @return the number of nodes of the coarser level
+     */
+    private int match( Level level,
+                       Random rand ) {
+        final int n = level.n;
+        final int[] partners = new int[n];
+        Arrays.fill(partners, EMPTY);
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            final int j = rand.nextInt(i + 1);
+            final int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        for (int iOrder = 0; iOrder < n; iOrder++) {
+            final int i = order[iOrder];
+            if (partners[i] != EMPTY) {
+                continue;
+            }
+            int best = i;
+            double bestScore = 0.0;
+            for (int k = level.adjacencyStart[i]; k < level.adjacencyStart[i + 1]; k++) {
+                final int j = level.adjacency[k];
+                if (partners[j] == EMPTY) {
+                    final double score = level.weights[k] / (level.masses[i] + level.masses[j]);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = j;
+                    }
+                }
+            }
+            partners[i] = best;
+            partners[best] = i;
+        }
+
+        final int[] parents = new int[n];
+        Arrays.fill(parents, EMPTY);
+        int nCoarse = 0;
+        for (int i = 0; i < n; i++) {
+            if (parents[i] == EMPTY && (partners[i] != i || degree(level, i) != 1)) {
+                parents[i] = nCoarse;
+                parents[partners[i]] = nCoarse;
+                nCoarse++;
+            }
+        }
+        // Leaves left alone, such as the many tables referencing one hub, join their neighbor
+        for (int i = 0; i < n; i++) {
+            if (parents[i] == EMPTY) {
+                final int neighbor = level.adjacency[level.adjacencyStart[i]];
+                if (parents[neighbor] != EMPTY) {
+                    parents[i] = parents[neighbor];
+                } else {
+                    // two connected leaves that were both left alone
+                    parents[i] = nCoarse;
+                    parents[neighbor] = nCoarse;
+                    nCoarse++;
+                }
+            }
+        }
+        level.parents = parents;
+        return nCoarse;
+    }
+
+    private static int degree( Level level,
+                               int node ) {
+        return level.adjacencyStart[node + 1] - level.adjacencyStart[node];
+    }
+
+    /**
+     * Create a level from edges between nodes of the finer level, mapped through the supplied parents. Loops are dropped and
+     * parallel edges are merged, adding their weights.
+     */
+    private static Level createLevel( int n,
+                                      int[] parents,
+                                      int[] sources,
+                                      int[] targets,
+                                      double[] weights,
+                                      int nEdgesIn,
+                                      double[] masses ) {
+        // Sort the edge indexes by their (min, max) end points so duplicates are adjacent
+        final long[] keys = new long[nEdgesIn];
+        int nKeys = 0;
+        for (int e = 0; e < nEdgesIn; e++) {
+            final int s = parents[sources[e]];
+            final int t = parents[targets[e]];
+            if (s != t) {
+                final long lo = Math.min(s, t);
+                final long hi = Math.max(s, t);
+                keys[nKeys++] = (lo * n + hi) * (long)nEdgesIn + e;
+            }
+        }
+        Arrays.sort(keys, 0, nKeys);
+
+        final int[] uniqueSources = new int[nKeys];
+        final int[] uniqueTargets = new int[nKeys];
+        final double[] uniqueWeights = new double[nKeys];
+        int nUnique = 0;
+        long previous = -1L;
+        for (int k = 0; k < nKeys; k++) {
+            final long pair = keys[k] / nEdgesIn;
+            final int e = (int)(keys[k] % nEdgesIn);
+            if (pair != previous) {
+                uniqueSources[nUnique] = (int)(pair / n);
+                uniqueTargets[nUnique] = (int)(pair % n);
+                nUnique++;
+                previous = pair;
+            }
+            uniqueWeights[nUnique - 1] += weights[e];
+        }
+
+        final Level level = new Level();
+        level.n = n;
+        level.masses = masses;
+        level.adjacencyStart = new int[n + 1];
+        for (int e = 0; e < nUnique; e++) {
+            level.adjacencyStart[uniqueSources[e] + 1]++;
+            level.adjacencyStart[uniqueTargets[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            level.adjacencyStart[i + 1] += level.adjacencyStart[i];
+        }
+        level.adjacency = new int[2 * nUnique];
+        level.weights = new double[2 * nUnique];
+        final int[] fill = new int[n];
+        System.arraycopy(level.adjacencyStart, 0, fill, 0, n);
+        for (int e = 0; e < nUnique; e++) {
+            final int s = uniqueSources[e];
+            final int t = uniqueTargets[e];
+            level.adjacency[fill[s]] = t;
+            level.weights[fill[s]++] = uniqueWeights[e];
+            level.adjacency[fill[t]] = s;
+            level.weights[fill[t]++] = uniqueWeights[e];
+        }
+        return level;
+    }
+
+    // =========================================================================
+    // R E F I N E M E N T
+    // =========================================================================
+
+    private void initialize( Level level ) {
+        level.x = new double[level.n];
+        level.y = new double[level.n];
+        final double extent = edgeLength * Math.sqrt(level.n);
+        for (int i = 0; i < level.n; i++) {
+            level.x[i] = random.nextDouble() * extent;
+            level.y[i] = random.nextDouble() * extent;
+        }
+    }
+
+    /**
+     * Place each node of the finer level near its parent.
+     */
+    private void prolong( Level coarse,
+                          Level fine ) {
+        fine.x = new double[fine.n];
+        fine.y = new double[fine.n];
+        final double amount = 0.5 * edgeLength;
+        for (int i = 0; i < fine.n; i++) {
+            final int parent = fine.parents[i];
+            fine.x[i] = coarse.x[parent] + (random.nextDouble() - 0.5) * amount;
+            fine.y[i] = coarse.y[parent] + (random.nextDouble() - 0.5) * amount;
+        }
+    }
+
+    /**
+     * Iterate the spring embedder on one level until it converges.
+     *
+     * @return false if the monitor was canceled
+     */
+    private boolean layout( Level level,
+                            IProgressMonitor monitor ) {
+        final int n = level.n;
+        if (n == 1) {
+            return !monitor.isCanceled();
+        }
+        final double k = edgeLength;
+        final double[] x = level.x;
+        final double[] y = level.y;
+        final double[] fx = new double[n];
+        final double[] fy = new double[n];
+        // the coarsest level starts from random positions, the others only need refining
+        final double maxStep = Math.max(level.parents == null ? k * Math.sqrt(n) * 0.1 : k, k * 0.1);
+        double step = maxStep;
+        double energy = Double.MAX_VALUE;
+        int progress = 0;
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            iterationCount++;
+            Arrays.fill(fx, 0.0);
+            Arrays.fill(fy, 0.0);
+            applyRepulsion(level, fx, fy);
+            applyAttraction(level, fx, fy);
+
+            final double previousEnergy = energy;
+            energy = 0.0;
+            double moved = 0.0;
+            for (int i = 0; i < n; i++) {
+                final double f2 = fx[i] * fx[i] + fy[i] * fy[i];
+                energy += f2;
+                if (f2 > 0.0) {
+                    final double f = Math.sqrt(f2);
+                    x[i] += step * fx[i] / f;
+                    y[i] += step * fy[i] / f;
+                    moved += step;
+                }
+            }
+
+            // Adaptive cooling: shrink the step while the energy goes up, grow it after steady progress
+            if (energy < previousEnergy) {
+                progress++;
+                if (progress >= HEATING_PERIOD) {
+                    progress = 0;
+                    step = Math.min(maxStep, step / COOLING);
+                }
+            } else {
+                progress = 0;
+                step *= COOLING;
+            }
+            if (moved / n < epsilon * k) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private void applyAttraction( Level level,
+                                  double[] fx,
+                                  double[] fy ) {
+        final double[] x = level.x;
+        final double[] y = level.y;
+        final double k = edgeLength;
+        for (int i = 0; i < level.n; i++) {
+            for (int e = level.adjacencyStart[i]; e < level.adjacencyStart[i + 1]; e++) {
+                final int j = level.adjacency[e];
+                final double dx = x[j] - x[i];
+                final double dy = y[j] - y[i];
+                // |f| = w * d^2 / k along the unit vector (dx, dy) / d
+                final double d = Math.sqrt(dx * dx + dy * dy);
+                final double f = level.weights[e] * d / k;
+                fx[i] += f * dx;
+                fy[i] += f * dy;
+            }
+        }
+    }
+
+    private void applyRepulsion( Level level,
+                                 double[] fx,
+                                 double[] fy ) {
+        buildTree(level);
+        final double[] x = level.x;
+        final double[] y = level.y;
+        final double[] masses = level.masses;
+        final double c = REPULSION * edgeLength * edgeLength;
+        final double theta2 = theta * theta;
+        for (int i = 0; i < level.n; i++) {
+            final double xi = x[i];
+            final double yi = y[i];
+            double sumX = 0.0;
+            double sumY = 0.0;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                final int cell = stack[--top];
+                if (cellMasses[cell] == 0.0) {
+                    continue;
+                }
+                final int body = cellBodies[cell];
+                if (body == i) {
+                    continue;
+                }
+                double dx = xi - cellX[cell];
+                double dy = yi - cellY[cell];
+                double d2 = dx * dx + dy * dy;
+                final double size = 2.0 * cellHalfSizes[cell];
+                if (body != INTERNAL || size * size < theta2 * d2) {
+                    if (d2 < MIN_CELL_SIZE) {
+                        // coincident with the cell's center of mass: push in a random direction
+                        dx = random.nextDouble() - 0.5;
+                        dy = random.nextDouble() - 0.5;
+                        d2 = dx * dx + dy * dy;
+                    }
+                    // |f| = c * m * M / d along the unit vector (dx, dy) / d
+                    final double f = cellMasses[cell] / d2;
+                    sumX += f * dx;
+                    sumY += f * dy;
+                } else {
+                    final int first = 4 * cell;
+                    for (int q = 0; q < 4; q++) {
+                        final int child = cellChildren[first + q];
+                        if (child != EMPTY) {
+                            if (top == stack.length) {
+                                stack = grow(stack);
+                            }
+                            stack[top++] = child;
+                        }
+                    }
+                }
+            }
+            fx[i] += c * masses[i] * sumX;
+            fy[i] += c * masses[i] * sumY;
+        }
+    }
+
+    // =========================================================================
+    // Q U A D T R E E
+    // =========================================================================
+
+    private void buildTree( Level level ) {
+        final double[] x = level.x;
+        final double[] y = level.y;
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < level.n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        if (cellBodies == null || cellBodies.length < 2 * level.n + 1) {
+            allocateCells(2 * level.n + 1);
+        }
+        if (stack == null) {
+            stack = new int[64];
+        }
+        nCells = 0;
+        newCell((minX + maxX) / 2, (minY + maxY) / 2, Math.max(maxX - minX, maxY - minY) / 2 + 1.0);
+        for (int i = 0; i < level.n; i++) {
+            insert(i, x[i], y[i], level.masses[i], level);
+        }
+        // turn the weighted sums into centers of mass
+        for (int cell = 0; cell < nCells; cell++) {
+            if (cellMasses[cell] > 0.0) {
+                cellX[cell] /= cellMasses[cell];
+                cellY[cell] /= cellMasses[cell];
+            }
+        }
+    }
+
+    private void insert( int body,
+                         double bx,
+                         double by,
+                         double mass,
+                         Level level ) {
+        int cell = 0;
+        while (true) {
+            final int occupant = cellBodies[cell];
+            if (occupant == EMPTY) {
+                cellBodies[cell] = body;
+                addMass(cell, bx, by, mass);
+                return;
+            }
+            if (occupant == INTERNAL) {
+                addMass(cell, bx, by, mass);
+                cell = getChild(cell, bx, by);
+                continue;
+            }
+            if (cellHalfSizes[cell] < MIN_CELL_SIZE) {
+                // coincident bodies share the leaf; the occupant stands for all of them
+                addMass(cell, bx, by, mass);
+                return;
+            }
+            // split the leaf, moving its occupant down, and insert into the new internal cell
+            cellBodies[cell] = INTERNAL;
+            final int child = getChild(cell, level.x[occupant], level.y[occupant]);
+            cellBodies[child] = occupant;
+            addMass(child, level.x[occupant], level.y[occupant], level.masses[occupant]);
+        }
+    }
+
+    private void addMass( int cell,
+                          double bx,
+                          double by,
+                          double mass ) {
+        cellMasses[cell] += mass;
+        cellX[cell] += mass * bx;
+        cellY[cell] += mass * by;
+    }
+
+    private int getChild( int cell,
+                          double bx,
+                          double by ) {
+        final int quadrant = (bx >= cellCenterX[cell] ? 1 : 0) + (by >= cellCenterY[cell] ? 2 : 0);
+        final int slot = 4 * cell + quadrant;
+        int child = cellChildren[slot];
+        if (child == EMPTY) {
+            final double half = cellHalfSizes[cell] / 2;
+            final double childX = cellCenterX[cell] + ((quadrant & 1) != 0 ? half : -half);
+            final double childY = cellCenterY[cell] + ((quadrant & 2) != 0 ? half : -half);
+            child = newCell(childX, childY, half);
+            cellChildren[slot] = child;
+        }
+        return child;
+    }
+
+    private int newCell( double centerX,
+                         double centerY,
+                         double halfSize ) {
+        if (nCells == cellBodies.length) {
+            allocateCells(2 * nCells);
+        }
+        final int cell = nCells++;
+        cellBodies[cell] = EMPTY;
+        cellMasses[cell] = 0.0;
+        cellX[cell] = 0.0;
+        cellY[cell] = 0.0;
+        cellCenterX[cell] = centerX;
+        cellCenterY[cell] = centerY;
+        cellHalfSizes[cell] = halfSize;
+        Arrays.fill(cellChildren, 4 * cell, 4 * cell + 4, EMPTY);
+        return cell;
+    }
+
+    private void allocateCells( int capacity ) {
+        cellChildren = copy(cellChildren, 4 * capacity);
+        cellBodies = copy(cellBodies, capacity);
+        cellMasses = copy(cellMasses, capacity);
+        cellX = copy(cellX, capacity);
+        cellY = copy(cellY, capacity);
+        cellCenterX = copy(cellCenterX, capacity);
+        cellCenterY = copy(cellCenterY, capacity);
+        cellHalfSizes = copy(cellHalfSizes, capacity);
+    }
+
+    // =========================================================================
+    // O V E R L A P S
+    // =========================================================================
+
+    /**
+     * Push apart nodes whose bounds, grown by the spacing, overlap. Nodes are bucketed in a grid of average node size, so each
+     * pass only compares nodes that share a cell. Pushing cannot clear a jammed cluster whose neighbors are jammed too, so
+     * when a few passes leave overlaps the whole layout is scaled up a little, which keeps its shape.
+     */
+    private void removeOverlaps( IProgressMonitor monitor ) {
+        double totalSize = 0.0;
+        for (int i = 0; i < nNodes; i++) {
+            totalSize += Math.max(widths[i], heights[i]);
+        }
+        if (nNodes < 2 || totalSize == 0.0) {
+            return;
+        }
+        final double cellSize = totalSize / nNodes + spacing;
+        final int maxCells = (1 << 20) - 1;
+
+        for (int pass = 0; pass < MAX_OVERLAP_PASSES && !monitor.isCanceled(); pass++) {
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            for (int i = 0; i < nNodes; i++) {
+                minX = Math.min(minX, centerX[i] - widths[i] / 2);
+                minY = Math.min(minY, centerY[i] - heights[i] / 2);
+            }
+
+            // entries are (cell, node) pairs packed so that sorting groups the nodes of each cell
+            long[] entries = new long[2 * nNodes];
+            int nEntries = 0;
+            for (int i = 0; i < nNodes; i++) {
+                final int x0 = Math.min(maxCells, (int)((centerX[i] - widths[i] / 2 - minX) / cellSize));
+                final int y0 = Math.min(maxCells, (int)((centerY[i] - heights[i] / 2 - minY) / cellSize));
+                final int x1 = Math.min(maxCells, (int)((centerX[i] + widths[i] / 2 + spacing - minX) / cellSize));
+                final int y1 = Math.min(maxCells, (int)((centerY[i] + heights[i] / 2 + spacing - minY) / cellSize));
+                for (long gx = x0; gx <= x1; gx++) {
+                    for (long gy = y0; gy <= y1; gy++) {
+                        if (nEntries == entries.length) {
+                            entries = copy(entries, 2 * nEntries);
+                        }
+                        entries[nEntries++] = (((gx << 20) | gy) << 23) | i;
+                    }
+                }
+            }
+            Arrays.sort(entries, 0, nEntries);
+
+            boolean overlapped = false;
+            final long nodeMask = (1L << 23) - 1;
+            int start = 0;
+            while (start < nEntries) {
+                int end = start + 1;
+                while (end < nEntries && (entries[end] >>> 23) == (entries[start] >>> 23)) {
+                    end++;
+                }
+                for (int a = start; a < end; a++) {
+                    for (int b = a + 1; b < end; b++) {
+                        overlapped |= separate((int)(entries[a] & nodeMask), (int)(entries[b] & nodeMask));
+                    }
+                }
+                start = end;
+            }
+            if (!overlapped) {
+                break;
+            }
+            if (pass % OVERLAP_PASSES_PER_SCALING == OVERLAP_PASSES_PER_SCALING - 1) {
+                for (int i = 0; i < nNodes; i++) {
+                    centerX[i] *= OVERLAP_SCALING;
+                    centerY[i] *= OVERLAP_SCALING;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move two overlapping nodes apart, each by half the overlap, along the axis where they overlap least.
+     *
+     * @return true if the nodes overlapped
+     */
+    private boolean separate( int a,
+                              int b ) {
+        final double dx = centerX[b] - centerX[a];
+        final double dy = centerY[b] - centerY[a];
+        final double overlapX = (widths[a] + widths[b]) / 2 + spacing - Math.abs(dx);
+        final double overlapY = (heights[a] + heights[b]) / 2 + spacing - Math.abs(dy);
+        if (overlapX <= 0.0 || overlapY <= 0.0) {
+            return false;
+        }
+        if (overlapX < overlapY) {
+            final double shift = (dx < 0.0 || (dx == 0.0 && a > b) ? -overlapX : overlapX) / 2;
+            centerX[a] -= shift;
+            centerX[b] += shift;
+        } else {
+            final double shift = (dy < 0.0 || (dy == 0.0 && a > b) ? -overlapY : overlapY) / 2;
+            centerY[a] -= shift;
+            centerY[b] += shift;
+        }
+        return true;
+    }
+
+    /**
+     * Scale the layout so its average edge is as long as the edge length. The long range repulsion settles edges at a few
+     * times the natural spring length, and more so for larger graphs. Dense graphs are kept large enough for their nodes to
+     * cover at most a fourth of the layout, so the overlaps can be removed.
+     */
+    private void scaleToEdgeLength() {
+        double total = 0.0;
+        int count = 0;
+        for (int e = 0; e < nEdges; e++) {
+            final int s = edgeSources[e];
+            final int t = edgeTargets[e];
+            if (s != t) {
+                final double dx = centerX[s] - centerX[t];
+                final double dy = centerY[s] - centerY[t];
+                total += Math.sqrt(dx * dx + dy * dy);
+                count++;
+            }
+        }
+        if (total == 0.0) {
+            return;
+        }
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        double nodeArea = 0.0;
+        for (int i = 0; i < nNodes; i++) {
+            minX = Math.min(minX, centerX[i]);
+            minY = Math.min(minY, centerY[i]);
+            maxX = Math.max(maxX, centerX[i]);
+            maxY = Math.max(maxY, centerY[i]);
+            nodeArea += (widths[i] + spacing) * (heights[i] + spacing);
+        }
+        final double area = Math.max(maxX - minX, 1.0) * Math.max(maxY - minY, 1.0);
+        final double scale = Math.max(edgeLength * count / total, Math.sqrt(MAX_NODE_DENSITY_INVERSE * nodeArea / area));
+        for (int i = 0; i < nNodes; i++) {
+            centerX[i] *= scale;
+            centerY[i] *= scale;
+        }
+    }
+
+    /**
+     * Translate the layout so its bounds start at 0, 0.
+     */
+    private void normalize() {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        for (int i = 0; i < nNodes; i++) {
+            minX = Math.min(minX, centerX[i] - widths[i] / 2);
+            minY = Math.min(minY, centerY[i] - heights[i] / 2);
+        }
+        for (int i = 0; i < nNodes; i++) {
+            centerX[i] -= minX;
+            centerY[i] -= minY;
+        }
+    }
+
+    // =========================================================================
+    // A R R A Y S
+    // =========================================================================
+
+    private static int[] grow( int[] array ) {
+        final int[] result = new int[2 * array.length];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    private static int[] copy( int[] array,
+                               int length ) {
+        final int[] result = new int[length];
+        if (array != null) {
+            System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+        }
+        return result;
+    }
+
+    private static long[] copy( long[] array,
+                                int length ) {
+        final long[] result = new long[length];
+        System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+        return result;
+    }
+
+    private static double[] copy( double[] array,
+                                  int length ) {
+        final double[] result = new double[length];
+        if (array != null) {
+            System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+        }
+        return result;
+    }
+}
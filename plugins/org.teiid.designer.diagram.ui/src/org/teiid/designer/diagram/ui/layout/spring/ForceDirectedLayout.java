@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.diagram.ui.layout.spring;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.dialogs.ProgressMonitorDialog;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+import org.eclipse.swt.widgets.Display;
+import org.teiid.core.designer.util.I18nUtil;
+import org.teiid.designer.diagram.ui.DiagramUiConstants;
+import org.teiid.designer.diagram.ui.connection.NodeConnectionModel;
+import org.teiid.designer.diagram.ui.layout.DefaultLayoutNode;
+import org.teiid.designer.diagram.ui.layout.DiagramLayout;
+import org.teiid.designer.diagram.ui.layout.LayoutNode;
+import org.teiid.designer.diagram.ui.model.DiagramModelNode;
+
+/**
+ * ForceDirectedLayout
+ * Spring layout for large diagrams, computed by a {@link BarnesHutSpring}.
+ * <p>
+ * The node sizes and connections are read when the layout runs. If it runs on the display thread, the positions are computed
+ * in a cancelable progress dialog so the workbench keeps painting; canceling keeps the layout refined so far. The positions
+ * are always set on the thread that runs the layout.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ForceDirectedLayout extends DiagramLayout {
+    private static final String PREFIX = I18nUtil.getPropertyPrefix(ForceDirectedLayout.class);
+
+    public static final int ERROR_LAYOUT_FAILED = 1;
+
+    private LayoutNode[] layoutNodes;
+    private boolean autoEdgeLength = true;
+    private double edgeLength = 200.0;
+    private double theta = BarnesHutSpring.DEFAULT_THETA;
+    private double epsilon = BarnesHutSpring.DEFAULT_EPSILON;
+    private volatile boolean canceled;
+
+    public ForceDirectedLayout( List nodes ) {
+        createLayoutNodes(nodes);
+    }
+
+    public void createLayoutNodes( List nodes ) {
+        // Could be a list of diagramNodes or layoutNodes
+        List newNodes = new ArrayList(nodes.size());
+        Iterator iter = nodes.iterator();
+        Object nextObject = null;
+        while (iter.hasNext()) {
+            nextObject = iter.next();
+            if (nextObject instanceof DiagramModelNode) {
+                newNodes.add(new DefaultLayoutNode((DiagramModelNode)nextObject));
+            } else if (nextObject instanceof LayoutNode) {
+                newNodes.add(nextObject);
+            }
+        }
+        layoutNodes = (LayoutNode[])newNodes.toArray(new LayoutNode[newNodes.size()]);
+    }
+
+    @Override
+    public int run() {
+        canceled = false;
+        if (layoutNodes.length == 0) {
+            return SUCCESSFUL;
+        }
+
+        final BarnesHutSpring engine = createEngine();
+        final IRunnableWithProgress op = new IRunnableWithProgress() {
+            @Override
+            public void run( final IProgressMonitor monitor ) {
+                monitor.beginTask(DiagramUiConstants.Util.getString(PREFIX + "taskName", Integer.valueOf(layoutNodes.length)), //$NON-NLS-1$
+                                  engine.getLevelCount());
+                canceled = !engine.compute(monitor);
+                monitor.done();
+            }
+        };
+
+        final Display display = Display.getCurrent();
+        if (display != null) {
+            try {
+                new ProgressMonitorDialog(display.getActiveShell()).run(true, true, op);
+            } catch (final InvocationTargetException e) {
+                DiagramUiConstants.Util.log(IStatus.ERROR,
+                                            e.getTargetException(),
+                                            DiagramUiConstants.Util.getString(PREFIX + "layoutFailed")); //$NON-NLS-1$
+                return ERROR_LAYOUT_FAILED;
+            } catch (final InterruptedException e) {
+                canceled = true;
+            }
+        } else {
+            canceled = !engine.compute(new NullProgressMonitor());
+        }
+
+        for (int i = 0; i < layoutNodes.length; i++) {
+            layoutNodes[i].setCenterXY(getStartX() + engine.getCenterX(i), getStartY() + engine.getCenterY(i));
+        }
+        setFinalNodePositions();
+
+        return SUCCESSFUL;
+    }
+
+    /**
+     * Create the engine for the current nodes. Connections are taken from the source connections of the nodes' diagram nodes
+     * whose target is also laid out.
+     */
+    BarnesHutSpring createEngine() {
+        final int nNodes = layoutNodes.length;
+        final BarnesHutSpring engine = new BarnesHutSpring(nNodes);
+        final Map indexes = new HashMap();
+        double totalSize = 0.0;
+        for (int i = 0; i < nNodes; i++) {
+            engine.setSize(i, layoutNodes[i].getWidth(), layoutNodes[i].getHeight());
+            totalSize += Math.sqrt(layoutNodes[i].getWidth() * layoutNodes[i].getWidth() + layoutNodes[i].getHeight()
+                                   * layoutNodes[i].getHeight());
+            if (layoutNodes[i].getModelNode() != null) {
+                indexes.put(layoutNodes[i].getModelNode(), Integer.valueOf(i));
+            }
+        }
+
+        for (int i = 0; i < nNodes; i++) {
+            final DiagramModelNode modelNode = layoutNodes[i].getModelNode();
+            if (modelNode == null || modelNode.getSourceConnections() == null) {
+                continue;
+            }
+            Iterator iter = modelNode.getSourceConnections().iterator();
+            while (iter.hasNext()) {
+                final Object nextConnection = iter.next();
+                if (nextConnection instanceof NodeConnectionModel) {
+                    final Integer target = (Integer)indexes.get(((NodeConnectionModel)nextConnection).getTargetNode());
+                    if (target != null) {
+                        engine.addEdge(i, target.intValue());
+                    }
+                }
+            }
+        }
+
+        // The automatic edge length leaves about one average node between linked nodes
+        engine.setEdgeLength(autoEdgeLength ? 2 * totalSize / nNodes : edgeLength);
+        engine.setSpacing(getPadding());
+        engine.setTheta(theta);
+        engine.setEpsilon(epsilon);
+        return engine;
+    }
+
+    /**
+     * @return true if the last run was canceled before its layout was fully refined
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    public boolean getAutoEdgeLength() {
+        return autoEdgeLength;
+    }
+
+    public void setAutoEdgeLength( boolean bool ) {
+        autoEdgeLength = bool;
+    }
+
+    public double getEdgeLength() {
+        return edgeLength;
+    }
+
+    public void setEdgeLength( double d ) {
+        edgeLength = d;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public void setTheta( double d ) {
+        theta = d;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public void setEpsilon( double d ) {
+        epsilon = d;
+    }
+
+    public LayoutNode[] getLayoutNodes() {
+        return layoutNodes;
+    }
+
+    private void setFinalNodePositions() {
+        for (int i = 0; i < layoutNodes.length; i++) {
+            layoutNodes[i].setFinalPosition();
+        }
+    }
+}
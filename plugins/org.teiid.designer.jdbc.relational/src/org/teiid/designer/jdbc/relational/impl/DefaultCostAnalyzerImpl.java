@@ -13,11 +13,25 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.teiid.designer.jdbc.JdbcManager;
 import org.teiid.designer.jdbc.JdbcManagerImpl;
 import org.teiid.designer.jdbc.JdbcSource;
@@ -28,11 +42,40 @@ import org.teiid.designer.jdbc.relational.util.JdbcRelationalUtil;
 
 /**
  * Retrieve cost statistics from the tables and columns in the specified catalog and schema in the specified database.
+ * <p>
+ * The statistics of each table and all its columns are computed with one aggregate query. By default the tables are analyzed
+ * one at a time over a single connection; setting the {@link #THREADS_PROPERTY} system property analyzes several tables at
+ * once, each worker thread using its own connection. If the aggregate query fails, for instance because the database cannot
+ * compare values of some column, the table is analyzed with separate queries for the table and each column.
+ * </p>
+ * <p>
+ * Setting the {@link #SAMPLE_PERCENT_PROPERTY} system property computes the statistics from a sample of each table and scales
+ * them up, using <code>TABLESAMPLE</code> where the database supports it and otherwise the first rows of the table. The
+ * cardinality, the number of null values and the number of distinct values of unique columns are then estimates, and the
+ * minimum and maximum values are those of the sample.
+ * </p>
  * 
  * @since 8.0
  */
 public class DefaultCostAnalyzerImpl implements CostAnalyzer {
 
+    /**
+     * The system property with the number of tables to analyze at once, each over its own connection
+     */
+    public static final String THREADS_PROPERTY = "org.teiid.designer.jdbc.relational.costAnalyzer.threads"; //$NON-NLS-1$
+
+    /**
+     * The number of tables analyzed at once when the {@link #THREADS_PROPERTY} system property is not set
+     */
+    public static final int DEFAULT_THREADS = 1;
+
+    /**
+     * The system property with the percentage of each table from which to compute statistics; 0 or 100 for the whole table
+     */
+    public static final String SAMPLE_PERCENT_PROPERTY = "org.teiid.designer.jdbc.relational.costAnalyzer.samplePercent"; //$NON-NLS-1$
+
+    private static final String UNIQUE_IDENTIFIER = "uniqueidentifier"; //$NON-NLS-1$
+
     // Connection setup
     protected JdbcSource src;
 
@@ -44,6 +87,11 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
     // Runtime state
     protected Connection connection;
 
+    /**
+     * The connection of each worker thread while statistics are collected in parallel
+     */
+    private final ThreadLocal workerConnection = new ThreadLocal();
+
     /**
      * @since 4.3
      */
@@ -66,29 +114,340 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
         }
         final long begin = System.currentTimeMillis();
 
-        connect();
-        try {
-            for (final Iterator it = tblStats.values().iterator(); it.hasNext();) {
-                if (monitor.isCanceled()) {
-                    break;
+        final int threads = Math.min(getThreadCount(), tblStats.size());
+        if (threads > 1) {
+            collectStatistics(tblStats.values(), threads, monitor);
+        } else {
+            connect();
+            try {
+                final IProgressMonitor tableMonitor = new TableMonitor(monitor);
+                for (final Iterator it = tblStats.values().iterator(); it.hasNext();) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    final TableStatistics tblStat = (TableStatistics)it.next();
+                    monitor.subTask(org.teiid.designer.jdbc.relational.ModelerJdbcRelationalConstants.Util.getString("DefaultCostAnalyzer.Progress.Calculating_table_statistics", tblStat.getName())); //$NON-NLS-1$
+                    collectTableStatisticsSafely(tblStat, tableMonitor);
+                    monitor.worked(getWork(tblStat));
                 }
+            } finally {
+                disconnect();
+            }
+        }
+        log("Done loading tables, total time = " + (System.currentTimeMillis() - begin) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Collect the statistics of the tables on several threads, each with its own connection. Only the calling thread reports
+     * progress to the monitor.
+     */
+    private void collectStatistics( final Collection tables,
+                                    final int threads,
+                                    final IProgressMonitor monitor ) throws Exception {
+        final List connections = Collections.synchronizedList(new ArrayList());
+        final IProgressMonitor tableMonitor = new TableMonitor(monitor);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private int count;
+
+            @Override
+            public synchronized Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread(runnable, "Cost Analyzer " + (++count)); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final CompletionService completed = new ExecutorCompletionService(executor);
+        try {
+            for (final Iterator it = tables.iterator(); it.hasNext();) {
                 final TableStatistics tblStat = (TableStatistics)it.next();
-                try {
-                    if (populateTableStatistics(tblStat, monitor)) {
-                        prepareColumnStatistics(tblStat, monitor);
-                        populateColumnStatistics(tblStat, monitor);
-                    } else {
-                        monitor.worked(tblStat.getColumnStats().size() + 1);
+                completed.submit(new Callable() {
+                    @Override
+                    public Object call() throws Exception {
+                        if (!tableMonitor.isCanceled()) {
+                            if (workerConnection.get() == null) {
+                                final Connection workerConn = createConnection();
+                                connections.add(workerConn);
+                                workerConnection.set(workerConn);
+                            }
+                            collectTableStatisticsSafely(tblStat, tableMonitor);
+                        }
+                        return tblStat;
                     }
-                } catch (final Exception e) {
-                    // Defect 21110 - Ignore and move to the next table
-                    log("WARNING: Failed to retrieve statistics for table/view " + tblStat.getName()); //$NON-NLS-1$
+                });
+            }
+            for (int remaining = tables.size(); remaining > 0 && !monitor.isCanceled();) {
+                final Future future = completed.poll(100, TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    remaining--;
+                    final TableStatistics tblStat = (TableStatistics)getResult(future);
+                    monitor.subTask(org.teiid.designer.jdbc.relational.ModelerJdbcRelationalConstants.Util.getString("DefaultCostAnalyzer.Progress.Calculating_table_statistics", tblStat.getName())); //$NON-NLS-1$
+                    monitor.worked(getWork(tblStat));
                 }
             }
         } finally {
-            disconnect();
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            synchronized (connections) {
+                for (final Iterator it = connections.iterator(); it.hasNext();) {
+                    try {
+                        ((Connection)it.next()).close();
+                    } catch (final SQLException se) {
+                        // ignore - nothing to do
+                    }
+                }
+            }
+        }
+    }
+
+    private Object getResult( final Future future ) throws Exception {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception)e.getCause();
+            }
+            throw e;
         }
-        log("Done loading tables, total time = " + (System.currentTimeMillis() - begin) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * @return the number of units of work of a table, as counted by the callers of {@link #collectStatistics(Map, IProgressMonitor)}
+     */
+    private int getWork( final TableStatistics tblStat ) {
+        return tblStat.getColumnStats().size() + 2;
+    }
+
+    private void collectTableStatisticsSafely( final TableStatistics tblStat,
+                                               final IProgressMonitor monitor ) {
+        try {
+            collectTableStatistics(tblStat, monitor);
+        } catch (final Exception e) {
+            // Defect 21110 - Ignore and move to the next table
+            log("WARNING: Failed to retrieve statistics for table/view " + tblStat.getName()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Collect the statistics of a table and its columns, with one aggregate query if possible.
+     * 
+     * @param tblStat the table
+     * @param monitor the monitor, which is only to be checked for cancellation
+     * @throws Exception
+     */
+    protected void collectTableStatistics( final TableStatistics tblStat,
+                                           final IProgressMonitor monitor ) throws Exception {
+        prepareColumnStatistics(tblStat, monitor);
+        if (!populateStatistics(tblStat, monitor) && populateTableStatistics(tblStat, monitor)) {
+            populateColumnStatistics(tblStat, monitor);
+        }
+    }
+
+    /**
+     * Collect the statistics of a table and its columns with separate queries for the table and each column.
+     * 
+     * @param tblStat the table
+     * @param monitor the monitor, which is only to be checked for cancellation
+     * @throws Exception
+     */
+    protected void collectTableStatisticsByColumn( final TableStatistics tblStat,
+                                                   final IProgressMonitor monitor ) throws Exception {
+        if (populateTableStatistics(tblStat, monitor)) {
+            prepareColumnStatistics(tblStat, monitor);
+            populateColumnStatistics(tblStat, monitor);
+        }
+    }
+
+    /**
+     * Compute the statistics of a table and all its columns with one aggregate query, over a sample of the table if so
+     * configured.
+     * 
+     * @param tblStat the table, whose columns have been {@link #prepareColumnStatistics(TableStatistics, IProgressMonitor)
+     *        prepared}
+     * @param monitor
+     * @return true if the statistics were computed, or false if the query failed
+     * @throws Exception
+     */
+    protected boolean populateStatistics( final TableStatistics tblStat,
+                                          final IProgressMonitor monitor ) throws Exception {
+        if (monitor.isCanceled()) {
+            return true;
+        }
+        final long begin = System.currentTimeMillis();
+        final String tblName = tblStat.getFullyQualifiedEscapedName();
+        final List colStats = new ArrayList(tblStat.getColumnStats().values());
+        final String productName = getConnection().getMetaData().getDatabaseProductName();
+
+        // Choose the rows from which to compute the statistics ...
+        final int samplePercent = getSamplePercent();
+        String from = tblName;
+        int cardinality = -1;
+        double scale = 1;
+        if (samplePercent > 0 && samplePercent < 100) {
+            final String tableSample = getTableSampleClause(productName, samplePercent);
+            if (tableSample != null) {
+                from = tblName + ' ' + tableSample;
+                scale = 100.0 / samplePercent;
+            } else {
+                cardinality = queryCount(tblName);
+                final int rows = (int)Math.ceil(cardinality * (samplePercent / 100.0));
+                if (rows > 0 && rows < cardinality) {
+                    from = '(' + getRowLimitQuery(productName, tblName, rows) + ") sampled"; //$NON-NLS-1$
+                    scale = (double)cardinality / rows;
+                }
+            }
+        }
+
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = getConnection().createStatement();
+            rs = stmt.executeQuery(getStatisticsQuery(colStats, from));
+            if (!rs.next()) {
+                return false;
+            }
+            final int rows = rs.getInt(1);
+            tblStat.setCardinality(cardinality >= 0 ? cardinality : (int)Math.round(rows * scale));
+            int index = 2;
+            for (final Iterator it = colStats.iterator(); it.hasNext();) {
+                final ColumnStatistics colStat = (ColumnStatistics)it.next();
+                int distinct = -1;
+                if (colStat.isNDVCalculationRequired()) {
+                    distinct = rs.getInt(index++);
+                }
+                if (colStat.isMinMaxCalculationRequired()) {
+                    colStat.setMin(rs.getString(index++));
+                    colStat.setMax(rs.getString(index++));
+                }
+                int nonNull = rows;
+                if (colStat.isNNVCalculationRequired()) {
+                    nonNull = rs.getInt(index++);
+                    colStat.setNumNullValues((int)Math.round((rows - nonNull) * scale));
+                }
+                if (distinct >= 0) {
+                    // Only the distinct values of a unique column grow with the size of the sample
+                    colStat.setNumDistinctValues(distinct == nonNull ? (int)Math.round(distinct * scale) : distinct);
+                }
+            }
+        } catch (final SQLException e) {
+            log("\t" + tblName + ": aggregate query failed, querying each column: " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            return false;
+        } finally {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        }
+        log("\t" + tblName + ": " + tblStat.getCardinality() + " rows, " + colStats.size() + " columns    (in " + (System.currentTimeMillis() - begin) + " ms)"); //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$//$NON-NLS-4$ //$NON-NLS-5$
+        return true;
+    }
+
+    /**
+     * Return the query computing the row count followed by the statistics of each column. For each column in turn, the query
+     * computes the number of distinct values, the minimum and maximum values and the number of non-null values, each only if the
+     * column requires it.
+     * 
+     * @param colStats the {@link ColumnStatistics} of the table's columns
+     * @param from the table or sample of the table
+     * @return the query
+     */
+    protected String getStatisticsQuery( final List colStats,
+                                         final String from ) {
+        final StringBuffer sql = new StringBuffer("select count(*)"); //$NON-NLS-1$
+        for (final Iterator it = colStats.iterator(); it.hasNext();) {
+            final ColumnStatistics colStat = (ColumnStatistics)it.next();
+            final String colName = JdbcRelationalUtil.escapeDatabaseObjectName(colStat.getName());
+            if (colStat.isNDVCalculationRequired()) {
+                // Case 4124: SQL Server does not allow a "uniqueidentifier" column in count(distinct), but all its values are
+                // distinct anyway
+                if (UNIQUE_IDENTIFIER.equalsIgnoreCase(colStat.getNativeType())) {
+                    sql.append(", count(").append(colName).append(')'); //$NON-NLS-1$
+                } else {
+                    sql.append(", count(distinct ").append(colName).append(')'); //$NON-NLS-1$
+                }
+            }
+            if (colStat.isMinMaxCalculationRequired()) {
+                sql.append(", min(").append(colName).append("), max(").append(colName).append(')'); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            if (colStat.isNNVCalculationRequired()) {
+                sql.append(", count(").append(colName).append(')'); //$NON-NLS-1$
+            }
+        }
+        sql.append(" from ").append(from); //$NON-NLS-1$
+        return sql.toString();
+    }
+
+    /**
+     * Return the clause following the table name that samples a percentage of the table, for databases that support one.
+     * 
+     * @param productName the database product name
+     * @param percent the percentage of the table to sample
+     * @return the clause, or null if the database has no such clause
+     */
+    protected String getTableSampleClause( final String productName,
+                                           final int percent ) {
+        final String product = productName == null ? "" : productName.toLowerCase(); //$NON-NLS-1$
+        if (product.indexOf("sql server") >= 0) { //$NON-NLS-1$
+            return "tablesample (" + percent + " percent)"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (product.indexOf("postgresql") >= 0 || product.startsWith("db2")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return "tablesample system (" + percent + ')'; //$NON-NLS-1$
+        }
+        return null;
+    }
+
+    /**
+     * Return the query selecting the first rows of a table.
+     * 
+     * @param productName the database product name
+     * @param tblName the escaped name of the table
+     * @param rows the number of rows
+     * @return the query
+     */
+    protected String getRowLimitQuery( final String productName,
+                                       final String tblName,
+                                       final int rows ) {
+        final String product = productName == null ? "" : productName.toLowerCase(); //$NON-NLS-1$
+        if (product.indexOf("mysql") >= 0 || product.indexOf("h2") >= 0 || product.indexOf("hsql") >= 0 //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            || product.indexOf("sqlite") >= 0) { //$NON-NLS-1$
+            return "select * from " + tblName + " limit " + rows; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (product.indexOf("sql server") >= 0 || product.indexOf("sybase") >= 0 || product.indexOf("adaptive server") >= 0) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return "select top " + rows + " * from " + tblName; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return "select * from " + tblName + " fetch first " + rows + " rows only"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private int queryCount( final String tblName ) throws SQLException {
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = getConnection().createStatement();
+            rs = stmt.executeQuery("select count(*) from " + tblName); //$NON-NLS-1$
+            return rs.next() ? rs.getInt(1) : 0;
+        } finally {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        }
+    }
+
+    /**
+     * @return the number of tables to analyze at once
+     */
+    protected int getThreadCount() {
+        return Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS).intValue();
+    }
+
+    /**
+     * @return the percentage of each table from which to compute statistics; 0 or 100 for the whole table
+     */
+    protected int getSamplePercent() {
+        return Integer.getInteger(SAMPLE_PERCENT_PROPERTY, 0).intValue();
     }
 
     /**
@@ -119,10 +478,10 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
             ResultSet rs = null;
 
             try {
-                stmt = this.connection.createStatement();
+                stmt = getConnection().createStatement();
 
                 String sql = "select "; //$NON-NLS-1$
-                final boolean isUniqueIdentifier = "uniqueidentifier".equalsIgnoreCase(colStat.getNativeType());//$NON-NLS-1$ 
+                final boolean isUniqueIdentifier = UNIQUE_IDENTIFIER.equalsIgnoreCase(colStat.getNativeType());
                 if (isNDVCalcuationRequired) {
 
                     // Case 4124: have to handle SQL Server native "uniqueIdentifier" type -
@@ -179,7 +538,7 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
             Statement stmt = null;
             ResultSet rs = null;
             try {
-                stmt = this.connection.createStatement();
+                stmt = getConnection().createStatement();
                 final String sql = "select count(*) from " + tblName + " where " + colName + " is null"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
                 rs = stmt.executeQuery(sql);
 
@@ -215,12 +574,33 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
      */
     protected void connect() throws Exception {
         if (this.connection == null) {
-            // Create the SQL connection ...
-            final JdbcManager mgr = (JdbcRelationalPlugin.getDefault() == null ? JdbcManagerImpl.create(org.teiid.designer.jdbc.relational.ModelerJdbcRelationalConstants.Util.getString("JdbcManager.name")) : JdbcRelationalUtil.getJdbcManager());//$NON-NLS-1$
-            this.connection = mgr.createConnection(this.src, this.password);
+            this.connection = createConnection();
         }
     }
 
+    /**
+     * Create a new connection to the datasource
+     * 
+     * @return the connection
+     * @throws Exception
+     */
+    protected Connection createConnection() throws Exception {
+        // Create the SQL connection ...
+        final JdbcManager mgr = (JdbcRelationalPlugin.getDefault() == null ? JdbcManagerImpl.create(org.teiid.designer.jdbc.relational.ModelerJdbcRelationalConstants.Util.getString("JdbcManager.name")) : JdbcRelationalUtil.getJdbcManager());//$NON-NLS-1$
+        return mgr.createConnection(this.src, this.password);
+    }
+
+    /**
+     * Return the connection to use on the current thread: the worker thread's own connection while tables are analyzed in
+     * parallel, and otherwise the {@link #connection}.
+     * 
+     * @return the connection
+     */
+    protected Connection getConnection() {
+        final Connection workerConn = (Connection)this.workerConnection.get();
+        return workerConn != null ? workerConn : this.connection;
+    }
+
     /**
      * Close the connection to the datasource
      * 
@@ -292,7 +672,7 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
         ResultSet rs = null;
         try {
             final String tblName = tblStat.getFullyQualifiedEscapedName();
-            stmt = this.connection.createStatement();
+            stmt = getConnection().createStatement();
             rs = stmt.executeQuery("select count(*) from " + tblName); //$NON-NLS-1$
             if (rs.next()) {
                 tblStat.setCardinality(rs.getInt(1));
@@ -327,7 +707,7 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
         }
         ResultSet rs = null;
         try {
-            final DatabaseMetaData md = this.connection.getMetaData();
+            final DatabaseMetaData md = getConnection().getMetaData();
             final Map colStats = tblStat.getColumnStats();
             rs = md.getColumns(tblStat.getCatalog(), tblStat.getSchema(), tblStat.getName(), "%"); //$NON-NLS-1$
             while (rs.next()) {
@@ -355,4 +735,39 @@ public class DefaultCostAnalyzerImpl implements CostAnalyzer {
 	public void setOutputStream( final PrintStream outputStream ) {
         this.outputStream = outputStream;
     }
+
+    /**
+     * The monitor passed to the analysis of each table. It reports cancellation of the job, but not progress, which is
+     * reported by the thread collecting the statistics.
+     */
+    private static class TableMonitor extends ProgressMonitorWrapper {
+        TableMonitor( final IProgressMonitor monitor ) {
+            super(monitor);
+        }
+
+        @Override
+        public void beginTask( final String name,
+                               final int totalWork ) {
+        }
+
+        @Override
+        public void done() {
+        }
+
+        @Override
+        public void internalWorked( final double work ) {
+        }
+
+        @Override
+        public void setTaskName( final String name ) {
+        }
+
+        @Override
+        public void subTask( final String name ) {
+        }
+
+        @Override
+        public void worked( final int work ) {
+        }
+    }
 }
@@ -60,6 +60,16 @@ public class OracleCostAnalyzerImpl extends DefaultCostAnalyzerImpl {
         super(src, password);
     }
 
+    /**
+     * Read the statistics that Oracle already keeps in its dictionary views, computing them only for tables and columns that
+     * have none, rather than computing all of them with one aggregate query.
+     * @see org.teiid.designer.jdbc.relational.impl.DefaultCostAnalyzerImpl#collectTableStatistics(org.teiid.designer.jdbc.relational.impl.TableStatistics, org.eclipse.core.runtime.IProgressMonitor)
+     */
+    @Override
+    protected void collectTableStatistics(TableStatistics tblStat, IProgressMonitor monitor) throws Exception {
+        collectTableStatisticsByColumn(tblStat, monitor);
+    }
+
     /**
      * Overridden point for populating table statistics 
      * @see org.teiid.designer.jdbc.relational.impl.DefaultCostAnalyzerImpl#populateTableStatistics(org.teiid.designer.jdbc.relational.impl.TableStatistics)
@@ -89,7 +99,7 @@ public class OracleCostAnalyzerImpl extends DefaultCostAnalyzerImpl {
         
         try {
             String tblName = tblStat.getName();
-            stmt = this.connection.createStatement();
+            stmt = getConnection().createStatement();
             rs = stmt.executeQuery("select num_rows from ALL_TABLES where owner = '" + tblStat.getSchema() + "' AND table_name = '" + tblName + "'");         //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
             if(rs.next()) {
                 tblStat.setCardinality(rs.getInt(1));
@@ -131,7 +141,7 @@ public class OracleCostAnalyzerImpl extends DefaultCostAnalyzerImpl {
         boolean success = false;
 
         try {
-            DatabaseMetaData metadata = this.connection.getMetaData();
+            DatabaseMetaData metadata = getConnection().getMetaData();
             String sql = "select num_distinct, num_nulls"; //$NON-NLS-1$
             boolean unknownType = false;
             if (colStat.isMinMaxCalculationRequired()) {
@@ -154,7 +164,7 @@ public class OracleCostAnalyzerImpl extends DefaultCostAnalyzerImpl {
                 sql += " where owner='" //$NON-NLS-1$
                     + tblStat.getSchema() + "' and TABLE_NAME = '" + tblStat.getName() + "' and COLUMN_NAME = '" + colStat.getName() + "'"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ 
             }
-            stmt = this.connection.createStatement();
+            stmt = getConnection().createStatement();
             rs = stmt.executeQuery(sql);
             if(rs.next()) {
                 colStat.setNumDistinctValues(rs.getInt(1));
@@ -211,7 +221,7 @@ public class OracleCostAnalyzerImpl extends DefaultCostAnalyzerImpl {
     private String getRawAsString( ColumnStatistics colStat, byte[] bytes, int type ) {
         CallableStatement cs = null;
         try {
-            cs = this.connection.prepareCall("{call dbms_stats.convert_raw_value(?, ?)}"); //$NON-NLS-1$
+            cs = getConnection().prepareCall("{call dbms_stats.convert_raw_value(?, ?)}"); //$NON-NLS-1$
             cs.registerOutParameter(2, type);
             cs.setBytes(1, bytes);
             cs.execute();
@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.data;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A compact holder of records that all have the same number of columns, storing the values by column rather than as one list
+ * per record.
+ * <p>
+ * A column holding only {@link Integer integers} and nulls is kept as an <code>int</code> array, and other columns as object
+ * arrays in which equal strings share one instance. Metadata results repeat the same catalog, schema, table and type names on
+ * many records, so this takes a fraction of the memory of a list of boxed values per record.
+ * </p>
+ * <p>
+ * {@link #getRecord(int) Records} are views of the holder, created on demand. This class is not thread-safe.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class ColumnarRecords {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int numColumns;
+
+    /**
+     * The values of each column, as an <code>int[]</code> or an <code>Object[]</code>
+     */
+    private final Object[] columns;
+
+    /**
+     * The records holding null in each <code>int[]</code> column; null for the other columns
+     */
+    private final BitSet[] nulls;
+
+    private final Map internedStrings;
+    private int size;
+    private int capacity;
+
+    /**
+     * Construct an instance of ColumnarRecords.
+     * @param numColumns the number of columns of every record
+     */
+    public ColumnarRecords( final int numColumns ) {
+        this(numColumns, new HashMap());
+    }
+
+    /**
+     * Construct an instance of ColumnarRecords that shares its strings with other holders.
+     * @param numColumns the number of columns of every record
+     * @param internedStrings the strings by themselves, shared by the holders; may not be null
+     */
+    public ColumnarRecords( final int numColumns,
+                            final Map internedStrings ) {
+        this.numColumns = numColumns;
+        this.columns = new Object[numColumns];
+        this.nulls = new BitSet[numColumns];
+        this.internedStrings = internedStrings;
+        this.capacity = INITIAL_CAPACITY;
+        for (int i = 0; i < numColumns; ++i) {
+            this.columns[i] = new int[this.capacity];
+            this.nulls[i] = new BitSet();
+        }
+    }
+
+    public int getColumnCount() {
+        return this.numColumns;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add a record, copying its values.
+     * @param record the values of the record; must have {@link #getColumnCount()} values
+     */
+    public void add( final List record ) {
+        if (record.size() != this.numColumns) {
+            throw new IllegalArgumentException();
+        }
+        if (this.size == this.capacity) {
+            grow();
+        }
+        for (int i = 0; i < this.numColumns; ++i) {
+            store(this.size, i, record.get(i));
+        }
+        this.size++;
+    }
+
+    public Object get( final int row,
+                       final int column ) {
+        checkRow(row);
+        final Object values = this.columns[column];
+        if (values instanceof int[]) {
+            return this.nulls[column].get(row) ? null : Integer.valueOf(((int[])values)[row]);
+        }
+        return ((Object[])values)[row];
+    }
+
+    public void set( final int row,
+                     final int column,
+                     final Object value ) {
+        checkRow(row);
+        store(row, column, value);
+    }
+
+    /**
+     * Return a view of a record, through which its values may also be changed.
+     * @param row the index of the record
+     * @return the record; never null
+     */
+    public List getRecord( final int row ) {
+        checkRow(row);
+        return new Record(row);
+    }
+
+    /**
+     * Return a view of all records.
+     * @return the list of {@link #getRecord(int) records}; never null
+     */
+    public List asList() {
+        return new AbstractList() {
+            @Override
+            public Object get( final int index ) {
+                return getRecord(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void checkRow( final int row ) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException(Integer.toString(row));
+        }
+    }
+
+    private void store( final int row,
+                        final int column,
+                        final Object value ) {
+        final Object values = this.columns[column];
+        if (values instanceof int[]) {
+            if (value instanceof Integer) {
+                ((int[])values)[row] = ((Integer)value).intValue();
+                this.nulls[column].clear(row);
+                return;
+            }
+            if (value == null) {
+                this.nulls[column].set(row);
+                return;
+            }
+            toObjectColumn(column);
+        }
+        ((Object[])this.columns[column])[row] = intern(value);
+    }
+
+    private Object intern( final Object value ) {
+        if (value instanceof String) {
+            final Object existing = this.internedStrings.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            this.internedStrings.put(value, value);
+        }
+        return value;
+    }
+
+    private void toObjectColumn( final int column ) {
+        final int[] ints = (int[])this.columns[column];
+        final Object[] values = new Object[this.capacity];
+        for (int i = 0; i < this.size; ++i) {
+            if (!this.nulls[column].get(i)) {
+                values[i] = Integer.valueOf(ints[i]);
+            }
+        }
+        this.columns[column] = values;
+        this.nulls[column] = null;
+    }
+
+    private void grow() {
+        final int newCapacity = this.capacity * 2;
+        for (int i = 0; i < this.numColumns; ++i) {
+            final Object values = this.columns[i];
+            if (values instanceof int[]) {
+                final int[] ints = new int[newCapacity];
+                System.arraycopy(values, 0, ints, 0, this.size);
+                this.columns[i] = ints;
+            } else {
+                final Object[] objects = new Object[newCapacity];
+                System.arraycopy(values, 0, objects, 0, this.size);
+                this.columns[i] = objects;
+            }
+        }
+        this.capacity = newCapacity;
+    }
+
+    private class Record extends AbstractList {
+        private final int row;
+
+        Record( final int row ) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get( final int index ) {
+            if (index < 0 || index >= numColumns) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return ColumnarRecords.this.get(this.row, index);
+        }
+
+        @Override
+        public Object set( final int index,
+                           final Object element ) {
+            final Object previous = get(index);
+            ColumnarRecords.this.set(this.row, index, element);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return numColumns;
+        }
+    }
+
+}
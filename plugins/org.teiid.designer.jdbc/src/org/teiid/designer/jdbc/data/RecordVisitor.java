@@ -0,0 +1,26 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.data;
+
+import java.util.List;
+
+
+/**
+ * A visitor of the records of a result set, called while the records are being fetched.
+ *
+ * @see Response#visitResults(java.sql.ResultSet, RecordVisitor)
+ * @since 8.0
+ */
+public interface RecordVisitor {
+    /**
+     * Visit the next record of the result set.
+     * @param record the values of the record; the list is reused for the following records, so any values to be kept must
+     * be copied
+     */
+    void visitRecord(List record);
+}
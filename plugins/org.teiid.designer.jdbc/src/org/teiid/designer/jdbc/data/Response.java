@@ -13,7 +13,6 @@ import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import org.eclipse.core.runtime.IStatus;
 import org.teiid.core.designer.util.CoreArgCheck;
@@ -24,6 +23,12 @@ import org.teiid.designer.jdbc.JdbcUtil;
 /**
  * A class into which results from JDBC methods can be placed.  This class is not
  * thread-safe, so it must not be used simultaneously from multiple threads.
+ * <p>
+ * The records are kept in a {@link ColumnarRecords}, and {@link #getRecords()} returns
+ * views of them.  Callers that only need to look at each record once can instead
+ * {@link #visitResults(ResultSet, RecordVisitor) visit} the records of a result set
+ * as they are fetched, without keeping them.
+ * </p>
  *
  * @since 8.0
  */
@@ -32,7 +37,7 @@ public class Response {
     private static final int NUM_COLUMNS_NOT_SET = -1;
     
     private final Request request;
-    private final List records;
+    private ColumnarRecords records;
     private int numColumns;
     private ResultsMetadata metadata;
 
@@ -43,7 +48,7 @@ public class Response {
     public Response( final Request request ) {
         CoreArgCheck.isNotNull(request);
         this.request = request;
-        this.records = new LinkedList();
+        this.records = null;
         this.numColumns = NUM_COLUMNS_NOT_SET;
         this.metadata = null;
     }
@@ -73,11 +78,17 @@ public class Response {
             CoreArgCheck.isTrue(record.size() == this.numColumns,
                             JdbcPlugin.Util.getString("Response.Add_error_column_count_mismatch",record,new Integer(this.numColumns))); //$NON-NLS-1$
         }
+        if ( this.records == null ) {
+            this.records = new ColumnarRecords(this.numColumns);
+        }
         this.records.add(record);
     }
     
     public List getRecords() {
-        return this.records;
+        if ( this.records == null ) {
+            return Collections.EMPTY_LIST;
+        }
+        return this.records.asList();
     }
     
     public int getColumnCount() {
@@ -98,21 +109,17 @@ public class Response {
         
 
     public static void addResults( final Response results, final ResultSet resultSet,
-                                   final boolean addMetadata, TupleValidator validator ) throws SQLException {
+                                   final boolean addMetadata, final TupleValidator validator ) throws SQLException {
 
         final ResultSetMetaData metadata = resultSet.getMetaData();
-            
-        final int numColumns = metadata.getColumnCount();
-        while ( resultSet.next() ) {
-            final List tuple = new ArrayList(numColumns);
-            for ( int i=1;i<=numColumns;++i ) {
-                final Object cell = resultSet.getObject(i);     // index starts at 1!!!
-                tuple.add(cell);
-            }
-            if(validator == null || validator.isTupleValid(tuple)) {
-                results.addRecord(tuple);
+        visitResults(resultSet, new RecordVisitor() {
+            @Override
+			public void visitRecord( final List record ) {
+                if(validator == null || validator.isTupleValid(record)) {
+                    results.addRecord(record);
+                }
             }
-        }
+        });
         
         if ( addMetadata ) {
             // Try to do this, but don't fail if we can't (some drivers have very poor
@@ -147,6 +154,26 @@ public class Response {
 
     }
     
+    /**
+     * Visit the records of the result set as they are fetched, without keeping them.
+     * @param resultSet the result set; may not be null
+     * @param visitor the visitor, which is passed the same list for every record; may not be null
+     * @throws SQLException if the records cannot be fetched
+     */
+    public static void visitResults( final ResultSet resultSet, final RecordVisitor visitor ) throws SQLException {
+        final int numColumns = resultSet.getMetaData().getColumnCount();
+        final List tuple = new ArrayList(numColumns);
+        for ( int i=0;i<numColumns;++i ) {
+            tuple.add(null);
+        }
+        while ( resultSet.next() ) {
+            for ( int i=1;i<=numColumns;++i ) {
+                tuple.set(i-1,resultSet.getObject(i));     // index starts at 1!!!
+            }
+            visitor.visitRecord(tuple);
+        }
+    }
+    
     public static void addResults( final Response results, final Object result, 
                                    final boolean addMetadata ) {
         // The actual result ...
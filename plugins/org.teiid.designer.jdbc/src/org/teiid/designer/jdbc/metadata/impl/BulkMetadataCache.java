@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.metadata.impl;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.IStatus;
+import org.teiid.designer.jdbc.JdbcException;
+import org.teiid.designer.jdbc.JdbcPlugin;
+import org.teiid.designer.jdbc.data.ColumnarRecords;
+import org.teiid.designer.jdbc.data.RecordVisitor;
+import org.teiid.designer.jdbc.data.Response;
+import org.teiid.designer.jdbc.data.TupleValidator;
+import org.teiid.designer.jdbc.metadata.JdbcNode;
+import org.teiid.designer.jdbc.metadata.JdbcTableType;
+
+/**
+ * A cache of the metadata of all tables in a schema, fetched with one call to the driver per kind of metadata rather than one
+ * call per table.
+ * <p>
+ * The first {@link TableMetadataRequest} of each kind in a schema asks the driver for the records of all tables, and the records
+ * are kept by table name for the other tables in the schema. Many drivers only accept a table name in the methods for keys and
+ * indexes, so if the driver fails or returns nothing for all tables, the requests of that kind in that schema call the driver for
+ * each table as before.
+ * </p>
+ * <p>
+ * Fetching the metadata of a whole schema only pays off when many of its tables are imported, so a schema uses the cache only
+ * when at least {@link #getThreshold()} of its tables are selected.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class BulkMetadataCache {
+
+    /**
+     * The system property with the minimum number of selected tables in a schema for its metadata to be fetched in bulk. Zero or
+     * less disables bulk fetching.
+     */
+    public static final String THRESHOLD_PROPERTY = "org.teiid.designer.jdbc.bulkMetadataThreshold"; //$NON-NLS-1$
+
+    public static final int DEFAULT_THRESHOLD = 50;
+
+    /**
+     * The entry for requests whose metadata the driver could not return for all tables
+     */
+    private static final Map UNSUPPORTED = Collections.EMPTY_MAP;
+
+    /**
+     * The {@link ColumnarRecords} of each table by table name, keyed by the request name and parameters other than the table name
+     */
+    private final Map recordsByRequest;
+
+    /**
+     * Whether bulk fetching is used, keyed by the node containing the table types of a schema
+     */
+    private final Map enabledBySchema;
+
+    /**
+     * Construct an instance of BulkMetadataCache.
+     */
+    public BulkMetadataCache() {
+        super();
+        this.recordsByRequest = new HashMap();
+        this.enabledBySchema = new HashMap();
+    }
+
+    /**
+     * @return the minimum number of selected tables in a schema for its metadata to be fetched in bulk
+     */
+    public static int getThreshold() {
+        return Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD).intValue();
+    }
+
+    /**
+     * Return whether the requests of the supplied table should use this cache, which is the case when enough tables in the same
+     * schema are selected.
+     *
+     * @param table the table; may not be null
+     * @return true if the metadata of the table's schema should be fetched in bulk
+     */
+    public synchronized boolean isEnabledFor( final JdbcTableImpl table ) {
+        final int threshold = getThreshold();
+        if (threshold <= 0) {
+            return false;
+        }
+        final JdbcNode schema = table.getParent().getParent();
+        if (schema == null) {
+            return false;
+        }
+        Boolean enabled = (Boolean)this.enabledBySchema.get(schema);
+        if (enabled == null) {
+            enabled = Boolean.valueOf(countSelectedTables(schema) >= threshold);
+            this.enabledBySchema.put(schema, enabled);
+        }
+        return enabled.booleanValue();
+    }
+
+    /**
+     * Return the records of the supplied request's table, fetching the records of all tables in the schema if they have not yet
+     * been fetched.
+     *
+     * @param request the request; may not be null
+     * @return the records of the table, or null if the request must call the driver for its table alone
+     */
+    public synchronized List getRecords( final TableMetadataRequest request ) {
+        final List key = new ArrayList(Arrays.asList(request.getParameters()));
+        key.set(2, request.getName());
+
+        Map recordsByTable = (Map)this.recordsByRequest.get(key);
+        if (recordsByTable == null) {
+            // Methods that take a table name generally take null for all tables ...
+            if (!request.supportsTableNamePattern()) {
+                recordsByTable = fetch(request, null);
+            }
+            if (recordsByTable == null) {
+                recordsByTable = fetch(request, JdbcNodeImpl.WILDCARD_PATTERN);
+            }
+            if (recordsByTable == null) {
+                recordsByTable = UNSUPPORTED;
+            }
+            this.recordsByRequest.put(key, recordsByTable);
+        }
+        if (recordsByTable == UNSUPPORTED) {
+            return null;
+        }
+        final ColumnarRecords records = (ColumnarRecords)recordsByTable.get(request.getTableName());
+        return records != null ? records.asList() : Collections.EMPTY_LIST;
+    }
+
+    /**
+     * Remove all cached metadata.
+     */
+    public synchronized void clear() {
+        this.recordsByRequest.clear();
+        this.enabledBySchema.clear();
+    }
+
+    /**
+     * @return the records by table name, or null if the driver failed or returned no records
+     */
+    private Map fetch( final TableMetadataRequest request,
+                       final String tableName ) {
+        final DatabaseMetaData dbmd = (DatabaseMetaData)request.getTarget();
+        ResultSet resultSet = null;
+        try {
+            resultSet = request.getResultSet(dbmd, tableName);
+            if (resultSet == null) {
+                return null;
+            }
+            final int numColumns = resultSet.getMetaData().getColumnCount();
+            final int tableColumn = request.getTableNameColumn();
+            if (tableColumn >= numColumns) {
+                return null;
+            }
+            final TupleValidator validator = request.getTupleValidator();
+            final Map recordsByTable = new HashMap();
+            final Map internedStrings = new HashMap();
+            Response.visitResults(resultSet, new RecordVisitor() {
+                @Override
+                public void visitRecord( final List record ) {
+                    if (validator != null && !validator.isTupleValid(record)) {
+                        return;
+                    }
+                    final Object table = record.get(tableColumn);
+                    ColumnarRecords records = (ColumnarRecords)recordsByTable.get(table);
+                    if (records == null) {
+                        records = new ColumnarRecords(numColumns, internedStrings);
+                        recordsByTable.put(table, records);
+                    }
+                    records.add(record);
+                }
+            });
+            return recordsByTable.isEmpty() ? null : recordsByTable;
+        } catch (Throwable t) {
+            // Some drivers reject a null or wildcard table name ...
+            final Object[] params = new Object[] {request.getMethodName(), dbmd.getClass().getName(), request.getSchemaPattern()};
+            final String msg = JdbcPlugin.Util.getString("BulkMetadataCache.Unable_to_fetch_metadata_of_all_tables", params); //$NON-NLS-1$
+            JdbcPlugin.Util.log(IStatus.INFO, t, msg);
+            return null;
+        } finally {
+            if (resultSet != null) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+    }
+
+    private int countSelectedTables( final JdbcNode schema ) {
+        int count = 0;
+        try {
+            final JdbcNode[] tableTypes = schema.getChildren();
+            for (int i = 0; i < tableTypes.length; ++i) {
+                if (tableTypes[i] instanceof JdbcTableType) {
+                    final JdbcNode[] tables = tableTypes[i].getChildren();
+                    for (int j = 0; j < tables.length; ++j) {
+                        if (tables[j].getSelectionMode() == JdbcNode.SELECTED) {
+                            ++count;
+                        }
+                    }
+                }
+            }
+        } catch (JdbcException e) {
+            JdbcPlugin.Util.log(e);
+        }
+        return count;
+    }
+
+}
@@ -10,18 +10,14 @@ package org.teiid.designer.jdbc.metadata.impl;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import org.eclipse.core.runtime.IStatus;
 import org.teiid.designer.jdbc.JdbcPlugin;
-import org.teiid.designer.jdbc.JdbcUtil;
-import org.teiid.designer.jdbc.data.MetadataRequest;
-import org.teiid.designer.jdbc.data.Response;
 
 /**
  * GetColumnsRequest
  *
  * @since 8.0
  */
-public class GetColumnsRequest extends MetadataRequest {
+public class GetColumnsRequest extends TableMetadataRequest {
     
     public static final String NAME = JdbcPlugin.Util.getString("GetColumnsRequestName"); //$NON-NLS-1$
     private static final String METHOD_NAME = "getColumns"; //$NON-NLS-1$
@@ -42,35 +38,30 @@ public class GetColumnsRequest extends MetadataRequest {
               new Object[]{catalogNamePattern,schemaNamePattern,tableNamePattern,columnNamePattern});
     }
     
-    /** 
-     * This method is overridden to optimize performance.
-     * @see org.teiid.designer.jdbc.data.MethodRequest#performInvocation(org.teiid.designer.jdbc.data.Response)
-     * @since 4.2
+    /**
+     * @see org.teiid.designer.jdbc.metadata.impl.TableMetadataRequest#getResultSet(java.sql.DatabaseMetaData, java.lang.String)
+     */
+    @Override
+    protected ResultSet getResultSet( final DatabaseMetaData dbmd,
+                                      final String tableName ) throws SQLException {
+        final String columnPattern  = (String)getParameters()[3];
+        return dbmd.getColumns(getCatalogPattern(), getSchemaPattern(), tableName, columnPattern);
+    }
+
+    /**
+     * @see org.teiid.designer.jdbc.metadata.impl.TableMetadataRequest#getTableNameColumn()
+     */
+    @Override
+    protected int getTableNameColumn() {
+        return 2; // TABLE_NAME
+    }
+
+    /**
+     * @see org.teiid.designer.jdbc.metadata.impl.TableMetadataRequest#supportsTableNamePattern()
      */
     @Override
-    protected IStatus performInvocation(final Response results) {
-        // Override to optimize ...
-        final DatabaseMetaData dbmd = this.getDatabaseMetaData();
-        ResultSet resultSet = null;
-        IStatus status = null;
-        try {
-            final String catalogPattern = (String)getParameters()[0];
-            final String schemaPattern  = (String)getParameters()[1];
-            final String tablePattern   = (String)getParameters()[2];
-            final String columnPattern  = (String)getParameters()[3];
-            resultSet = dbmd.getColumns(catalogPattern,schemaPattern,tablePattern,columnPattern);
-            Response.addResults(results,resultSet,this.isMetadataRequested());
-        } catch ( SQLException e ) {
-            status = JdbcUtil.createIStatus(e,e.getLocalizedMessage());
-        } finally {
-            if ( resultSet != null ) {
-                try {
-                    resultSet.close();
-                } catch (SQLException e1) {
-                }
-            }
-        }
-        return status;
+    protected boolean supportsTableNamePattern() {
+        return true;
     }
     
 }
@@ -10,18 +10,14 @@ package org.teiid.designer.jdbc.metadata.impl;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import org.eclipse.core.runtime.IStatus;
 import org.teiid.designer.jdbc.JdbcPlugin;
-import org.teiid.designer.jdbc.JdbcUtil;
-import org.teiid.designer.jdbc.data.MetadataRequest;
-import org.teiid.designer.jdbc.data.Response;
 
 /**
  * GetIndexesRequest
  *
  * @since 8.0
  */
-public class GetIndexesRequest extends MetadataRequest {
+public class GetIndexesRequest extends TableMetadataRequest {
     
     public static final String NAME = JdbcPlugin.Util.getString("GetIndexesRequestName"); //$NON-NLS-1$
     private static final String METHOD_NAME = "getIndexInfo"; //$NON-NLS-1$
@@ -46,36 +42,23 @@ public class GetIndexesRequest extends MetadataRequest {
                            new Boolean(uniqueValuesOnly), new Boolean(approximateAllowed)});
     }
     
-    /** 
-     * This method is overridden to optimize performance.
-     * @see org.teiid.designer.jdbc.data.MethodRequest#performInvocation(org.teiid.designer.jdbc.data.Response)
-     * @since 4.2
+    /**
+     * @see org.teiid.designer.jdbc.metadata.impl.TableMetadataRequest#getResultSet(java.sql.DatabaseMetaData, java.lang.String)
+     */
+    @Override
+    protected ResultSet getResultSet( final DatabaseMetaData dbmd,
+                                      final String tableName ) throws SQLException {
+        final boolean unique       = ((Boolean)getParameters()[3]).booleanValue();
+        final boolean approximate  = ((Boolean)getParameters()[4]).booleanValue();
+        return dbmd.getIndexInfo(getCatalogPattern(), getSchemaPattern(), tableName, unique, approximate);
+    }
+
+    /**
+     * @see org.teiid.designer.jdbc.metadata.impl.TableMetadataRequest#getTableNameColumn()
      */
     @Override
-    protected IStatus performInvocation(final Response results) {
-        // Override to optimize ...
-        final DatabaseMetaData dbmd = this.getDatabaseMetaData();
-        ResultSet resultSet = null;
-        IStatus status = null;
-        try {
-            final String catalogPattern = (String)getParameters()[0];
-            final String schemaPattern  = (String)getParameters()[1];
-            final String tablePattern   = (String)getParameters()[2];
-            final boolean unique       = ((Boolean)getParameters()[3]).booleanValue();
-            final boolean approximate  = ((Boolean)getParameters()[4]).booleanValue();
-            resultSet = dbmd.getIndexInfo(catalogPattern, schemaPattern, tablePattern, unique, approximate);
-            Response.addResults(results,resultSet,this.isMetadataRequested());
-        } catch ( SQLException e ) {
-            status = JdbcUtil.createIStatus(e,e.getLocalizedMessage());
-        } finally {
-            if ( resultSet != null ) {
-                try {
-                    resultSet.close();
-                } catch (SQLException e1) {
-                }
-            }
-        }
-        return status;
+    protected int getTableNameColumn() {
+        return 2; // TABLE_NAME
     }
     
 }
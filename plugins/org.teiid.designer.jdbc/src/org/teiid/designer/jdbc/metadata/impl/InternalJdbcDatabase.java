@@ -25,4 +25,10 @@ public interface InternalJdbcDatabase {
      * @return
      */
     public JdbcNodeSelections getJdbcNodeSelections();
+
+    /**
+     * Return the cache of the metadata fetched for all tables of a schema at once.
+     * @return
+     */
+    public BulkMetadataCache getBulkMetadataCache();
 }
@@ -45,6 +45,7 @@ public class JdbcDatabaseImpl extends JdbcNodeImpl implements JdbcDatabase, Inte
     private Capabilities capabilities;
     private DatabaseInfo databaseInfo;
     private final JdbcNodeCache cache;
+    private final BulkMetadataCache bulkMetadataCache;
     private final JdbcNodeSelections selections;
     private final IncludesImpl includes;
     private final Object capabilitiesLock = new Object();
@@ -69,6 +70,7 @@ public class JdbcDatabaseImpl extends JdbcNodeImpl implements JdbcDatabase, Inte
         this.connection = connection;
         this.includes = new IncludesImpl(this);
         this.cache = new JdbcNodeCache();
+        this.bulkMetadataCache = new BulkMetadataCache();
         // Put this node into the cache
         this.cache.put(this);
 
@@ -155,6 +157,14 @@ public class JdbcDatabaseImpl extends JdbcNodeImpl implements JdbcDatabase, Inte
         return this.cache;
     }
 
+    /* (non-Javadoc)
+     * @See org.teiid.designer.jdbc.metadata.impl.InternalJdbcDatabase#getBulkMetadataCache()
+     */
+    @Override
+	public BulkMetadataCache getBulkMetadataCache() {
+        return this.bulkMetadataCache;
+    }
+
     /* (non-Javadoc)
      * @See org.teiid.designer.jdbc.metadata.JdbcDatabase#findJdbcNode(org.eclipse.core.runtime.IPath)
      */
@@ -517,6 +527,7 @@ public class JdbcDatabaseImpl extends JdbcNodeImpl implements JdbcDatabase, Inte
     @Override
     public void refresh() {
         super.refresh();
+        bulkMetadataCache.clear();
         if (capabilities != null) {
             synchronized (capabilitiesLock) {
                 capabilities = null;
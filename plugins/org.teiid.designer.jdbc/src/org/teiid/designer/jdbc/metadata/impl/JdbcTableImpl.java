@@ -228,6 +228,14 @@ public class JdbcTableImpl extends JdbcNodeImpl implements JdbcTable {
         // 6. Create the "Description" request
         requests[5] = new GetDescriptionRequest(this, "getRemarks"); //$NON-NLS-1$
 
+        // Take the columns, keys and indexes from the metadata of the whole schema when many of its tables are selected ...
+        final BulkMetadataCache bulkCache = ((InternalJdbcDatabase)getJdbcDatabase()).getBulkMetadataCache();
+        if (bulkCache.isEnabledFor(this)) {
+            for (int i = 0; i < 5; ++i) {
+                ((TableMetadataRequest)requests[i]).setBulkMetadataCache(bulkCache);
+            }
+        }
+
         // Disable what is not to be loaded ...
         if (!this.getJdbcDatabase().getIncludes().includeIndexes()) {
             requests[1] = new DisabledRequest((MetadataRequest)requests[1]);
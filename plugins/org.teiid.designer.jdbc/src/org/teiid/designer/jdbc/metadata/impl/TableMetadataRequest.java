@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.metadata.impl;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import org.eclipse.core.runtime.IStatus;
+import org.teiid.designer.jdbc.JdbcUtil;
+import org.teiid.designer.jdbc.data.MetadataRequest;
+import org.teiid.designer.jdbc.data.Response;
+import org.teiid.designer.jdbc.data.TupleValidator;
+
+/**
+ * A request for the metadata of a single table, such as its columns or keys. The first three parameters of every such request
+ * are the catalog pattern, the schema pattern and the table name.
+ * <p>
+ * When given a {@link BulkMetadataCache}, the request takes its records from the metadata fetched once for the whole schema, and
+ * only calls the driver for this table if the driver could not return the metadata of all tables at once.
+ * </p>
+ *
+ * @since 8.0
+ */
+public abstract class TableMetadataRequest extends MetadataRequest {
+
+    private BulkMetadataCache bulkCache;
+
+    /**
+     * Construct an instance of TableMetadataRequest.
+     *
+     * @param name
+     * @param metadata
+     * @param methodName
+     * @param params the parameters, starting with the catalog pattern, schema pattern and table name
+     */
+    protected TableMetadataRequest( final String name,
+                                    final DatabaseMetaData metadata,
+                                    final String methodName,
+                                    final Object[] params ) {
+        super(name, metadata, methodName, params);
+    }
+
+    /**
+     * Set the cache of schema-wide metadata from which this request should take its records.
+     *
+     * @param bulkCache the cache; may be null if the driver should always be called for this table alone
+     */
+    public void setBulkMetadataCache( final BulkMetadataCache bulkCache ) {
+        this.bulkCache = bulkCache;
+    }
+
+    public String getCatalogPattern() {
+        return (String)getParameters()[0];
+    }
+
+    public String getSchemaPattern() {
+        return (String)getParameters()[1];
+    }
+
+    public String getTableName() {
+        return (String)getParameters()[2];
+    }
+
+    /**
+     * Call the driver for the metadata of the tables with the given name.
+     *
+     * @param dbmd the database metadata; never null
+     * @param tableName the name of the table; {@link JdbcNodeImpl#WILDCARD_PATTERN} or null when fetching the metadata of all
+     *        tables in the schema
+     * @return the result set; may be null
+     * @throws SQLException
+     */
+    protected abstract ResultSet getResultSet( final DatabaseMetaData dbmd,
+                                               final String tableName ) throws SQLException;
+
+    /**
+     * Return the index of the column in each record that holds the name of the table the record describes.
+     *
+     * @return the zero-based column index
+     */
+    protected abstract int getTableNameColumn();
+
+    /**
+     * Return whether the driver's method takes a table name pattern, rather than a table name that may be null to mean all
+     * tables.
+     *
+     * @return true if {@link JdbcNodeImpl#WILDCARD_PATTERN} selects all tables
+     */
+    protected boolean supportsTableNamePattern() {
+        return false;
+    }
+
+    /**
+     * Return the validator for the records of this request.
+     *
+     * @return the validator, or null if all records are valid
+     */
+    protected TupleValidator getTupleValidator() {
+        return null;
+    }
+
+    /**
+     * This method is overridden to optimize performance.
+     *
+     * @see org.teiid.designer.jdbc.data.MethodRequest#performInvocation(org.teiid.designer.jdbc.data.Response)
+     */
+    @Override
+    protected IStatus performInvocation( final Response results ) {
+        // Use the metadata of the whole schema if possible ...
+        if (this.bulkCache != null && !this.isMetadataRequested()) {
+            final List records = this.bulkCache.getRecords(this);
+            if (records != null) {
+                for (final Iterator iter = records.iterator(); iter.hasNext();) {
+                    results.addRecord((List)iter.next());
+                }
+                return null;
+            }
+        }
+
+        final DatabaseMetaData dbmd = this.getDatabaseMetaData();
+        ResultSet resultSet = null;
+        IStatus status = null;
+        try {
+            resultSet = getResultSet(dbmd, getTableName());
+            if (resultSet != null) {
+                Response.addResults(results, resultSet, this.isMetadataRequested(), getTupleValidator());
+            }
+        } catch (SQLException e) {
+            status = JdbcUtil.createIStatus(e, e.getLocalizedMessage());
+        } finally {
+            if (resultSet != null) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e1) {
+                }
+            }
+        }
+        return status;
+    }
+
+}
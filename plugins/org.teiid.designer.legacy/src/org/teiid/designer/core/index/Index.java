@@ -32,6 +32,12 @@ public class Index implements IIndex {
      */
     public static final int MAX_FOOTPRINT = 10000000;
 
+    /**
+     * System property that, when set to <code>true</code>, makes cached indexes read their file through a
+     * {@link MappedBlocksIndexInput}, which can be queried from several threads at the same time.
+     */
+    public static final String MAPPED_INPUT_PROPERTY = "org.teiid.designer.index.mappedInput"; //$NON-NLS-1$
+
     /**
      * Index in memory, who is merged with mainIndex each times it reaches a certain size.
      */
@@ -60,8 +66,13 @@ public class Index implements IIndex {
      * Caching the index input object so we can keep it open for multiple pass querying rather than
      * opening/closing and wasting CPU for file IO
      */
-    private BlocksIndexInput cachedInput;
+    private volatile BlocksIndexInput cachedInput;
     protected boolean doCache = false;
+
+    /*
+     * Whether the cached index input maps the index file into memory
+     */
+    protected boolean useMappedInput = Boolean.getBoolean(MAPPED_INPUT_PROPERTY);
     private String resourceFileName;
 
     /**
@@ -207,10 +218,12 @@ public class Index implements IIndex {
 	public String getPath( int documentNumber ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
-            input.open();
-            IndexedFile file = input.getIndexedFile(documentNumber);
-            if (file == null) return null;
-            return file.getPath();
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return getIndexedFilePath(input, documentNumber);
+                }
+            }
+            return getIndexedFilePath(input, documentNumber);
         } finally {
             if (!doCache) {
                 input.close();
@@ -315,6 +328,11 @@ public class Index implements IIndex {
 	public IQueryResult[] query( String word ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return input.query(word);
+                }
+            }
             return input.query(word);
         } finally {
             if (!doCache) {
@@ -327,6 +345,11 @@ public class Index implements IIndex {
 	public IEntryResult[] queryEntries( char[] prefix ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return input.queryEntriesPrefixedBy(prefix);
+                }
+            }
             return input.queryEntriesPrefixedBy(prefix);
         } finally {
             if (!doCache) {
@@ -342,6 +365,11 @@ public class Index implements IIndex {
 	public IQueryResult[] queryInDocumentNames( String word ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return input.queryInDocumentNames(word);
+                }
+            }
             return input.queryInDocumentNames(word);
         } finally {
             if (!doCache) {
@@ -357,6 +385,11 @@ public class Index implements IIndex {
 	public IQueryResult[] queryPrefix( char[] prefix ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return input.queryFilesReferringToPrefix(prefix);
+                }
+            }
             return input.queryFilesReferringToPrefix(prefix);
         } finally {
             if (!doCache) {
@@ -372,6 +405,11 @@ public class Index implements IIndex {
                                                 boolean isCaseSensitive ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return input.queryEntriesMatching(prefix, isCaseSensitive);
+                }
+            }
             return input.queryEntriesMatching(prefix, isCaseSensitive);
         } finally {
             if (!doCache) {
@@ -387,6 +425,11 @@ public class Index implements IIndex {
                                         boolean isCaseSensitive ) throws IOException {
         BlocksIndexInput input = getBlocksIndexInput();
         try {
+            if (needsQueryLock(input)) {
+                synchronized (input) {
+                    return input.queryEntriesPrefixedBy(prefix, isCaseSensitive);
+                }
+            }
             return input.queryEntriesPrefixedBy(prefix, isCaseSensitive);
         } finally {
             if (!doCache) {
@@ -443,26 +486,49 @@ public class Index implements IIndex {
         }
     }
 
+    /**
+     * Return whether queries of the supplied input must synchronize on it. A cached {@link BlocksIndexInput} is shared by every
+     * thread querying this index, but reads through a single file pointer and block cache, so its queries are serialized. A
+     * {@link MappedBlocksIndexInput} may be queried concurrently, as may an input that is not cached.
+     */
+    private boolean needsQueryLock( final BlocksIndexInput input ) {
+        return doCache && !(input instanceof MappedBlocksIndexInput);
+    }
+
+    private static String getIndexedFilePath( final BlocksIndexInput input,
+                                              final int documentNumber ) throws IOException {
+        input.open();
+        IndexedFile file = input.getIndexedFile(documentNumber);
+        if (file == null) return null;
+        return file.getPath();
+    }
+
     protected BlocksIndexInput getBlocksIndexInput() {
         if (doCache) {
-            if (getCachedInput() == null) {
-                boolean wasLoaded = false;
-                try {
-                    if (getCachedInput() == null) {
-                        setCachedInput(new BlocksIndexInput(indexFile));
-                        getCachedInput().open();
-                        wasLoaded = true;
-                    }
-                } catch (IOException theException) {
-
-                } finally {
-                    if (wasLoaded && getCachedInput() != null) {
-                        return getCachedInput();
+            BlocksIndexInput input = getCachedInput();
+            if (input != null) {
+                return input;
+            }
+            synchronized (this) {
+                if (getCachedInput() == null) {
+                    boolean wasLoaded = false;
+                    try {
+                        if (getCachedInput() == null) {
+                            setCachedInput(useMappedInput ? new MappedBlocksIndexInput(indexFile) : new BlocksIndexInput(indexFile));
+                            getCachedInput().open();
+                            wasLoaded = true;
+                        }
+                    } catch (IOException theException) {
+
+                    } finally {
+                        if (wasLoaded && getCachedInput() != null) {
+                            return getCachedInput();
+                        }
+                        setCachedInput(null);
                     }
-                    setCachedInput(null);
+                } else {
+                    return getCachedInput();
                 }
-            } else {
-                return getCachedInput();
             }
         }
 
@@ -509,6 +575,16 @@ public class Index implements IIndex {
         this.doCache = theDoCache;
     }
 
+    /**
+     * Sets whether the cached index input maps the index file into memory. This only applies to inputs opened after the call.
+     *
+     * @param theUseMappedInput <code>true</code> to use a {@link MappedBlocksIndexInput}
+     * @see #MAPPED_INPUT_PROPERTY
+     */
+    public void setUseMappedInput( boolean theUseMappedInput ) {
+        this.useMappedInput = theUseMappedInput;
+    }
+
     public BlocksIndexInput getCachedInput() {
         return this.cachedInput;
     }
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+
+package org.teiid.designer.core.index;
+
+import org.teiid.core.designer.util.CharOperation;
+
+/**
+ * Matches index records against a pattern one field at a time. The pattern is split into fields once, when the matcher is created;
+ * records are then matched in place, without copying them or splitting them into strings.
+ * <p>
+ * Both the pattern and the record are split on the field delimiter, with empty fields skipped, and the n-th field of the pattern
+ * must match the n-th field of the record. The pattern fields may use the multiple character wildcard '*' and the single
+ * character wildcard '?', which never stand for a delimiter. A record with fewer fields than the pattern does not match, while
+ * fields of the record beyond the last field of the pattern are ignored.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class IndexRecordMatcher {
+
+    private final char[] pattern;
+    private final char fieldDelimiter;
+    private final boolean isCaseSensitive;
+
+    /** The start (inclusive) and end (exclusive) of each pattern field */
+    private final int[] fieldStarts;
+    private final int[] fieldEnds;
+
+    /**
+     * Construct an instance of IndexRecordMatcher.
+     *
+     * @param pattern the pattern; a null pattern matches every record
+     * @param fieldDelimiter the character separating the fields
+     * @param isCaseSensitive true if the fields are compared case sensitively
+     */
+    public IndexRecordMatcher( final char[] pattern,
+                               final char fieldDelimiter,
+                               final boolean isCaseSensitive ) {
+        this.pattern = pattern;
+        this.fieldDelimiter = fieldDelimiter;
+        this.isCaseSensitive = isCaseSensitive;
+
+        int numFields = 0;
+        if (pattern != null) {
+            for (int pos = nextFieldStart(pattern, 0); pos < pattern.length; pos = nextFieldStart(pattern, fieldEnd(pattern, pos))) {
+                numFields++;
+            }
+        }
+        this.fieldStarts = new int[numFields];
+        this.fieldEnds = new int[numFields];
+        int pos = (pattern == null ? 0 : nextFieldStart(pattern, 0));
+        for (int i = 0; i < numFields; i++) {
+            this.fieldStarts[i] = pos;
+            this.fieldEnds[i] = fieldEnd(pattern, pos);
+            pos = nextFieldStart(pattern, this.fieldEnds[i]);
+        }
+    }
+
+    /**
+     * Return true if the record matches the pattern.
+     *
+     * @param record the index record; a null record never matches
+     * @return true if every field of the pattern matches the corresponding field of the record
+     */
+    public boolean matches( final char[] record ) {
+        if (record == null) {
+            return false;
+        }
+        if (this.pattern == null) {
+            return true;
+        }
+        int pos = 0;
+        for (int i = 0; i < this.fieldStarts.length; i++) {
+            pos = nextFieldStart(record, pos);
+            if (pos == record.length) {
+                // fewer fields than the pattern
+                return false;
+            }
+            final int end = fieldEnd(record, pos);
+            if (!CharOperation.match(this.pattern, this.fieldStarts[i], this.fieldEnds[i], record, pos, end, this.isCaseSensitive)) {
+                return false;
+            }
+            pos = end;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of fields in the pattern
+     */
+    public int getFieldCount() {
+        return this.fieldStarts.length;
+    }
+
+    private int nextFieldStart( final char[] chars,
+                                int pos ) {
+        while (pos < chars.length && chars[pos] == this.fieldDelimiter) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int fieldEnd( final char[] chars,
+                          int pos ) {
+        while (pos < chars.length && chars[pos] != this.fieldDelimiter) {
+            pos++;
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+
+package org.teiid.designer.core.index;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An input for indexes saved using a {@link BlocksIndexOutput} that maps the whole index file into memory instead of reading
+ * it block by block through a <code>RandomAccessFile</code>.
+ * <p>
+ * Blocks are copied out of the mapped file for every query and never shared, so the entry and file queries (
+ * {@link #query(String)}, {@link #queryEntriesMatching(char[], boolean)}, the <code>queryEntriesPrefixedBy</code> methods,
+ * {@link #queryFilesReferringToPrefix(char[])}, {@link #queryInDocumentNames(String)} and {@link #getIndexedFile(int)}) may be
+ * called concurrently without any locking. The sequential file and word iteration inherited from {@link IndexInput} is still
+ * single threaded, and the input must not be closed while queries are running.
+ * </p>
+ * <p>
+ * The mapping is released by the garbage collector some time after {@link #close()}, which on some platforms keeps the file from
+ * being deleted until then. This input is therefore meant for long lived, read-mostly indexes.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class MappedBlocksIndexInput extends BlocksIndexInput {
+
+    /** The whole index file, or null when this input is closed */
+    private volatile ByteBuffer mappedFile;
+
+    /** The file list blocks decoded so far, keyed by block number */
+    private final ConcurrentMap<Integer, FileListBlock> fileListBlocks = new ConcurrentHashMap<Integer, FileListBlock>();
+
+    public MappedBlocksIndexInput( File inputFile ) {
+        super(inputFile);
+    }
+
+    /**
+     * @see org.teiid.designer.core.index.IndexInput#clearCache()
+     */
+    @Override
+    public void clearCache() {
+        this.fileListBlocks.clear();
+    }
+
+    /**
+     * @see org.teiid.designer.core.index.IndexInput#close()
+     */
+    @Override
+    public synchronized void close() {
+        if (isOpen()) {
+            setOpen(false);
+            this.mappedFile = null;
+            this.summary = null;
+            this.fileListBlocks.clear();
+        }
+    }
+
+    /**
+     * @see org.teiid.designer.core.index.IndexInput#open()
+     */
+    @Override
+    public void open() throws IOException {
+        // reading the volatile field also makes the summary written before it visible to this thread
+        if (this.mappedFile != null) return;
+        synchronized (this) {
+            if (this.mappedFile != null) return;
+
+            final ByteBuffer buffer = map(this.indexFile);
+            final DataInputStream header = new DataInputStream(new ByteBufferInputStream(buffer.duplicate()));
+            final String sig = header.readUTF();
+            if (!sig.equals(IIndexConstants.SIGNATURE)) throw new IOException(Util.bind("exception.wrongFormat")); //$NON-NLS-1$
+            final int summaryBlockNum = header.readInt();
+
+            final ByteBuffer summaryBuffer = buffer.duplicate();
+            summaryBuffer.position(summaryBlockNum * IIndexConstants.BLOCK_SIZE);
+            final IndexSummary newSummary = new IndexSummary();
+            newSummary.read(new DataInputStream(new ByteBufferInputStream(summaryBuffer)));
+
+            this.summary = newSummary;
+            this.mappedFile = buffer;
+            init();
+            setOpen(true);
+        }
+    }
+
+    /**
+     * @see org.teiid.designer.core.index.BlocksIndexInput#getFileListBlock(int)
+     */
+    @Override
+    protected FileListBlock getFileListBlock( final int blockNum ) throws IOException {
+        final Integer key = Integer.valueOf(blockNum);
+        FileListBlock block = this.fileListBlocks.get(key);
+        if (block == null) {
+            block = new FileListBlock(IIndexConstants.BLOCK_SIZE);
+            block.read(getMappedFile(), blockNum);
+            // decode the paths before the block becomes visible to other threads
+            block.getPaths();
+            final FileListBlock existing = this.fileListBlocks.putIfAbsent(key, block);
+            if (existing != null) block = existing;
+        }
+        return block;
+    }
+
+    /**
+     * @see org.teiid.designer.core.index.BlocksIndexInput#getIndexBlock(int)
+     */
+    @Override
+    protected IndexBlock getIndexBlock( final int blockNum ) throws IOException {
+        final IndexBlock block = new GammaCompressedIndexBlock(IIndexConstants.BLOCK_SIZE);
+        block.read(getMappedFile(), blockNum);
+        return block;
+    }
+
+    /**
+     * Unlike the inherited implementation this does not use the sequential file iteration, so it may be called concurrently.
+     *
+     * @see org.teiid.designer.core.index.IndexInput#queryInDocumentNames(java.lang.String)
+     */
+    @Override
+    public IQueryResult[] queryInDocumentNames( final String word ) throws IOException {
+        open();
+        final List<IQueryResult> matches = new ArrayList<IQueryResult>();
+        for (int fileNum = 1, max = getNumFiles(); fileNum <= max; fileNum++) {
+            final IndexedFile file = getIndexedFile(fileNum);
+            if (file != null && file.getPath().indexOf(word) != -1) matches.add(file);
+        }
+        return matches.toArray(new IQueryResult[matches.size()]);
+    }
+
+    private ByteBuffer getMappedFile() throws IOException {
+        open();
+        return this.mappedFile;
+    }
+
+    private static ByteBuffer map( final File file ) throws IOException {
+        final FileInputStream stream = new FileInputStream(file);
+        try {
+            // the mapping stays valid after the channel is closed
+            final FileChannel channel = stream.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Reads the header and the summary of the index through <code>DataInput</code>.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream( final ByteBuffer buffer ) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read( final byte[] bytes,
+                         final int offset,
+                         final int length ) {
+            if (length == 0) return 0;
+            if (!this.buffer.hasRemaining()) return -1;
+            final int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
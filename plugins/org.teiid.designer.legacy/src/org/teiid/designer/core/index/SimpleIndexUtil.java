@@ -16,7 +16,6 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import org.teiid.core.designer.TeiidDesignerException;
-import org.teiid.core.designer.util.CharOperation;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.core.designer.util.CoreStringUtil;
 import org.teiid.core.designer.util.FileUtils;
@@ -42,6 +41,11 @@ public class SimpleIndexUtil {
 
     public static final boolean CASE_SENSITIVE_INDEX_FILE_NAMES = false;
 
+    /**
+     * The query result limit meaning that all matching records are returned
+     */
+    public static final int NO_LIMIT = 0;
+
     //############################################################################################################################
     //# Indexing Methods                                                                                                       #
     //############################################################################################################################
@@ -76,72 +80,53 @@ public class SimpleIndexUtil {
      * @throws TeiidDesignerException
      */
     public static IEntryResult[] queryIndex(final Index[] indexes, final char[] pattern, final char fieldDelimiter) throws TeiidDesignerException {
+        return queryIndex(indexes, pattern, fieldDelimiter, NO_LIMIT);
+    }
+
+    /**
+     * Return the index file records that match the specified record pattern,
+     * stopping once <code>limit</code> records have been found.
+     * @param indexes the array of MtkIndex instances to query
+     * @param pattern
+     * @param fieldDelimiter
+     * @param limit the maximum number of records to return, or {@link #NO_LIMIT}
+     * @return results
+     * @throws TeiidDesignerException
+     * @see #queryIndex(Index[], char[], char)
+     */
+    public static IEntryResult[] queryIndex(final Index[] indexes, final char[] pattern, final char fieldDelimiter, final int limit) throws TeiidDesignerException {
         final boolean isCaseSensitive  = false;
-        final List<IEntryResult> queryResult = new ArrayList<IEntryResult>();
+        final IndexRecordMatcher matcher = new IndexRecordMatcher(pattern, fieldDelimiter, isCaseSensitive);
+        final ResultBuffer queryResult = new ResultBuffer(limit);
 
         try {
             for (int i = 0; i < indexes.length; i++) {
                 // Search for index records matching the specified pattern  
-                IEntryResult[] partialResults = indexes[i].queryEntriesMatching(pattern,isCaseSensitive);
-                
-                // If any of these IEntryResults represent an index record that is continued
-                // across multiple entries within the index file then we must query for those
-                // records and build the complete IEntryResult
-                if (partialResults != null) {
-                    partialResults = addContinuationRecords(indexes[i], partialResults);
+                final IEntryResult[] partialResults = indexes[i].queryEntriesMatching(pattern,isCaseSensitive);
+                if (partialResults == null) {
+                    continue;
                 }
-                
-                if (partialResults != null) {
-                    queryResult.addAll(Arrays.asList(partialResults));
+                queryResult.ensureCapacity(partialResults.length);
+                for (int j = 0; j < partialResults.length; j++) {
+                    if (partialResults[j] == null) {
+                        continue;
+                    }
+                    // If this IEntryResult represents an index record that is continued
+                    // across multiple entries within the index file then we must query for those
+                    // records and build the complete IEntryResult
+                    final IEntryResult record = addContinuationRecords(indexes[i], partialResults[j]);
+
+                    // Skip any results that do not match after tokenizing the record
+                    if (matcher.matches(record.getWord()) && !queryResult.add(record)) {
+                        return queryResult.toArray();
+                    }
                 }
             }
         } catch(IOException e) {
             throw new TeiidDesignerException(e); 
         }
-        
-        // Remove any results that do not match after tokenizing the record
-        for (int i = 0, n = queryResult.size(); i < n; i++) {
-            IEntryResult record = queryResult.get(i);
-            if ( record == null || !entryMatches(record.getWord(),pattern,fieldDelimiter) ) {
-            	queryResult.remove(record);
-            }
-        }
-                
-        return queryResult.toArray(new IEntryResult[queryResult.size()]);
-    }
-    
-    /**
-     * Return true if the record matches the pattern after being tokenized using
-     * the specified delimiter.  The method assumes that the first occurrence of 
-     * the delimiter in the record alligns with the first occurrence in the pattern.
-     * Any wildcard characters in the pattern cannot represent a delimiter character.
-     * @param record
-     * @param pattern
-     * @param fieldDelimiter
-     * @return
-     */
-    private static boolean entryMatches(final char[] record, final char[] pattern, final char fieldDelimiter) {
-        final boolean isCaseSensitive  = false;
-        if (record == null)
-            return false; // null record cannot match
-        if (pattern == null)
-            return true; // null pattern is equivalent to '*'
-            
-        String delimiter = String.valueOf(fieldDelimiter);
-        List recordTokens  = CoreStringUtil.split(new String(record),delimiter);
-        List patternTokens = CoreStringUtil.split(new String(pattern),delimiter);
-        if (patternTokens.size() > recordTokens.size()) {
-            return false;
-        }
-        
-        for (int i = 0, n = patternTokens.size(); i < n; i++) {
-            char[] patternToken = ((String)patternTokens.get(i)).toCharArray();
-            char[] recordToken  = ((String)recordTokens.get(i)).toCharArray();
-            if (!CharOperation.match(patternToken,recordToken,isCaseSensitive)) {
-                return false;
-            }
-        }        
-        return true;
+
+        return queryResult.toArray();
     }
 
     /**
@@ -191,7 +176,23 @@ public class SimpleIndexUtil {
      * @throws TeiidDesignerException
      */
     public static IEntryResult[] queryIndex(ProgressMonitor monitor, final Index[] indexes, final char[] pattern, final boolean isPrefix, final boolean isCaseSensitive, final boolean returnFirstMatch) throws TeiidDesignerException {
-        final List<IEntryResult> queryResult = new ArrayList<IEntryResult>();
+        return queryIndex(monitor, indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch, NO_LIMIT);
+    }
+
+    /**
+     * Return the index file records that match the specified record prefix
+     * or pattern, stopping once <code>limit</code> records have been found.
+     * No further indexes are queried once the limit is reached.
+     * @param monitor an optional ProgressMonitor
+     * @param indexes the array of MtkIndex instances to query
+     * @param pattern
+     * @param limit the maximum number of records to return, or {@link #NO_LIMIT}
+     * @return results
+     * @throws TeiidDesignerException
+     * @see #queryIndex(ProgressMonitor, Index[], char[], boolean, boolean, boolean)
+     */
+    public static IEntryResult[] queryIndex(ProgressMonitor monitor, final Index[] indexes, final char[] pattern, final boolean isPrefix, final boolean isCaseSensitive, final boolean returnFirstMatch, final int limit) throws TeiidDesignerException {
+        final ResultBuffer queryResult = new ResultBuffer(limit);
         if ( monitor != null ) {
             monitor.beginTask( null, indexes.length );        
         }
@@ -216,23 +217,21 @@ public class SimpleIndexUtil {
                     partialResults = indexes[i].queryEntriesMatching(pattern, isCaseSensitive);
                 }
 
-                // If any of these IEntryResults represent an index record that is continued
-                // across multiple entries within the index file then we must query for those
-                // records and build the complete IEntryResult
-                if (partialResults != null) {
-                    partialResults = addContinuationRecords(indexes[i], partialResults);
-                }
-
-                // Process these results against the specified pattern and return
-                // only the subset entries that match both criteria  
                 if (partialResults != null) {
+                    queryResult.ensureCapacity(partialResults.length);
                     for (int j = 0; j < partialResults.length; j++) {
-                    	// filter out any continuation records, they should already appended
-                    	// to index record thet is continued
-						IEntryResult result = partialResults[j];
-						if(result != null && result.getWord()[0] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
-	                        queryResult.add(partialResults[j]);
-						}
+                        // filter out any continuation records, they are appended
+                        // to the index record that is continued
+                        final IEntryResult result = partialResults[j];
+                        if (result == null || result.getWord()[0] == IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
+                            continue;
+                        }
+                        // If this IEntryResult represents an index record that is continued
+                        // across multiple entries within the index file then we must query for those
+                        // records and build the complete IEntryResult
+                        if (!queryResult.add(addContinuationRecords(indexes[i], result))) {
+                            return queryResult.toArray();
+                        }
                     }
                 }
 
@@ -244,7 +243,7 @@ public class SimpleIndexUtil {
             throw new TeiidDesignerException(e);
         }
 
-        return queryResult.toArray(new IEntryResult[queryResult.size()]);
+        return queryResult.toArray();
     }
     
     /**
@@ -261,10 +260,21 @@ public class SimpleIndexUtil {
      * @throws TeiidDesignerException
      */
     public static IEntryResult[] queryIndex(ProgressMonitor monitor, final Index[] indexes, final Collection patterns, final boolean isPrefix, final boolean isCaseSensitive, final boolean returnFirstMatch) throws TeiidDesignerException {
-        final List<IEntryResult> queryResult = new ArrayList<IEntryResult>();
+        final ResultBuffer queryResult = new ResultBuffer(NO_LIMIT);
         if ( monitor != null ) {
             monitor.beginTask( null, indexes.length );        
         }
+
+        // tokenize the patterns once for all indexes
+        final char[][] patternChars = new char[patterns.size()][];
+        final IndexRecordMatcher[] matchers = new IndexRecordMatcher[patternChars.length];
+        int patternIndex = 0;
+        for(final Iterator patternIter = patterns.iterator(); patternIter.hasNext(); patternIndex++) {
+            patternChars[patternIndex] = ((String) patternIter.next()).toCharArray();
+            if (!isPrefix) {
+                matchers[patternIndex] = new IndexRecordMatcher(patternChars[patternIndex], IndexConstants.RECORD_STRING.RECORD_DELIMITER, false);
+            }
+        }
         
         // index file input
         BlocksIndexInput input = null;
@@ -279,8 +289,8 @@ public class SimpleIndexUtil {
                 input = new BlocksIndexInput(indexes[i].getIndexFile());
 
                 IEntryResult[] partialResults = null;
-                for(final Iterator patternIter = patterns.iterator(); patternIter.hasNext();) {
-                    char[] pattern = ((String) patternIter.next()).toCharArray();
+                for (int k = 0; k < patternChars.length; k++) {
+                    char[] pattern = patternChars[k];
                     if(isPrefix) {
                         // Query based on prefix. This uses a fast binary search
                         // based on matching the first n characters in the index record.  
@@ -292,33 +302,25 @@ public class SimpleIndexUtil {
                         // Search for index records matching the specified pattern
                         partialResults = input.queryEntriesMatching(pattern, isCaseSensitive);
                     }
-                    
-                    // If any of these IEntryResults represent an index record that is continued
-                    // across multiple entries within the index file then we must query for those
-                    // records and build the complete IEntryResult
-                    if (partialResults != null) {
-                        partialResults = addContinuationRecords(indexes[i], partialResults);
-                    }
     
                     // Process these results against the specified pattern and return
                     // only the subset entries that match both criteria  
                     if (partialResults != null) {
+                        queryResult.ensureCapacity(partialResults.length);
                         for (int j = 0; j < partialResults.length; j++) {
                             IEntryResult record = partialResults[j];
-                            if(record != null) {
-                                char[] recordWord = partialResults[j].getWord();
-                                // filter out any continuation records, they should already appended
-                                // to index record thet is continued
-                                if(recordWord[0] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {                            
-                                    if (!isPrefix) {
-                                        // filter results that do not match after tokenizing the record
-                                        if(entryMatches(recordWord,pattern,IndexConstants.RECORD_STRING.RECORD_DELIMITER) ) {
-                                            queryResult.add(partialResults[j]);
-                                        }
-                                    } else {
-                                        queryResult.add(partialResults[j]);
-                                    }
-                                }
+                            // filter out any continuation records, they are appended
+                            // to the index record that is continued
+                            if (record == null || record.getWord()[0] == IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
+                                continue;
+                            }
+                            // If this IEntryResult represents an index record that is continued
+                            // across multiple entries within the index file then we must query for those
+                            // records and build the complete IEntryResult
+                            record = addContinuationRecords(indexes[i], record);
+                            // filter results that do not match after tokenizing the record
+                            if (isPrefix || matchers[k].matches(record.getWord())) {
+                                queryResult.add(record);
                             }
                         }
                     }
@@ -341,40 +343,86 @@ public class SimpleIndexUtil {
             } catch(IOException io) {}
         }
 
-        return queryResult.toArray(new IEntryResult[queryResult.size()]);       
+        return queryResult.toArray();
     }
     
-
-    private static IEntryResult[] addContinuationRecords(final Index index, final IEntryResult[] partialResults) throws IOException {
+    /**
+     * If the result is the first part of an index record that is continued across multiple
+     * entries within the index file, query for the continuation records and return the
+     * complete IEntryResult; otherwise return the result itself.
+     */
+    private static IEntryResult addContinuationRecords(final Index index, final IEntryResult partialResult) throws IOException {
                                                       
         final int blockSize = RecordFactory.INDEX_RECORD_BLOCK_SIZE;
         
-        IEntryResult[] results = partialResults;
-        for (int i = 0; i < results.length; i++) {
-            IEntryResult partialResult = results[i];
-            char[] word = partialResult.getWord();
-
-            // If this IEntryResult is not continued on another record then skip to the next result
-            if (word.length < blockSize || word[blockSize-1] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
-                continue;
+        char[] word = partialResult.getWord();
+
+        // If this IEntryResult is not continued on another record then there is nothing to add
+        if (word.length < blockSize || word[blockSize-1] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
+            return partialResult;
+        }
+        // Extract the UUID from the IEntryResult to use when creating the prefix string
+        String objectID = RecordFactory.extractUUIDString(partialResult);
+        String patternStr = "" //$NON-NLS-1$
+                          + IndexConstants.RECORD_TYPE.RECORD_CONTINUATION
+                          + word[0]
+                          + IndexConstants.RECORD_STRING.RECORD_DELIMITER
+                          + objectID
+                          + IndexConstants.RECORD_STRING.RECORD_DELIMITER;                    
+        
+        // Query the index file for any continuation records
+        IEntryResult[] continuationResults =  index.queryEntries(patternStr.toCharArray(), true);
+        // If found the continued records then join to the original result
+        if (continuationResults != null && continuationResults.length > 0) {
+            return RecordFactory.joinEntryResults(partialResult, continuationResults, blockSize);
+        }
+        return partialResult;
+    }
+
+    /**
+     * The results of a query, collected into an array that is grown ahead of each
+     * batch of partial results and never beyond the result limit.
+     */
+    private static final class ResultBuffer {
+        private static final IEntryResult[] NO_RESULTS = new IEntryResult[0];
+
+        private final int limit;
+        private IEntryResult[] results = NO_RESULTS;
+        private int size;
+
+        ResultBuffer(final int limit) {
+            this.limit = (limit > 0 ? limit : Integer.MAX_VALUE);
+        }
+
+        /**
+         * Make room for the specified number of additional results, up to the limit.
+         */
+        void ensureCapacity(final int count) {
+            final int capacity = (int)Math.min((long)this.size + count, this.limit);
+            if (capacity > this.results.length) {
+                this.results = Arrays.copyOf(this.results, capacity);
             }
-            // Extract the UUID from the IEntryResult to use when creating the prefix string
-            String objectID = RecordFactory.extractUUIDString(partialResult);
-            String patternStr = "" //$NON-NLS-1$
-                              + IndexConstants.RECORD_TYPE.RECORD_CONTINUATION
-                              + word[0]
-                              + IndexConstants.RECORD_STRING.RECORD_DELIMITER
-                              + objectID
-                              + IndexConstants.RECORD_STRING.RECORD_DELIMITER;                    
-            
-            // Query the index file for any continuation records
-            IEntryResult[] continuationResults =  index.queryEntries(patternStr.toCharArray(), true);
-            // If found the continued records then join to the original result and stop searching
-            if (continuationResults != null && continuationResults.length > 0) {
-                results[i] = RecordFactory.joinEntryResults(partialResult, continuationResults, blockSize);
+        }
+
+        /**
+         * Add a result.
+         * @return false if the limit has been reached
+         */
+        boolean add(final IEntryResult result) {
+            if (this.size == this.results.length) {
+                ensureCapacity(Math.max(this.size, 10));
             }
+            this.results[this.size++] = result;
+            return this.size < this.limit;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        IEntryResult[] toArray() {
+            return (this.size == this.results.length ? this.results : Arrays.copyOf(this.results, this.size));
         }
-        return results;
     }
     
     //############################################################################################################################
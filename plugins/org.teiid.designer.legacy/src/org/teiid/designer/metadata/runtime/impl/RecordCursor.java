@@ -0,0 +1,272 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+
+package org.teiid.designer.metadata.runtime.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.teiid.designer.core.index.IndexConstants;
+
+/**
+ * Reads the {@link IndexConstants.RECORD_STRING#RECORD_DELIMITER delimited} values of an index record in order, directly from
+ * the record's characters. Only the values that are kept by a record become strings, and numbers and flags are read without
+ * creating any. As with {@link java.util.StringTokenizer}, consecutive delimiters are treated as one.
+ * <p>
+ * Values that repeat across many records, such as runtime type names, datatype UUIDs and model paths, can be read as
+ * {@link #nextShared() shared} strings, so records decoded from the same index refer to the same instances.
+ * </p>
+ *
+ * @since 8.0
+ */
+final class RecordCursor {
+
+    /**
+     * The number of slots in the shared string table; a power of 2
+     */
+    private static final int SHARED_STRING_COUNT = 2048;
+
+    /**
+     * The most recent string for each slot of a direct-mapped table. Strings are immutable, so the table may be read and
+     * written by any number of threads without synchronization; a lost write only costs a duplicate string.
+     */
+    private static final String[] SHARED_STRINGS = new String[SHARED_STRING_COUNT];
+
+    private final char[] record;
+    private int position;
+    private int valueStart;
+    private int valueEnd;
+
+    /**
+     * @param record the index record
+     */
+    RecordCursor( final char[] record ) {
+        this.record = record;
+    }
+
+    /**
+     * @return <code>true</code> if the record has another value
+     */
+    boolean hasNext() {
+        while (position < record.length && record[position] == IndexConstants.RECORD_STRING.RECORD_DELIMITER) {
+            position++;
+        }
+        return position < record.length;
+    }
+
+    /**
+     * Move to the next value without reading it.
+     */
+    void skip() {
+        advance();
+    }
+
+    /**
+     * @return the next value
+     */
+    String next() {
+        advance();
+        return new String(record, valueStart, valueEnd - valueStart);
+    }
+
+    /**
+     * @return the next value, as a shared string
+     */
+    String nextShared() {
+        advance();
+        return share(record, valueStart, valueEnd);
+    }
+
+    /**
+     * @return the next value, or <code>null</code> if it is the {@link IndexConstants.RECORD_STRING#SPACE space} written for
+     *         a missing value
+     * @see RecordFactory#getObjectValue(String)
+     */
+    String nextValue() {
+        advance();
+        return isSpace() ? null : new String(record, valueStart, valueEnd - valueStart);
+    }
+
+    /**
+     * @return the next value as a shared string, or <code>null</code> if it is the {@link IndexConstants.RECORD_STRING#SPACE
+     *         space} written for a missing value
+     */
+    String nextSharedValue() {
+        advance();
+        return isSpace() ? null : share(record, valueStart, valueEnd);
+    }
+
+    /**
+     * @return the first character of the next value
+     */
+    char nextChar() {
+        advance();
+        return record[valueStart];
+    }
+
+    /**
+     * @return the next value as an int
+     * @throws NumberFormatException if the value is not an int
+     */
+    int nextInt() {
+        advance();
+        return parseInt(valueStart);
+    }
+
+    /**
+     * @return the next value as a short
+     * @throws NumberFormatException if the value is not a short
+     */
+    short nextShort() {
+        advance();
+        final int value = parseInt(valueStart);
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            return Short.parseShort(new String(record, valueStart, valueEnd - valueStart));
+        }
+        return (short)value;
+    }
+
+    /**
+     * @return the next value as an index version, which may be preceded by the
+     *         {@link IndexConstants.RECORD_STRING#INDEX_VERSION_MARKER index version marker}
+     * @throws NumberFormatException if the value is not an index version
+     */
+    int nextIndexVersion() {
+        advance();
+        final boolean marked = (record[valueStart] == IndexConstants.RECORD_STRING.INDEX_VERSION_MARKER);
+        return parseInt(marked ? valueStart + 1 : valueStart);
+    }
+
+    /**
+     * Move to the next value, a sequence of flags read with {@link #flag(int)}.
+     */
+    void nextFlags() {
+        advance();
+    }
+
+    /**
+     * @param index the index of a flag in the current value
+     * @return the flag
+     * @see RecordFactory#getBooleanValue(char)
+     */
+    boolean flag( final int index ) {
+        if (index >= valueEnd - valueStart) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return RecordFactory.getBooleanValue(record[valueStart + index]);
+    }
+
+    /**
+     * @param indexVersion the index version of the record
+     * @return the next value as a list of identifiers, without any missing values
+     * @see RecordFactory#getIDs(String, int)
+     */
+    List nextIDs( final int indexVersion ) {
+        advance();
+        return list(RecordFactory.getListDelimiter(indexVersion), true);
+    }
+
+    /**
+     * @param indexVersion the index version of the record
+     * @return the next value as a list of strings
+     * @see RecordFactory#getStrings(String, int)
+     */
+    List nextStrings( final int indexVersion ) {
+        advance();
+        return list(RecordFactory.getListDelimiter(indexVersion), false);
+    }
+
+    private void advance() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException();
+        }
+        valueStart = position;
+        while (position < record.length && record[position] != IndexConstants.RECORD_STRING.RECORD_DELIMITER) {
+            position++;
+        }
+        valueEnd = position;
+    }
+
+    private boolean isSpace() {
+        return valueEnd - valueStart == 1 && record[valueStart] == IndexConstants.RECORD_STRING.SPACE;
+    }
+
+    private List list( final char listDelimiter,
+                       final boolean omitMissingValues ) {
+        if (isSpace()) {
+            return Collections.EMPTY_LIST;
+        }
+        final List result = new ArrayList();
+        int index = valueStart;
+        while (index < valueEnd) {
+            if (record[index] == listDelimiter) {
+                index++;
+                continue;
+            }
+            final int start = index;
+            while (index < valueEnd && record[index] != listDelimiter) {
+                index++;
+            }
+            if (!omitMissingValues || index - start != 1 || record[start] != IndexConstants.RECORD_STRING.SPACE) {
+                result.add(new String(record, start, index - start));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse a decimal int in place, falling back to {@link Integer#parseInt(String)} for anything but a short run of digits so
+     * the same values are accepted and the same exceptions thrown.
+     */
+    private int parseInt( final int start ) {
+        int index = start;
+        final boolean negative = (index < valueEnd && record[index] == '-');
+        if (negative) {
+            index++;
+        }
+        final int length = valueEnd - index;
+        if (length == 0 || length > 9) {
+            return Integer.parseInt(new String(record, start, valueEnd - start));
+        }
+        int value = 0;
+        for (; index < valueEnd; index++) {
+            final int digit = record[index] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(new String(record, start, valueEnd - start));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the shared string with the characters in the range, created if necessary
+     */
+    static String share( final char[] chars,
+                         final int start,
+                         final int end ) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (SHARED_STRING_COUNT - 1);
+        final String shared = SHARED_STRINGS[slot];
+        if (shared != null && shared.length() == end - start) {
+            int i = start;
+            while (i < end && shared.charAt(i - start) == chars[i]) {
+                i++;
+            }
+            if (i == end) {
+                return shared;
+            }
+        }
+        final String value = new String(chars, start, end - start);
+        SHARED_STRINGS[slot] = value;
+        return value;
+    }
+}
@@ -249,28 +249,35 @@ public class RecordFactory {
         }
 
         // Extract the UUID string from the original result
-        String baseStr  = new String(baseResult);
         String objectID = extractUUIDString(result);
 
-        // Create and initialize a StringBuffer to store the concatenated result
-        StringBuffer sb = new StringBuffer();
-        sb.append(baseStr.substring(0,blockSize-1));
-
-        // Append the continuation results onto the original - 
+        // Find the portion of each continuation result that follows its header, and
+        // size the concatenated result to fit the original and all of those portions -
         // assumes the IEntryResult[] are in ascending order of segment number
         final IEntryResult[] sortedResults = sortContinuationResults(objectID,continuationResults);
+        final int[] beginIndexes = new int[sortedResults.length];
+        int length = blockSize - 1;
         for (int i = 0; i < sortedResults.length; i++) {
             char[] continuation = sortedResults[i].getWord();
             int segNumber  = getContinuationSegmentNumber(objectID,sortedResults[i]);
-            int beginIndex = objectID.length() + Integer.toString(segNumber).length() + 5;
-            for (int j = beginIndex; j < continuation.length; j++) {
-                if (j < blockSize-1) {
-                    sb.append(continuation[j]);
-                }
+            beginIndexes[i] = objectID.length() + Integer.toString(segNumber).length() + 5;
+            length += Math.max(0, Math.min(continuation.length, blockSize-1) - beginIndexes[i]);
+        }
+
+        // Copy the original and the continuation results into the concatenated result
+        final char[] word = new char[length];
+        System.arraycopy(baseResult, 0, word, 0, blockSize-1);
+        int offset = blockSize - 1;
+        for (int i = 0; i < sortedResults.length; i++) {
+            char[] continuation = sortedResults[i].getWord();
+            int count = Math.min(continuation.length, blockSize-1) - beginIndexes[i];
+            if (count > 0) {
+                System.arraycopy(continuation, beginIndexes[i], word, offset, count);
+                offset += count;
             }
         }
 
-        return new EntryResult(sb.toString().toCharArray(),result.getFileReferences());
+        return new EntryResult(word,result.getFileReferences());
     }
     
     private static IEntryResult[] sortContinuationResults(final String objectID, final IEntryResult[] continuationResults) {
@@ -324,8 +331,7 @@ public class RecordFactory {
         CoreArgCheck.isNotNull(result);
         
         char[] word = result.getWord();
-        String baseStr = new String(word);
-        int beginIndex = baseStr.indexOf(UUID.PROTOCOL);
+        int beginIndex = indexOf(word, UUID.PROTOCOL);
         int endIndex   = word.length;
         CoreArgCheck.isNonNegative(beginIndex);
         for (int i = beginIndex; i < word.length; i++) {
@@ -335,7 +341,7 @@ public class RecordFactory {
             }
         }
         CoreArgCheck.isTrue(beginIndex < endIndex, "begin index should be less than end index");
-        return baseStr.substring(beginIndex,endIndex);
+        return new String(word, beginIndex, endIndex - beginIndex);
     }
 
     // ==================================================================================
@@ -346,40 +352,36 @@ public class RecordFactory {
      * Create a ModelRecord instance from the specified index record
      */
     public static ModelRecord createModelRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final ModelRecordImpl model = new ModelRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         model.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(model, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++));
-        
+        setRecordHeaderValues(model, cursor);
+
         // The next token is the max set size
-        model.setMaxSetSize( Integer.parseInt((String)tokens.get(tokenIndex++)) );
-        
+        model.setMaxSetSize( cursor.nextInt() );
+
         // The next token is the model type
-        model.setModelType( Integer.parseInt((String)tokens.get(tokenIndex++)) );
-        
+        model.setModelType( cursor.nextInt() );
+
         // The next token is the primary metamodel Uri
-        model.setPrimaryMetamodelUri(getObjectValue((String)tokens.get(tokenIndex++)));
+        model.setPrimaryMetamodelUri(cursor.nextSharedValue());
 
         // The next token are the supports flags
-        char[] supportFlags = ((String)tokens.get(tokenIndex++)).toCharArray();
-        model.setVisible(getBooleanValue(supportFlags[0]));
-        model.setSupportsDistinct(getBooleanValue(supportFlags[1]));
-        model.setSupportsJoin(getBooleanValue(supportFlags[2]));
-        model.setSupportsOrderBy(getBooleanValue(supportFlags[3]));
-        model.setSupportsOuterJoin(getBooleanValue(supportFlags[4]));
-        model.setSupportsWhereAll(getBooleanValue(supportFlags[5]));
+        cursor.nextFlags();
+        model.setVisible(cursor.flag(0));
+        model.setSupportsDistinct(cursor.flag(1));
+        model.setSupportsJoin(cursor.flag(2));
+        model.setSupportsOrderBy(cursor.flag(3));
+        model.setSupportsOuterJoin(cursor.flag(4));
+        model.setSupportsWhereAll(cursor.flag(5));
 
 		// The next tokens are footer values - the footer will contain the version number for the index record
-		setRecordFooterValues(model, tokens, tokenIndex);
+		setRecordFooterValues(model, cursor);
 
         return model;
     }
@@ -388,51 +390,47 @@ public class RecordFactory {
      * Create a ModelRecord instance from the specified index record
      */
     public static VdbRecord createVdbRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final VdbRecordImpl vdb = new VdbRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         vdb.setIndexVersion(indexVersion);
-        
+
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(vdb, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(vdb, cursor);
+
 
-        
         // The next token is the version
-        vdb.setVersion(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setVersion(cursor.nextValue());
+
         // The next token is the identifier
-        vdb.setIdentifier(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setIdentifier(cursor.nextValue());
+
         // The next token is the producerName
-        vdb.setProducerName(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setProducerName(cursor.nextValue());
+
         // The next token is the producerVersion
-        vdb.setProducerVersion(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setProducerVersion(cursor.nextValue());
+
         // The next token is the provider
-        vdb.setProvider(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setProvider(cursor.nextValue());
+
         // The next token is the timeLastChanged
-        vdb.setTimeLastChanged(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setTimeLastChanged(cursor.nextValue());
+
         // The next token is the timeLastProduced
-        vdb.setTimeLastProduced(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        vdb.setTimeLastProduced(cursor.nextValue());
+
         // The next token are the UUIDs for the models in the VDB archive
-        List uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        List uuids = cursor.nextIDs(indexVersion);
         vdb.setModelIDs(uuids);
-        
+
         // The next token is the description
-        vdb.setDescription(getObjectValue((String)tokens.get(tokenIndex++)));
+        vdb.setDescription(cursor.nextValue());
 
 		// The next tokens are footer values
-		setRecordFooterValues(vdb, tokens, tokenIndex);    
+		setRecordFooterValues(vdb, cursor);
 
         return vdb;
     }
@@ -441,45 +439,42 @@ public class RecordFactory {
      * Create a TransformationRecord instance from the specified index record
      */
     public static TransformationRecord createTransformationRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final TransformationRecordImpl transform = new TransformationRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         transform.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        
-        char recordType = ((String)tokens.get(tokenIndex++)).charAt(0);
-        
-        // The next token is the transformation type        
+        char recordType = cursor.nextChar();
+
+        // The next token is the transformation type
         transform.setTransformationType(getObjectValue(transform.getTransformTypeForRecordType(recordType)));
         // The next token is the name of the transformed object
-        transform.setFullName(getObjectValue(((String)tokens.get(tokenIndex++))));
+        transform.setFullName(cursor.nextValue());
 
         // The next token is the UUID of the transformed object
-        transform.setTransformedObjectID(getObjectValue((String)tokens.get(tokenIndex++)));
+        transform.setTransformedObjectID(cursor.nextValue());
 
         // The next token is the UUID of the transformation object
         if(includeTransformationUUID(indexVersion)) {
-            transform.setUUID(getObjectValue(((String)tokens.get(tokenIndex++))));
-        }        
+            transform.setUUID(cursor.nextValue());
+        }
 
         // The next token is the transformation definition
-        transform.setTransformation(getObjectValue((String)tokens.get(tokenIndex++)));
+        transform.setTransformation(cursor.nextValue());
 
         // The next token are the list of bindings
-        List bindings = getStrings((String)tokens.get(tokenIndex++), indexVersion);
+        List bindings = cursor.nextStrings(indexVersion);
         transform.setBindings(bindings);
 
         // The next token are the list of schemaPaths
-        List schemaPaths = getStrings((String)tokens.get(tokenIndex++), indexVersion);
+        List schemaPaths = cursor.nextStrings(indexVersion);
         transform.setSchemaPaths(schemaPaths);
 
 		// The next tokens are footer values
-		setRecordFooterValues(transform, tokens, tokenIndex);
+		setRecordFooterValues(transform, cursor);
 
         return transform;
     }
@@ -488,67 +483,63 @@ public class RecordFactory {
      * Create a TableRecord instance from the specified index record
      */
     public static TableRecord createTableRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final TableRecordImpl table = new TableRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         table.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(table, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(table, cursor);
 
         // The next token is the cardinality
-        table.setCardinality( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        table.setCardinality( cursor.nextInt() );
 
         // The next token is the tableType
-        table.setTableType( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        table.setTableType( cursor.nextInt() );
 
         // The next token are the supports flags
-        char[] supportFlags = ((String)tokens.get(tokenIndex++)).toCharArray();
-        table.setVirtual(getBooleanValue(supportFlags[0]));
-        table.setSystem(getBooleanValue(supportFlags[1]));
-        table.setSupportsUpdate(getBooleanValue(supportFlags[2]));
+        cursor.nextFlags();
+        table.setVirtual(cursor.flag(0));
+        table.setSystem(cursor.flag(1));
+        table.setSupportsUpdate(cursor.flag(2));
         if(includeMaterializationFlag(indexVersion)) {
-            table.setMaterialized(getBooleanValue(supportFlags[3]));
+            table.setMaterialized(cursor.flag(3));
         }
 
         // The next token are the UUIDs for the column references
-        List uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        List uuids = cursor.nextIDs(indexVersion);
         table.setColumnIDs(uuids);
 
         // The next token is the UUID of the primary key
-        table.setPrimaryKeyID(tokens.get(tokenIndex++));
+        table.setPrimaryKeyID(cursor.next());
 
         // The next token are the UUIDs for the foreign key references
-        uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        uuids = cursor.nextIDs(indexVersion);
         table.setForeignKeyIDs(uuids);
 
         // The next token are the UUIDs for the index references
-        uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        uuids = cursor.nextIDs(indexVersion);
         table.setIndexIDs(uuids);
 
         // The next token are the UUIDs for the unique key references
-        uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        uuids = cursor.nextIDs(indexVersion);
         table.setUniqueKeyIDs(uuids);
 
         // The next token are the UUIDs for the access pattern references
-        uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        uuids = cursor.nextIDs(indexVersion);
         table.setAccessPatternIDs(uuids);
 
         if(includeMaterializationFlag(indexVersion)) {
             // The next token are the UUIDs for the materialized table ID
-            table.setMaterializedTableID(tokens.get(tokenIndex++));
+            table.setMaterializedTableID(cursor.next());
             // The next token are the UUID for the materialized stage table ID
-            table.setMaterializedStageTableID(tokens.get(tokenIndex++));
+            table.setMaterializedStageTableID(cursor.next());
         }
 
 		// The next tokens are footer values
-		setRecordFooterValues(table, tokens, tokenIndex);       
+		setRecordFooterValues(table, cursor);
 
         return table;
     }
@@ -557,89 +548,85 @@ public class RecordFactory {
      * Create a ColumnRecord instance from the specified index record
      */
     public static ColumnRecord createColumnRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final ColumnRecordImpl column = new ColumnRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         column.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(column, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(column, cursor);
 
         // The next token are the supports flags
-        char[] supportFlags = ((String)tokens.get(tokenIndex++)).toCharArray();
-        column.setSelectable(getBooleanValue(supportFlags[0]));
-        column.setUpdatable(getBooleanValue(supportFlags[1]));
-        column.setAutoIncrementable(getBooleanValue(supportFlags[2]));
-        column.setCaseSensitive(getBooleanValue(supportFlags[3]));
-        column.setSigned(getBooleanValue(supportFlags[4]));
-        column.setCurrency(getBooleanValue(supportFlags[5]));
-        column.setFixedLength(getBooleanValue(supportFlags[6]));
+        cursor.nextFlags();
+        column.setSelectable(cursor.flag(0));
+        column.setUpdatable(cursor.flag(1));
+        column.setAutoIncrementable(cursor.flag(2));
+        column.setCaseSensitive(cursor.flag(3));
+        column.setSigned(cursor.flag(4));
+        column.setCurrency(cursor.flag(5));
+        column.setFixedLength(cursor.flag(6));
         if (includeInputParameterFlag(indexVersion)) {
-            column.setTransformationInputParameter(getBooleanValue(supportFlags[7]));
+            column.setTransformationInputParameter(cursor.flag(7));
         }
 
         // The next token is the search type
-        column.setNullType( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setNullType( cursor.nextInt() );
 
         // The next token is the search type
-        column.setSearchType( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setSearchType( cursor.nextInt() );
 
         // The next token is the length
-        column.setLength( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setLength( cursor.nextInt() );
 
         // The next token is the scale
-        column.setScale( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setScale( cursor.nextInt() );
 
         // The next token is the precision
-        column.setPrecision( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setPrecision( cursor.nextInt() );
 
         // The next token is the precision
-        column.setPosition( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setPosition( cursor.nextInt() );
 
         // The next token is the charOctetLength
-        column.setCharOctetLength( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setCharOctetLength( cursor.nextInt() );
 
         // The next token is the radix
-        column.setRadix( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        column.setRadix( cursor.nextInt() );
 
         if (includeColumnNullDistinctValues(indexVersion)) {
             // The next token is the distinct value
-            column.setDistinctValues(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+            column.setDistinctValues(cursor.nextInt() );
             // The next token is the null value
-            column.setNullValues(Integer.parseInt((String)tokens.get(tokenIndex++)) );            
+            column.setNullValues(cursor.nextInt() );
         }
 
         // The next token is the min value
-        column.setMinValue( getObjectValue((String)tokens.get(tokenIndex++)) );
+        column.setMinValue( cursor.nextValue() );
 
         // The next token is the max value
-        column.setMaxValue( getObjectValue((String)tokens.get(tokenIndex++)) );
+        column.setMaxValue( cursor.nextValue() );
 
         // The next token is the format value
-        column.setFormat( getObjectValue((String)tokens.get(tokenIndex++)) );
+        column.setFormat( cursor.nextSharedValue() );
 
         // The next token is the runtime type
-        column.setRuntimeType( getObjectValue((String)tokens.get(tokenIndex++)) );
+        column.setRuntimeType( cursor.nextSharedValue() );
 
         if(includeColumnNativeType(indexVersion)) {
 	        // The next token is the native type
-	        column.setNativeType( getObjectValue((String)tokens.get(tokenIndex++)) );
+	        column.setNativeType( cursor.nextSharedValue() );
         }
 
         // The next token is the datatype ObjectID
-        column.setDatatypeUUID( getObjectValue((String)tokens.get(tokenIndex++)) );
+        column.setDatatypeUUID( cursor.nextSharedValue() );
 
         // The next token is the default value
-        column.setDefaultValue( getObjectValue((String)tokens.get(tokenIndex++)) );
+        column.setDefaultValue( cursor.nextSharedValue() );
 
 		// The next tokens are footer values
-		setRecordFooterValues(column, tokens, tokenIndex);
+		setRecordFooterValues(column, cursor);
 
         return column;
     }
@@ -648,26 +635,22 @@ public class RecordFactory {
      * Create a ColumnSetRecord instance from the specified index record
      */
     public static ColumnSetRecord createColumnSetRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final ColumnSetRecordImpl columnSet = new ColumnSetRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         columnSet.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(columnSet, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(columnSet, cursor);
 
         // The next token are the UUIDs for the column references
-        List uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        List uuids = cursor.nextIDs(indexVersion);
         columnSet.setColumnIDs(uuids);
 
 		// The next tokens are footer values
-		setRecordFooterValues(columnSet, tokens, tokenIndex);
+		setRecordFooterValues(columnSet, cursor);
 
         return columnSet;
     }
@@ -676,30 +659,26 @@ public class RecordFactory {
      * Create a ForeignKeyRecord instance from the specified index record
      */
     public static ForeignKeyRecord createForeignKeyRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final ForeignKeyRecordImpl fkRecord = new ForeignKeyRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         fkRecord.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(fkRecord, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
-        
+        setRecordHeaderValues(fkRecord, cursor);
+
         // The next token are the UUIDs for the column references
-        List uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        List uuids = cursor.nextIDs(indexVersion);
         fkRecord.setColumnIDs(uuids);
 
         // The next token is the UUID of the unique key
-        fkRecord.setUniqueKeyID(getObjectValue((String)tokens.get(tokenIndex++)));        
+        fkRecord.setUniqueKeyID(cursor.nextValue());
 
 		// The next tokens are footer values
-		setRecordFooterValues(fkRecord, tokens, tokenIndex);
-        
+		setRecordFooterValues(fkRecord, cursor);
+
         return fkRecord;
     }
 
@@ -707,31 +686,27 @@ public class RecordFactory {
      * Create a UniqueKeyRecord instance from the specified index record
      */
     public static UniqueKeyRecord createUniqueKeyRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final UniqueKeyRecordImpl ukRecord = new UniqueKeyRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         ukRecord.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(ukRecord, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
-        
+        setRecordHeaderValues(ukRecord, cursor);
+
         // The next token are the UUIDs for the column references
-        List columnUUIDs = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        List columnUUIDs = cursor.nextIDs(indexVersion);
         ukRecord.setColumnIDs(columnUUIDs);
 
         // The next token are the UUIDs for the foreign key references
-        List fkUUIDs = getIDs((String)tokens.get(tokenIndex++), indexVersion);
-        ukRecord.setForeignKeyIDs(fkUUIDs);        
+        List fkUUIDs = cursor.nextIDs(indexVersion);
+        ukRecord.setForeignKeyIDs(fkUUIDs);
 
 		// The next tokens are footer values
-		setRecordFooterValues(ukRecord, tokens, tokenIndex);        
-        
+		setRecordFooterValues(ukRecord, cursor);
+
         return ukRecord;
     }
 
@@ -739,74 +714,70 @@ public class RecordFactory {
      * Create a DatatypeRecord instance from the specified index record
      */
     public static DatatypeRecord createDatatypeRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final DatatypeRecordImpl dt = new DatatypeRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         dt.setIndexVersion(indexVersion);
-        
-        // The tokens are the standard header values
-        int tokenIndex = 0;
 
         // Set the record type
-        dt.setRecordType(((String)tokens.get(tokenIndex++)).toCharArray()[0]);
+        dt.setRecordType(cursor.nextChar());
 
         // Set the datatype and basetype identifiers
-        dt.setDatatypeID(getObjectValue((String)tokens.get(tokenIndex++)));
-        dt.setBasetypeID(getObjectValue((String)tokens.get(tokenIndex++)));
+        dt.setDatatypeID(cursor.nextSharedValue());
+        dt.setBasetypeID(cursor.nextSharedValue());
 
         // Set the fullName/objectID/nameInSource
-        dt.setFullName((String)tokens.get(tokenIndex++));
-        dt.setUUID(getObjectValue((String)tokens.get(tokenIndex++)));
-        dt.setNameInSource(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        dt.setFullName(cursor.next());
+        dt.setUUID(cursor.nextSharedValue());
+        dt.setNameInSource(cursor.nextValue());
+
         // Set the variety type and its properties
-        dt.setVarietyType( Short.parseShort((String)tokens.get(tokenIndex++)) );
-        List props = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        dt.setVarietyType( cursor.nextShort() );
+        List props = cursor.nextIDs(indexVersion);
         dt.setVarietyProps(props);
-        
+
         // Set the runtime and java class names
-        dt.setRuntimeTypeName(getObjectValue((String)tokens.get(tokenIndex++)));
-        dt.setJavaClassName(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        dt.setRuntimeTypeName(cursor.nextSharedValue());
+        dt.setJavaClassName(cursor.nextSharedValue());
+
         // Set the datatype type
-        dt.setType( Short.parseShort((String)tokens.get(tokenIndex++)) );
-        
+        dt.setType( cursor.nextShort() );
+
         // Set the search type
-        dt.setSearchType( Short.parseShort((String)tokens.get(tokenIndex++)) );
-        
+        dt.setSearchType( cursor.nextShort() );
+
         // Set the null type
-        dt.setNullType( Short.parseShort((String)tokens.get(tokenIndex++)) );
- 
+        dt.setNullType( cursor.nextShort() );
+
         // Set the boolean flags
-        char[] booleanValues = ((String)tokens.get(tokenIndex++)).toCharArray();
-        dt.setSigned(getBooleanValue(booleanValues[0]));
-        dt.setAutoIncrement(getBooleanValue(booleanValues[1]));
-        dt.setCaseSensitive(getBooleanValue(booleanValues[2]));
-        
+        cursor.nextFlags();
+        dt.setSigned(cursor.flag(0));
+        dt.setAutoIncrement(cursor.flag(1));
+        dt.setCaseSensitive(cursor.flag(2));
+
         // Append the length
-        dt.setLength( Integer.parseInt((String)tokens.get(tokenIndex++)) );
-        
+        dt.setLength( cursor.nextInt() );
+
         // Append the precision length
-        dt.setPrecisionLength( Integer.parseInt((String)tokens.get(tokenIndex++)) );
-        
+        dt.setPrecisionLength( cursor.nextInt() );
+
         // Append the scale
-        dt.setScale( Integer.parseInt((String)tokens.get(tokenIndex++)) );
-        
+        dt.setScale( cursor.nextInt() );
+
         // Append the radix
-        dt.setRadix( Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        dt.setRadix( cursor.nextInt() );
 
         // Set the primitive type identifier
         if (includePrimitiveTypeIdValue(indexVersion)) {
             // The next token is the primitive type identifier
-            dt.setPrimitiveTypeID(getObjectValue((String)tokens.get(tokenIndex++)));
+            dt.setPrimitiveTypeID(cursor.nextSharedValue());
         }
 
 		// The next tokens are footer values
-		setRecordFooterValues(dt, tokens, tokenIndex);       
-        
+		setRecordFooterValues(dt, cursor);
+
         return dt;
     }
 
@@ -815,42 +786,36 @@ public class RecordFactory {
      */
     public static ProcedureRecord createProcedureRecord(final char[] record) {
 
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final ProcedureRecordImpl procRd = new ProcedureRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         procRd.setIndexVersion(indexVersion);
 
-        // The tokens are the standard header values
-        int tokenIndex = 0;
-
         // Set the record type
-        setRecordHeaderValues(procRd, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(procRd, cursor);
 
         // Set the boolean flags
-        char[] booleanValues = ((String)tokens.get(tokenIndex++)).toCharArray();
+        cursor.nextFlags();
         // flag indicating if the procedure is a function
-        procRd.setFunction(getBooleanValue(booleanValues[0]));
+        procRd.setFunction(cursor.flag(0));
         // flag indicating if the procedure is virtual
-        procRd.setVirtual(getBooleanValue(booleanValues[1]));
+        procRd.setVirtual(cursor.flag(1));
 
         // The next token are the UUIDs for the param references
-        List uuids = getIDs((String)tokens.get(tokenIndex++), indexVersion);
+        List uuids = cursor.nextIDs(indexVersion);
         procRd.setParameterIDs(uuids);
 
         // The next token is the UUID of the resultSet object
-        procRd.setResultSetID(getObjectValue((String)tokens.get(tokenIndex++)));
-        
+        procRd.setResultSetID(cursor.nextValue());
+
         if (includeProcedureUpdateCount(indexVersion)) {
-            procRd.setUpdateCount(Integer.parseInt((String)tokens.get(tokenIndex++)));
+            procRd.setUpdateCount(cursor.nextInt());
         }
-        
+
 		// The next tokens are footer values
-		setRecordFooterValues(procRd, tokens, tokenIndex);
+		setRecordFooterValues(procRd, cursor);
 
         return procRd;
     }
@@ -861,58 +826,52 @@ public class RecordFactory {
      */
     public static ProcedureParameterRecord createProcedureParameterRecord(final char[] record) {
 
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final ProcedureParameterRecordImpl paramRd = new ProcedureParameterRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         paramRd.setIndexVersion(indexVersion);
 
-        // The tokens are the standard header values
-        int tokenIndex = 0;
-
         // Set the record type
-        setRecordHeaderValues(paramRd, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(paramRd, cursor);
 
         // The next token is the default value of the parameter
-        paramRd.setDefaultValue(getObjectValue((String)tokens.get(tokenIndex++)) );
+        paramRd.setDefaultValue(cursor.nextSharedValue() );
 
         // The next token is the runtime type
-        paramRd.setRuntimeType(getObjectValue((String)tokens.get(tokenIndex++)) );
+        paramRd.setRuntimeType(cursor.nextSharedValue() );
 
         // The next token is the uuid
-        paramRd.setDatatypeUUID(getObjectValue((String)tokens.get(tokenIndex++)) );
+        paramRd.setDatatypeUUID(cursor.nextSharedValue() );
 
         // The next token is the length
-        paramRd.setLength(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        paramRd.setLength(cursor.nextInt() );
 
         // The next token is the radix
-        paramRd.setRadix(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        paramRd.setRadix(cursor.nextInt() );
 
         // The next token is the scale
-        paramRd.setScale(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        paramRd.setScale(cursor.nextInt() );
 
         // The next token is the null type
-        paramRd.setNullType(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        paramRd.setNullType(cursor.nextInt() );
 
         // The next token is the precision
-        paramRd.setPrecision(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        paramRd.setPrecision(cursor.nextInt() );
 
         // The next token is the position
-        paramRd.setPosition(Integer.parseInt((String)tokens.get(tokenIndex++)) );
+        paramRd.setPosition(cursor.nextInt() );
 
-        // The next token is parameter type        
-        paramRd.setType(Integer.parseInt((String)tokens.get(tokenIndex++)));
+        // The next token is parameter type
+        paramRd.setType(cursor.nextInt());
 
         // The next token is flag for parameter optional prop
-        char[] flags = ((String)tokens.get(tokenIndex++)).toCharArray();
-        paramRd.setOptional(getBooleanValue(flags[0]));
+        cursor.nextFlags();
+        paramRd.setOptional(cursor.flag(0));
 
 		// The next tokens are footer values
-		setRecordFooterValues(paramRd, tokens, tokenIndex);
+		setRecordFooterValues(paramRd, cursor);
 
         return paramRd;
     }
@@ -921,30 +880,26 @@ public class RecordFactory {
      * Create a AnnotationRecord instance from the specified index record
      */
     public static AnnotationRecord createAnnotationRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final AnnotationRecordImpl annotation = new AnnotationRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         annotation.setIndexVersion(indexVersion);
 
         // The tokens are the standard header values
-        int tokenIndex = 0;
-        setRecordHeaderValues(annotation, (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++),
-                             (String)tokens.get(tokenIndex++), (String)tokens.get(tokenIndex++));
+        setRecordHeaderValues(annotation, cursor);
 
         if(includeAnnotationProperties(indexVersion)) {
 			// The next token are the properties, ignore it not going to be read any way
-            tokenIndex++;
+            cursor.skip();
         }
 
         // The next token is the description
-        annotation.setDescription((String)tokens.get(tokenIndex++));
+        annotation.setDescription(cursor.next());
 
         // The next tokens are footer values
-		setRecordFooterValues(annotation, tokens, tokenIndex);        
+		setRecordFooterValues(annotation, cursor);
 
         return annotation;
     }
@@ -953,65 +908,54 @@ public class RecordFactory {
      * Create a PropertyRecord instance from the specified index record
      */
     public static PropertyRecord createPropertyRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final PropertyRecordImpl property = new PropertyRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         property.setIndexVersion(indexVersion);
 
-        // The tokens are the standard header values
-        int tokenIndex = 0;
-
         // The next token is the record type
-        String recordType = (String)tokens.get(tokenIndex++);
-        property.setRecordType(recordType.toCharArray()[0]);
+        property.setRecordType(cursor.nextChar());
 
         // The next token is the object ID
-        String objectID = (String)tokens.get(tokenIndex++);
-        property.setUUID(getObjectValue(objectID));
+        property.setUUID(cursor.nextValue());
 
         // The next token is the property name
-        property.setPropertyName( (String)tokens.get(tokenIndex++) );
+        property.setPropertyName( cursor.nextShared() );
 
         // The next token is the property value
-        property.setPropertyValue((String)tokens.get(tokenIndex++));
-        
+        property.setPropertyValue(cursor.next());
+
         // for newer records
         if(!includeAnnotationProperties(indexVersion)) {
 	        // The next token is extension boolean
-	        char isExtension = ((String)tokens.get(tokenIndex++)).charAt(0);
-	        property.setExtension(getBooleanValue(isExtension));
+	        cursor.nextFlags();
+	        property.setExtension(cursor.flag(0));
         }
 
 		// The next tokens are footer values
-		setRecordFooterValues(property, tokens, tokenIndex);
+		setRecordFooterValues(property, cursor);
 
         return property;
     }
-    
+
     /**
      * Create a FileRecord instance from the specified index record
      */
     public static FileRecord createFileRecord(final char[] record) {
-        final String str = new String(record);
-        final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
+        final RecordCursor cursor = new RecordCursor(record);
         final FileRecordImpl file = new FileRecordImpl();
 
-        // Extract the index version information from the record 
+        // Extract the index version information from the record
         int indexVersion = getIndexVersion(record);
         file.setIndexVersion(indexVersion);
-        
-        // The tokens are the standard header values
-        int tokenIndex = 0;
 
         // The next token is the record type
-        String recordType = (String)tokens.get(tokenIndex++);
-        file.setRecordType(recordType.toCharArray()[0]);
+        file.setRecordType(cursor.nextChar());
 
         // The next token is the relative path to the file in vdb
-        file.setPathInVdb((String)tokens.get(tokenIndex++) );
+        file.setPathInVdb(cursor.next() );
 
         return file;
     }
@@ -1171,45 +1115,52 @@ public class RecordFactory {
      * Set the "header" values on the specified MetadataRecord.
      * All index file record headers are of the form:
      * recordType|upperFullName|objectID|fullName|nameInSource|parentObjectID
-     * The order of the fields in the index file header must also 
-     * be the order of the arguments in method signature.
      */
-    private static void setRecordHeaderValues(final AbstractMetadataRecord record, final String recordType, 
-                                              final String upperName, final String objectID, final String fullName, 
-                                              final String nameInSource, 
-                                              final String parentObjectID) {
-        
-        record.setRecordType(recordType.toCharArray()[0]);
-        record.setUUID(getObjectValue(objectID));
-        record.setFullName(fullName);
-        record.setNameInSource(getObjectValue(nameInSource));
-        record.setParentUUID(getObjectValue(parentObjectID));
+    private static void setRecordHeaderValues(final AbstractMetadataRecord record, final RecordCursor cursor) {
+        record.setRecordType(cursor.nextChar());
+        // The upper case full name is only used to match index entries
+        cursor.skip();
+        record.setUUID(cursor.nextValue());
+        record.setFullName(cursor.next());
+        record.setNameInSource(cursor.nextValue());
+        record.setParentUUID(cursor.nextSharedValue());
     }
 
     /**
      * Set the "footer" values on the specified MetadataRecord.
      * All index file record footers are of the form:
      * modelPath|name|indexVersion
-     * The order of the fields in the index file header must also 
-     * be the order of the arguments in method signature.
      */
-    private static void setRecordFooterValues(final AbstractMetadataRecord record, final List tokens, int tokenIndex) {
-        record.setResourcePath(getOptionalToken(tokens, tokenIndex++));         
-        record.setName(getOptionalToken(tokens, tokenIndex++));
-        
-        String version = getOptionalToken(tokens, tokenIndex++);
-        if (version != null && version.length() > 0) {
-            if (version.charAt(0) == IndexConstants.RECORD_STRING.INDEX_VERSION_MARKER) {
-                version = version.substring(1);
-            }
+    private static void setRecordFooterValues(final AbstractMetadataRecord record, final RecordCursor cursor) {
+        record.setResourcePath(cursor.hasNext() ? cursor.nextShared() : null);
+        record.setName(cursor.hasNext() ? cursor.next() : null);
+
+        if (cursor.hasNext()) {
             try {
-                record.setIndexVersion(Integer.parseInt(version));
+                record.setIndexVersion(cursor.nextIndexVersion());
             } catch (NumberFormatException err) {
                 // Log error
             }
         }
     }
 
+    /**
+     * Return the index of the first occurrence of the string in the characters, or -1
+     */
+    private static int indexOf(final char[] chars, final String str) {
+        final int last = chars.length - str.length();
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < str.length() && chars[i + j] == str.charAt(j)) {
+                j++;
+            }
+            if (j == str.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public static String getOptionalToken( final List tokens, int tokenIndex) {
         if(tokens.size() > tokenIndex) {
             return (String) tokens.get(tokenIndex);     
@@ -11,7 +11,6 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
-import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -22,6 +21,7 @@ import org.eclipse.xsd.util.XSDResourceImpl;
 import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.builder.ProblemMarkerSink;
 import org.teiid.designer.core.builder.ResourceValidator;
 import org.teiid.designer.core.resource.EmfResource;
 import org.teiid.designer.core.validation.ValidationContext;
@@ -155,6 +155,9 @@ public class SimpleXsdResourceValidator implements ResourceValidator {
                            final IResource iResource) throws ModelerCoreException {
 
         if (context != null && context.hasResults()) {
+            // Add the markers to the sink of the build, or apply them together once all are collected
+            final ProblemMarkerSink buildSink = ProblemMarkerSink.getSink(context);
+            final ProblemMarkerSink markerSink = (buildSink != null ? buildSink : new ProblemMarkerSink());
             final List results = context.getValidationResults();
             try {
                 for (final Iterator i = results.iterator(); i.hasNext();) {
@@ -165,13 +168,16 @@ public class SimpleXsdResourceValidator implements ResourceValidator {
                         String locationUri  = result.getLocationUri();
                         String targetUri    = result.getTargetUri();
                         for (int probCnt=0; probCnt < problems.length; probCnt++) {
-                            createProblemMarker(locationPath, locationUri, targetUri, problems[probCnt], iResource);
+                            markerSink.addProblem(iResource, locationPath, locationUri, targetUri, problems[probCnt]);
                         }
                         if(result.isFatalResource()) {
-                            return;
+                            break;
                         }
                     }
                 }
+                if (buildSink == null) {
+                    markerSink.apply(null);
+                }
             } catch (CoreException err) {
                 throw new ModelerCoreException(err);
             }
@@ -207,45 +213,6 @@ public class SimpleXsdResourceValidator implements ResourceValidator {
     //                         P R I V A T E   M E T H O D S
     // ==================================================================================
 
-    /**
-     * Create a marker given a validationProblem
-     */
-    private void createProblemMarker(final String locationPath,
-                                     final String locationUri,
-                                     final String targetUri,
-                                     final ValidationProblem problem,
-                                     final IResource resource) throws CoreException {
-
-        IMarker marker = resource.createMarker(IMarker.PROBLEM);
-        marker.setAttribute(IMarker.LOCATION, locationPath);
-        marker.setAttribute(ModelerCore.MARKER_URI_PROPERTY, locationUri);
-        marker.setAttribute(ModelerCore.TARGET_MARKER_URI_PROPERTY, targetUri);
-        marker.setAttribute(IMarker.MESSAGE, problem.getMessage());
-
-        setMarkerSeverity(marker, problem);
-    }
-
-    /**
-     * Get the set the severity on the marker given the validation problem.
-     */
-    private void setMarkerSeverity(final IMarker marker,
-                                   final ValidationProblem problem) throws CoreException {
-
-        switch(problem.getSeverity()) {
-            case IStatus.ERROR:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                break;
-            case IStatus.WARNING:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-                break;
-            case IStatus.INFO:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
-                break;
-            default:
-                return;
-        }
-    }
-
     private void validateResource(final IProgressMonitor monitor,
                                   final XSDResourceImpl eResource,
                                   final ValidationContext context) {
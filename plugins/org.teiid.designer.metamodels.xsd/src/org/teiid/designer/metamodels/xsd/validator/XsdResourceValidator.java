@@ -17,7 +17,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -36,6 +35,7 @@ import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.ValidationPreferences;
+import org.teiid.designer.core.builder.ProblemMarkerSink;
 import org.teiid.designer.core.builder.ResourceValidator;
 import org.teiid.designer.core.container.ResourceFinder;
 import org.teiid.designer.core.validation.ValidationContext;
@@ -152,6 +152,9 @@ public class XsdResourceValidator implements ResourceValidator {
 	public void addMarkers( final ValidationContext context,
                             final IResource iResource ) throws ModelerCoreException {
         if (context != null && context.hasResults()) {
+            // Add the markers to the sink of the build, or apply them together once all are collected
+            final ProblemMarkerSink buildSink = ProblemMarkerSink.getSink(context);
+            final ProblemMarkerSink markerSink = (buildSink != null ? buildSink : new ProblemMarkerSink());
             final List results = context.getValidationResults();
             try {
                 for (final Iterator iter = results.iterator(); iter.hasNext();) {
@@ -162,13 +165,18 @@ public class XsdResourceValidator implements ResourceValidator {
                         String locationUri = result.getLocationUri();
                         String targetUri = result.getTargetUri();
                         for (int probCnt = 0; probCnt < problems.length; probCnt++) {
-                            createProblemMarker(locationPath, locationUri, targetUri, problems[probCnt], iResource);
+                            final ValidationProblem problem = problems[probCnt];
+                            markerSink.addProblem(iResource, getMarkerSeverity(problem.getSeverity()), locationPath, locationUri,
+                                                  targetUri, problem.getMessage());
                         }
                         if (result.isFatalResource()) {
-                            return;
+                            break;
                         }
                     }
                 }
+                if (buildSink == null) {
+                    markerSink.apply(null);
+                }
             } catch (CoreException err) {
                 throw new ModelerCoreException(err);
             }
@@ -497,24 +505,6 @@ public class XsdResourceValidator implements ResourceValidator {
         }
     }
 
-    /**
-     * Create a marker given a validationProblem
-     */
-    private void createProblemMarker( final String locationPath,
-                                      final String locationUri,
-                                      final String targetUri,
-                                      final ValidationProblem problem,
-                                      final IResource resource ) throws CoreException {
-
-        IMarker marker = resource.createMarker(IMarker.PROBLEM);
-        marker.setAttribute(IMarker.LOCATION, locationPath);
-        marker.setAttribute(ModelerCore.MARKER_URI_PROPERTY, locationUri);
-        marker.setAttribute(ModelerCore.TARGET_MARKER_URI_PROPERTY, targetUri);
-        marker.setAttribute(IMarker.MESSAGE, problem.getMessage());
-
-        setMarkerSeverity(marker, problem.getSeverity());
-    }
-
     /**
      * Get the severity given the XSDDiagnostic.
      */
@@ -533,14 +523,12 @@ public class XsdResourceValidator implements ResourceValidator {
     }
 
     /**
-     * Sets the severity on the specified marker using the specified validation problem severity and the current user preference
-     * setting.
+     * Returns the marker severity of the specified validation problem severity, using the current user preference setting.
      * 
-     * @param marker the marker
      * @param theSeverity the {@link ValidationProblem} severity
+     * @return the marker severity, or null if the marker has none
      */
-    private void setMarkerSeverity( final IMarker marker,
-                                    int theSeverity ) throws CoreException {
+    private Integer getMarkerSeverity( int theSeverity ) {
         // adjust severity if necessary based on what the validate schema user preference is set to
         if (theSeverity > this.prefStatus) {
             do {
@@ -548,19 +536,7 @@ public class XsdResourceValidator implements ResourceValidator {
             } while (theSeverity > this.prefStatus);
         }
 
-        switch (theSeverity) {
-            case IStatus.ERROR:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                break;
-            case IStatus.WARNING:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-                break;
-            case IStatus.INFO:
-                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
-                break;
-            default:
-                return;
-        }
+        return ProblemMarkerSink.getMarkerSeverity(theSeverity);
     }
 
 }
@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+
+package org.teiid.designer.transformation.metadata;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.teiid.designer.core.index.IEntryResult;
+import org.teiid.designer.core.index.Index;
+import org.teiid.designer.core.index.IndexSelector;
+import org.teiid.designer.core.index.SimpleIndexUtil;
+
+/**
+ * A bounded cache of index query results, and of the metadata records built from them, used by {@link TransformationMetadata}.
+ * One cache belongs to each {@link QueryMetadataContext}.
+ * <p>
+ * Results are keyed by the index selector, the index files queried and the query itself. Each result remembers the modification
+ * time and length of the index files it was read from; when a later lookup finds those have changed, the whole cache is dropped,
+ * since the records built from the other results may refer to the changed files too.
+ * </p>
+ * <p>
+ * Cached result arrays are shared between callers and must not be modified. Record collections are copied on the way in and out.
+ * </p>
+ *
+ * @since 8.0
+ */
+public class QueryIndexCache {
+
+    /**
+     * Default maximum number of cached queries
+     */
+    public static final int DEFAULT_SPACELIMIT = 1000;
+
+    private final int maxSize;
+
+    /** Map of query to cache entry, in access order */
+    private final Map<Key, Entry> entries;
+
+    /** Map of cached result array to its entry, used to find the records built from a result array */
+    private final Map<IEntryResult[], Entry> entriesByResults = new IdentityHashMap<IEntryResult[], Entry>();
+
+    private int hitCount;
+    private int missCount;
+    private int invalidationCount;
+
+    public QueryIndexCache() {
+        this(DEFAULT_SPACELIMIT);
+    }
+
+    public QueryIndexCache( final int maxSize ) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Key, Entry>(16, .75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<Key, Entry> eldest ) {
+                if (size() <= QueryIndexCache.this.maxSize) return false;
+                QueryIndexCache.this.entriesByResults.remove(eldest.getValue().results);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Create the key of a query. The modification stamp of the index files is taken at this point, so the key should be created
+     * before the indexes are queried.
+     *
+     * @param selector the index selector the indexes were obtained from
+     * @param indexes the indexes to query
+     * @param pattern the prefix or pattern to query for
+     * @param isPrefix true if the pattern is a prefix
+     * @param isCaseSensitive true if the query is case sensitive
+     * @param returnFirstMatch true if only the results of the first index with matches are wanted
+     * @return the key; never null
+     */
+    public Key createKey( final IndexSelector selector,
+                          final Index[] indexes,
+                          final char[] pattern,
+                          final boolean isPrefix,
+                          final boolean isCaseSensitive,
+                          final boolean returnFirstMatch ) {
+        return createKey(selector, indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch, SimpleIndexUtil.NO_LIMIT);
+    }
+
+    /**
+     * Create the key of a query whose results are limited.
+     *
+     * @param selector the index selector the indexes were obtained from
+     * @param indexes the indexes to query
+     * @param pattern the prefix or pattern to query for
+     * @param isPrefix true if the pattern is a prefix
+     * @param isCaseSensitive true if the query is case sensitive
+     * @param returnFirstMatch true if only the results of the first index with matches are wanted
+     * @param limit the maximum number of results, or {@link SimpleIndexUtil#NO_LIMIT}
+     * @return the key; never null
+     * @see #createKey(IndexSelector, Index[], char[], boolean, boolean, boolean)
+     */
+    public Key createKey( final IndexSelector selector,
+                          final Index[] indexes,
+                          final char[] pattern,
+                          final boolean isPrefix,
+                          final boolean isCaseSensitive,
+                          final boolean returnFirstMatch,
+                          final int limit ) {
+        return new Key(selector, indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch, limit);
+    }
+
+    /**
+     * Return the cached results of the specified query.
+     *
+     * @param key the query key
+     * @return the results, or null if the query is not cached or the index files changed since it was cached
+     */
+    public synchronized IEntryResult[] getResults( final Key key ) {
+        final Entry entry = this.entries.get(key);
+        if (entry == null) {
+            ++this.missCount;
+            return null;
+        }
+        if (entry.stamp != key.stamp) {
+            ++this.invalidationCount;
+            ++this.missCount;
+            clear();
+            return null;
+        }
+        ++this.hitCount;
+        return entry.results;
+    }
+
+    /**
+     * Cache the results of the specified query.
+     *
+     * @param key the query key, created before the indexes were queried
+     * @param results the results; may not be modified afterwards
+     */
+    public synchronized void putResults( final Key key,
+                                         final IEntryResult[] results ) {
+        if (results == null) return;
+        final Entry entry = new Entry(results, key.stamp);
+        final Entry previous = this.entries.put(key, entry);
+        if (previous != null) this.entriesByResults.remove(previous.results);
+        // an empty array may be shared by unrelated queries
+        if (results.length > 0) this.entriesByResults.put(results, entry);
+    }
+
+    /**
+     * Return the metadata records built from a result array returned by {@link #getResults(Key)}.
+     *
+     * @param results the result array
+     * @return a copy of the records, or null if no records were cached for the array
+     */
+    public synchronized Collection getRecords( final IEntryResult[] results ) {
+        final Entry entry = this.entriesByResults.get(results);
+        if (entry == null || entry.records == null) return null;
+        return new ArrayList(entry.records);
+    }
+
+    /**
+     * Cache the metadata records built from a result array. Nothing is cached if the array is not in this cache.
+     *
+     * @param results the result array
+     * @param records the records built from the results
+     */
+    public synchronized void putRecords( final IEntryResult[] results,
+                                         final Collection records ) {
+        final Entry entry = this.entriesByResults.get(results);
+        if (entry != null && records != null) entry.records = new ArrayList(records);
+    }
+
+    /**
+     * Drop all cached queries. The counters are not reset.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.entriesByResults.clear();
+    }
+
+    /**
+     * @return the number of cached queries
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return the number of lookups that found current results
+     */
+    public synchronized int getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * @return the number of lookups that did not find current results
+     */
+    public synchronized int getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * @return the number of times the cache was dropped because index files changed
+     */
+    public synchronized int getInvalidationCount() {
+        return this.invalidationCount;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public synchronized String toString() {
+        return "QueryIndexCache[size=" + this.entries.size() + ", hits=" + this.hitCount + ", misses=" + this.missCount //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+               + ", invalidations=" + this.invalidationCount + ']'; //$NON-NLS-1$
+    }
+
+    /**
+     * The key of a cached query.
+     */
+    public static final class Key {
+        private final IndexSelector selector;
+        private final String pattern;
+        private final String[] indexPaths;
+        private final int flags;
+        private final int limit;
+        private final int hashCode;
+        final long stamp;
+
+        Key( final IndexSelector selector,
+             final Index[] indexes,
+             final char[] pattern,
+             final boolean isPrefix,
+             final boolean isCaseSensitive,
+             final boolean returnFirstMatch,
+             final int limit ) {
+            this.selector = selector;
+            this.pattern = new String(pattern);
+            this.flags = (isPrefix ? 1 : 0) | (isCaseSensitive ? 2 : 0) | (returnFirstMatch ? 4 : 0);
+            this.limit = Math.max(limit, SimpleIndexUtil.NO_LIMIT);
+            this.indexPaths = new String[indexes.length];
+
+            long indexStamp = 0;
+            int hash = (this.pattern.hashCode() * 31 + this.flags) * 31 + this.limit;
+            for (int i = 0; i < indexes.length; i++) {
+                final File file = (indexes[i] == null ? null : indexes[i].getIndexFile());
+                if (file == null) continue;
+                this.indexPaths[i] = file.getPath();
+                hash = hash * 31 + this.indexPaths[i].hashCode();
+                indexStamp = indexStamp * 31 + file.lastModified();
+                indexStamp = indexStamp * 31 + file.length();
+            }
+            this.hashCode = hash;
+            this.stamp = indexStamp;
+        }
+
+        @Override
+        public boolean equals( final Object obj ) {
+            if (obj == this) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key)obj;
+            return this.selector == other.selector && this.flags == other.flags && this.limit == other.limit
+                   && this.pattern.equals(other.pattern)
+                   && Arrays.equals(this.indexPaths, other.indexPaths);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    private static class Entry {
+        final IEntryResult[] results;
+        final long stamp;
+        Collection records;
+
+        Entry( final IEntryResult[] results,
+               final long stamp ) {
+            this.results = results;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -28,6 +28,9 @@ public class QueryMetadataContext {
     // restrict the search to dependent resources
     private boolean restrictedSearch;
 
+    // results of the index queries made using this context
+    private final QueryIndexCache queryIndexCache = new QueryIndexCache();
+
     /** 
      * QueryMetadataContext
      * @param indexSelector The indexSelector to set.
@@ -95,4 +98,14 @@ public class QueryMetadataContext {
     public void setResources(Collection resources) {
         this.eResources = resources;
     }    
+
+    /**
+     * Get the cache of index query results made using this context.
+     * Never null
+     * @return Returns the queryIndexCache.
+     * @since 8.0
+     */
+    public QueryIndexCache getQueryIndexCache() {
+        return this.queryIndexCache;
+    }
 }
\ No newline at end of file
@@ -1470,12 +1470,12 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
     protected Collection findChildRecords(final MetadataRecord parentRecord,
                                           final char childRecordType) throws Exception {
         IEntryResult[] results = queryIndexByParentPath(childRecordType, parentRecord.getFullName());
-        Collection records = findMetadataRecords(results);
+        Collection records = getMetadataRecords(results);
 
         // if uniquekey records are being returned, also return primary key records,
         // as primary keys are unique keys
         if (childRecordType == IndexConstants.RECORD_TYPE.UNIQUE_KEY) {
-            Collection primarKeyRecords = findMetadataRecords(queryIndexByParentPath(IndexConstants.RECORD_TYPE.PRIMARY_KEY,
+            Collection primarKeyRecords = getMetadataRecords(queryIndexByParentPath(IndexConstants.RECORD_TYPE.PRIMARY_KEY,
                                                                                      parentRecord.getFullName()));
             records.addAll(primarKeyRecords);
         }
@@ -1513,12 +1513,12 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
                                                     final char childRecordType,
                                                     final List uuids) throws Exception {
         IEntryResult[] results = queryIndexByParentPath(childRecordType, parentRecord.getFullName());
-        Collection records = findMetadataRecords(results);
+        Collection records = getMetadataRecords(results);
 
         // if uniquekey records are being returned, also return primary key records,
         // as primary keys are unique keys
         if (childRecordType == IndexConstants.RECORD_TYPE.UNIQUE_KEY) {
-            Collection primarKeyRecords = findMetadataRecords(queryIndexByParentPath(IndexConstants.RECORD_TYPE.PRIMARY_KEY,
+            Collection primarKeyRecords = getMetadataRecords(queryIndexByParentPath(IndexConstants.RECORD_TYPE.PRIMARY_KEY,
                                                                                      parentRecord.getFullName()));
             records.addAll(primarKeyRecords);
         }
@@ -1547,12 +1547,12 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
     protected Collection findChildRecordsWithoutFiltering(final MetadataRecord parentRecord,
                                                           final char childRecordType) throws Exception {
         IEntryResult[] results = queryIndexByParentPath(childRecordType, parentRecord.getFullName());
-        Collection records = findMetadataRecords(results);
+        Collection records = getMetadataRecords(results);
 
         // if uniquekey records are being returned, also return primary key records,
         // as primary keys are unique keys
         if (childRecordType == IndexConstants.RECORD_TYPE.UNIQUE_KEY) {
-            Collection primarKeyRecords = findMetadataRecords(queryIndexByParentPath(IndexConstants.RECORD_TYPE.PRIMARY_KEY,
+            Collection primarKeyRecords = getMetadataRecords(queryIndexByParentPath(IndexConstants.RECORD_TYPE.PRIMARY_KEY,
                                                                                      parentRecord.getFullName()));
             records.addAll(primarKeyRecords);
         }
@@ -1573,6 +1573,23 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
         return RecordFactory.getMetadataRecord(results, null);
     }
 
+    /**
+     * Return the metadata records for the specified index query results, reusing the records built the last time the same
+     * results were returned by the context's {@link QueryIndexCache}.
+     * 
+     * @param results the results of an index query
+     * @return a modifiable collection of records
+     */
+    protected Collection getMetadataRecords(final IEntryResult[] results) {
+        final QueryIndexCache cache = getContext().getQueryIndexCache();
+        Collection records = cache.getRecords(results);
+        if (records == null) {
+            records = findMetadataRecords(results);
+            cache.putRecords(results, records);
+        }
+        return records;
+    }
+
     protected MetadataRecord findMetadataRecord(final IEntryResult result) {
         return RecordFactory.getMetadataRecord(result, null);
     }
@@ -1591,7 +1608,7 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
                                              final boolean isPartialName) throws Exception {
 
         IEntryResult[] results = queryIndex(recordType, entityName, isPartialName);
-        Collection records = findMetadataRecords(results);
+        Collection records = getMetadataRecords(results);
 
         if (CoreStringUtil.startsWithIgnoreCase(entityName, UUID.PROTOCOL)) {
             // Filter out ColumnRecord instances that do not match the specified uuid.
@@ -1658,7 +1675,14 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
                                         final char[] pattern,
                                         boolean isPrefix,
                                         boolean returnFirstMatch) throws Exception {
-        return SimpleIndexUtil.queryIndex(indexes, pattern, isPrefix, returnFirstMatch);
+        final QueryIndexCache cache = getContext().getQueryIndexCache();
+        final QueryIndexCache.Key key = cache.createKey(getIndexSelector(), indexes, pattern, isPrefix, true, returnFirstMatch);
+        IEntryResult[] results = cache.getResults(key);
+        if (results == null) {
+            results = SimpleIndexUtil.queryIndex(indexes, pattern, isPrefix, returnFirstMatch);
+            cache.putResults(key, results);
+        }
+        return results;
     }
 
     /**
@@ -1674,7 +1698,33 @@ public abstract class TransformationMetadata implements IQueryMetadataInterface
                                         boolean isPrefix,
                                         boolean isCaseSensitive,
                                         boolean returnFirstMatch) throws Exception {
-        return SimpleIndexUtil.queryIndex(null, indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch);
+        return queryIndex(indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch, SimpleIndexUtil.NO_LIMIT);
+    }
+
+    /**
+     * Return at most <code>limit</code> index file records that match the specified record pattern. The indexes are no longer
+     * read once the limit is reached, so callers that only need to know whether a few records exist can stop early.
+     * 
+     * @param indexes the array of MtkIndex instances to query
+     * @param pattern
+     * @param limit the maximum number of records to return, or {@link SimpleIndexUtil#NO_LIMIT}
+     * @return results
+     * @throws Exception
+     */
+    protected IEntryResult[] queryIndex(final Index[] indexes,
+                                        final char[] pattern,
+                                        boolean isPrefix,
+                                        boolean isCaseSensitive,
+                                        boolean returnFirstMatch,
+                                        int limit) throws Exception {
+        final QueryIndexCache cache = getContext().getQueryIndexCache();
+        final QueryIndexCache.Key key = cache.createKey(getIndexSelector(), indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch, limit);
+        IEntryResult[] results = cache.getResults(key);
+        if (results == null) {
+            results = SimpleIndexUtil.queryIndex(null, indexes, pattern, isPrefix, isCaseSensitive, returnFirstMatch, limit);
+            cache.putResults(key, results);
+        }
+        return results;
     }
 
     // ==================================================================================
@@ -100,7 +100,7 @@ public class VdbMetadata extends ModelerMetadata {
         if (eObjects.isEmpty()) {
             // look up metadata in the index files
             IEntryResult[] results = queryIndex(recordType, entityName, isPartialName);
-            Collection records = findMetadataRecords(results);
+            Collection records = getMetadataRecords(results);
 
             if (CoreStringUtil.startsWithIgnoreCase(entityName, UUID.PROTOCOL)) {
                 // Filter out ColumnRecord instances that do not match the specified uuid.
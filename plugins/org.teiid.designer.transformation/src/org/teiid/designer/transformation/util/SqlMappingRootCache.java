@@ -63,7 +63,7 @@ public class SqlMappingRootCache implements ISQLConstants {
     /**
      * Invalidate the entire cache for all command types and all transformation mappings roots 
      */
-    public static void invalidateCache() {
+    public static synchronized void invalidateCache() {
         getCache(QueryValidator.SELECT_TRNS).clear();
         getCache(QueryValidator.INSERT_TRNS).clear();
         getCache(QueryValidator.UPDATE_TRNS).clear();
@@ -124,7 +124,7 @@ public class SqlMappingRootCache implements ISQLConstants {
     public static void invalidateRootsWithSourceGroups(final Set sourceGroups) {
         // Go thru all the cached select MappingRoots
         
-        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
+        HashMap currentSelectSqlCache = copyCache(QueryValidator.SELECT_TRNS);
 
         Iterator selectIter = currentSelectSqlCache.keySet().iterator();
 
@@ -179,7 +179,7 @@ public class SqlMappingRootCache implements ISQLConstants {
     public static void invalidateRootsWithTargetGroups(final Set groups) {
         // Go thru all the cached select MappingRoots
 
-        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
+        HashMap currentSelectSqlCache = copyCache(QueryValidator.SELECT_TRNS);
         Iterator selectIter = currentSelectSqlCache.keySet().iterator();
         while (selectIter.hasNext()) {
             EObject mappingRoot = (EObject)selectIter.next();
@@ -210,7 +210,7 @@ public class SqlMappingRootCache implements ISQLConstants {
 			}
     		
 	        // Iterate thru all the cached SELECT MappingRoots
-	        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
+	        HashMap currentSelectSqlCache = copyCache(QueryValidator.SELECT_TRNS);
 	        Iterator selectIter = currentSelectSqlCache.keySet().iterator();
 	        while (selectIter.hasNext()) {
 	            EObject mappingRoot = (EObject)selectIter.next();
@@ -231,7 +231,7 @@ public class SqlMappingRootCache implements ISQLConstants {
      */
     public static void invalidateRootsOnProjectOrModelRemove() {
         // Go thru all the cached select MappingRoots
-        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
+        HashMap currentSelectSqlCache = copyCache(QueryValidator.SELECT_TRNS);
 
         Iterator selectIter = currentSelectSqlCache.keySet().iterator();
 
@@ -450,11 +450,10 @@ public class SqlMappingRootCache implements ISQLConstants {
         if(transMappingRoot!=null && TransformationHelper.isSqlTransformationMappingRoot(transMappingRoot)) {
             if(containsStatus((EObject)transMappingRoot,cmdType)) {
                 // get status from the cache
-                HashMap cache = getCache(cmdType);
-                SqlTransformationResult status = (SqlTransformationResult)cache.get(transMappingRoot);
+                SqlTransformationResult status = getCachedStatus((EObject)transMappingRoot,cmdType);
                 
                 // check whether the status is a uuid status or user status when doing comparison
-                String cachedSql = status.getSqlString();
+                String cachedSql = (status != null ? status.getSqlString() : null);
                 // If uuid status, use uuidSql for the comparison
                 isDifferent = TransformationHelper.stringsDifferent(userSql,cachedSql);
             }
@@ -671,7 +670,7 @@ public class SqlMappingRootCache implements ISQLConstants {
      * @param cmdType the command type (SELECT, INSERT, UPDATE, DELETE)
      * @return 'true' if the cache contains a result, 'false' if not.
      */
-    public static boolean containsStatus(final EObject transMappingRoot,final int cmdType) {
+    public static synchronized boolean containsStatus(final EObject transMappingRoot,final int cmdType) {
         HashMap cache = getCache(cmdType);
         return cache.containsKey(transMappingRoot);
     }
@@ -681,7 +680,7 @@ public class SqlMappingRootCache implements ISQLConstants {
      * @param transMappingRoot the mappingRoot 
      * @param cmdType the command type (SELECT, INSERT, UPDATE, DELETE)
      */
-    private static void removeStatus(final EObject transMappingRoot,final int cmdType) {
+    private static synchronized void removeStatus(final EObject transMappingRoot,final int cmdType) {
     	//if( cmdType == QueryValidator.SELECT_TRNS) {
     	//	EObject target = TransformationHelper.getTransformationTarget(transMappingRoot);
     	//	System.out.println(" ===>> SqlMappingRootCache.removeStatus(TYPE=" + cmdType + ")  Target = " + ModelerCore.getModelEditor().getName(target));
@@ -743,13 +742,14 @@ public class SqlMappingRootCache implements ISQLConstants {
      * Add a SELECT status object for a mappingRoot
      */
     public static void setStatus(final EObject transMappingRoot,final int cmdType,final SqlTransformationResult status) {
-        HashMap cache = getCache(cmdType);
         if(status!=null ) {
         	//if( cmdType == QueryValidator.SELECT_TRNS) {
         	//	EObject target = TransformationHelper.getTransformationTarget(transMappingRoot);
         	//	System.out.println(" ===>> SqlMappingRootCache.setStatus(TYPE=" + cmdType + ")  Target = " + ModelerCore.getModelEditor().getName(target));
         	//}
-            cache.put(transMappingRoot,status);
+            synchronized (SqlMappingRootCache.class) {
+                getCache(cmdType).put(transMappingRoot,status);
+            }
             
             notifyEventListeners(new SqlTransformationStatusChangeEvent(transMappingRoot, new Object(), false));
         } else {
@@ -760,8 +760,8 @@ public class SqlMappingRootCache implements ISQLConstants {
     /**
      * Get the SELECT status object (new status is created if not contained in cache)
      */
-    private static synchronized SqlTransformationResult getStatus(final EObject transMappingRoot, final int cmdType, 
-                                                                     final boolean restrictSearch) {
+    private static SqlTransformationResult getStatus(final EObject transMappingRoot, final int cmdType, 
+                                                     final boolean restrictSearch) {
         return getStatus(transMappingRoot, cmdType, restrictSearch, null);
     }
     
@@ -775,29 +775,14 @@ public class SqlMappingRootCache implements ISQLConstants {
      * or if the whole workspace needs to be searched 
      * @param context the ValidationContext to use; may be null
      */
-    private static synchronized SqlTransformationResult getStatus(final EObject transMappingRoot, final int cmdType, 
-                                                                  final boolean restrictSearch,
-                                                                  final ValidationContext context) {
-        SqlTransformationResult statusResult = null;
-
-        // If there's a cached Status, try to use it
-        if(containsStatus(transMappingRoot,cmdType)) {
-            
-            // get status from the cache
-            HashMap cache = getCache(cmdType);
-            SqlTransformationResult status = (SqlTransformationResult)cache.get(transMappingRoot);
-            
-            // If statusType is EITHER, use the cached status
-            // If statusType is USER, check that the cached status is not a UUID Status
-            if(status != null) {
-//                if(statusType==EITHER_STATUS || 
-//                   statusType==USER_STATUS && !status.isUUIDStatus()) {
-                    statusResult = status;
-//                }
-            }
-        }
+    private static SqlTransformationResult getStatus(final EObject transMappingRoot, final int cmdType, 
+                                                     final boolean restrictSearch,
+                                                     final ValidationContext context) {
+        // If there's a cached Status, use it
+        SqlTransformationResult statusResult = getCachedStatus(transMappingRoot,cmdType);
         
-        // If a cached status not found, create it
+        // If a cached status not found, create it.  This is done without holding the cache lock, since
+        // the query may take a while and mapping roots of other models may be validated at the same time
         if(statusResult==null) {
             // Cache doesnt contain status or the status is a UUID status 
             // This does a parse/resolve/validate on the SQL
@@ -813,7 +798,22 @@ public class SqlMappingRootCache implements ISQLConstants {
     }
 
     /**
-     * Get the Cache for the supplied command type
+     * Get the cached status for the supplied MappingRoot and command type
+     * @return the status, or null if none is cached
+     */
+    private static synchronized SqlTransformationResult getCachedStatus(final EObject transMappingRoot,final int cmdType) {
+        return (SqlTransformationResult)getCache(cmdType).get(transMappingRoot);
+    }
+
+    /**
+     * Get a copy of the Cache for the supplied command type, which may be iterated while the cache changes
+     */
+    private static synchronized HashMap copyCache(final int cmdType) {
+        return new HashMap(getCache(cmdType));
+    }
+
+    /**
+     * Get the Cache for the supplied command type.  Access to the caches must be synchronized on this class.
      */
     private static HashMap getCache(final int cmdType) {
         switch (cmdType) {
@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.teiid.core.designer.util.FileUtils;
+
+/**
+ * Extracts entries of VDB archives on demand, remembering which files were extracted from which archive. Archives are identified
+ * by a {@link #computeChecksum(Map) checksum} of their content, so an entry is not extracted again when a VDB is re-opened on an
+ * unchanged archive, or when several VDBs are opened on the same archive and share a folder.
+ * <p>
+ * An extracted file is only reused while its size and modification time are those it had when it was extracted; a file that has
+ * since been replaced, such as by a VDB entry being synchronized with its workspace file, is extracted again.
+ * </p>
+ * <p>
+ * Entries are extracted in batches, opening the archive at most once per batch, and extractions from different archives proceed
+ * concurrently: each archive checksum has its own lock.
+ * </p>
+ *
+ * @since 8.0
+ */
+@ThreadSafe
+final class ArchiveExtractionCache {
+
+    /**
+     * Compute a checksum identifying the content of an archive from its central directory, without reading its entries. Archives
+     * with the same entry names, sizes and CRC-32 checksums have the same checksum.
+     *
+     * @param entries the archive's entries, as returned by {@link ZipArchiveWriter#readEntries(File)}
+     * @return the archive checksum
+     */
+    static long computeChecksum( final Map<String, ZipArchiveWriter.Entry> entries ) {
+        final CRC32 crc = new CRC32();
+        for (final ZipArchiveWriter.Entry entry : entries.values()) {
+            crc.update(entry.nameBytes);
+            update(crc, entry.crc);
+            update(crc, entry.size);
+        }
+        // Combine with the entry count, making it less likely for different archives to have the same checksum
+        return (crc.getValue() << 32) | (entries.size() & 0xFFFFFFFFL);
+    }
+
+    private static void update( final CRC32 crc,
+                                final long value ) {
+        for (int shift = 0; shift < 64; shift += 8)
+            crc.update((int)(value >>> shift) & 0xFF);
+    }
+
+    /**
+     * The size and modification time of each extracted file, by archive checksum. Each map of files is also the lock for
+     * extracting entries of its archive.
+     */
+    private final Map<Long, Map<File, long[]>> extracted = new HashMap<Long, Map<File, long[]>>();
+
+    private final AtomicInteger extractedCount = new AtomicInteger();
+
+    /**
+     * @return the number of entries extracted so far
+     */
+    int getExtractedCount() {
+        return extractedCount.get();
+    }
+
+    /**
+     * Extract an archive entry to a file, unless the file already contains the entry.
+     *
+     * @param archive the archive
+     * @param archiveChecksum the checksum of the archive, as computed by {@link #computeChecksum(Map)} when it was opened
+     * @param entry the archive entry, as read when the archive was opened
+     * @param file the file to extract the entry to
+     * @return <code>true</code> if the entry was extracted, <code>false</code> if the file already contained it
+     * @throws IOException if the entry cannot be extracted, or has changed in the archive since it was opened
+     */
+    boolean extract( final File archive,
+                     final long archiveChecksum,
+                     final ZipArchiveWriter.Entry entry,
+                     final File file ) throws IOException {
+        return extract(archive, archiveChecksum, Collections.singletonMap(entry, file)) > 0;
+    }
+
+    /**
+     * Extract archive entries to files, except those whose file already contains the entry. The archive is opened at most once.
+     *
+     * @param archive the archive
+     * @param archiveChecksum the checksum of the archive, as computed by {@link #computeChecksum(Map)} when it was opened
+     * @param entryFiles the file to extract each archive entry to, by entry as read when the archive was opened
+     * @return the number of entries extracted
+     * @throws IOException if an entry cannot be extracted, or has changed in the archive since it was opened
+     */
+    int extract( final File archive,
+                 final long archiveChecksum,
+                 final Map<ZipArchiveWriter.Entry, File> entryFiles ) throws IOException {
+        final Map<File, long[]> files = getExtractedFiles(archiveChecksum);
+        synchronized (files) {
+            ZipFile zipFile = null;
+            int count = 0;
+            try {
+                for (final Map.Entry<ZipArchiveWriter.Entry, File> entryFile : entryFiles.entrySet()) {
+                    final ZipArchiveWriter.Entry entry = entryFile.getKey();
+                    final File file = entryFile.getValue();
+                    final long[] stamp = files.get(file);
+                    if (stamp != null && stamp[0] == file.length() && stamp[1] == file.lastModified()) continue;
+
+                    if (zipFile == null) zipFile = new ZipFile(archive);
+                    final ZipEntry zipEntry = zipFile.getEntry(entry.name);
+                    // The archive may have been replaced since it was opened
+                    if (zipEntry == null || zipEntry.getCrc() != entry.crc || zipEntry.getSize() != entry.size) {
+                        throw new ZipException(VdbPlugin.UTIL.getString("ArchiveExtractionCache.entryChanged", entry.name, archive)); //$NON-NLS-1$
+                    }
+                    file.getParentFile().mkdirs();
+                    final InputStream in = zipFile.getInputStream(zipEntry);
+                    try {
+                        FileUtils.write(in, file);
+                    } finally {
+                        in.close();
+                    }
+                    files.put(file, new long[] {file.length(), file.lastModified()});
+                    extractedCount.incrementAndGet();
+                    ++count;
+                }
+            } finally {
+                if (zipFile != null) zipFile.close();
+            }
+            return count;
+        }
+    }
+
+    private Map<File, long[]> getExtractedFiles( final long archiveChecksum ) {
+        synchronized (extracted) {
+            Map<File, long[]> files = extracted.get(archiveChecksum);
+            if (files == null) {
+                files = new HashMap<File, long[]>();
+                extracted.put(archiveChecksum, files);
+            }
+            return files;
+        }
+    }
+
+    /**
+     * Forget the files extracted into a folder, such as when the folder is deleted.
+     *
+     * @param folder the folder
+     */
+    void remove( final File folder ) {
+        final String prefix = folder.getPath() + File.separatorChar;
+        synchronized (extracted) {
+            for (final Map<File, long[]> files : extracted.values()) {
+                // The maps are kept even when empty, since an extraction may hold one it has already looked up
+                synchronized (files) {
+                    for (final Iterator<File> iter = files.keySet().iterator(); iter.hasNext();)
+                        if (iter.next().getPath().startsWith(prefix)) iter.remove();
+                }
+            }
+        }
+    }
+}
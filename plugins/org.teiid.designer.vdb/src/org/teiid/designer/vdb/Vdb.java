@@ -10,15 +10,17 @@ package org.teiid.designer.vdb;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -28,7 +30,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
-import java.util.zip.ZipOutputStream;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -47,6 +48,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.teiid.core.designer.CoreModelerPlugin;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.core.designer.util.FileUtils;
 import org.teiid.core.designer.util.OperationUtil;
@@ -85,6 +87,16 @@ public final class Vdb {
     public static final String FILE_EXTENSION_NO_DOT = "vdb"; //$NON-NLS-1$
 
     private static final String MANIFEST = "META-INF/vdb.xml"; //$NON-NLS-1$
+
+    /**
+     * Remembers the entries extracted from archives by every VDB
+     */
+    private static final ArchiveExtractionCache EXTRACTION_CACHE = new ArchiveExtractionCache();
+
+    /**
+     * The checksums of the workspace files of every VDB's entries
+     */
+    static final WorkspaceChecksumCache CHECKSUMS = new WorkspaceChecksumCache(Runtime.getRuntime().availableProcessors());
     
     private static final int DEFAULT_TIMEOUT = 0;
 
@@ -122,6 +134,12 @@ public final class Vdb {
     final IFile file;
 
     private final File folder;
+    private final AtomicReference<Archive> archive = new AtomicReference<Archive>(Archive.EMPTY);
+    /**
+     * The names of the entries whose file in the VDB folder is a snapshot of the workspace file rather than extracted from the
+     * archive
+     */
+    private final Set<String> snapshots = Collections.synchronizedSet(new HashSet<String>());
     final CopyOnWriteArraySet<VdbEntry> entries = new CopyOnWriteArraySet<VdbEntry>();
     final CopyOnWriteArraySet<VdbModelEntry> modelEntries = new CopyOnWriteArraySet<VdbModelEntry>();
     final CopyOnWriteArraySet<VdbDataRole> dataPolicyEntries = new CopyOnWriteArraySet<VdbDataRole>();
@@ -170,7 +188,7 @@ public final class Vdb {
 
         OperationUtil.perform(new Unreliable() {
 
-            ZipFile archive = null;
+            ZipFile zipFile = null;
             InputStream entryStream = null;
 
             @Override
@@ -180,57 +198,62 @@ public final class Vdb {
             @Override
             public void finallyDo() throws Exception {
                 if (entryStream != null) entryStream.close();
-                if (archive != null) archive.close();
+                if (zipFile != null) zipFile.close();
             }
 
             @Override
             public void tryToDo() throws Exception {
-                archive = new ZipFile(file.getLocation().toString());
-                for (final Enumeration<? extends ZipEntry> iter = archive.entries(); iter.hasMoreElements();) {
-                    final ZipEntry zipEntry = iter.nextElement();
-                    entryStream = archive.getInputStream(zipEntry);
-                    if (zipEntry.getName().equals(MANIFEST)) {
-                        // Initialize using manifest
-                        final Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
-                        unmarshaller.setSchema(getManifestSchema());
-                        final VdbElement manifest = (VdbElement)unmarshaller.unmarshal(entryStream);
-                        setDescription(manifest.getDescription());
-                        vdbVersion[0] = manifest.getVersion();
-                        // VDB properties
-                        for (final PropertyElement property : manifest.getProperties()) {
-                            final String name = property.getName();
-                            if (Xml.PREVIEW.equals(name)) {
-                            	previewable[0] = Boolean.parseBoolean(property.getValue());
-                                // The stored timeout is in milliseconds. We are converting to seconds for display in Designer
-                            } else if (Xml.QUERY_TIMEOUT.equals(name)) { 
-                                int timeoutMillis = Integer.parseInt(property.getValue());
-                                if (timeoutMillis > 0) {
-                                    queryTimeout[0] = timeoutMillis / 1000;
-                                }
-                            } else assert false;
-                        }
-                        for (final EntryElement element : manifest.getEntries())
-                            entries.add(new VdbEntry(Vdb.this, element, monitor));
-                        for (final ModelElement element : manifest.getModels())
-                            modelEntries.add(new VdbModelEntry(Vdb.this, element, monitor));
-                        // Initialize model entry imports only after all model entries have been created
-                        for (final VdbModelEntry entry : modelEntries)
-                            entry.initializeImports();
-                        
-                        // Vdb Import entries
-                        for (final ImportVdbElement element : manifest.getImportVdbEntries()) {
-                        	importModelEntries.add(new VdbImportVdbEntry(Vdb.this, element));
-                        }
-                        
-                        // load translator overrides
-                        for (final TranslatorElement translatorElement : manifest.getTranslators()) {
-                            translatorOverrides.add(new TranslatorOverride(Vdb.this, translatorElement));
-                        }
-
-                        for (final DataRoleElement element : manifest.getDataPolicies()) {
-                            dataPolicyEntries.add(new VdbDataRole(Vdb.this, element));
-                        }
-                    } else FileUtils.copy(entryStream, new File(getFolder(), zipEntry.getName()));
+                // Only the manifest is read now; other entries are extracted when first needed
+                final File archiveFile = file.getLocation().toFile();
+                zipFile = new ZipFile(archiveFile);
+                archive.set(new Archive(archiveFile, ZipArchiveWriter.readEntries(zipFile)));
+                final ZipEntry zipEntry = zipFile.getEntry(MANIFEST);
+                if (zipEntry != null) {
+                    entryStream = zipFile.getInputStream(zipEntry);
+                    // Initialize using manifest
+                    final Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
+                    unmarshaller.setSchema(getManifestSchema());
+                    final VdbElement manifest = (VdbElement)unmarshaller.unmarshal(entryStream);
+                    setDescription(manifest.getDescription());
+                    vdbVersion[0] = manifest.getVersion();
+                    // VDB properties
+                    for (final PropertyElement property : manifest.getProperties()) {
+                        final String name = property.getName();
+                        if (Xml.PREVIEW.equals(name)) {
+                        	previewable[0] = Boolean.parseBoolean(property.getValue());
+                            // The stored timeout is in milliseconds. We are converting to seconds for display in Designer
+                        } else if (Xml.QUERY_TIMEOUT.equals(name)) { 
+                            int timeoutMillis = Integer.parseInt(property.getValue());
+                            if (timeoutMillis > 0) {
+                                queryTimeout[0] = timeoutMillis / 1000;
+                            }
+                        } else assert false;
+                    }
+                    // Compute the checksums of the entries' workspace files all at once, before each entry compares them to its own
+                    final Collection<EntryElement> elements = new ArrayList<EntryElement>(manifest.getEntries());
+                    elements.addAll(manifest.getModels());
+                    computeChecksums(elements);
+                    for (final EntryElement element : manifest.getEntries())
+                        entries.add(new VdbEntry(Vdb.this, element, monitor));
+                    for (final ModelElement element : manifest.getModels())
+                        modelEntries.add(new VdbModelEntry(Vdb.this, element, monitor));
+                    // Initialize model entry imports only after all model entries have been created
+                    for (final VdbModelEntry entry : modelEntries)
+                        entry.initializeImports();
+                    
+                    // Vdb Import entries
+                    for (final ImportVdbElement element : manifest.getImportVdbEntries()) {
+                    	importModelEntries.add(new VdbImportVdbEntry(Vdb.this, element));
+                    }
+                    
+                    // load translator overrides
+                    for (final TranslatorElement translatorElement : manifest.getTranslators()) {
+                        translatorOverrides.add(new TranslatorOverride(Vdb.this, translatorElement));
+                    }
+
+                    for (final DataRoleElement element : manifest.getDataPolicies()) {
+                        dataPolicyEntries.add(new VdbDataRole(Vdb.this, element));
+                    }
                 }
                 modified.set(false);
             }
@@ -352,7 +375,10 @@ public final class Vdb {
         listeners.clear();
         description.set(StringUtilities.EMPTY_STRING);
         // Clean up state folder
-        FileUtils.removeDirectoryAndChildren(VdbPlugin.singleton().getStateLocation().append(file.getFullPath().segment(0)).toFile());
+        final File projectFolder = VdbPlugin.singleton().getStateLocation().append(file.getFullPath().segment(0)).toFile();
+        FileUtils.removeDirectoryAndChildren(projectFolder);
+        EXTRACTION_CACHE.remove(projectFolder);
+        snapshots.clear();
         // Mark VDB as unmodified
         if (isModified()) modified.set(false);
         // Notify change listeners VDB is closed
@@ -391,6 +417,84 @@ public final class Vdb {
         return folder;
     }
 
+    /**
+     * Get the file in this VDB's folder with the content of an entry, extracting the entry from the archive the first time it is
+     * needed. The file is either a snapshot of the entry's workspace file, copied when the entry was last synchronized, or the
+     * entry as it was in the archive.
+     * 
+     * @param zipName the name of the entry within the archive
+     * @return the file; it does not exist if the entry was neither synchronized nor in the archive
+     */
+    final File getEntryFile( final String zipName ) {
+        return getEntryFiles(Collections.singletonList(zipName)).get(0);
+    }
+
+    /**
+     * Get the files in this VDB's folder with the content of several entries, as {@link #getEntryFile(String)} does, extracting
+     * the entries that are needed with the archive opened only once.
+     * 
+     * @param zipNames the names of the entries within the archive
+     * @return the files, in the order of the names
+     */
+    private List<File> getEntryFiles( final Collection<String> zipNames ) {
+        final List<File> entryFiles = new ArrayList<File>(zipNames.size());
+        final Archive archive = this.archive.get();
+        final Map<ZipArchiveWriter.Entry, File> toExtract = new LinkedHashMap<ZipArchiveWriter.Entry, File>();
+        for (final String zipName : zipNames) {
+            final File entryFile = new File(folder, zipName);
+            entryFiles.add(entryFile);
+            if (snapshots.contains(zipName)) continue;
+            final ZipArchiveWriter.Entry entry = archive.entries.get(zipName);
+            if (entry != null) toExtract.put(entry, entryFile);
+        }
+        if (!toExtract.isEmpty()) {
+            try {
+                EXTRACTION_CACHE.extract(archive.file, archive.checksum, toExtract);
+            } catch (final IOException error) {
+                throw CoreModelerPlugin.toRuntimeException(error);
+            }
+        }
+        return entryFiles;
+    }
+
+    /**
+     * Record that an entry's file in this VDB's folder has been replaced by a snapshot of its workspace file.
+     * 
+     * @param zipName the name of the entry within the archive
+     */
+    final void snapshotTaken( final String zipName ) {
+        snapshots.add(zipName);
+    }
+
+    /**
+     * @param zipName the name of the entry within the archive
+     */
+    final void deleteEntryFile( final String zipName ) {
+        snapshots.remove(zipName);
+        new File(folder, zipName).delete();
+    }
+
+    /**
+     * Save an entry to an archive. An entry that has not been synchronized since this VDB was opened or last saved is copied from
+     * the current archive without even being extracted.
+     * 
+     * @param out
+     * @param zipName the name of the entry within the archive
+     * @param comment
+     * @param checksum the CRC-32 checksum of the entry's file, or <code>null</code> if it is not known
+     * @throws IOException if the entry cannot be written
+     */
+    final void saveEntry( final ZipArchiveWriter out,
+                          final String zipName,
+                          final String comment,
+                          final Long checksum ) throws IOException {
+        if (!snapshots.contains(zipName)) {
+            final ZipArchiveWriter.Entry entry = archive.get().entries.get(zipName);
+            if (entry != null && out.copyEntry(zipName, comment, entry.crc, entry.size)) return;
+        }
+        out.putFile(zipName, comment, getEntryFile(zipName), checksum);
+    }
+
     JAXBContext getJaxbContext() throws JAXBException {
         return JAXBContext.newInstance(new Class<?>[] { VdbElement.class });
     }
@@ -425,14 +529,13 @@ public final class Vdb {
      * @return the immutable list of model files within this VDB
      */
     public final Collection<File> getModelFiles() {
-        final Collection<File> modelFiles = new ArrayList<File>();
+        final Collection<String> zipNames = new ArrayList<String>();
 
         for (VdbModelEntry modelEntry : getModelEntries()) {
-            IPath modelPath = new Path(folder.getAbsolutePath() + modelEntry.getName());
-            modelFiles.add(modelPath.toFile());
+            zipNames.add(modelEntry.getZipName());
         }
 
-        return Collections.unmodifiableCollection(modelFiles);
+        return Collections.unmodifiableCollection(getEntryFiles(zipNames));
     }
 
     /**
@@ -649,7 +752,9 @@ public final class Vdb {
     }
     
     /**
-     * Must not be called unless this VDB has been {@link #isModified() modified}
+     * Must not be called unless this VDB has been {@link #isModified() modified}. Entries whose content has not changed since
+     * the archive was last saved are copied from it without being compressed again; only changed entries, their indexes and the
+     * manifest are compressed.
      * 
      * @param monitor
      */
@@ -660,7 +765,7 @@ public final class Vdb {
         final File tmpFolder = VdbPlugin.singleton().getStateLocation().toFile();
         OperationUtil.perform(new Unreliable() {
 
-            ZipOutputStream out = null;
+            ZipArchiveWriter out = null;
 
             @Override
             public void doIfFails() {
@@ -678,16 +783,16 @@ public final class Vdb {
                                                             '.' + path.getFileExtension(),
                                                             tmpFolder);
                 tmpArchive.getParentFile().mkdirs();
-                out = new ZipOutputStream(new FileOutputStream(tmpArchive));
+                final File archiveFile = ModelerCore.getWorkspace().getRoot().findMember(getName()).getLocation().toFile();
+                // Unchanged entries are copied from the current archive
+                out = new ZipArchiveWriter(tmpArchive, archiveFile);
                 // Create VDB manifest
-                final ZipEntry zipEntry = new ZipEntry(MANIFEST);
-                zipEntry.setComment(getDescription());
-                out.putNextEntry(zipEntry);
+                final OutputStream manifestOut = out.putNextEntry(MANIFEST, getDescription(), System.currentTimeMillis());
                 try {
                     final Marshaller marshaller = getJaxbContext().createMarshaller();
                     marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
                     marshaller.setSchema(getManifestSchema());
-                    marshaller.marshal(vdbElement, out);
+                    marshaller.marshal(vdbElement, manifestOut);
                 } finally {
                     out.closeEntry();
                 }
@@ -701,14 +806,21 @@ public final class Vdb {
                 for (final VdbModelEntry entry : modelEntries)
                     entry.save(out, monitor);
 
-                // Close zip output stream so its fully writen and any locks are removed.
+                // Close archives so the new one is fully written and any locks on the current one are removed.
+                out.finish();
                 out.close();
                 out = null;
                 // Replace archive in workspace with temporary archive
-                final File archiveFile = ModelerCore.getWorkspace().getRoot().findMember(getName()).getLocation().toFile();
                 if (!archiveFile.delete()) throw new RuntimeException(VdbPlugin.UTIL.getString("unableToDelete", archiveFile)); //$NON-NLS-1$
                 if (!tmpArchive.renameTo(archiveFile)) throw new RuntimeException(
                                                                                   VdbPlugin.UTIL.getString("unableToRename", tmpArchive, archiveFile)); //$NON-NLS-1$
+                // Entries not yet extracted are now extracted from the new archive
+                final ZipFile zipFile = new ZipFile(archiveFile);
+                try {
+                    archive.set(new Archive(archiveFile, ZipArchiveWriter.readEntries(zipFile)));
+                } finally {
+                    zipFile.close();
+                }
                 // Mark as unmodified
                 if (isModified()) modified.set(false);
                 // Notify change listeners
@@ -748,10 +860,27 @@ public final class Vdb {
 
     private final void synchronize( final Collection<VdbEntry> entries,
                                     final IProgressMonitor monitor ) {
+        // Entries must be synchronized one at a time, but the checksums of their workspace files can be computed all at once
+        final Collection<IFile> files = new ArrayList<IFile>(entries.size());
+        for (final VdbEntry entry : entries)
+            if (entry.getSynchronization() == Synchronization.NotSynchronized) {
+                final IFile workspaceFile = entry.findFileInWorkspace();
+                if (workspaceFile != null) files.add(workspaceFile);
+            }
+        CHECKSUMS.computeChecksums(files);
         for (final VdbEntry entry : entries)
             if (entry.getSynchronization() == Synchronization.NotSynchronized) entry.synchronize(monitor);
     }
 
+    private static void computeChecksums( final Collection<EntryElement> elements ) {
+        final Collection<IFile> files = new ArrayList<IFile>(elements.size());
+        for (final EntryElement element : elements) {
+            final IResource resource = ModelerCore.getWorkspace().getRoot().findMember(Path.fromPortableString(element.getPath()));
+            if (resource instanceof IFile) files.add((IFile)resource);
+        }
+        CHECKSUMS.computeChecksums(files);
+    }
+
     /**
      * @param monitor
      */
@@ -958,4 +1087,22 @@ public final class Vdb {
          */
         public static final String QUERY_TIMEOUT = "query-timeout"; //$NON-NLS-1$
     }
+
+    /**
+     * The archive a VDB was opened from or last saved to, with the entries it had at the time
+     */
+    private static final class Archive {
+        static final Archive EMPTY = new Archive(null, Collections.<String, ZipArchiveWriter.Entry>emptyMap());
+
+        final File file;
+        final Map<String, ZipArchiveWriter.Entry> entries;
+        final long checksum;
+
+        Archive( final File file,
+                 final Map<String, ZipArchiveWriter.Entry> entries ) {
+            this.file = file;
+            this.entries = entries;
+            this.checksum = ArchiveExtractionCache.computeChecksum(entries);
+        }
+    }
 }
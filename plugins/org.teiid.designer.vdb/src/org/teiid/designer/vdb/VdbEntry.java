@@ -13,12 +13,9 @@ import static org.teiid.designer.vdb.Vdb.Event.ENTRY_SYNCHRONIZATION;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import net.jcip.annotations.ThreadSafe;
 
@@ -28,10 +25,8 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.teiid.core.designer.CoreModelerPlugin;
-import org.teiid.core.designer.util.ChecksumUtil;
 import org.teiid.core.designer.util.FileUtils;
 import org.teiid.core.designer.util.OperationUtil;
-import org.teiid.core.designer.util.ZipUtil;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.util.StringUtilities;
 import org.teiid.designer.vdb.manifest.EntryElement;
@@ -103,29 +98,26 @@ public class VdbEntry {
     private long computeChecksum( final IFile file ) {
         return OperationUtil.perform(new OperationUtil.ReturningUnreliable<Long>() {
 
-            private InputStream stream = null;
-
             @Override
             public void doIfFails() {
                 setSynchronization(Synchronization.NotSynchronized);
             }
 
             @Override
-            public void finallyDo() throws Exception {
-                if (stream != null) stream.close();
+            public void finallyDo() {
             }
 
             @Override
             public Long tryToDo() throws Exception {
-                stream = file.getContents();
-                return ChecksumUtil.computeChecksum(stream).getValue();
+                // Not read again unless it has changed since its checksum was last computed
+                return Vdb.CHECKSUMS.getChecksum(file);
             }
         });
     }
 
     void dispose() {
 //        ModelerCore.getWorkspace().removeResourceChangeListener(fileListener);
-        new File(vdb.getFolder(), name.toString()).delete();
+        vdb.deleteEntryFile(getZipName());
     }
 
     /**
@@ -212,6 +204,19 @@ public class VdbEntry {
         return synchronization.get();
     }
 
+    /**
+     * @return the name of this entry within the VDB archive
+     */
+    final String getZipName() {
+    	String zipName = name.toString();
+    	// Need to strip off the leading delimeter if it exists, else a "jar" extract command will result in models
+    	// being located at the file system "root" folder.
+    	if( zipName.startsWith("/") ) { //$NON-NLS-1$
+    		zipName = zipName.substring(1, zipName.length());
+    	}
+    	return zipName;
+    }
+
     /**
      * @return the VDB containing this entry
      */
@@ -229,30 +234,33 @@ public class VdbEntry {
         return hashcode;
     }
 
-    void save( final ZipOutputStream out,
+    void save( final ZipArchiveWriter out,
                final IProgressMonitor monitor ) {
-    	String zipName = name.toString();
-    	// Need to strip off the leading delimeter if it exists, else a "jar" extract command will result in models
-    	// being located at the file system "root" folder.
-    	if( zipName.startsWith("/") ) { //$NON-NLS-1$
-    		zipName = zipName.substring(1, zipName.length());
-    	}
-        final ZipEntry zipEntry = new ZipEntry(zipName);
-        zipEntry.setComment(description.get());
-        save(out, zipEntry, new File(vdb.getFolder(), name.toString()), monitor);
+        // The snapshot in the VDB folder was copied when the checksum was computed, so it has the same content
+        final long checksum = getChecksum();
+        save(out, getZipName(), description.get(), checksum == 0L ? null : checksum, monitor);
     }
 
     /**
+     * Save a file of the VDB folder to the archive. The file is copied from the previous archive without being compressed again,
+     * or even extracted, if its content has not changed.
+     * 
      * @param out
-     * @param zipEntry
-     * @param file
+     * @param zipName
+     * @param comment
+     * @param checksum the CRC-32 checksum of the file, or <code>null</code> if it is not known
      * @param monitor
      */
-    protected final void save( final ZipOutputStream out,
-                               final ZipEntry zipEntry,
-                               final File file,
-                               final IProgressMonitor monitor ) {
-        ZipUtil.copy(file, zipEntry, out);
+    final void save( final ZipArchiveWriter out,
+                     final String zipName,
+                     final String comment,
+                     final Long checksum,
+                     final IProgressMonitor monitor ) {
+        try {
+            vdb.saveEntry(out, zipName, comment, checksum);
+        } catch (final IOException error) {
+            throw CoreModelerPlugin.toRuntimeException(error);
+        }
     }
 
     /**
@@ -297,8 +305,9 @@ public class VdbEntry {
             // Copy snapshot of workspace file to VDB folder
             try {
                 FileUtils.copy(workspaceFile.getLocation().toFile(),
-                               new File(vdb.getFolder(), name.toString()).getParentFile(),
+                               new File(vdb.getFolder(), getZipName()).getParentFile(),
                                true);
+                vdb.snapshotTaken(getZipName());
             } catch (final IOException error) {
                 throw CoreModelerPlugin.toRuntimeException(error);
             }
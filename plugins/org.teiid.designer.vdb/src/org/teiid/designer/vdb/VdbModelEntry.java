@@ -23,8 +23,6 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import net.jcip.annotations.ThreadSafe;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -197,7 +195,7 @@ public final class VdbModelEntry extends VdbEntry {
             if (entry.isBuiltIn()) entry.dispose();
         }
         imports.clear();
-        getIndexFile().delete();
+        getVdb().deleteEntryFile(getIndexZipName());
     }
 
     /**
@@ -280,8 +278,8 @@ public final class VdbModelEntry extends VdbEntry {
     }
 
 
-    private File getIndexFile() {
-        return new File(getVdb().getFolder(), INDEX_FOLDER + indexName);
+    private String getIndexZipName() {
+        return INDEX_FOLDER + indexName;
     }
 
     /**
@@ -361,14 +359,14 @@ public final class VdbModelEntry extends VdbEntry {
     /**
      * {@inheritDoc}
      * 
-     * @see org.teiid.designer.vdb.VdbEntry#save(java.util.zip.ZipOutputStream, org.eclipse.core.runtime.IProgressMonitor)
+     * @see org.teiid.designer.vdb.VdbEntry#save(org.teiid.designer.vdb.ZipArchiveWriter, org.eclipse.core.runtime.IProgressMonitor)
      */
     @Override
-    final void save( final ZipOutputStream out,
+    final void save( final ZipArchiveWriter out,
                      final IProgressMonitor monitor ) {
         super.save(out, monitor);
         // Save model index
-        save(out, new ZipEntry(INDEX_FOLDER + indexName), getIndexFile(), monitor);
+        save(out, getIndexZipName(), null, null, monitor);
 
         if (!getVdb().isPreview()) {
             try {
@@ -590,7 +588,8 @@ public final class VdbModelEntry extends VdbEntry {
             // Copy snapshot of workspace file index to VDB folder
             // TODO: If index name of workspace file can change (?), we have to delete the old index and update our index name
             final Index index = IndexUtil.getIndexFile(indexName, IndexUtil.INDEX_PATH + indexName, getName().lastSegment());
-            FileUtils.copy(index.getIndexFile(), getIndexFile().getParentFile(), true);
+            FileUtils.copy(index.getIndexFile(), new File(getVdb().getFolder(), getIndexZipName()).getParentFile(), true);
+            getVdb().snapshotTaken(getIndexZipName());
         } catch (final Exception error) {
             throw CoreModelerPlugin.toRuntimeException(error);
         }
@@ -1,10 +1,12 @@
 package org.teiid.designer.vdb;
 
 import java.util.ResourceBundle;
+import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.runtime.Plugin;
 import org.osgi.framework.BundleContext;
 import org.teiid.core.designer.PluginUtil;
 import org.teiid.core.designer.util.PluginUtilImpl;
+import org.teiid.designer.core.ModelerCore;
 
 
 /**
@@ -48,6 +50,7 @@ public class VdbPlugin extends Plugin {
         super.start(context);
         singleton = this;
         ((PluginUtilImpl)UTIL).initializePlatformLogger(this);
+        ModelerCore.getWorkspace().addResourceChangeListener(Vdb.CHECKSUMS, IResourceChangeEvent.POST_CHANGE);
     }
 
     /**
@@ -57,6 +60,7 @@ public class VdbPlugin extends Plugin {
      */
     @Override
     public void stop( final BundleContext context ) throws Exception {
+        ModelerCore.getWorkspace().removeResourceChangeListener(Vdb.CHECKSUMS);
         singleton = null;
         super.stop(context);
     }
@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.teiid.core.designer.util.ChecksumUtil;
+
+/**
+ * Caches the CRC-32 checksums of workspace files by the files' modification stamps, so files that have not changed since their
+ * checksum was computed are never read again. Both the workspace modification stamp and the local time stamp must match, so
+ * changes made through the workspace and changes made outside of it, once refreshed, are noticed.
+ * <p>
+ * The checksums of many files can be {@link #computeChecksums(Collection) computed in parallel} before they are requested one at
+ * a time, such as when a VDB is opened or synchronized. The threads are shared by every request and stop when they have been idle
+ * for a while.
+ * </p>
+ * <p>
+ * Registered as a workspace {@link IResourceChangeListener}, the cache forgets the checksums of files that are deleted or moved,
+ * or whose project is closed.
+ * </p>
+ *
+ * @since 8.0
+ */
+@ThreadSafe
+final class WorkspaceChecksumCache implements IResourceChangeListener {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * The modification stamp, local time stamp and checksum of each file, by workspace path
+     */
+    private final ConcurrentMap<IPath, long[]> checksums = new ConcurrentHashMap<IPath, long[]>();
+
+    private final int threadCount;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param threadCount the maximum number of files whose checksum is computed concurrently
+     */
+    WorkspaceChecksumCache( final int threadCount ) {
+        this.threadCount = threadCount;
+        executor = new ThreadPoolExecutor(Math.max(1, threadCount), Math.max(1, threadCount), THREAD_KEEP_ALIVE_SECONDS,
+                                          TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                                              @Override
+                                              public Thread newThread( final Runnable runnable ) {
+                                                  final Thread thread = new Thread(runnable,
+                                                                                   "VDB Checksum " + THREAD_COUNTER.incrementAndGet()); //$NON-NLS-1$
+                                                  thread.setDaemon(true);
+                                                  return thread;
+                                              }
+                                          });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param file the workspace file
+     * @return the checksum of the file's contents
+     * @throws Exception if the file cannot be read
+     */
+    long getChecksum( final IFile file ) throws Exception {
+        // The stamps are read first, so a change made while the file is read makes the cached checksum stale
+        final long modificationStamp = file.getModificationStamp();
+        final long localTimeStamp = file.getLocalTimeStamp();
+        final IPath path = file.getFullPath();
+        if (path == null || modificationStamp == IResource.NULL_STAMP) return computeChecksum(file);
+        final long[] cached = checksums.get(path);
+        if (cached != null && cached[0] == modificationStamp && cached[1] == localTimeStamp) return cached[2];
+
+        final long checksum = computeChecksum(file);
+        checksums.put(path, new long[] {modificationStamp, localTimeStamp, checksum});
+        return checksum;
+    }
+
+    /**
+     * @param file the workspace file
+     * @return <code>true</code> if the file's checksum is cached and the file has not changed since
+     */
+    boolean isCached( final IFile file ) {
+        final IPath path = file.getFullPath();
+        final long[] cached = (path == null ? null : checksums.get(path));
+        return cached != null && cached[0] == file.getModificationStamp() && cached[1] == file.getLocalTimeStamp();
+    }
+
+    /**
+     * Compute the checksums of files that are not cached, in parallel. Nothing is done when fewer than two files are not cached,
+     * since there is nothing to gain from computing their checksums before they are {@link #getChecksum(IFile) requested}.
+     * Files that cannot be read are skipped; the error is left to be reported when their checksum is requested.
+     *
+     * @param files the workspace files
+     */
+    void computeChecksums( final Collection<IFile> files ) {
+        final List<IFile> staleFiles = new ArrayList<IFile>(files.size());
+        for (final IFile file : files)
+            if (!isCached(file)) staleFiles.add(file);
+        if (staleFiles.size() < 2 || threadCount < 2) return;
+
+        final List<Future<Long>> futures = new ArrayList<Future<Long>>(staleFiles.size());
+        try {
+            for (final IFile file : staleFiles) {
+                futures.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        return getChecksum(file);
+                    }
+                }));
+            }
+            for (final Future<Long> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException error) {
+                    // Reported when the checksum is requested
+                }
+            }
+        } catch (final InterruptedException error) {
+            Thread.currentThread().interrupt();
+            for (final Future<Long> future : futures)
+                future.cancel(true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+     */
+    @Override
+    public void resourceChanged( final IResourceChangeEvent event ) {
+        final IResourceDelta rootDelta = event.getDelta();
+        if (rootDelta == null || checksums.isEmpty()) return;
+        try {
+            rootDelta.accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit( final IResourceDelta delta ) {
+                    return processResourceDelta(delta);
+                }
+            });
+        } catch (final CoreException error) {
+            VdbPlugin.UTIL.log(error);
+        }
+    }
+
+    /**
+     * @param delta the change to one resource
+     * @return <code>true</code> if the changes to the resource's members should be visited
+     */
+    boolean processResourceDelta( final IResourceDelta delta ) {
+        final IResource resource = delta.getResource();
+        if (delta.getKind() == IResourceDelta.REMOVED) {
+            removeAll(resource.getFullPath());
+            return false;
+        }
+        if (resource.getType() == IResource.PROJECT && (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+            // opened or closed
+            removeAll(resource.getFullPath());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Forget the checksum of the file with the supplied path, or of every file under the folder or project with that path.
+     * 
+     * @param path the workspace path
+     */
+    void removeAll( final IPath path ) {
+        if (checksums.remove(path) != null) return;
+        for (final IPath knownPath : checksums.keySet())
+            if (path.isPrefixOf(knownPath)) checksums.remove(knownPath);
+    }
+
+    /**
+     * @return the number of files whose checksum is cached
+     */
+    int size() {
+        return checksums.size();
+    }
+
+    private static long computeChecksum( final IFile file ) throws Exception {
+        final IPath location = file.getLocation();
+        if (location != null) {
+            final File localFile = location.toFile();
+            if (localFile.isFile()) return ChecksumUtil.computeChecksum(localFile);
+        }
+        // Not a local file, so read through the workspace
+        return ChecksumUtil.computeChecksum(file.getContents()).getValue();
+    }
+}
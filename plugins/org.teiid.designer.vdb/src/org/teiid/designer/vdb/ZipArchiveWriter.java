@@ -0,0 +1,567 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import org.teiid.core.designer.util.ChecksumUtil;
+
+/**
+ * Writes a zip archive that is an updated copy of an existing archive. Entries whose content has not changed are copied from the
+ * existing archive as they are, without being decompressed and compressed again; all other entries are compressed as usual.
+ * <p>
+ * An entry is only copied when the existing archive has an entry of the same name, size and CRC-32 checksum. Callers that already
+ * know the checksum of an entry's content, such as a {@link VdbEntry}, pass it in; otherwise it is computed, which is still much
+ * cheaper than compressing the content. Comments are not part of the comparison, so a changed comment never forces compression.
+ * </p>
+ * <p>
+ * The archives are plain zip files, readable by {@link java.util.zip.ZipFile}. Archives needing the zip64 extensions are not
+ * supported: an existing archive that uses them is treated as empty, and writing one fails.
+ * </p>
+ *
+ * @since 8.0
+ */
+final class ZipArchiveWriter {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int CENTRAL_HEADER_LENGTH = 46;
+    private static final int END_LENGTH = 22;
+
+    private static final int VERSION = 20;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final long MAX_VALUE_32 = 0xFFFFFFFFL;
+    private static final int MAX_VALUE_16 = 0xFFFF;
+
+    private static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * An entry of the central directory of an archive.
+     */
+    static final class Entry {
+        final String name;
+        final byte[] nameBytes;
+        int versionNeeded = VERSION;
+        int flags;
+        int method = METHOD_DEFLATED;
+        long dosTime;
+        long crc;
+        long compressedSize;
+        long size;
+        long offset;
+        byte[] comment;
+
+        Entry( final String name,
+               final byte[] nameBytes ) {
+            this.name = name;
+            this.nameBytes = nameBytes;
+        }
+    }
+
+    /**
+     * Read the central directory of an existing archive.
+     *
+     * @param archive the archive
+     * @return the archive's entries by name, in archive order
+     * @throws IOException if the archive cannot be read, is not a zip file, or uses zip64 extensions
+     */
+    static Map<String, Entry> readEntries( final File archive ) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(archive, "r"); //$NON-NLS-1$
+        try {
+            return readEntries(file);
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Read the names, sizes and checksums of the entries of an archive opened by {@link ZipFile}, which, unlike
+     * {@link #readEntries(File)}, supports the zip64 extensions. Directories are skipped.
+     *
+     * @param archive the archive
+     * @return the archive's entries by name, in archive order
+     * @throws IOException if the entry names cannot be encoded
+     */
+    static Map<String, Entry> readEntries( final ZipFile archive ) throws IOException {
+        final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(archive.size() * 4 / 3 + 1);
+        for (final Enumeration<? extends ZipEntry> iter = archive.entries(); iter.hasMoreElements();) {
+            final ZipEntry zipEntry = iter.nextElement();
+            if (zipEntry.isDirectory()) continue;
+            final Entry entry = new Entry(zipEntry.getName(), zipEntry.getName().getBytes(ENCODING));
+            entry.crc = zipEntry.getCrc();
+            entry.size = zipEntry.getSize();
+            entry.compressedSize = zipEntry.getCompressedSize();
+            entries.put(entry.name, entry);
+        }
+        return entries;
+    }
+
+    private static Map<String, Entry> readEntries( final RandomAccessFile file ) throws IOException {
+        // Find the end of central directory record, which is followed by a comment of up to 64K
+        final long length = file.length();
+        final int tailLength = (int)Math.min(length, END_LENGTH + MAX_VALUE_16);
+        final byte[] tail = new byte[tailLength];
+        file.seek(length - tailLength);
+        file.readFully(tail);
+        int end = -1;
+        for (int i = tailLength - END_LENGTH; i >= 0; --i) {
+            if (getInt(tail, i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) throw new ZipException(archiveMessage("no end of central directory")); //$NON-NLS-1$
+
+        final int count = getShort(tail, end + 10);
+        final long directorySize = getUnsignedInt(tail, end + 12);
+        final long directoryOffset = getUnsignedInt(tail, end + 16);
+        if (count == MAX_VALUE_16 || directorySize == MAX_VALUE_32 || directoryOffset == MAX_VALUE_32) throw new ZipException(
+                                                                                                                             archiveMessage("zip64 archives are not supported")); //$NON-NLS-1$
+        if (directoryOffset + directorySize > length) throw new ZipException(archiveMessage("invalid central directory")); //$NON-NLS-1$
+
+        final byte[] directory = new byte[(int)directorySize];
+        file.seek(directoryOffset);
+        file.readFully(directory);
+
+        final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(count * 4 / 3 + 1);
+        int pos = 0;
+        for (int i = 0; i < count; ++i) {
+            if (pos + CENTRAL_HEADER_LENGTH > directory.length || getInt(directory, pos) != CENTRAL_HEADER_SIGNATURE) throw new ZipException(
+                                                                                                                                         archiveMessage("invalid central directory")); //$NON-NLS-1$
+            final int nameLength = getShort(directory, pos + 28);
+            final int extraLength = getShort(directory, pos + 30);
+            final int commentLength = getShort(directory, pos + 32);
+            final byte[] nameBytes = copy(directory, pos + CENTRAL_HEADER_LENGTH, nameLength);
+            final Entry entry = new Entry(new String(nameBytes, ENCODING), nameBytes);
+            entry.versionNeeded = getShort(directory, pos + 6);
+            entry.flags = getShort(directory, pos + 8);
+            entry.method = getShort(directory, pos + 10);
+            entry.dosTime = getUnsignedInt(directory, pos + 12);
+            entry.crc = getUnsignedInt(directory, pos + 16);
+            entry.compressedSize = getUnsignedInt(directory, pos + 20);
+            entry.size = getUnsignedInt(directory, pos + 24);
+            entry.offset = getUnsignedInt(directory, pos + 42);
+            entry.comment = copy(directory, pos + CENTRAL_HEADER_LENGTH + nameLength + extraLength, commentLength);
+            if (entry.compressedSize == MAX_VALUE_32 || entry.size == MAX_VALUE_32 || entry.offset == MAX_VALUE_32) throw new ZipException(
+                                                                                                                                         archiveMessage("zip64 archives are not supported")); //$NON-NLS-1$
+            entries.put(entry.name, entry);
+            pos += CENTRAL_HEADER_LENGTH + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private final CountingOutputStream out;
+    private final RandomAccessFile source;
+    private final Map<String, Entry> sourceEntries;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private Entry currentEntry;
+    private EntryOutputStream currentStream;
+    private int copiedCount;
+
+    /**
+     * @param target the archive to write
+     * @param source the archive whose unchanged entries are copied, or <code>null</code> to compress every entry
+     * @throws IOException if the target archive cannot be created
+     */
+    ZipArchiveWriter( final File target,
+                      final File source ) throws IOException {
+        RandomAccessFile sourceFile = null;
+        Map<String, Entry> sourceEntries = Collections.emptyMap();
+        if (source != null && source.length() > 0L) {
+            try {
+                sourceFile = new RandomAccessFile(source, "r"); //$NON-NLS-1$
+                sourceEntries = readEntries(sourceFile);
+            } catch (final IOException error) {
+                // Nothing can be copied, so every entry is compressed
+                if (sourceFile != null) sourceFile.close();
+                sourceFile = null;
+            }
+        }
+        this.source = sourceFile;
+        this.sourceEntries = sourceEntries;
+        this.out = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(target), BUFFER_SIZE));
+    }
+
+    /**
+     * @return the number of entries copied from the source archive so far
+     */
+    int getCopiedCount() {
+        return copiedCount;
+    }
+
+    /**
+     * @return the number of entries written so far
+     */
+    int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Add an entry with the content of a file, copying it from the source archive when unchanged.
+     *
+     * @param name the entry name
+     * @param comment the entry comment; may be <code>null</code>
+     * @param file the file with the entry content
+     * @param checksum the CRC-32 checksum of the file content, or <code>null</code> if not known
+     * @throws IOException if the entry cannot be written
+     */
+    void putFile( final String name,
+                  final String comment,
+                  final File file,
+                  final Long checksum ) throws IOException {
+        final Entry sourceEntry = (source == null ? null : sourceEntries.get(name));
+        if (sourceEntry != null && sourceEntry.size == file.length()) {
+            final long crc = (checksum == null ? ChecksumUtil.computeChecksum(file) : checksum.longValue());
+            if (crc == sourceEntry.crc) {
+                copyEntry(sourceEntry, comment);
+                return;
+            }
+        }
+        final OutputStream entryOut = putNextEntry(name, comment, file.lastModified());
+        final InputStream in = new FileInputStream(file);
+        try {
+            int count;
+            while ((count = in.read(buffer)) > 0)
+                entryOut.write(buffer, 0, count);
+        } finally {
+            in.close();
+        }
+        closeEntry();
+    }
+
+    /**
+     * Add an entry by copying it from the source archive, provided the source archive still has the expected content for it.
+     *
+     * @param name the entry name
+     * @param comment the entry comment; may be <code>null</code>
+     * @param checksum the expected CRC-32 checksum of the entry content
+     * @param size the expected size of the entry content
+     * @return <code>true</code> if the entry was copied, <code>false</code> if the source archive has no such entry
+     * @throws IOException if the entry cannot be written
+     */
+    boolean copyEntry( final String name,
+                       final String comment,
+                       final long checksum,
+                       final long size ) throws IOException {
+        final Entry sourceEntry = (source == null ? null : sourceEntries.get(name));
+        if (sourceEntry == null || sourceEntry.size != size || sourceEntry.crc != checksum) return false;
+        copyEntry(sourceEntry, comment);
+        return true;
+    }
+
+    /**
+     * Begin a compressed entry. The content is written to the returned stream, which must not be closed; the entry ends with
+     * {@link #closeEntry()}.
+     *
+     * @param name the entry name
+     * @param comment the entry comment; may be <code>null</code>
+     * @param time the modification time of the entry
+     * @return the stream receiving the entry content
+     * @throws IOException if the entry cannot be started
+     */
+    OutputStream putNextEntry( final String name,
+                               final String comment,
+                               final long time ) throws IOException {
+        if (currentEntry != null) closeEntry();
+        final byte[] nameBytes = name.getBytes(ENCODING);
+        final Entry entry = new Entry(name, nameBytes);
+        entry.flags = FLAG_DATA_DESCRIPTOR | (isAscii(name) ? 0 : FLAG_UTF8);
+        entry.dosTime = toDosTime(time);
+        entry.comment = toBytes(comment);
+        entry.offset = out.getCount();
+        writeLocalHeader(entry);
+        currentEntry = entry;
+        currentStream = new EntryOutputStream(out);
+        return currentStream;
+    }
+
+    /**
+     * End the entry begun by {@link #putNextEntry(String, String, long)}.
+     *
+     * @throws IOException if the entry cannot be completed
+     */
+    void closeEntry() throws IOException {
+        if (currentEntry == null) return;
+        final Entry entry = currentEntry;
+        currentStream.finish();
+        entry.crc = currentStream.crc.getValue();
+        entry.size = currentStream.size;
+        entry.compressedSize = out.getCount() - currentStream.dataStart;
+        currentStream.end();
+        currentEntry = null;
+        currentStream = null;
+        writeInt(DATA_DESCRIPTOR_SIGNATURE);
+        writeInt(check32(entry.crc));
+        writeInt(check32(entry.compressedSize));
+        writeInt(check32(entry.size));
+        entries.add(entry);
+    }
+
+    /**
+     * Write the central directory, completing the archive. Nothing may be added afterwards.
+     *
+     * @throws IOException if the central directory cannot be written
+     */
+    void finish() throws IOException {
+        closeEntry();
+        if (entries.size() > MAX_VALUE_16) throw new ZipException(archiveMessage("too many entries")); //$NON-NLS-1$
+        final long directoryOffset = out.getCount();
+        for (final Entry entry : entries) {
+            writeInt(CENTRAL_HEADER_SIGNATURE);
+            writeShort(VERSION);
+            writeShort(entry.versionNeeded);
+            writeShort(entry.flags);
+            writeShort(entry.method);
+            writeInt(entry.dosTime);
+            writeInt(entry.crc);
+            writeInt(entry.compressedSize);
+            writeInt(entry.size);
+            writeShort(entry.nameBytes.length);
+            writeShort(0); // extra field length
+            writeShort(entry.comment.length);
+            writeShort(0); // disk number
+            writeShort(0); // internal attributes
+            writeInt(0); // external attributes
+            writeInt(check32(entry.offset));
+            out.write(entry.nameBytes);
+            out.write(entry.comment);
+        }
+        final long directorySize = out.getCount() - directoryOffset;
+        writeInt(END_SIGNATURE);
+        writeShort(0); // disk number
+        writeShort(0); // disk with central directory
+        writeShort(entries.size());
+        writeShort(entries.size());
+        writeInt(check32(directorySize));
+        writeInt(check32(directoryOffset));
+        writeShort(0); // comment length
+        out.flush();
+    }
+
+    /**
+     * Close the target and source archives. The target is only a valid archive if {@link #finish()} was called first.
+     *
+     * @throws IOException if either archive cannot be closed
+     */
+    void close() throws IOException {
+        try {
+            if (currentStream != null) currentStream.end();
+            out.close();
+        } finally {
+            if (source != null) source.close();
+        }
+    }
+
+    private void copyEntry( final Entry sourceEntry,
+                            final String comment ) throws IOException {
+        if (currentEntry != null) closeEntry();
+        // The data follows the local header, whose name and extra field lengths may differ from those in the central directory
+        final byte[] header = new byte[LOCAL_HEADER_LENGTH];
+        source.seek(sourceEntry.offset);
+        source.readFully(header);
+        if (getInt(header, 0) != LOCAL_HEADER_SIGNATURE) throw new ZipException(archiveMessage("invalid local header")); //$NON-NLS-1$
+        source.seek(sourceEntry.offset + LOCAL_HEADER_LENGTH + getShort(header, 26) + getShort(header, 28));
+
+        final Entry entry = new Entry(sourceEntry.name, sourceEntry.nameBytes);
+        entry.versionNeeded = sourceEntry.versionNeeded;
+        // The sizes are known, so the copy has no data descriptor
+        entry.flags = sourceEntry.flags & ~FLAG_DATA_DESCRIPTOR;
+        entry.method = sourceEntry.method;
+        entry.dosTime = sourceEntry.dosTime;
+        entry.crc = sourceEntry.crc;
+        entry.compressedSize = sourceEntry.compressedSize;
+        entry.size = sourceEntry.size;
+        entry.comment = toBytes(comment);
+        entry.offset = out.getCount();
+        writeLocalHeader(entry);
+
+        long remaining = sourceEntry.compressedSize;
+        while (remaining > 0) {
+            final int count = (int)Math.min(remaining, buffer.length);
+            source.readFully(buffer, 0, count);
+            out.write(buffer, 0, count);
+            remaining -= count;
+        }
+        entries.add(entry);
+        ++copiedCount;
+    }
+
+    private void writeLocalHeader( final Entry entry ) throws IOException {
+        final boolean hasDescriptor = (entry.flags & FLAG_DATA_DESCRIPTOR) != 0;
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(entry.versionNeeded);
+        writeShort(entry.flags);
+        writeShort(entry.method);
+        writeInt(entry.dosTime);
+        writeInt(hasDescriptor ? 0 : entry.crc);
+        writeInt(hasDescriptor ? 0 : check32(entry.compressedSize));
+        writeInt(hasDescriptor ? 0 : check32(entry.size));
+        writeShort(entry.nameBytes.length);
+        writeShort(0); // extra field length
+        out.write(entry.nameBytes);
+    }
+
+    private void writeShort( final int value ) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private void writeInt( final long value ) throws IOException {
+        writeShort((int)(value & 0xFFFF));
+        writeShort((int)((value >>> 16) & 0xFFFF));
+    }
+
+    private static long check32( final long value ) throws ZipException {
+        if (value >= MAX_VALUE_32) throw new ZipException(archiveMessage("zip64 archives are not supported")); //$NON-NLS-1$
+        return value;
+    }
+
+    private static String archiveMessage( final String message ) {
+        return "Zip archive: " + message; //$NON-NLS-1$
+    }
+
+    private static byte[] toBytes( final String comment ) throws UnsupportedEncodingException {
+        if (comment == null) return new byte[0];
+        final byte[] bytes = comment.getBytes(ENCODING);
+        // Comments longer than allowed are truncated, like ZipOutputStream does
+        return (bytes.length > MAX_VALUE_16 ? copy(bytes, 0, MAX_VALUE_16) : bytes);
+    }
+
+    private static boolean isAscii( final String name ) {
+        for (int i = 0; i < name.length(); ++i)
+            if (name.charAt(i) > 0x7F) return false;
+        return true;
+    }
+
+    private static long toDosTime( final long time ) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        final int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) return (1 << 21) | (1 << 16);
+        return ((long)(year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21) | (calendar.get(Calendar.DAY_OF_MONTH) << 16)
+               | (calendar.get(Calendar.HOUR_OF_DAY) << 11) | (calendar.get(Calendar.MINUTE) << 5)
+               | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private static byte[] copy( final byte[] bytes,
+                                final int offset,
+                                final int length ) {
+        final byte[] copy = new byte[length];
+        System.arraycopy(bytes, offset, copy, 0, length);
+        return copy;
+    }
+
+    private static int getShort( final byte[] bytes,
+                                 final int offset ) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int getInt( final byte[] bytes,
+                               final int offset ) {
+        return getShort(bytes, offset) | (getShort(bytes, offset + 2) << 16);
+    }
+
+    private static long getUnsignedInt( final byte[] bytes,
+                                        final int offset ) {
+        return getInt(bytes, offset) & MAX_VALUE_32;
+    }
+
+    /**
+     * Keeps track of the archive offset.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream( final OutputStream out ) {
+            super(out);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write( final int b ) throws IOException {
+            out.write(b);
+            ++count;
+        }
+
+        @Override
+        public void write( final byte[] bytes,
+                           final int offset,
+                           final int length ) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+
+    /**
+     * Compresses an entry's content into the archive, computing its checksum and size.
+     */
+    private static final class EntryOutputStream extends DeflaterOutputStream {
+        final CRC32 crc = new CRC32();
+        final long dataStart;
+        long size;
+
+        EntryOutputStream( final CountingOutputStream out ) {
+            super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true), BUFFER_SIZE);
+            this.dataStart = out.getCount();
+        }
+
+        @Override
+        public void write( final byte[] bytes,
+                           final int offset,
+                           final int length ) throws IOException {
+            super.write(bytes, offset, length);
+            crc.update(bytes, offset, length);
+            size += length;
+        }
+
+        @Override
+        public void close() {
+            // The archive stays open; the entry is completed by closeEntry()
+        }
+
+        void end() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.core.designer.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * TestChecksumUtil
+ */
+public class TestChecksumUtil extends TestCase {
+
+    private File file;
+
+    /**
+     * Constructor for TestChecksumUtil.
+     *
+     * @param name
+     */
+    public TestChecksumUtil( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("checksum", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /*
+     * @see TestCase#tearDown()
+     */
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        file.delete();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private byte[] helpWriteFile( final int length ) throws IOException {
+        final byte[] contents = new byte[length];
+        for (int i = 0; i < length; i++) {
+            contents[i] = (byte)(i * 31 + i / 7);
+        }
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(contents);
+        } finally {
+            out.close();
+        }
+        return contents;
+    }
+
+    private void helpTestFileChecksum( final int length ) throws IOException {
+        final byte[] contents = helpWriteFile(length);
+        final long expected = ChecksumUtil.computeChecksum(new ByteArrayInputStream(contents)).getValue();
+        assertEquals("length " + length, expected, ChecksumUtil.computeChecksum(file)); //$NON-NLS-1$
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testFileChecksumOfEmptyFile() throws IOException {
+        helpTestFileChecksum(0);
+    }
+
+    public void testFileChecksumOfSmallFile() throws IOException {
+        helpTestFileChecksum(10);
+    }
+
+    public void testFileChecksumOfFileFillingBufferExactly() throws IOException {
+        helpTestFileChecksum(ChecksumUtil.FILE_BUFFER_SIZE);
+        helpTestFileChecksum(ChecksumUtil.FILE_BUFFER_SIZE * 3);
+    }
+
+    public void testFileChecksumOfLargeFile() throws IOException {
+        helpTestFileChecksum(ChecksumUtil.FILE_BUFFER_SIZE * 5 + 123);
+    }
+}
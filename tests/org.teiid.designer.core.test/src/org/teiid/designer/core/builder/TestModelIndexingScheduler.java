@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/**
+ * TestModelIndexingScheduler
+ */
+public class TestModelIndexingScheduler extends TestCase {
+
+    private Map<String, Collection<String>> dependencies;
+
+    /**
+     * Constructor for TestModelIndexingScheduler.
+     *
+     * @param name
+     */
+    public TestModelIndexingScheduler( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.dependencies = new HashMap<String, Collection<String>>();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private void helpAddImports( final String model,
+                                 final String... imports ) {
+        this.dependencies.put(model, Arrays.asList(imports));
+    }
+
+    private List<List<String>> helpComputeWaves( final String... models ) {
+        return ModelIndexingScheduler.computeWaves(Arrays.asList(models), this.dependencies);
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testIndependentModelsShareOneWave() {
+        final List<List<String>> waves = helpComputeWaves("A", "B", "C"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals(1, waves.size());
+        assertEquals(Arrays.asList("A", "B", "C"), waves.get(0)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    public void testImportedModelsComeFirst() {
+        helpAddImports("View", "Source1", "Source2"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        helpAddImports("Source2", "Source1"); //$NON-NLS-1$ //$NON-NLS-2$
+        final List<List<String>> waves = helpComputeWaves("View", "Other", "Source2", "Source1"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals(3, waves.size());
+        assertEquals(Arrays.asList("Other", "Source1"), waves.get(0)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("Source2"), waves.get(1)); //$NON-NLS-1$
+        assertEquals(Arrays.asList("View"), waves.get(2)); //$NON-NLS-1$
+    }
+
+    public void testImportsOutsideTheBuildAreIgnored() {
+        helpAddImports("View", "Unbuilt"); //$NON-NLS-1$ //$NON-NLS-2$
+        final List<List<String>> waves = helpComputeWaves("View", "Source"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(1, waves.size());
+        assertEquals(2, waves.get(0).size());
+    }
+
+    public void testWavesAreSplitIntoBatches() {
+        helpAddImports("View", "Source1", "Source2"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        final List<List<String>> waves = helpComputeWaves("Source1", "Source2", "Other", "View"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        final List<List<String>> batches = ModelIndexingScheduler.computeBatches(waves, 2);
+        assertEquals(3, batches.size());
+        assertEquals(Arrays.asList("Source1", "Source2"), batches.get(0)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("Other"), batches.get(1)); //$NON-NLS-1$
+        assertEquals(Arrays.asList("View"), batches.get(2)); //$NON-NLS-1$
+    }
+
+    public void testImportCycleIsSerialized() {
+        helpAddImports("A", "B", "A"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        helpAddImports("B", "A", "B"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        helpAddImports("C", "A", "B"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        final List<List<String>> waves = helpComputeWaves("A", "B", "C", "D"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals(Arrays.asList("D"), waves.get(0)); //$NON-NLS-1$
+        assertEquals(Arrays.asList("A"), waves.get(1)); //$NON-NLS-1$
+        assertEquals(Arrays.asList("B"), waves.get(2)); //$NON-NLS-1$
+        assertEquals(Arrays.asList("C"), waves.get(3)); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.teiid.designer.core.resource.EmfResource;
+import org.teiid.designer.core.validation.ValidationContext;
+import org.teiid.designer.core.validation.ValidationProblemImpl;
+import org.teiid.designer.core.validation.ValidationResult;
+import org.teiid.designer.core.validation.ValidationResultImpl;
+
+/**
+ * TestModelValidationScheduler
+ */
+public class TestModelValidationScheduler extends TestCase {
+
+    private FakeScheduler scheduler;
+    private ValidationContext context;
+    private IResource source;
+    private IResource otherSource;
+    private IResource view;
+
+    /**
+     * Constructor for TestModelValidationScheduler.
+     *
+     * @param name
+     */
+    public TestModelValidationScheduler( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.scheduler = new FakeScheduler(4);
+        this.context = new ValidationContext();
+        this.source = helpCreateResource("/Project/Source.xmi"); //$NON-NLS-1$
+        this.otherSource = helpCreateResource("/Project/OtherSource.xmi"); //$NON-NLS-1$
+        this.view = helpCreateResource("/Project/View.xmi"); //$NON-NLS-1$
+        this.scheduler.dependencies.put(this.view, Arrays.asList(new IResource[] {this.source, this.otherSource}));
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    static class FakeScheduler extends ModelValidationScheduler {
+        final Map<IResource, Collection<IResource>> dependencies = new HashMap<IResource, Collection<IResource>>();
+        final Map<IResource, EmfResource> loaded = new HashMap<IResource, EmfResource>();
+        final List<IResource> validatedSerially = new ArrayList<IResource>();
+        final List<IResource> excluded = new ArrayList<IResource>();
+
+        FakeScheduler( final int threadCount ) {
+            super(threadCount);
+        }
+
+        @Override
+        protected Map<IResource, Collection<IResource>> getDependencies( final List<IResource> resources ) {
+            return this.dependencies;
+        }
+
+        @Override
+        protected EmfResource prepare( final IResource resource ) {
+            return this.loaded.get(resource);
+        }
+
+        @Override
+        protected void validateSerially( final IProgressMonitor monitor,
+                                         final IResource resource,
+                                         final ResourceValidator validator,
+                                         final ValidationContext context ) {
+            this.validatedSerially.add(resource);
+        }
+
+        @Override
+        protected void excludeFromCache( final ValidationContext context,
+                                         final IResource resource ) {
+            this.excluded.add(resource);
+        }
+    }
+
+    /**
+     * Records what it validates, and on which thread, and reports one problem for each resource.
+     */
+    static class RecordingValidator implements ConcurrentResourceValidator {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final List<Thread> validatingThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        final List<Thread> markingThreads = new ArrayList<Thread>();
+        final List<Object> markedTargets = new ArrayList<Object>();
+        final List<IResource> markedResources = new ArrayList<IResource>();
+        IProgressMonitor monitorToCancel;
+        Resource resourceToCancel;
+        boolean ended;
+
+        @Override
+        public boolean isValidatorForObject( final Object obj ) {
+            return true;
+        }
+
+        @Override
+        public void validate( final IProgressMonitor monitor,
+                              final Object obj,
+                              final ValidationContext context ) {
+            this.validatingThreads.add(Thread.currentThread());
+            this.events.add("start " + obj); //$NON-NLS-1$
+            if (obj == this.resourceToCancel) {
+                this.monitorToCancel.setCanceled(true);
+            }
+            // a string target keeps the result from looking the model up
+            final ValidationResult result = new ValidationResultImpl(obj.toString());
+            result.addProblem(new ValidationProblemImpl(0, IStatus.ERROR, obj.toString()));
+            context.addResult(result);
+            this.events.add("end " + obj); //$NON-NLS-1$
+        }
+
+        @Override
+        public void addMarkers( final ValidationContext context,
+                                final IResource iResource ) {
+            this.markingThreads.add(Thread.currentThread());
+            this.markedResources.add(iResource);
+            assertEquals(1, context.getValidationResults().size());
+            this.markedTargets.add(((ValidationResult)context.getValidationResults().get(0)).getTarget());
+        }
+
+        @Override
+        public void validationStarted( final Collection resources,
+                                       final ValidationContext context ) {
+            // nothing to do
+        }
+
+        @Override
+        public void validationEnded( final ValidationContext context ) {
+            this.ended = true;
+        }
+
+        @Override
+        @Deprecated
+        public boolean isValidatorForResource( final IResource iResource ) {
+            return true;
+        }
+
+        @Override
+        @Deprecated
+        public void validate( final IProgressMonitor monitor,
+                              final Resource resource,
+                              final IResource iResource,
+                              final ValidationContext context ) {
+            fail("Deprecated validate called"); //$NON-NLS-1$
+        }
+
+        int indexOf( final String event,
+                     final Object obj ) {
+            return this.events.indexOf(event + ' ' + obj);
+        }
+    }
+
+    private IResource helpCreateResource( final String path ) {
+        final IResource resource = mock(IResource.class);
+        when(resource.getFullPath()).thenReturn(new Path(path));
+        final EmfResource emfResource = mock(EmfResource.class);
+        when(emfResource.getContents()).thenReturn(new BasicEList<EObject>());
+        when(emfResource.isLoaded()).thenReturn(true);
+        this.scheduler.loaded.put(resource, emfResource);
+        return resource;
+    }
+
+    private void helpValidate( final IProgressMonitor monitor,
+                               final ResourceValidator validator ) {
+        final List<IResource> resources = Arrays.asList(new IResource[] {this.view, this.source, this.otherSource});
+        this.scheduler.validateResources(monitor, resources, this.context, Collections.singletonList(validator));
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testImportedModelsAreValidatedFirst() {
+        final RecordingValidator validator = new RecordingValidator();
+        helpValidate(null, validator);
+
+        final Object viewResource = this.scheduler.loaded.get(this.view);
+        assertEquals(6, validator.events.size());
+        assertTrue(validator.indexOf("end", this.scheduler.loaded.get(this.source)) < validator.indexOf("start", viewResource)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(validator.indexOf("end", this.scheduler.loaded.get(this.otherSource)) < validator.indexOf("start", viewResource)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(validator.ended);
+    }
+
+    public void testResultsAreMergedOnCallingThread() {
+        final RecordingValidator validator = new RecordingValidator();
+        helpValidate(null, validator);
+
+        for (final Thread thread : validator.validatingThreads) {
+            assertNotSame(Thread.currentThread(), thread);
+        }
+        // markers are added on this thread, in the order of the supplied resources
+        assertEquals(Arrays.asList(new IResource[] {this.view, this.source, this.otherSource}), validator.markedResources);
+        assertEquals(Arrays.asList(new Object[] {this.scheduler.loaded.get(this.view).toString(),
+            this.scheduler.loaded.get(this.source).toString(), this.scheduler.loaded.get(this.otherSource).toString()}),
+                     validator.markedTargets);
+        for (final Thread thread : validator.markingThreads) {
+            assertSame(Thread.currentThread(), thread);
+        }
+        assertTrue(this.scheduler.validatedSerially.isEmpty());
+        assertTrue(this.scheduler.excluded.isEmpty());
+    }
+
+    public void testNonConcurrentValidatorIsRunSerially() {
+        final ResourceValidator validator = mock(ResourceValidator.class);
+        helpValidate(null, validator);
+
+        assertEquals(Arrays.asList(new IResource[] {this.view, this.source, this.otherSource}), this.scheduler.validatedSerially);
+    }
+
+    public void testUnloadedResourceIsValidatedSerially() {
+        this.scheduler.loaded.remove(this.source);
+        final RecordingValidator validator = new RecordingValidator();
+        helpValidate(null, validator);
+
+        assertEquals(Collections.singletonList(this.source), this.scheduler.validatedSerially);
+        assertEquals(Arrays.asList(new IResource[] {this.view, this.otherSource}), validator.markedResources);
+    }
+
+    public void testResourceClosedAfterLoadingIsValidatedSerially() {
+        // closed to make room for other models before a worker got to it
+        when(this.scheduler.loaded.get(this.source).isLoaded()).thenReturn(false);
+        final RecordingValidator validator = new RecordingValidator();
+        helpValidate(null, validator);
+
+        assertEquals(Collections.singletonList(this.source), this.scheduler.validatedSerially);
+        assertEquals(Arrays.asList(new IResource[] {this.view, this.otherSource}), validator.markedResources);
+        assertTrue(this.scheduler.excluded.isEmpty());
+    }
+
+    public void testCancelSkipsLaterWaves() {
+        this.scheduler.dependencies.put(this.otherSource, Collections.singletonList(this.source));
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        final RecordingValidator validator = new RecordingValidator();
+        validator.monitorToCancel = monitor;
+        validator.resourceToCancel = this.scheduler.loaded.get(this.source);
+        helpValidate(monitor, validator);
+
+        // the first wave is finished, but the models that import it are never validated
+        assertEquals(2, validator.events.size());
+        assertEquals(Collections.singletonList(this.source), validator.markedResources);
+        assertEquals(Arrays.asList(new IResource[] {this.view, this.otherSource}), this.scheduler.excluded);
+        assertTrue(this.scheduler.validatedSerially.isEmpty());
+        assertTrue(validator.ended);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.designer.core.validation.ValidationProblemImpl;
+
+/**
+ * TestProblemMarkerSink
+ */
+public class TestProblemMarkerSink extends TestCase {
+
+    /** The markers of each mock resource */
+    private Map<IResource, List<IMarker>> markers;
+    private IWorkspace workspace;
+    private ProblemMarkerSink sink;
+
+    /**
+     * Constructor for TestProblemMarkerSink.
+     *
+     * @param name
+     */
+    public TestProblemMarkerSink( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.markers = new HashMap<IResource, List<IMarker>>();
+        this.workspace = helpCreateWorkspace();
+        this.sink = new ProblemMarkerSink();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    /**
+     * @return a workspace that runs operations immediately and deletes markers from {@link #markers}
+     */
+    private IWorkspace helpCreateWorkspace() throws Exception {
+        final IWorkspace result = mock(IWorkspace.class);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) throws Throwable {
+                final Object[] args = invocation.getArguments();
+                ((IWorkspaceRunnable)args[0]).run((IProgressMonitor)args[3]);
+                return null;
+            }
+        }).when(result).run(any(IWorkspaceRunnable.class), any(ISchedulingRule.class), anyInt(), any(IProgressMonitor.class));
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) {
+                for (final IMarker marker : (IMarker[])invocation.getArguments()[0]) {
+                    markers.get(marker.getResource()).remove(marker);
+                }
+                return null;
+            }
+        }).when(result).deleteMarkers(any(IMarker[].class));
+        return result;
+    }
+
+    /**
+     * @return an existing resource whose problem markers are kept in {@link #markers}
+     */
+    private IResource helpCreateResource() throws Exception {
+        final IResource resource = mock(IResource.class);
+        final List<IMarker> resourceMarkers = new ArrayList<IMarker>();
+        this.markers.put(resource, resourceMarkers);
+        when(resource.exists()).thenReturn(true);
+        when(resource.getWorkspace()).thenReturn(this.workspace);
+        when(resource.findMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE)).thenAnswer(new Answer<IMarker[]>() {
+            @Override
+            public IMarker[] answer( final InvocationOnMock invocation ) {
+                return resourceMarkers.toArray(new IMarker[resourceMarkers.size()]);
+            }
+        });
+        when(resource.createMarker(IMarker.PROBLEM)).thenAnswer(new Answer<IMarker>() {
+            @Override
+            public IMarker answer( final InvocationOnMock invocation ) throws Throwable {
+                final IMarker marker = helpCreateMarker(resource);
+                resourceMarkers.add(marker);
+                return marker;
+            }
+        });
+        return resource;
+    }
+
+    /**
+     * @return a marker that keeps the attributes that are set
+     */
+    private IMarker helpCreateMarker( final IResource resource ) throws Exception {
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        final IMarker marker = mock(IMarker.class);
+        when(marker.getResource()).thenReturn(resource);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) {
+                final String[] names = (String[])invocation.getArguments()[0];
+                final Object[] values = (Object[])invocation.getArguments()[1];
+                for (int i = 0; i < names.length; ++i) {
+                    attributes.put(names[i], values[i]);
+                }
+                return null;
+            }
+        }).when(marker).setAttributes(any(String[].class), any(Object[].class));
+        when(marker.getAttributes(any(String[].class))).thenAnswer(new Answer<Object[]>() {
+            @Override
+            public Object[] answer( final InvocationOnMock invocation ) {
+                final String[] names = (String[])invocation.getArguments()[0];
+                final Object[] values = new Object[names.length];
+                for (int i = 0; i < names.length; ++i) {
+                    values[i] = attributes.get(names[i]);
+                }
+                return values;
+            }
+        });
+        when(marker.getAttribute(IMarker.MESSAGE)).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) {
+                return attributes.get(IMarker.MESSAGE);
+            }
+        });
+        return marker;
+    }
+
+    private void helpAddProblem( final IResource resource,
+                                 final String message ) {
+        this.sink.addProblem(resource, "location", "uri", null, new ValidationProblemImpl(0, IStatus.WARNING, message)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private List<String> helpGetMessages( final IResource resource ) throws Exception {
+        final List<String> messages = new ArrayList<String>();
+        for (final IMarker marker : this.markers.get(resource)) {
+            messages.add((String)marker.getAttribute(IMarker.MESSAGE));
+        }
+        return messages;
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testUnchangedProblemsKeepTheirMarkers() throws Exception {
+        final IResource resource = helpCreateResource();
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        helpAddProblem(resource, "B"); //$NON-NLS-1$
+        this.sink.apply(null);
+        final List<IMarker> created = new ArrayList<IMarker>(this.markers.get(resource));
+
+        final ProblemMarkerSink rebuild = new ProblemMarkerSink();
+        this.sink = rebuild;
+        this.sink.replaceMarkers(resource);
+        helpAddProblem(resource, "B"); //$NON-NLS-1$
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        assertEquals(created, this.markers.get(resource));
+        assertEquals(2, rebuild.getKeptCount());
+        assertEquals(0, rebuild.getCreatedCount());
+        assertEquals(0, rebuild.getDeletedCount());
+    }
+
+    public void testChangedProblemsAreReplaced() throws Exception {
+        final IResource resource = helpCreateResource();
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        helpAddProblem(resource, "B"); //$NON-NLS-1$
+        helpAddProblem(resource, "B"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        this.sink.replaceMarkers(Arrays.asList(new IResource[] {resource}));
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        helpAddProblem(resource, "B"); //$NON-NLS-1$
+        helpAddProblem(resource, "C"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        assertEquals(Arrays.asList(new String[] {"A", "B", "C"}), helpGetMessages(resource)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals(4, this.sink.getCreatedCount());
+        assertEquals(1, this.sink.getDeletedCount());
+    }
+
+    public void testReplacedResourceWithoutProblemsLosesItsMarkers() throws Exception {
+        final IResource resource = helpCreateResource();
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        this.sink.replaceMarkers(resource);
+        this.sink.apply(null);
+
+        assertTrue(this.markers.get(resource).isEmpty());
+    }
+
+    public void testProblemsAreAddedToResourcesNotReplaced() throws Exception {
+        final IResource resource = helpCreateResource();
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        helpAddProblem(resource, "A"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        assertEquals(Arrays.asList(new String[] {"A", "A"}), helpGetMessages(resource)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testAllResourcesChangedInOneOperation() throws Exception {
+        final IResource model1 = helpCreateResource();
+        final IResource model2 = helpCreateResource();
+        this.sink.replaceMarkers(Arrays.asList(new IResource[] {model1, model2}));
+        helpAddProblem(model1, "A"); //$NON-NLS-1$
+        helpAddProblem(model2, "B"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        verify(this.workspace, times(1)).run(any(IWorkspaceRunnable.class), any(ISchedulingRule.class), anyInt(),
+                                             any(IProgressMonitor.class));
+        assertEquals(Arrays.asList(new String[] {"A"}), helpGetMessages(model1)); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new String[] {"B"}), helpGetMessages(model2)); //$NON-NLS-1$
+    }
+
+    public void testDeletedResourceIsSkipped() throws Exception {
+        final IResource deleted = helpCreateResource();
+        when(deleted.exists()).thenReturn(false);
+        doThrow(new CoreException(Status.CANCEL_STATUS)).when(deleted).createMarker(IMarker.PROBLEM);
+        final IResource model = helpCreateResource();
+        this.sink.replaceMarkers(Arrays.asList(new IResource[] {deleted, model}));
+        helpAddProblem(deleted, "A"); //$NON-NLS-1$
+        helpAddProblem(model, "B"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        assertTrue(this.markers.get(deleted).isEmpty());
+        assertEquals(Arrays.asList(new String[] {"B"}), helpGetMessages(model)); //$NON-NLS-1$
+    }
+
+    public void testFailedResourceDoesNotStopOthers() throws Exception {
+        final IResource failing = helpCreateResource();
+        doThrow(new CoreException(Status.CANCEL_STATUS)).when(failing).createMarker(IMarker.PROBLEM);
+        final IResource model = helpCreateResource();
+        helpAddProblem(failing, "A"); //$NON-NLS-1$
+        helpAddProblem(model, "B"); //$NON-NLS-1$
+        this.sink.apply(null);
+
+        assertTrue(this.markers.get(failing).isEmpty());
+        assertEquals(Arrays.asList(new String[] {"B"}), helpGetMessages(model)); //$NON-NLS-1$
+    }
+
+    public void testMarkerSeverity() {
+        assertEquals(Integer.valueOf(IMarker.SEVERITY_ERROR), ProblemMarkerSink.getMarkerSeverity(IStatus.ERROR));
+        assertEquals(Integer.valueOf(IMarker.SEVERITY_WARNING), ProblemMarkerSink.getMarkerSeverity(IStatus.WARNING));
+        assertEquals(Integer.valueOf(IMarker.SEVERITY_INFO), ProblemMarkerSink.getMarkerSeverity(IStatus.INFO));
+        assertNull(ProblemMarkerSink.getMarkerSeverity(IStatus.OK));
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.builder;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.teiid.designer.core.validation.ValidationContext;
+
+/**
+ * TestValidationResultCache
+ */
+public class TestValidationResultCache extends TestCase {
+
+    private static final String VERSION = "8.0"; //$NON-NLS-1$
+
+    private File folder;
+    private File storeFile;
+    private ValidationResultCache cache;
+
+    /** The files of the mock resources, by workspace path */
+    private Map<IPath, File> files;
+
+    /** The imports of the mock resources, by workspace path */
+    private Map<IPath, Collection<IPath>> imports;
+
+    /** The paths of the mock resources unknown to the import graph */
+    private Set<IPath> outsideGraph;
+
+    private List<String> configuration;
+
+    private IResource model;
+    private IResource importedModel;
+
+    /**
+     * Constructor for TestValidationResultCache.
+     *
+     * @param name
+     */
+    public TestValidationResultCache( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.folder = File.createTempFile("validationResults", null); //$NON-NLS-1$
+        this.folder.delete();
+        this.folder.mkdirs();
+        this.storeFile = new File(this.folder, ValidationResultCache.CACHE_FILE_NAME);
+        this.files = new HashMap<IPath, File>();
+        this.imports = new HashMap<IPath, Collection<IPath>>();
+        this.outsideGraph = new HashSet<IPath>();
+        this.configuration = new ArrayList<String>(Arrays.asList(new String[] {"validator", "pref=warning"})); //$NON-NLS-1$ //$NON-NLS-2$
+        this.cache = helpCreateCache(VERSION);
+
+        this.model = helpCreateResource("/Project/model.xmi", "model"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.importedModel = helpCreateResource("/Project/imported.xmi", "imported"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.imports.put(this.model.getFullPath(), Collections.singletonList(this.importedModel.getFullPath()));
+    }
+
+    /*
+     * @see TestCase#tearDown()
+     */
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] contents = this.folder.listFiles();
+        for (int i = 0; i < contents.length; ++i) {
+            contents[i].delete();
+        }
+        this.folder.delete();
+        super.tearDown();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private ValidationResultCache helpCreateCache( final String version ) {
+        return new ValidationResultCache(this.storeFile, version) {
+            @Override
+            protected List<String> getConfiguration( final ValidationContext context,
+                                                     final Collection validators ) {
+                return new ArrayList<String>(configuration);
+            }
+
+            @Override
+            protected Collection<IPath> getImportsRecursive( final IPath path ) {
+                final Collection<IPath> result = imports.get(path);
+                return (result == null ? Collections.<IPath>emptyList() : result);
+            }
+
+            @Override
+            protected boolean isInImportGraph( final IPath path ) {
+                return !outsideGraph.contains(path);
+            }
+
+            @Override
+            protected File getLocalFile( final IPath path ) {
+                final File file = files.get(path);
+                return (file != null && file.isFile() ? file : null);
+            }
+        };
+    }
+
+    private IResource helpCreateResource( final String path,
+                                          final String contents ) throws Exception {
+        final IPath fullPath = new Path(path);
+        final File file = new File(this.folder, fullPath.lastSegment());
+        this.files.put(fullPath, file);
+        helpWriteFile(fullPath, contents);
+        final IResource resource = mock(IResource.class);
+        when(resource.getFullPath()).thenReturn(fullPath);
+        return resource;
+    }
+
+    private void helpWriteFile( final IPath path,
+                                final String contents ) throws Exception {
+        final FileWriter writer = new FileWriter(this.files.get(path));
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private ValidationResultCache.Session helpStartSession( final IPath... modifiedPaths ) {
+        return this.cache.startSession(new ValidationContext(), Collections.EMPTY_LIST, Arrays.asList(modifiedPaths));
+    }
+
+    /**
+     * Run a build of the model that finds the supplied problem, or none
+     *
+     * @return the resources the build had to validate
+     */
+    private List<IResource> helpBuild( final int severity,
+                                       final String message,
+                                       final IPath... modifiedPaths ) {
+        final ValidationResultCache.Session session = helpStartSession(modifiedPaths);
+        final ProblemMarkerSink sink = new ProblemMarkerSink();
+        final List<IResource> validated = session.replay(Collections.singletonList(this.model), sink);
+        for (final IResource resource : validated) {
+            if (message != null) {
+                sink.addProblem(resource, Integer.valueOf(severity), "location", "uri", null, message); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        session.record(sink);
+        return validated;
+    }
+
+    private List<List<Object>> helpReplay() {
+        final ProblemMarkerSink sink = new ProblemMarkerSink();
+        assertTrue(helpStartSession().replay(Collections.singletonList(this.model), sink).isEmpty());
+        return sink.getProblems(this.model);
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testUnchangedResourceReplaysProblems() {
+        assertEquals(1, helpBuild(IMarker.SEVERITY_WARNING, "A").size()); //$NON-NLS-1$
+
+        final List<List<Object>> problems = helpReplay();
+        assertEquals(1, problems.size());
+        assertEquals(Arrays.asList(new Object[] {Integer.valueOf(IMarker.SEVERITY_WARNING), "location", "uri", null, "A"}), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                     problems.get(0));
+    }
+
+    public void testResourceWithoutProblemsIsReplayed() {
+        helpBuild(IMarker.SEVERITY_WARNING, null);
+
+        assertTrue(helpReplay().isEmpty());
+        assertEquals(1, this.cache.size());
+    }
+
+    public void testChangedResourceIsValidatedAgain() throws Exception {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        helpWriteFile(this.model.getFullPath(), "changed"); //$NON-NLS-1$
+
+        assertEquals(1, helpBuild(IMarker.SEVERITY_WARNING, "A").size()); //$NON-NLS-1$
+    }
+
+    public void testChangedImportIsValidatedAgain() throws Exception {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        helpWriteFile(this.importedModel.getFullPath(), "changed"); //$NON-NLS-1$
+
+        assertEquals(1, helpBuild(IMarker.SEVERITY_WARNING, "A").size()); //$NON-NLS-1$
+    }
+
+    public void testDeletedImportIsValidatedAgain() {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        this.files.get(this.importedModel.getFullPath()).delete();
+
+        assertEquals(1, helpBuild(IMarker.SEVERITY_WARNING, "A").size()); //$NON-NLS-1$
+        assertEquals(1, helpReplay().size());
+    }
+
+    public void testErrorsAreNotRecorded() {
+        helpBuild(IMarker.SEVERITY_ERROR, "A"); //$NON-NLS-1$
+
+        assertEquals(0, this.cache.size());
+        assertEquals(1, helpBuild(IMarker.SEVERITY_ERROR, "A").size()); //$NON-NLS-1$
+    }
+
+    public void testUnsavedImportIsNotCached() {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+
+        assertEquals(1, helpBuild(IMarker.SEVERITY_WARNING, "A", this.importedModel.getFullPath()).size()); //$NON-NLS-1$
+    }
+
+    public void testImportOutsideGraphIsNotCached() throws Exception {
+        final IResource library = helpCreateResource("/Other/library.xmi", "library"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.outsideGraph.add(library.getFullPath());
+        this.imports.put(this.model.getFullPath(), Arrays.asList(new IPath[] {this.importedModel.getFullPath(), library.getFullPath()}));
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+
+        assertEquals(0, this.cache.size());
+    }
+
+    public void testResourceOutsideGraphIsNotCached() {
+        this.outsideGraph.add(this.model.getFullPath());
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+
+        assertEquals(0, this.cache.size());
+    }
+
+    public void testExcludedResourceIsNotRecorded() {
+        final ValidationResultCache.Session session = helpStartSession();
+        final ProblemMarkerSink sink = new ProblemMarkerSink();
+        session.replay(Collections.singletonList(this.model), sink);
+        session.exclude(this.model);
+        session.record(sink);
+
+        assertEquals(0, this.cache.size());
+    }
+
+    public void testConfigurationChangeDiscardsEntries() {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        this.configuration.set(1, "pref=error"); //$NON-NLS-1$
+
+        assertEquals(1, helpBuild(IMarker.SEVERITY_WARNING, "A").size()); //$NON-NLS-1$
+    }
+
+    public void testSaveAndLoad() {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        this.cache.save();
+        assertTrue(this.storeFile.isFile());
+
+        this.cache = helpCreateCache(VERSION);
+        assertEquals(1, this.cache.size());
+        assertEquals("A", helpReplay().get(0).get(4)); //$NON-NLS-1$
+    }
+
+    public void testOtherVersionIsIgnored() {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        this.cache.save();
+
+        this.cache = helpCreateCache("9.0"); //$NON-NLS-1$
+        assertEquals(0, this.cache.size());
+    }
+
+    public void testRemoveAllUnderProject() {
+        helpBuild(IMarker.SEVERITY_WARNING, "A"); //$NON-NLS-1$
+        this.cache.removeAll(new Path("/Other")); //$NON-NLS-1$
+        assertEquals(1, this.cache.size());
+
+        this.cache.removeAll(new Path("/Project")); //$NON-NLS-1$
+        assertEquals(0, this.cache.size());
+    }
+}
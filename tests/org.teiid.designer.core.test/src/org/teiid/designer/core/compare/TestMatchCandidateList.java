@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.compare;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import junit.framework.TestCase;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.mapping.Mapping;
+import org.eclipse.emf.mapping.MappingFactory;
+
+/**
+ * TestMatchCandidateList
+ */
+public class TestMatchCandidateList extends TestCase {
+
+    /**
+     * Constructor for TestMatchCandidateList.
+     *
+     * @param name
+     */
+    public TestMatchCandidateList( String name ) {
+        super(name);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private static class NameMatcher extends AbstractEObjectNameMatcher {
+        @Override
+        protected String getInputKey( final EObject entity ) {
+            return ((ENamedElement)entity).getName();
+        }
+
+        @Override
+        protected String getOutputKey( final EObject entity ) {
+            return ((ENamedElement)entity).getName();
+        }
+    }
+
+    private static List helpCreateClasses( final int count ) {
+        final List result = new ArrayList(count);
+        for (int i = 0; i < count; i++) {
+            final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+            eClass.setName("Class" + i); //$NON-NLS-1$
+            result.add(eClass);
+        }
+        return result;
+    }
+
+    /**
+     * Match the same number of input and output siblings by name, in reverse order of each other.
+     *
+     * @param count the number of siblings
+     * @return the time in milliseconds taken by the matching
+     */
+    static long helpMatchSiblings( final int count ) {
+        final List inputClasses = helpCreateClasses(count);
+        final List outputClasses = helpCreateClasses(count);
+        Collections.reverse(outputClasses);
+        final List inputs = new MatchCandidateList(inputClasses);
+        final List outputs = new MatchCandidateList(outputClasses);
+        final Mapping mapping = MappingFactory.eINSTANCE.createMapping();
+
+        final long start = System.currentTimeMillis();
+        new NameMatcher().addMappings(null, inputs, outputs, mapping, MappingFactory.eINSTANCE);
+        final long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(0, inputs.size());
+        assertEquals(0, outputs.size());
+        assertEquals(count, mapping.getNested().size());
+        return elapsed;
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testKeepsOrder() {
+        final List list = new MatchCandidateList(Arrays.asList(new Object[] {"a", "b", "c"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        list.add("d"); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"a", "b", "c", "d"}), list); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals("c", list.get(2)); //$NON-NLS-1$
+    }
+
+    public void testRemove() {
+        final List list = new MatchCandidateList(Arrays.asList(new Object[] {"a", "b", "c"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertTrue(list.remove("b")); //$NON-NLS-1$
+        assertFalse(list.remove("b")); //$NON-NLS-1$
+        assertFalse(list.contains("b")); //$NON-NLS-1$
+        assertTrue(list.contains("c")); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"a", "c"}), list); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testIteratorRemove() {
+        final List list = new MatchCandidateList(Arrays.asList(new Object[] {"a", "b", "c"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        for (final Iterator iter = list.iterator(); iter.hasNext();) {
+            if (!"b".equals(iter.next())) { //$NON-NLS-1$
+                iter.remove();
+            }
+        }
+        assertEquals(Collections.singletonList("b"), list); //$NON-NLS-1$
+        assertFalse(list.contains("a")); //$NON-NLS-1$
+    }
+
+    public void testListIteratorAddAndSet() {
+        final List list = new MatchCandidateList(Arrays.asList(new Object[] {"a", "c"})); //$NON-NLS-1$ //$NON-NLS-2$
+        final ListIterator iter = list.listIterator(1);
+        iter.add("b"); //$NON-NLS-1$
+        assertEquals("c", iter.next()); //$NON-NLS-1$
+        iter.set("d"); //$NON-NLS-1$
+        assertEquals("d", iter.previous()); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"a", "b", "d"}), list); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertFalse(list.contains("c")); //$NON-NLS-1$
+        assertTrue(list.contains("d")); //$NON-NLS-1$
+    }
+
+    public void testDuplicates() {
+        final List list = new MatchCandidateList(Arrays.asList(new Object[] {"a", "b", "a"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertTrue(list.remove("a")); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"b", "a"}), list); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(list.contains("a")); //$NON-NLS-1$
+        assertTrue(list.remove("a")); //$NON-NLS-1$
+        assertFalse(list.contains("a")); //$NON-NLS-1$
+        assertEquals(Collections.singletonList("b"), list); //$NON-NLS-1$
+    }
+
+    public void testMatchingSiblingsByName() {
+        helpMatchSiblings(1000);
+    }
+}
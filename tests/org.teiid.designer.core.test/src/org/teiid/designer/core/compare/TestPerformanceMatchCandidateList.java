@@ -0,0 +1,35 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.compare;
+
+import junit.framework.TestCase;
+
+/**
+ * Benchmark of matching siblings by name through {@link MatchCandidateList}s, as the model comparison does for large models.
+ */
+public class TestPerformanceMatchCandidateList extends TestCase {
+
+    private static final int[] SIBLING_COUNTS = {10, 100, 1000, 10000, 100000};
+
+    /**
+     * Constructor for TestPerformanceMatchCandidateList.
+     *
+     * @param name
+     */
+    public TestPerformanceMatchCandidateList( String name ) {
+        super(name);
+    }
+
+    public void testMatchingSiblingsByName() {
+        System.out.println("\nTestPerformanceMatchCandidateList.testMatchingSiblingsByName()"); //$NON-NLS-1$
+        for (int i = 0; i < SIBLING_COUNTS.length; i++) {
+            final long elapsed = TestMatchCandidateList.helpMatchSiblings(SIBLING_COUNTS[i]);
+            System.out.println("  siblings = " + SIBLING_COUNTS[i] + ", time = " + elapsed + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+}
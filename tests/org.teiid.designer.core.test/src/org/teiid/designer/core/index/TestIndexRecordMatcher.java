@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.util.List;
+import junit.framework.TestCase;
+import org.teiid.core.designer.util.CharOperation;
+import org.teiid.core.designer.util.CoreStringUtil;
+
+/**
+ * TestIndexRecordMatcher
+ */
+public class TestIndexRecordMatcher extends TestCase {
+
+    private static final char DELIMITER = '|';
+
+    private static final String[] RECORDS = {"G|PartsSupplier.PARTS|mmuuid:1234|Parts|", //$NON-NLS-1$
+        "G|PartsSupplier.SUPPLIER||mmuuid:5678|", //$NON-NLS-1$
+        "C|PartsSupplier.PARTS.PART_ID|mmuuid:9999|mmuuid:1234|", //$NON-NLS-1$
+        "|G||PartsSupplier.parts|", //$NON-NLS-1$
+        "G", //$NON-NLS-1$
+        "", //$NON-NLS-1$
+        "|||"}; //$NON-NLS-1$
+
+    private static final String[] PATTERNS = {"G|*.PARTS|*", //$NON-NLS-1$
+        "G|PartsSupplier.*|mmuuid:5678", //$NON-NLS-1$
+        "?|*|mmuuid:1234|", //$NON-NLS-1$
+        "*|*|*|*|*", //$NON-NLS-1$
+        "G|*Supplier.P?RTS", //$NON-NLS-1$
+        "||G||", //$NON-NLS-1$
+        "G|", //$NON-NLS-1$
+        "*", //$NON-NLS-1$
+        "", //$NON-NLS-1$
+        "C|*.part_id"}; //$NON-NLS-1$
+
+    /**
+     * Constructor for TestIndexRecordMatcher.
+     *
+     * @param name
+     */
+    public TestIndexRecordMatcher( String name ) {
+        super(name);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    /**
+     * The matching SimpleIndexUtil used to do, splitting both the record and the pattern into strings.
+     */
+    private static boolean helpSplitAndMatch( final String record,
+                                              final String pattern ) {
+        final String delimiter = String.valueOf(DELIMITER);
+        final List recordTokens = CoreStringUtil.split(record, delimiter);
+        final List patternTokens = CoreStringUtil.split(pattern, delimiter);
+        if (patternTokens.size() > recordTokens.size()) {
+            return false;
+        }
+        for (int i = 0, n = patternTokens.size(); i < n; i++) {
+            if (!CharOperation.match(((String)patternTokens.get(i)).toCharArray(), ((String)recordTokens.get(i)).toCharArray(), false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean helpMatches( final String record,
+                                        final String pattern ) {
+        return new IndexRecordMatcher(pattern.toCharArray(), DELIMITER, false).matches(record.toCharArray());
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testSameResultsAsSplitting() {
+        for (int i = 0; i < PATTERNS.length; i++) {
+            final IndexRecordMatcher matcher = new IndexRecordMatcher(PATTERNS[i].toCharArray(), DELIMITER, false);
+            for (int j = 0; j < RECORDS.length; j++) {
+                assertEquals(PATTERNS[i] + " ~ " + RECORDS[j], //$NON-NLS-1$
+                             helpSplitAndMatch(RECORDS[j], PATTERNS[i]),
+                             matcher.matches(RECORDS[j].toCharArray()));
+            }
+        }
+    }
+
+    public void testFieldsMatchedInOrder() {
+        assertTrue(helpMatches("G|PartsSupplier.PARTS|mmuuid:1234|", "G|*.PARTS|mmuuid:*")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertFalse(helpMatches("G|PartsSupplier.PARTS|mmuuid:1234|", "G|mmuuid:*")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testWildcardDoesNotSpanDelimiter() {
+        assertFalse(helpMatches("G|Model.Table|", "G*Table")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(helpMatches("G|Model.Table|", "G|*Table")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testRecordWithFewerFieldsDoesNotMatch() {
+        assertFalse(helpMatches("G|Model.Table", "G|*|*")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testCaseSensitivity() {
+        final char[] record = "G|Model.Table|".toCharArray(); //$NON-NLS-1$
+        assertTrue(new IndexRecordMatcher("g|model.table".toCharArray(), DELIMITER, false).matches(record)); //$NON-NLS-1$
+        assertFalse(new IndexRecordMatcher("g|model.table".toCharArray(), DELIMITER, true).matches(record)); //$NON-NLS-1$
+    }
+
+    public void testNullPatternAndRecord() {
+        final IndexRecordMatcher matchAll = new IndexRecordMatcher(null, DELIMITER, false);
+        assertEquals(0, matchAll.getFieldCount());
+        assertTrue(matchAll.matches("G|Model|".toCharArray())); //$NON-NLS-1$
+        assertFalse(matchAll.matches(null));
+        assertEquals(3, new IndexRecordMatcher("|G||*|x".toCharArray(), DELIMITER, false).getFieldCount()); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import junit.framework.TestCase;
+
+/**
+ * TestMappedBlocksIndexInput
+ */
+public class TestMappedBlocksIndexInput extends TestCase {
+
+    private static final int NUM_DOCUMENTS = 20;
+    private static final int NUM_WORDS_PER_DOCUMENT = 2000;
+
+    private File indexDirectory;
+    private File indexFile;
+
+    /**
+     * Constructor for TestMappedBlocksIndexInput.
+     *
+     * @param name
+     */
+    public TestMappedBlocksIndexInput( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.indexFile = File.createTempFile("mapped", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.indexFile.delete();
+        this.indexDirectory = this.indexFile.getParentFile();
+
+        final Index index = new Index(this.indexDirectory, this.indexFile.getName(), false);
+        for (int i = 0; i < NUM_DOCUMENTS; i++) {
+            index.add(new TestDocument("/Project/Model" + i + ".xmi"), new TestIndexer(i)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        index.save();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.indexFile.delete();
+        super.tearDown();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    static class TestDocument implements IDocument {
+        private final String name;
+
+        TestDocument( final String name ) {
+            this.name = name;
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getType() {
+            return "xmi"; //$NON-NLS-1$
+        }
+    }
+
+    static class TestIndexer implements IIndexer {
+        private final int documentNumber;
+
+        TestIndexer( final int documentNumber ) {
+            this.documentNumber = documentNumber;
+        }
+
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( final IDocument document,
+                           final IIndexerOutput output ) {
+            output.addDocument(document);
+            for (int i = 0; i < NUM_WORDS_PER_DOCUMENT; i++) {
+                // every tenth word is shared by all documents
+                final int wordNumber = (i % 10 == 0 ? i : this.documentNumber * NUM_WORDS_PER_DOCUMENT + i);
+                output.addRef("Word|" + (i % 3 == 0 ? "Table" : "Column") + '|' + wordNumber); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        }
+
+        @Override
+        public void setFileTypes( final String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( final IDocument document ) {
+            return true;
+        }
+    }
+
+    private static List<String> helpGetWords( final IEntryResult[] results ) {
+        final List<String> words = new ArrayList<String>();
+        if (results != null) {
+            for (int i = 0; i < results.length; i++) {
+                words.add(new String(results[i].getWord()) + Arrays.toString(results[i].getFileReferences()));
+            }
+        }
+        Collections.sort(words);
+        return words;
+    }
+
+    private static List<String> helpGetPaths( final IQueryResult[] results ) {
+        final List<String> paths = new ArrayList<String>();
+        if (results != null) {
+            for (int i = 0; i < results.length; i++) {
+                paths.add(results[i].getPath());
+            }
+        }
+        Collections.sort(paths);
+        return paths;
+    }
+
+    private void helpAssertSameResults( final BlocksIndexInput expected,
+                                        final BlocksIndexInput actual ) throws IOException {
+        final String[] patterns = {"Word|Table|*", "word|column|1*", "*|30", "Word|Column|1001"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        for (int i = 0; i < patterns.length; i++) {
+            final char[] pattern = patterns[i].toCharArray();
+            assertEquals(helpGetWords(expected.queryEntriesMatching(pattern, true)),
+                         helpGetWords(actual.queryEntriesMatching(pattern, true)));
+            assertEquals(helpGetWords(expected.queryEntriesMatching(pattern, false)),
+                         helpGetWords(actual.queryEntriesMatching(pattern, false)));
+        }
+
+        final String[] prefixes = {"Word|Table|", "Word|Column|12", "word|table|3"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        for (int i = 0; i < prefixes.length; i++) {
+            final char[] prefix = prefixes[i].toCharArray();
+            assertEquals(helpGetWords(expected.queryEntriesPrefixedBy(prefix)), helpGetWords(actual.queryEntriesPrefixedBy(prefix)));
+            assertEquals(helpGetWords(expected.queryEntriesPrefixedBy(prefix, false)),
+                         helpGetWords(actual.queryEntriesPrefixedBy(prefix, false)));
+            assertEquals(helpGetPaths(expected.queryFilesReferringToPrefix(prefix)),
+                         helpGetPaths(actual.queryFilesReferringToPrefix(prefix)));
+        }
+
+        assertEquals(helpGetPaths(expected.queryInDocumentNames("Model1")), helpGetPaths(actual.queryInDocumentNames("Model1"))); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(expected.getNumFiles(), actual.getNumFiles());
+        assertEquals(expected.getNumWords(), actual.getNumWords());
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testSameResultsAsBlocksIndexInput() throws Exception {
+        final BlocksIndexInput expected = new BlocksIndexInput(this.indexFile);
+        final MappedBlocksIndexInput actual = new MappedBlocksIndexInput(this.indexFile);
+        try {
+            expected.open();
+            actual.open();
+            assertEquals(NUM_DOCUMENTS, actual.getNumFiles());
+            helpAssertSameResults(expected, actual);
+        } finally {
+            expected.close();
+            actual.close();
+        }
+    }
+
+    public void testSequentialIteration() throws Exception {
+        final MappedBlocksIndexInput input = new MappedBlocksIndexInput(this.indexFile);
+        try {
+            input.open();
+            int numFiles = 0;
+            while (input.hasMoreFiles()) {
+                assertNotNull(input.getCurrentFile());
+                input.moveToNextFile();
+                numFiles++;
+            }
+            assertEquals(NUM_DOCUMENTS, numFiles);
+
+            int numWords = 0;
+            while (input.hasMoreWords()) {
+                assertNotNull(input.getCurrentWordEntry());
+                input.moveToNextWordEntry();
+                numWords++;
+            }
+            assertEquals(input.getNumWords(), numWords);
+        } finally {
+            input.close();
+        }
+    }
+
+    public void testReopenAfterClose() throws Exception {
+        final MappedBlocksIndexInput input = new MappedBlocksIndexInput(this.indexFile);
+        input.open();
+        input.close();
+        assertFalse(input.isOpen());
+        // queries reopen the input
+        assertNotNull(input.queryEntriesPrefixedBy("Word|Table|".toCharArray())); //$NON-NLS-1$
+        assertTrue(input.isOpen());
+        input.close();
+    }
+
+    public void testConcurrentQueries() throws Exception {
+        final BlocksIndexInput expected = new BlocksIndexInput(this.indexFile);
+        final List<String> expectedWords;
+        try {
+            expectedWords = helpGetWords(expected.queryEntriesMatching("Word|*|1*".toCharArray(), true)); //$NON-NLS-1$
+        } finally {
+            expected.close();
+        }
+        assertFalse(expectedWords.isEmpty());
+
+        final MappedBlocksIndexInput input = new MappedBlocksIndexInput(this.indexFile);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 20; j++) {
+                            assertEquals(expectedWords, helpGetWords(input.queryEntriesMatching("Word|*|1*".toCharArray(), true))); //$NON-NLS-1$
+                            assertEquals(NUM_DOCUMENTS, input.queryInDocumentNames("Model").length); //$NON-NLS-1$
+                        }
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }
+            };
+        }
+        try {
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].start();
+            }
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].join();
+            }
+        } finally {
+            input.close();
+        }
+        if (!failures.isEmpty()) {
+            final AssertionError error = new AssertionError(failures.size() + " queries failed"); //$NON-NLS-1$
+            error.initCause(failures.get(0));
+            throw error;
+        }
+    }
+
+    public void testIndexUsesMappedInputWhenCaching() throws Exception {
+        final Index index = new Index(this.indexDirectory, this.indexFile.getName(), true);
+        index.setDoCache(true);
+        index.setUseMappedInput(true);
+        try {
+            assertEquals(NUM_DOCUMENTS, index.getNumDocuments());
+            assertTrue(index.getCachedInput() instanceof MappedBlocksIndexInput);
+            assertNotNull(index.queryEntries("Word|Column|".toCharArray(), true)); //$NON-NLS-1$
+        } finally {
+            index.close();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.metadata.runtime;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.teiid.designer.core.index.IndexConstants;
+import org.teiid.designer.metadata.runtime.impl.RecordFactory;
+
+/**
+ * Compares the records decoded by {@link RecordFactory} with those of the {@link StringSplittingRecordFactory} it replaced, over
+ * randomly generated index records including malformed ones.
+ */
+public class TestRecordDecoding extends TestCase {
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+    private static final char LIST_DELIMITER = IndexConstants.RECORD_STRING.LIST_DELIMITER;
+    private static final char VERSION_DELIMITER = IndexConstants.RECORD_STRING.INDEX_VERSION_MARKER;
+
+    private static final int RECORD_COUNT = 300000;
+    private static final long SEED = 7;
+
+    private static final String[] TOKENS = {" ", "0", "1", "-1", "12", "123456789", "1234567890", "99999", "+5", "abc", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+        "mmuuid:1234", "10101011", "111", "0101", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        "a" + LIST_DELIMITER + "b" + LIST_DELIMITER + " " + LIST_DELIMITER + "c", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        LIST_DELIMITER + "x" + LIST_DELIMITER + LIST_DELIMITER, //$NON-NLS-1$
+        "a,b, ,c", String.valueOf(VERSION_DELIMITER), "x y", "-"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    private static final String[] FACTORY_METHODS = {"createModelRecord", "createVdbRecord", "createTransformationRecord", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        "createTableRecord", "createColumnRecord", "createColumnSetRecord", "createForeignKeyRecord", "createUniqueKeyRecord", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+        "createDatatypeRecord", "createProcedureRecord", "createProcedureParameterRecord", "createAnnotationRecord", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        "createPropertyRecord", "createFileRecord"}; //$NON-NLS-1$ //$NON-NLS-2$
+
+    /**
+     * Constructor for TestRecordDecoding.
+     *
+     * @param name
+     */
+    public TestRecordDecoding( String name ) {
+        super(name);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    /**
+     * @return a record of a random type character followed by up to 31 delimited tokens, sometimes with doubled delimiters, an
+     *         index version footer or a trailing delimiter
+     */
+    private static String helpCreateRecord( final Random random ) {
+        final StringBuffer sb = new StringBuffer();
+        sb.append((char)('A' + random.nextInt(26)));
+        final int tokenCount = random.nextInt(32);
+        for (int i = 0; i < tokenCount; i++) {
+            sb.append(DELIMITER);
+            if (random.nextInt(20) == 0) {
+                sb.append(DELIMITER);
+            }
+            if (random.nextInt(3) == 0) {
+                sb.append(random.nextInt(5));
+            } else {
+                sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+        }
+        if (random.nextBoolean()) {
+            final int version = random.nextInt(12);
+            sb.append(DELIMITER).append(VERSION_DELIMITER).append(version < 10 ? "0" : "").append(version); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (random.nextInt(10) == 0) {
+            sb.append(DELIMITER);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the decoded record, or the exception thrown decoding it
+     */
+    private static Object helpDecode( final Class factory,
+                                      final String methodName,
+                                      final String record ) throws Exception {
+        final Method method = factory.getMethod(methodName, new Class[] {char[].class});
+        try {
+            return method.invoke(null, new Object[] {record.toCharArray()});
+        } catch (final InvocationTargetException e) {
+            return e.getCause();
+        }
+    }
+
+    private static Object helpGet( final Method getter,
+                                   final Object record ) throws Exception {
+        try {
+            return getter.invoke(record, new Object[0]);
+        } catch (final InvocationTargetException e) {
+            return e.getCause().getClass();
+        }
+    }
+
+    private static boolean isGetter( final Method method ) {
+        return method.getParameterTypes().length == 0 && method.getDeclaringClass() != Object.class
+               && !method.getReturnType().isArray() && (method.getName().startsWith("get") || method.getName().startsWith("is")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static void helpAssertSameRecord( final String message,
+                                              final Object expected,
+                                              final Object actual ) throws Exception {
+        if (expected instanceof Throwable || actual instanceof Throwable) {
+            assertTrue(message + ": " + expected + " / " + actual, expected instanceof Throwable && actual instanceof Throwable); //$NON-NLS-1$ //$NON-NLS-2$
+            // the index an out of bounds access fails at may differ, not the kind of failure
+            if (!(expected instanceof IndexOutOfBoundsException && actual instanceof IndexOutOfBoundsException)) {
+                assertEquals(message, expected.getClass(), actual.getClass());
+            }
+            return;
+        }
+        assertEquals(message, expected.getClass(), actual.getClass());
+        final Method[] methods = expected.getClass().getMethods();
+        for (int i = 0; i < methods.length; i++) {
+            if (isGetter(methods[i])) {
+                assertEquals(message + '.' + methods[i].getName(), helpGet(methods[i], expected), helpGet(methods[i], actual));
+            }
+        }
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testDecodesRandomRecordsLikeStringSplitting() throws Exception {
+        final Random random = new Random(SEED);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            final String record = helpCreateRecord(random);
+            final String methodName = FACTORY_METHODS[random.nextInt(FACTORY_METHODS.length)];
+            helpAssertSameRecord(methodName + '(' + record + ')',
+                                 helpDecode(StringSplittingRecordFactory.class, methodName, record),
+                                 helpDecode(RecordFactory.class, methodName, record));
+        }
+    }
+}
@@ -517,7 +517,26 @@ public class TestRuntimeAdapter extends TestCase {
         record = RecordFactory.createColumnRecord(word.getWord());
         assertEquals(new Path(modelPath).toString(), record.getResourcePath());
     }
-    
+
+    public void testColumnRecordsShareRepeatedValues() {
+        String modelPath = "myprj/myModel"; //$NON-NLS-1$
+
+        FakeSqlColumnAspect aspect = new FakeSqlColumnAspect();
+        aspect.uuid = "uuid1"; //$NON-NLS-1$
+        aspect.runtimeType = "integer"; //$NON-NLS-1$
+        aspect.datatypeUUID = "mmuuid:datatype"; //$NON-NLS-1$
+        ColumnRecord record1 = RecordFactory.createColumnRecord(createColumnWord(aspect,modelPath).getWord());
+
+        aspect.uuid = "uuid2"; //$NON-NLS-1$
+        ColumnRecord record2 = RecordFactory.createColumnRecord(createColumnWord(aspect,modelPath).getWord());
+
+        assertEquals("uuid2", record2.getUUID()); //$NON-NLS-1$
+        assertSame(record1.getRuntimeType(), record2.getRuntimeType());
+        assertSame(record1.getDatatypeUUID(), record2.getDatatypeUUID());
+        assertSame(record1.getResourcePath(), record2.getResourcePath());
+        assertEquals(RecordFactory.CURRENT_INDEX_VERSION, record2.getIndexVersion());
+    }
+
     public void testCreateDatatypeWord() {
         System.out.println("TestRuntimeAdapter.testCreateDatatypeWord()"); //$NON-NLS-1$
 
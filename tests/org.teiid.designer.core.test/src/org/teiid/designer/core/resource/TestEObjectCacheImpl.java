@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.teiid.core.designer.id.ObjectID;
+import org.teiid.core.designer.id.StringID;
+import org.teiid.core.designer.id.UUID;
+
+/**
+ * TestEObjectCacheImpl
+ */
+public class TestEObjectCacheImpl extends TestCase {
+
+    /** Keys assigned by the test rather than by the EObjects' resources */
+    private Map<EObject, ObjectID> keys;
+    private EObjectCacheImpl cache;
+
+    /**
+     * Constructor for TestEObjectCacheImpl.
+     *
+     * @param name
+     */
+    public TestEObjectCacheImpl( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        keys = new IdentityHashMap<EObject, ObjectID>();
+        cache = new EObjectCacheImpl() {
+            @Override
+            protected ObjectID getCacheKey( final EObject value ) {
+                return keys.get(value);
+            }
+        };
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private EObject helpCreateEObject( final ObjectID key ) {
+        final EObject value = EcoreFactory.eINSTANCE.createEObject();
+        keys.put(value, key);
+        return value;
+    }
+
+    private EObject helpCreateEObject( final long mostSig,
+                                       final long leastSig ) {
+        return helpCreateEObject(new UUID(mostSig, leastSig));
+    }
+
+    private EPackage helpCreateTree() {
+        final EPackage root = EcoreFactory.eINSTANCE.createEPackage();
+        keys.put(root, new UUID(1, 1));
+        for (int i = 0; i < 3; i++) {
+            final EClass child = EcoreFactory.eINSTANCE.createEClass();
+            keys.put(child, new UUID(2, i));
+            root.getEClassifiers().add(child);
+        }
+        return root;
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testEmptyCache() {
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.values().length);
+        assertNull(cache.get(new UUID(1, 2)));
+        assertNull(cache.get(null));
+        assertFalse(cache.containsKey(new UUID(1, 2)));
+    }
+
+    public void testAddAndGet() {
+        final EObject value = helpCreateEObject(1, 2);
+        cache.add(value, false);
+
+        assertEquals(1, cache.size());
+        assertSame(value, cache.get(new UUID(1, 2)));
+        assertTrue(cache.containsKey(new UUID(1, 2)));
+        assertTrue(cache.containsValue(value));
+        assertNull(cache.get(new UUID(2, 1)));
+    }
+
+    public void testAddReplacesValueWithSameKey() {
+        final EObject first = helpCreateEObject(1, 2);
+        final EObject second = helpCreateEObject(1, 2);
+        cache.add(first, false);
+        cache.add(second, false);
+
+        assertEquals(1, cache.size());
+        assertSame(second, cache.get(new UUID(1, 2)));
+        assertFalse(cache.containsValue(first));
+        assertTrue(cache.containsValue(second));
+    }
+
+    public void testKeysThatAreNotUuids() {
+        final EObject value = helpCreateEObject(new StringID("abc")); //$NON-NLS-1$
+        final EObject unkeyed = helpCreateEObject(null);
+        cache.add(value, false);
+        cache.add(unkeyed, false);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getOtherKeyCount());
+        assertSame(value, cache.get(new StringID("abc"))); //$NON-NLS-1$
+        assertTrue(cache.containsValue(unkeyed));
+
+        cache.remove(value, false);
+        assertEquals(1, cache.size());
+        assertFalse(cache.containsValue(value));
+    }
+
+    public void testRemoveByKeyAndByValue() {
+        final EObject first = helpCreateEObject(1, 2);
+        final EObject second = helpCreateEObject(3, 4);
+        cache.add(new EObject[] {first, second}, false);
+
+        cache.remove(new UUID(1, 2), false);
+        assertNull(cache.get(new UUID(1, 2)));
+        assertFalse(cache.containsValue(first));
+
+        cache.remove(second, false);
+        assertEquals(0, cache.size());
+        assertFalse(cache.containsValue(second));
+    }
+
+    public void testRemoveOfReplacedValueKeepsNewValue() {
+        final EObject first = helpCreateEObject(1, 2);
+        final EObject second = helpCreateEObject(1, 2);
+        cache.add(first, false);
+        cache.add(second, false);
+        cache.remove(first, false);
+
+        assertSame(second, cache.get(new UUID(1, 2)));
+    }
+
+    public void testAddAndRemoveRecursively() {
+        final EPackage root = helpCreateTree();
+        cache.add(root, true);
+
+        assertEquals(4, cache.size());
+        assertSame(root.getEClassifiers().get(2), cache.get(new UUID(2, 2)));
+
+        cache.remove(new UUID(1, 1), true);
+        assertEquals(0, cache.size());
+    }
+
+    public void testAddWithoutRecursion() {
+        cache.add(helpCreateTree(), false);
+        assertEquals(1, cache.size());
+    }
+
+    public void testClear() {
+        for (int i = 0; i < 1000; i++) {
+            cache.add(helpCreateEObject(i, -i), false);
+        }
+        assertTrue(cache.getCapacity() > 1000);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(new UUID(5, -5)));
+        assertTrue(cache.getCapacity() < 1000);
+    }
+
+    public void testManyAddsAndRemovesMatchHashMap() {
+        final Random random = new Random(42);
+        final Map<ObjectID, EObject> expected = new HashMap<ObjectID, EObject>();
+        for (int i = 0; i < 20000; i++) {
+            // Few distinct keys sharing high bits, so probe sequences collide and removals shift entries back
+            final UUID key = new UUID(random.nextInt(64), random.nextInt(64) << 20);
+            if (random.nextInt(3) == 0) {
+                cache.remove(key, false);
+                expected.remove(key);
+            } else {
+                final EObject value = helpCreateEObject(key);
+                cache.add(value, false);
+                expected.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), cache.size());
+        for (final Map.Entry<ObjectID, EObject> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), cache.get(entry.getKey()));
+            assertTrue(cache.containsValue(entry.getValue()));
+        }
+        assertEquals(expected.size(), cache.values().length);
+    }
+
+    public void testStatistics() {
+        for (int i = 0; i < 100; i++) {
+            cache.add(helpCreateEObject(0, i), false);
+        }
+
+        assertTrue(cache.getMaxProbeLength() >= 1);
+        assertTrue(cache.getEstimatedMemorySize() > 100 * 24);
+        assertTrue(cache.toString().indexOf("size=100") > 0); //$NON-NLS-1$
+    }
+}
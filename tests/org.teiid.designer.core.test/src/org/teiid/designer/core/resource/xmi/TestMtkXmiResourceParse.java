@@ -0,0 +1,267 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource.xmi;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.teiid.designer.core.container.Container;
+import org.teiid.designer.core.metamodel.MetamodelRegistry;
+import org.teiid.designer.core.types.DatatypeManager;
+import org.teiid.designer.metamodels.core.CoreFactory;
+import org.teiid.designer.metamodels.core.ModelAnnotation;
+import org.teiid.designer.metamodels.core.ModelImport;
+
+/**
+ * TestMtkXmiResourceParse
+ */
+public class TestMtkXmiResourceParse extends TestCase {
+
+    private File folder;
+    private File modelFile;
+    private URI modelUri;
+    private Container container;
+    private MtkXmiResourceImpl importedModel;
+    private MtkXmiResourceImpl model;
+
+    /**
+     * Constructor for TestMtkXmiResourceParse.
+     *
+     * @param name
+     */
+    public TestMtkXmiResourceParse( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.folder = File.createTempFile("parsedModels", null); //$NON-NLS-1$
+        this.folder.delete();
+        this.folder.mkdirs();
+        this.modelFile = new File(this.folder, "Model.xmi"); //$NON-NLS-1$
+        this.modelUri = URI.createFileURI(this.modelFile.getAbsolutePath());
+
+        this.container = mock(Container.class);
+        final MetamodelRegistry registry = mock(MetamodelRegistry.class);
+        when(this.container.getMetamodelRegistry()).thenReturn(registry);
+        final DatatypeManager datatypeManager = mock(DatatypeManager.class);
+        when(this.container.getDatatypeManager()).thenReturn(datatypeManager);
+
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        this.importedModel = helpCreateResource(URI.createFileURI(new File(this.folder, "Imported.xmi").getAbsolutePath()), //$NON-NLS-1$
+                                                resourceSet);
+        final EPackage importedPackage = EcoreFactory.eINSTANCE.createEPackage();
+        importedPackage.setName("Imported"); //$NON-NLS-1$
+        importedPackage.getEClassifiers().add(helpCreateClass("Base")); //$NON-NLS-1$
+        this.importedModel.getContents().add(importedPackage);
+
+        this.model = helpCreateModel(resourceSet);
+        this.model.save(Collections.EMPTY_MAP);
+    }
+
+    /*
+     * @see TestCase#tearDown()
+     */
+    @Override
+    protected void tearDown() throws Exception {
+        this.modelFile.delete();
+        this.folder.delete();
+        super.tearDown();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private static MtkXmiResourceImpl helpCreateResource( final URI uri,
+                                                          final ResourceSet resourceSet ) {
+        final MtkXmiResourceImpl resource = new MtkXmiResourceImpl(uri);
+        resourceSet.getResources().add(resource);
+        return resource;
+    }
+
+    private static EClass helpCreateClass( final String name ) {
+        final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        final EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName("name"); //$NON-NLS-1$
+        attribute.setEType(EcorePackage.eINSTANCE.getEString());
+        eClass.getEStructuralFeatures().add(attribute);
+        return eClass;
+    }
+
+    /**
+     * @return a model importing the imported model, with three classes of which the first extends a class of the imported model
+     */
+    private MtkXmiResourceImpl helpCreateModel( final ResourceSet resourceSet ) {
+        // saving needs the datatypes of a container
+        final MtkXmiResourceImpl resource = new MtkXmiResourceImpl(this.modelUri) {
+            @Override
+            public Container getContainer() {
+                return container;
+            }
+        };
+        resourceSet.getResources().add(resource);
+        final ModelAnnotation annotation = CoreFactory.eINSTANCE.createModelAnnotation();
+        final ModelImport modelImport = CoreFactory.eINSTANCE.createModelImport();
+        modelImport.setName("Imported"); //$NON-NLS-1$
+        modelImport.setModelLocation("Imported.xmi"); //$NON-NLS-1$
+        annotation.getModelImports().add(modelImport);
+        resource.getContents().add(annotation);
+
+        final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("Model"); //$NON-NLS-1$
+        for (int i = 0; i < 3; i++) {
+            ePackage.getEClassifiers().add(helpCreateClass("Class" + i)); //$NON-NLS-1$
+        }
+        ((EClass)ePackage.getEClassifiers().get(0)).getESuperTypes().add(helpGetBase());
+        resource.getContents().add(ePackage);
+        return resource;
+    }
+
+    private EClass helpGetBase() {
+        return (EClass)((EPackage)this.importedModel.getContents().get(0)).getEClassifiers().get(0);
+    }
+
+    private MtkXmiResourceImpl helpParse() throws Exception {
+        return MtkXmiResourceImpl.parse(this.modelUri, new ResourceSetImpl(), this.container, Collections.EMPTY_MAP);
+    }
+
+    private MtkXmiResourceImpl helpLoad( final MtkXmiResourceImpl parsed,
+                                         final ResourceSet resourceSet ) throws Exception {
+        final MtkXmiResourceImpl loaded = helpCreateResource(this.modelUri, resourceSet);
+        final Map options = new HashMap();
+        options.put(MtkXmiResourceImpl.OPTION_PARSED_RESOURCE, parsed);
+        loaded.load(options);
+        return loaded;
+    }
+
+    private void helpAssertSameContents( final MtkXmiResourceImpl expected,
+                                         final MtkXmiResourceImpl actual ) {
+        final Iterator actualContents = actual.getAllContents();
+        for (final Iterator iter = expected.getAllContents(); iter.hasNext();) {
+            final EObject expectedObject = (EObject)iter.next();
+            assertTrue(actualContents.hasNext());
+            final EObject actualObject = (EObject)actualContents.next();
+            assertEquals(expectedObject.eClass(), actualObject.eClass());
+            if (expectedObject instanceof ENamedElement) {
+                assertEquals(((ENamedElement)expectedObject).getName(), ((ENamedElement)actualObject).getName());
+            }
+            assertNotNull(expected.getID(expectedObject));
+            assertEquals(expected.getID(expectedObject), actual.getID(actualObject));
+            assertSame(actualObject, actual.getIDToEObjectMap().get(actual.getID(actualObject)));
+        }
+        assertFalse(actualContents.hasNext());
+    }
+
+    private void helpAssertImports( final MtkXmiResourceImpl actual ) {
+        final ModelAnnotation annotation = (ModelAnnotation)actual.getContents().get(0);
+        assertEquals(1, annotation.getModelImports().size());
+        final ModelImport modelImport = (ModelImport)annotation.getModelImports().get(0);
+        assertEquals("Imported", modelImport.getName()); //$NON-NLS-1$
+        assertEquals("Imported.xmi", modelImport.getModelLocation()); //$NON-NLS-1$
+
+        final EClass eClass = (EClass)((EPackage)actual.getContents().get(1)).getEClassifiers().get(0);
+        final InternalEObject superType = (InternalEObject)((InternalEList)eClass.getESuperTypes()).basicGet(0);
+        assertTrue(superType.eIsProxy());
+        assertEquals(EcoreUtil.getURI(helpGetBase()), superType.eProxyURI());
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testParseKeepsUuids() throws Exception {
+        final MtkXmiResourceImpl parsed = helpParse();
+
+        assertTrue(parsed.getErrors().isEmpty());
+        helpAssertSameContents(this.model, parsed);
+    }
+
+    public void testParseKeepsImports() throws Exception {
+        helpAssertImports(helpParse());
+    }
+
+    public void testParseUsesSuppliedResourceSet() throws Exception {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final MtkXmiResourceImpl parsed = MtkXmiResourceImpl.parse(this.modelUri, resourceSet, this.container, Collections.EMPTY_MAP);
+
+        assertSame(resourceSet, parsed.getResourceSet());
+        assertNull(parsed.getContainer());
+    }
+
+    public void testLoadMovesParsedContentsWithUuids() throws Exception {
+        final MtkXmiResourceImpl parsed = helpParse();
+        final MtkXmiResourceImpl loaded = helpLoad(parsed, new ResourceSetImpl());
+
+        helpAssertSameContents(this.model, loaded);
+        assertTrue(parsed.getContents().isEmpty());
+        assertTrue(parsed.getEObjectToIDMap().isEmpty());
+        assertTrue(parsed.getIDToEObjectMap().isEmpty());
+    }
+
+    public void testLoadMovesParsedImports() throws Exception {
+        helpAssertImports(helpLoad(helpParse(), new ResourceSetImpl()));
+    }
+
+    public void testLoadMovesNamespaceConversions() throws Exception {
+        final MtkXmiResourceImpl parsed = helpParse();
+        final URI logicalUri = URI.createURI("http://www.example.org/Model"); //$NON-NLS-1$
+        final URI otherLogicalUri = URI.createURI("http://www.example.org/Other"); //$NON-NLS-1$
+        final Map parsedUriMap = parsed.getResourceSet().getURIConverter().getURIMap();
+        parsedUriMap.put(logicalUri, this.modelUri);
+        parsedUriMap.put(otherLogicalUri, URI.createFileURI(new File(this.folder, "Other.xmi").getAbsolutePath())); //$NON-NLS-1$
+
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        helpLoad(parsed, resourceSet);
+
+        // only the conversions to the model itself are registered
+        final Map uriMap = resourceSet.getURIConverter().getURIMap();
+        assertEquals(this.modelUri, uriMap.get(logicalUri));
+        assertFalse(uriMap.containsKey(otherLogicalUri));
+    }
+
+    public void testLoadIgnoresResourceParsedFromOtherFile() throws Exception {
+        final MtkXmiResourceImpl parsed = helpParse();
+        final MtkXmiResourceImpl loaded = helpCreateResource(URI.createFileURI(new File(this.folder, "Copy.xmi").getAbsolutePath()), //$NON-NLS-1$
+                                                             new ResourceSetImpl());
+        final Map options = new HashMap();
+        options.put(MtkXmiResourceImpl.OPTION_PARSED_RESOURCE, parsed);
+        try {
+            loaded.load(options);
+        } catch (final Exception e) {
+            // the other file does not exist
+        }
+
+        assertTrue(loaded.getContents().isEmpty());
+        helpAssertSameContents(this.model, parsed);
+    }
+}
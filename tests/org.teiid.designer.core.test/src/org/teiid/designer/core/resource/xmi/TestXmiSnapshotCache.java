@@ -0,0 +1,298 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource.xmi;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.BasicEMap;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.xsd.XSDFactory;
+
+/**
+ * TestXmiSnapshotCache
+ */
+public class TestXmiSnapshotCache extends TestCase {
+
+    private static final String VERSION = "8.0"; //$NON-NLS-1$
+
+    private static final String MODEL_XMI = "<?xml version=\"1.0\" encoding=\"ASCII\"?>\n" //$NON-NLS-1$
+                                            + "<xmi:XMI xmi:version=\"2.0\" xmlns:xmi=\"http://www.omg.org/XMI\"/>\n"; //$NON-NLS-1$
+
+    private File folder;
+    private File modelFile;
+    private URI modelUri;
+    private XmiSnapshotCache cache;
+    private MtkXmiResourceImpl importedModel;
+
+    /**
+     * Constructor for TestXmiSnapshotCache.
+     *
+     * @param name
+     */
+    public TestXmiSnapshotCache( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.folder = File.createTempFile("xmiSnapshots", null); //$NON-NLS-1$
+        this.folder.delete();
+        this.folder.mkdirs();
+        this.modelFile = new File(this.folder, "Model.xmi"); //$NON-NLS-1$
+        helpWriteModelFile(MODEL_XMI);
+        this.modelUri = URI.createFileURI(this.modelFile.getAbsolutePath());
+        this.cache = new XmiSnapshotCache(new File(this.folder, XmiSnapshotCache.SNAPSHOT_FOLDER_NAME), VERSION, 0);
+        this.importedModel = helpCreateResource(URI.createFileURI(new File(this.folder, "Imported.xmi").getAbsolutePath()), //$NON-NLS-1$
+                                                new ResourceSetImpl());
+        final EPackage importedPackage = EcoreFactory.eINSTANCE.createEPackage();
+        importedPackage.setName("Imported"); //$NON-NLS-1$
+        importedPackage.getEClassifiers().add(helpCreateClass("Base")); //$NON-NLS-1$
+        this.importedModel.getContents().add(importedPackage);
+    }
+
+    /*
+     * @see TestCase#tearDown()
+     */
+    @Override
+    protected void tearDown() throws Exception {
+        this.cache.clear();
+        this.cache.getFolder().delete();
+        this.modelFile.delete();
+        this.folder.delete();
+        super.tearDown();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private static MtkXmiResourceImpl helpCreateResource( final URI uri,
+                                                          final ResourceSet resourceSet ) {
+        final MtkXmiResourceImpl resource = new MtkXmiResourceImpl(uri);
+        resourceSet.getResources().add(resource);
+        return resource;
+    }
+
+    private static EClass helpCreateClass( final String name ) {
+        final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        final EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName("name"); //$NON-NLS-1$
+        attribute.setEType(EcorePackage.eINSTANCE.getEString());
+        eClass.getEStructuralFeatures().add(attribute);
+        return eClass;
+    }
+
+    /**
+     * @return a model of three classes, the first one extending a class of the imported model
+     */
+    private MtkXmiResourceImpl helpCreateModel() {
+        final ResourceSet resourceSet = this.importedModel.getResourceSet();
+        final MtkXmiResourceImpl model = helpCreateResource(this.modelUri, resourceSet);
+        final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("Model"); //$NON-NLS-1$
+        for (int i = 0; i < 3; i++) {
+            ePackage.getEClassifiers().add(helpCreateClass("Class" + i)); //$NON-NLS-1$
+        }
+        ((EClass)ePackage.getEClassifiers().get(0)).getESuperTypes().add(helpGetBase());
+        model.getContents().add(ePackage);
+
+        final BasicEMap prefixesToURIs = new BasicEMap();
+        prefixesToURIs.put("ecore", EcorePackage.eNS_URI); //$NON-NLS-1$
+        model.setNamespacePrefixToUris(prefixesToURIs);
+        return model;
+    }
+
+    private EClass helpGetBase() {
+        return (EClass)((EPackage)this.importedModel.getContents().get(0)).getEClassifiers().get(0);
+    }
+
+    private void helpWriteModelFile( final String contents ) throws Exception {
+        final FileWriter writer = new FileWriter(this.modelFile);
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void helpAssertSameContents( final MtkXmiResourceImpl expected,
+                                         final MtkXmiResourceImpl actual ) {
+        final Iterator actualContents = actual.getAllContents();
+        for (final Iterator iter = expected.getAllContents(); iter.hasNext();) {
+            final EObject expectedObject = (EObject)iter.next();
+            assertTrue(actualContents.hasNext());
+            final EObject actualObject = (EObject)actualContents.next();
+            assertEquals(expectedObject.eClass(), actualObject.eClass());
+            if (expectedObject instanceof ENamedElement) {
+                assertEquals(((ENamedElement)expectedObject).getName(), ((ENamedElement)actualObject).getName());
+            }
+            assertNotNull(expected.getID(expectedObject));
+            assertEquals(expected.getID(expectedObject), actual.getID(actualObject));
+            assertSame(actualObject, actual.getIDToEObjectMap().get(actual.getID(actualObject)));
+        }
+        assertFalse(actualContents.hasNext());
+    }
+
+    private void helpTruncateSnapshot( final long length ) throws Exception {
+        final RandomAccessFile file = new RandomAccessFile(this.cache.getSnapshotFile(this.modelUri), "rw"); //$NON-NLS-1$
+        try {
+            file.setLength(length);
+        } finally {
+            file.close();
+        }
+    }
+
+    private void helpAssertSnapshotDiscarded( final MtkXmiResourceImpl loaded ) {
+        assertFalse(this.cache.load(loaded, this.modelFile));
+        assertFalse(this.cache.getSnapshotFile(this.modelUri).exists());
+        assertTrue(loaded.getContents().isEmpty());
+        assertTrue(loaded.getEObjectToIDMap().isEmpty());
+        assertTrue(loaded.getNamespacePrefixToUris().isEmpty());
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testRoundTripKeepsContentsAndUuids() throws Exception {
+        final MtkXmiResourceImpl model = helpCreateModel();
+        assertTrue(this.cache.save(model, this.modelFile));
+        assertTrue(this.cache.getSnapshotFile(this.modelUri).isFile());
+
+        final MtkXmiResourceImpl loaded = helpCreateResource(this.modelUri, new ResourceSetImpl());
+        assertTrue(this.cache.load(loaded, this.modelFile));
+
+        helpAssertSameContents(model, loaded);
+        final List prefixesToURIs = loaded.getNamespacePrefixToUris();
+        assertEquals(1, prefixesToURIs.size());
+        assertEquals("ecore", ((Map.Entry)prefixesToURIs.get(0)).getKey()); //$NON-NLS-1$
+        assertEquals(EcorePackage.eNS_URI, ((Map.Entry)prefixesToURIs.get(0)).getValue());
+    }
+
+    public void testRoundTripKeepsReferencesToImportedModels() throws Exception {
+        assertTrue(this.cache.save(helpCreateModel(), this.modelFile));
+
+        final MtkXmiResourceImpl loaded = helpCreateResource(this.modelUri, new ResourceSetImpl());
+        assertTrue(this.cache.load(loaded, this.modelFile));
+
+        final EClass eClass = (EClass)((EPackage)loaded.getContents().get(0)).getEClassifiers().get(0);
+        final InternalEObject superType = (InternalEObject)((InternalEList)eClass.getESuperTypes()).basicGet(0);
+        assertTrue(superType.eIsProxy());
+        assertEquals(EcoreUtil.getURI(helpGetBase()), superType.eProxyURI());
+    }
+
+    public void testLoadUsesSnapshot() throws Exception {
+        final MtkXmiResourceImpl model = helpCreateModel();
+        assertTrue(this.cache.save(model, this.modelFile));
+
+        // the model file holds no objects, so they can only come from the snapshot
+        final MtkXmiResourceImpl loaded = new MtkXmiResourceImpl(this.modelUri) {
+            @Override
+            protected XmiSnapshotCache getSnapshotCache() {
+                return cache;
+            }
+        };
+        new ResourceSetImpl().getResources().add(loaded);
+        loaded.load(Collections.EMPTY_MAP);
+
+        helpAssertSameContents(model, loaded);
+    }
+
+    public void testChangedModelFileIsLoadedFromXmi() throws Exception {
+        assertTrue(this.cache.save(helpCreateModel(), this.modelFile));
+        // same length, other contents
+        helpWriteModelFile(MODEL_XMI.replace("ASCII", "UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(MODEL_XMI.length(), this.modelFile.length());
+
+        final MtkXmiResourceImpl loaded = helpCreateResource(this.modelUri, new ResourceSetImpl());
+        assertFalse(this.cache.load(loaded, this.modelFile));
+        assertTrue(loaded.getContents().isEmpty());
+        // left to be replaced when the model is loaded from XMI
+        assertTrue(this.cache.getSnapshotFile(this.modelUri).isFile());
+    }
+
+    public void testSnapshotOfOtherVersionIsIgnored() throws Exception {
+        assertTrue(this.cache.save(helpCreateModel(), this.modelFile));
+        this.cache = new XmiSnapshotCache(this.cache.getFolder(), "9.0", 0); //$NON-NLS-1$
+
+        assertFalse(this.cache.load(helpCreateResource(this.modelUri, new ResourceSetImpl()), this.modelFile));
+    }
+
+    public void testTruncatedSnapshotIsDeleted() throws Exception {
+        assertTrue(this.cache.save(helpCreateModel(), this.modelFile));
+        helpTruncateSnapshot(this.cache.getSnapshotFile(this.modelUri).length() / 2);
+
+        helpAssertSnapshotDiscarded(helpCreateResource(this.modelUri, new ResourceSetImpl()));
+    }
+
+    public void testTruncatedSnapshotHeaderIsDeleted() throws Exception {
+        assertTrue(this.cache.save(helpCreateModel(), this.modelFile));
+        helpTruncateSnapshot(10);
+
+        helpAssertSnapshotDiscarded(helpCreateResource(this.modelUri, new ResourceSetImpl()));
+    }
+
+    public void testModelWithErrorsIsNotSaved() throws Exception {
+        final MtkXmiResourceImpl model = helpCreateModel();
+        model.getErrors().add(mock(Resource.Diagnostic.class));
+
+        assertFalse(this.cache.canSave(model));
+        assertFalse(this.cache.save(model, this.modelFile));
+        assertFalse(this.cache.getSnapshotFile(this.modelUri).exists());
+    }
+
+    public void testModelWithUnresolvedProxyIsNotSaved() throws Exception {
+        final MtkXmiResourceImpl model = helpCreateModel();
+        final EClass proxy = EcoreFactory.eINSTANCE.createEClass();
+        ((InternalEObject)proxy).eSetProxyURI(EcoreUtil.getURI(helpGetBase()));
+        ((EPackage)model.getContents().get(0)).getEClassifiers().add(proxy);
+
+        assertFalse(this.cache.canSave(model));
+        assertFalse(this.cache.save(model, this.modelFile));
+    }
+
+    public void testModelWithXmlSchemaIsNotSaved() throws Exception {
+        final MtkXmiResourceImpl model = helpCreateModel();
+        model.getContents().add(XSDFactory.eINSTANCE.createXSDSchema());
+
+        assertFalse(this.cache.canSave(model));
+        assertFalse(this.cache.save(model, this.modelFile));
+    }
+
+    public void testSmallModelIsNotCandidate() throws Exception {
+        assertTrue(this.cache.isSnapshotCandidate(this.modelFile));
+        this.cache = new XmiSnapshotCache(this.cache.getFolder(), VERSION, this.modelFile.length() + 1);
+        assertFalse(this.cache.isSnapshotCandidate(this.modelFile));
+    }
+}
@@ -22,6 +22,7 @@ import org.teiid.designer.core.metamodel.aspect.TestAbstractMetamodelAspect;
 import org.teiid.designer.core.search.runtime.TestSearchRuntimeAdapter;
 import org.teiid.designer.core.transaction.TestSourcedNotificationImpl;
 import org.teiid.designer.core.transaction.TestTransactionStateConstants;
+import org.teiid.designer.core.transaction.TestTxnNotificationFilter;
 import org.teiid.designer.core.transaction.TestUnitOfWorkProviderImpl;
 import org.teiid.designer.core.types.TestDatatypeConstants;
 import org.teiid.designer.core.util.StringUtilitiesTest;
@@ -65,7 +66,8 @@ import org.teiid.designer.core.workspace.TestOpenableModelWorkspaceItemInfo;
     TestModelProjectImpl.class, TestModelBufferManager.class, TestModelBufferImpl.class, TestModelBufferCache.class,
     TestDotProjectUtil.class, ResourceAnnotationHelperTest.class, TestValidationResultImpl.class,
     TestValidationProblemImpl.class, TestOverflowingLRUCache.class, TestFlatRegistry.class, TestBasicUriPathConverter.class,
-    TestUnitOfWorkProviderImpl.class, TestSourcedNotificationImpl.class, TestSearchRuntimeAdapter.class,
+    TestUnitOfWorkProviderImpl.class, TestSourcedNotificationImpl.class, TestTxnNotificationFilter.class,
+    TestSearchRuntimeAdapter.class,
     TestRuntimeAdapter.class, TestMetadataRecord.class, TestWordEntryComparator.class, TestRuntimeIndexSelector.class,
     TestResourceFileIndexSelector.class, TestCreateIndexFile.class, TestResourceDescriptorImpl.class,
     TestDefaultResourceFinder.class, TestDefaultContainerResultSetFinder.class, TestAbstractProxyContainer.class,
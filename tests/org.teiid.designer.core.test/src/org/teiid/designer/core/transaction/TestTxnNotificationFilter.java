@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.transaction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * TestTxnNotificationFilter
+ */
+public class TestTxnNotificationFilter extends TestCase {
+
+    private TxnNotificationFilter filter;
+    private Resource resource;
+    private EPackage pkg1;
+    private EPackage pkg2;
+
+    /**
+     * Constructor for TestTxnNotificationFilter.
+     *
+     * @param name
+     */
+    public TestTxnNotificationFilter( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        final ResourceSet resources = new ResourceSetImpl();
+        resource = new ResourceImpl(URI.createURI("test.xmi")); //$NON-NLS-1$
+        resources.getResources().add(resource);
+        pkg1 = helpCreatePackage("pkg1", 3); //$NON-NLS-1$
+        pkg2 = helpCreatePackage("pkg2", 0); //$NON-NLS-1$
+        filter = new TxnNotificationFilter(resources);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private EPackage helpCreatePackage( final String name,
+                                        final int numClasses ) {
+        final EPackage pkg = EcoreFactory.eINSTANCE.createEPackage();
+        pkg.setName(name);
+        for (int i = 0; i < numClasses; i++) {
+            final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+            eClass.setName(name + "_class" + i); //$NON-NLS-1$
+            pkg.getEClassifiers().add(eClass);
+        }
+        resource.getContents().add(pkg);
+        return pkg;
+    }
+
+    /**
+     * Start passing the notifications of all objects in the resource to the filter
+     */
+    private void helpStartTransaction() {
+        resource.eAdapters().add(new EContentAdapter() {
+            @Override
+            public void notifyChanged( final Notification notification ) {
+                super.notifyChanged(notification);
+                filter.addNotification(notification);
+            }
+        });
+    }
+
+    private List<Object> helpGetNotifiers() {
+        final List<Object> result = new ArrayList<Object>();
+        for (Iterator i = filter.getSourcedNotifications(this).iterator(); i.hasNext();) {
+            result.add(((SourcedNotification)i.next()).getNotifier());
+        }
+        return result;
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testChildNotificationsCoalescedUnderParent() {
+        final EClass eClass = (EClass)pkg1.getEClassifiers().get(0);
+        helpStartTransaction();
+        eClass.setName("renamed"); //$NON-NLS-1$
+        pkg1.getEClassifiers().add(EcoreFactory.eINSTANCE.createEClass());
+        ((EClass)pkg1.getEClassifiers().get(1)).setName("renamed2"); //$NON-NLS-1$
+
+        final List<Object> notifiers = helpGetNotifiers();
+        assertEquals(1, notifiers.size());
+        assertSame(pkg1, notifiers.get(0));
+        assertEquals(3, filter.getNotificationsIn());
+        assertEquals(1, filter.getNotificationsIgnored());
+        assertEquals(1, filter.getNotificationsOut());
+    }
+
+    public void testAddThenRemoveCancels() {
+        helpStartTransaction();
+        final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        pkg2.getEClassifiers().add(eClass);
+        pkg2.getEClassifiers().remove(eClass);
+
+        assertTrue(helpGetNotifiers().isEmpty());
+        assertEquals(0, filter.getNotificationsOut());
+    }
+
+    public void testMovedObjectCoalescedUnderNewContainer() {
+        final EClass eClass = (EClass)pkg1.getEClassifiers().get(0);
+        helpStartTransaction();
+        eClass.setName("renamed"); //$NON-NLS-1$
+        pkg2.getEClassifiers().add(eClass);
+
+        final List<Object> notifiers = helpGetNotifiers();
+        assertEquals(2, notifiers.size());
+        assertTrue(notifiers.contains(pkg1));
+        assertTrue(notifiers.contains(pkg2));
+    }
+
+    public void testManyChildNotificationsCoalescedUnderParent() {
+        for (int i = 0; i < 1000; i++) {
+            final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+            pkg2.getEClassifiers().add(eClass);
+        }
+        helpStartTransaction();
+        for (Iterator i = pkg2.getEClassifiers().iterator(); i.hasNext();) {
+            ((EClass)i.next()).setName("renamed"); //$NON-NLS-1$
+        }
+        pkg2.setName("renamed"); //$NON-NLS-1$
+
+        final List<Object> notifiers = helpGetNotifiers();
+        assertEquals(1, notifiers.size());
+        assertSame(pkg2, notifiers.get(0));
+        assertEquals(1001, filter.getNotificationsIn());
+        assertEquals(1, filter.getNotificationsOut());
+    }
+
+    public void testClearResetsCounters() {
+        helpStartTransaction();
+        pkg1.setName("renamed"); //$NON-NLS-1$
+        filter.clear();
+
+        assertTrue(helpGetNotifiers().isEmpty());
+        assertEquals(0, filter.getNotificationsIn());
+    }
+}
@@ -7,6 +7,10 @@
  */
 package org.teiid.designer.core.transaction;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -108,4 +112,103 @@ public class TestUnitOfWorkProviderImpl extends TestCase {
         cntr.shutdown();
     }
 
+    /**
+     * Verify that each thread gets its own unit of work, and the same one on every call
+     */
+    public void testGetCurrentIsPerThread() throws Exception {
+        ContainerImpl cntr = new ContainerImpl();
+        cntr.start();
+        final UnitOfWorkProviderImpl stp = helpCreateTransactionProvider(new EmfResourceSetImpl(cntr));
+        final List uows = new ArrayList();
+        final List failures = new ArrayList();
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    final UnitOfWork uow = stp.getCurrent();
+                    for (int j = 0; j < 10000; ++j) {
+                        if (stp.getCurrent() != uow) {
+                            synchronized (failures) {
+                                failures.add(getName());
+                            }
+                            return;
+                        }
+                    }
+                    synchronized (uows) {
+                        uows.add(uow);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+        }
+        assertEquals(0, failures.size());
+        final Set distinct = new HashSet(uows);
+        assertEquals(threads.length, distinct.size());
+
+        cntr.shutdown();
+    }
+
+    /**
+     * Verify that the units of work of dead threads are removed
+     */
+    public void testDeadThreadsArePruned() throws Exception {
+        ContainerImpl cntr = new ContainerImpl();
+        cntr.start();
+        final UnitOfWorkProviderImpl stp = helpCreateTransactionProvider(new EmfResourceSetImpl(cntr));
+        UnitOfWorkProviderImpl.pruneDeadThreads();
+        final int initialCount = UnitOfWorkProviderImpl.getThreadCount();
+        for (int i = 0; i < 10; ++i) {
+            final Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    stp.getCurrent();
+                }
+            };
+            thread.start();
+            thread.join();
+        }
+        UnitOfWorkProviderImpl.pruneDeadThreads();
+        assertEquals(initialCount, UnitOfWorkProviderImpl.getThreadCount());
+
+        cntr.shutdown();
+    }
+
+    /**
+     * Verify that lookups, creations and prunes are counted
+     */
+    public void testCounts() throws Exception {
+        ContainerImpl cntr = new ContainerImpl();
+        cntr.start();
+        final UnitOfWorkProviderImpl stp = helpCreateTransactionProvider(new EmfResourceSetImpl(cntr));
+        stp.cleanup(Thread.currentThread());
+        final long lookups = UnitOfWorkProviderImpl.getLookupCount();
+        final long created = UnitOfWorkProviderImpl.getCreatedCount();
+        final long prunes = UnitOfWorkProviderImpl.getPruneCount();
+        final long prunedThreads = UnitOfWorkProviderImpl.getPrunedThreadCount();
+
+        stp.getCurrent();
+        stp.getCurrent();
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                stp.getCurrent();
+            }
+        };
+        thread.start();
+        thread.join();
+        UnitOfWorkProviderImpl.pruneDeadThreads();
+
+        assertTrue(UnitOfWorkProviderImpl.getLookupCount() >= lookups + 3);
+        assertTrue(UnitOfWorkProviderImpl.getCreatedCount() >= created + 2);
+        assertTrue(UnitOfWorkProviderImpl.getPruneCount() >= prunes + 1);
+        assertTrue(UnitOfWorkProviderImpl.getPrunedThreadCount() >= prunedThreads + 1);
+        stp.cleanup(Thread.currentThread());
+
+        cntr.shutdown();
+    }
+
 }
@@ -11,6 +11,8 @@ import junit.extensions.TestSetup;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.emf.ecore.resource.Resource;
 
 
 /**
@@ -150,4 +152,47 @@ public final class TestValidationContext extends TestCase {
         }
     }
 
+    public void testCopySettingsKeepsSettings() {
+        final ValidationContext context = new ValidationContext("qualifier"); //$NON-NLS-1$
+        final Resource[] resources = new Resource[0];
+        context.setResourcesToValidate(resources);
+        context.setResourcesInScope(resources);
+        context.setUseServerIndexes(true);
+        context.setUseIndexesToResolve(false);
+        context.setCacheMappingRootResults(false);
+        context.setIndexLocation("indexes"); //$NON-NLS-1$
+
+        final ValidationContext copy = context.copySettings();
+        assertNotSame(context, copy);
+        assertTrue(copy.hasPreferences());
+        assertSame(resources, copy.getResourcesToValidate());
+        assertSame(resources, copy.getResourcesInScope());
+        assertTrue(copy.useServerIndexes());
+        assertFalse(copy.useIndexesToResolve());
+        assertFalse(copy.cacheMappingRootResults());
+        assertEquals("indexes", copy.getIndexLocation()); //$NON-NLS-1$
+    }
+
+    public void testCopySettingsDropsState() {
+        final ValidationContext context = helpCreateValidationContext();
+        final ValidationResult result = new ValidationResultImpl("target"); //$NON-NLS-1$
+        result.addProblem(new ValidationProblemImpl(0, IStatus.ERROR, "problem")); //$NON-NLS-1$
+        context.addResult(result);
+        context.addUuidToContext("uuid"); //$NON-NLS-1$
+        context.recordRuleRun("container", "rule"); //$NON-NLS-1$ //$NON-NLS-2$
+        context.setData("key", "value"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        final ValidationContext copy = context.copySettings();
+        assertFalse(copy.hasResults());
+        assertFalse(copy.containsUuid("uuid")); //$NON-NLS-1$
+        assertFalse(copy.hasRunRule("container", "rule")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertNull(copy.getData("key")); //$NON-NLS-1$
+
+        // the copy's results are its own
+        copy.addResult(result);
+        assertEquals(1, context.getValidationResults().size());
+        copy.clearResults();
+        assertTrue(context.hasResults());
+    }
+
 }
@@ -60,6 +60,21 @@ public class TestModelBufferCache extends TestCase {
     // H E L P E R M E T H O D S
     // =========================================================================
 
+    /**
+     * Create a cache with a memory limit, in which every open FakeModelBuffer has the given estimated size
+     */
+    private ModelBufferCache helpCreateWeightedCache( final long memoryLimit,
+                                                      final long bufferSize ) {
+        return new ModelBufferCache(DEFAULT_SIZE, memoryLimit) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected long getEstimatedSize( final Object value ) {
+                return ((ModelBuffer)value).isClosed() ? 0 : bufferSize;
+            }
+        };
+    }
+
     // =========================================================================
     // T E S T C A S E S
     // =========================================================================
@@ -157,4 +172,100 @@ public class TestModelBufferCache extends TestCase {
 
     }
 
+    public void testMemoryLimitClosesLeastRecentlyUsedBuffers() {
+        this.cache = helpCreateWeightedCache(1000, 300);
+        final List buffers = new ArrayList();
+        for (int i = 0; i != 5; ++i) {
+            final FakeModelBuffer item = new FakeModelBuffer("Key" + i); //$NON-NLS-1$
+            buffers.add(item);
+            this.cache.put(item.getKey(), item);
+        }
+
+        // Only three buffers fit, and the oldest are closed first
+        assertEquals(3, this.cache.size());
+        assertTrue(((FakeModelBuffer)buffers.get(0)).isClosed());
+        assertTrue(((FakeModelBuffer)buffers.get(1)).isClosed());
+        assertFalse(((FakeModelBuffer)buffers.get(4)).isClosed());
+        assertEquals(2, this.cache.getEvictionCount());
+        assertEquals(900, this.cache.getEstimatedSize());
+    }
+
+    public void testMemoryLimitKeepsBuffersWithUnsavedChanges() {
+        this.cache = helpCreateWeightedCache(1000, 300);
+        final FakeModelBuffer changed = new FakeModelBuffer("Changed"); //$NON-NLS-1$
+        changed.setChanged(true);
+        this.cache.put(changed.getKey(), changed);
+        for (int i = 0; i != 4; ++i) {
+            final FakeModelBuffer item = new FakeModelBuffer("Key" + i); //$NON-NLS-1$
+            this.cache.put(item.getKey(), item);
+        }
+
+        assertFalse(changed.isClosed());
+        assertTrue(this.cache.containsKey(changed.getKey()));
+        assertEquals(3, this.cache.size());
+    }
+
+    public void testMemoryLimitNeverClosesBufferJustAdded() {
+        this.cache = helpCreateWeightedCache(100, 300);
+        final FakeModelBuffer item = new FakeModelBuffer("Key"); //$NON-NLS-1$
+        this.cache.put(item.getKey(), item);
+
+        assertFalse(item.isClosed());
+        assertEquals(1, this.cache.size());
+        assertEquals(0, this.cache.getEvictionCount());
+    }
+
+    public void testEstimatedSizeIsRunningTotal() {
+        final int[] estimates = new int[1];
+        this.cache = new ModelBufferCache(DEFAULT_SIZE, 1000) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected long getEstimatedSize( final Object value ) {
+                estimates[0]++;
+                return 100;
+            }
+        };
+        final List buffers = new ArrayList();
+        for (int i = 0; i != 5; ++i) {
+            final FakeModelBuffer item = new FakeModelBuffer("Key" + i); //$NON-NLS-1$
+            buffers.add(item);
+            this.cache.put(item.getKey(), item);
+        }
+
+        // Each buffer is estimated once, when it is added
+        assertEquals(5, estimates[0]);
+        assertEquals(500, this.cache.getEstimatedSize());
+
+        this.cache.remove(((FakeModelBuffer)buffers.get(0)).getKey());
+        assertEquals(400, this.cache.getEstimatedSize());
+
+        this.cache.updateEstimatedSize(buffers.get(1), 250);
+        assertEquals(550, this.cache.getEstimatedSize());
+
+        // Buffers no longer in the cache are ignored
+        this.cache.updateEstimatedSize(buffers.get(0), 250);
+        assertEquals(550, this.cache.getEstimatedSize());
+
+        this.cache.clear();
+        assertEquals(0, this.cache.getEstimatedSize());
+    }
+
+    public void testUpdatedEstimateClosesBuffersOnNextAdd() {
+        this.cache = helpCreateWeightedCache(1000, 300);
+        final FakeModelBuffer first = new FakeModelBuffer("First"); //$NON-NLS-1$
+        this.cache.put(first.getKey(), first);
+        final FakeModelBuffer second = new FakeModelBuffer("Second"); //$NON-NLS-1$
+        this.cache.put(second.getKey(), second);
+        assertEquals(0, this.cache.getEvictionCount());
+
+        this.cache.updateEstimatedSize(first, 600);
+        final FakeModelBuffer third = new FakeModelBuffer("Third"); //$NON-NLS-1$
+        this.cache.put(third.getKey(), third);
+
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        assertEquals(1, this.cache.getEvictionCount());
+        assertEquals(600, this.cache.getEstimatedSize());
+    }
 }
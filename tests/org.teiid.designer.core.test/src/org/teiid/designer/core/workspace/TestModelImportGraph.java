@@ -0,0 +1,245 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * TestModelImportGraph
+ */
+public class TestModelImportGraph extends TestCase {
+
+    private static final IPath A = new Path("/Project/A.xmi"); //$NON-NLS-1$
+    private static final IPath B = new Path("/Project/B.xmi"); //$NON-NLS-1$
+    private static final IPath C = new Path("/Project/folder/C.xmi"); //$NON-NLS-1$
+    private static final IPath D = new Path("/Project/folder/D.xsd"); //$NON-NLS-1$
+
+    private FakeWorkspaceGraph graph;
+    private File storeFile;
+
+    /**
+     * Constructor for TestModelImportGraph.
+     *
+     * @param name
+     */
+    public TestModelImportGraph( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.storeFile = File.createTempFile("modelImports", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.storeFile.delete();
+        this.graph = new FakeWorkspaceGraph(this.storeFile);
+
+        // A -> B -> C -> D, A -> D
+        this.graph.addFile(A, 1, new IPath[] {B, D});
+        this.graph.addFile(B, 1, new IPath[] {C});
+        this.graph.addFile(C, 1, new IPath[] {D});
+        this.graph.addFile(D, 1, new IPath[0]);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.storeFile.delete();
+        super.tearDown();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    static class FakeWorkspaceGraph extends ModelImportGraph {
+        final Map<IPath, Long> files = new HashMap<IPath, Long>();
+        final Map<IPath, IPath[]> fileImports = new HashMap<IPath, IPath[]>();
+        int readCount;
+        /** Run when the imports of {@link #readHookPath} are read */
+        Runnable readHook;
+        IPath readHookPath;
+
+        FakeWorkspaceGraph( final File storeFile ) {
+            super(storeFile);
+        }
+
+        void addFile( final IPath path,
+                      final long stamp,
+                      final IPath[] importPaths ) {
+            this.files.put(path, stamp);
+            this.fileImports.put(path, importPaths);
+        }
+
+        @Override
+        protected Map<IPath, Long> collectWorkspaceResources() {
+            return new HashMap<IPath, Long>(this.files);
+        }
+
+        @Override
+        protected long getTimeStamp( final IPath path ) {
+            final Long stamp = this.files.get(path);
+            return stamp == null ? IResource.NULL_STAMP : stamp.longValue();
+        }
+
+        @Override
+        protected IPath[] readImports( final IPath path ) {
+            ++this.readCount;
+            if (this.readHook != null && path.equals(this.readHookPath)) this.readHook.run();
+            return this.fileImports.get(path);
+        }
+    }
+
+    /**
+     * Run the runnable in another thread, and wait for it to finish
+     *
+     * @return true if the runnable finished
+     */
+    private boolean helpRunInOtherThread( final Runnable runnable ) {
+        final Thread thread = new Thread(runnable);
+        thread.start();
+        try {
+            thread.join(10000);
+        } catch (final InterruptedException e) {
+            fail(e.getMessage());
+        }
+        return !thread.isAlive();
+    }
+
+    private void helpAssertPaths( final IPath[] expected,
+                                  final IPath[] actual ) {
+        helpAssertPaths(expected, Arrays.asList(actual));
+    }
+
+    private void helpAssertPaths( final IPath[] expected,
+                                  final Collection<IPath> actual ) {
+        assertEquals(new HashSet<IPath>(Arrays.asList(expected)), new HashSet<IPath>(actual));
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testDirectQueries() {
+        helpAssertPaths(new IPath[] {B, D}, this.graph.getImports(A));
+        helpAssertPaths(new IPath[] {A, C}, this.graph.getImporters(D));
+        helpAssertPaths(new IPath[0], this.graph.getImporters(A));
+        assertEquals(4, this.graph.size());
+    }
+
+    public void testRecursiveQueries() {
+        helpAssertPaths(new IPath[] {A, B, C}, this.graph.getImportersRecursive(D));
+        helpAssertPaths(new IPath[] {B, C, D}, this.graph.getImportsRecursive(A));
+    }
+
+    public void testRecursiveQueryWithCycle() {
+        this.graph.addFile(D, 1, new IPath[] {A});
+        helpAssertPaths(new IPath[] {A, B, C, D}, this.graph.getImportersRecursive(D));
+    }
+
+    public void testFilesOnlyReadOnce() {
+        this.graph.getImports(A);
+        this.graph.getImporters(D);
+        this.graph.getImportersRecursive(D);
+        assertEquals(4, this.graph.readCount);
+    }
+
+    public void testSetImportsReplacesReverseEdges() {
+        this.graph.getImports(A);
+        this.graph.setImports(A, new IPath[] {C}, 2);
+        helpAssertPaths(new IPath[] {C}, this.graph.getImporters(D));
+        helpAssertPaths(new IPath[] {A, B}, this.graph.getImporters(C));
+    }
+
+    public void testRemoveFolder() {
+        this.graph.getImports(A);
+        this.graph.files.remove(C);
+        this.graph.files.remove(D);
+        this.graph.removeAll(new Path("/Project/folder")); //$NON-NLS-1$
+        assertEquals(2, this.graph.size());
+        helpAssertPaths(new IPath[0], this.graph.getImports(C));
+        // the importers of removed resources are kept until the importers change
+        helpAssertPaths(new IPath[] {B}, this.graph.getImporters(C));
+    }
+
+    public void testSaveAndLoadOnlyReadsChangedFiles() {
+        this.graph.getImports(A);
+        this.graph.save();
+        assertTrue(this.storeFile.exists());
+
+        final FakeWorkspaceGraph loaded = new FakeWorkspaceGraph(this.storeFile);
+        loaded.files.putAll(this.graph.files);
+        loaded.fileImports.putAll(this.graph.fileImports);
+        loaded.addFile(B, 2, new IPath[] {D});
+
+        helpAssertPaths(new IPath[] {A, B, C}, loaded.getImporters(D));
+        helpAssertPaths(new IPath[0], loaded.getImporters(C));
+        assertEquals(1, loaded.readCount);
+    }
+
+    public void testSaveBeforeFirstQueryDoesNothing() {
+        this.graph.save();
+        assertFalse(this.storeFile.exists());
+    }
+
+    public void testContains() {
+        assertTrue(this.graph.contains(A));
+        assertTrue(this.graph.contains(D));
+        // resources outside of model projects are never collected
+        assertFalse(this.graph.contains(new Path("/Other/E.xmi"))); //$NON-NLS-1$
+    }
+
+    public void testRemoveWhileReadingImports() {
+        final boolean[] finished = new boolean[1];
+        this.graph.readHookPath = B;
+        this.graph.readHook = new Runnable() {
+            @Override
+            public void run() {
+                // a delta delivered by another thread is not blocked by the read
+                finished[0] = helpRunInOtherThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        graph.files.remove(C);
+                        graph.removeAll(C);
+                    }
+                });
+            }
+        };
+
+        this.graph.getImports(A);
+        assertTrue(finished[0]);
+        // the imports read for the removed resource are not published
+        assertFalse(this.graph.contains(C));
+        assertEquals(3, this.graph.size());
+    }
+
+    public void testQueryWhileReadingImports() {
+        final IPath[][] result = new IPath[1][];
+        this.graph.readHookPath = B;
+        this.graph.readHook = new Runnable() {
+            @Override
+            public void run() {
+                result[0] = graph.getImports(D);
+            }
+        };
+
+        this.graph.getImports(A);
+        assertNotNull(result[0]);
+        helpAssertPaths(new IPath[] {B, D}, this.graph.getImports(A));
+    }
+}
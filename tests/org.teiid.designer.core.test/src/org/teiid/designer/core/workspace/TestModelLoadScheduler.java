@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/**
+ * TestModelLoadScheduler
+ */
+public class TestModelLoadScheduler extends TestCase {
+
+    private Map<String, Collection<String>> dependencies;
+
+    /**
+     * Constructor for TestModelLoadScheduler.
+     *
+     * @param name
+     */
+    public TestModelLoadScheduler( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.dependencies = new HashMap<String, Collection<String>>();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private void helpAddImports( final String model,
+                                 final String... imports ) {
+        this.dependencies.put(model, Arrays.asList(imports));
+    }
+
+    private List<String> helpSort( final String... models ) {
+        return ModelLoadScheduler.sortByDependencies(Arrays.asList(models), this.dependencies);
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testIndependentModelsKeepTheirOrder() {
+        assertEquals(Arrays.asList("B", "A", "C"), helpSort("B", "A", "C")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+    }
+
+    public void testImportedModelsComeFirst() {
+        helpAddImports("View", "Source1", "Source2"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        helpAddImports("Source2", "Source1"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("Source1", "Source2", "View", "Other"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                     helpSort("View", "Other", "Source2", "Source1")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
+    public void testImportsOutsideTheListAreIgnored() {
+        helpAddImports("View", "Unopened"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("View", "Source"), helpSort("View", "Source")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
+    public void testCyclesAreBrokenWhereFirstReached() {
+        helpAddImports("A", "B"); //$NON-NLS-1$ //$NON-NLS-2$
+        helpAddImports("B", "A"); //$NON-NLS-1$ //$NON-NLS-2$
+        helpAddImports("C", "A"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("B", "A", "C"), helpSort("C", "A", "B")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+    }
+}
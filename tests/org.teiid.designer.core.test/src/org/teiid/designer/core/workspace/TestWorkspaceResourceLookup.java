@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * TestWorkspaceResourceLookup
+ */
+public class TestWorkspaceResourceLookup extends TestCase {
+
+    private static final String UUID_A = "mmuuid:11111111-1111-1111-1111-111111111111"; //$NON-NLS-1$
+    private static final String UUID_B = "mmuuid:22222222-2222-2222-2222-222222222222"; //$NON-NLS-1$
+
+    private FakeWorkspaceLookup lookup;
+    private IFile modelA;
+    private IFile modelB;
+    private IFile schema;
+
+    /**
+     * Constructor for TestWorkspaceResourceLookup.
+     *
+     * @param name
+     */
+    public TestWorkspaceResourceLookup( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.lookup = new FakeWorkspaceLookup();
+        this.modelA = helpCreateFile("/Project/Customers.xmi"); //$NON-NLS-1$
+        this.modelB = helpCreateFile("/Project/folder/Orders.xmi"); //$NON-NLS-1$
+        this.schema = helpCreateFile("/Project/folder/Customers.xsd"); //$NON-NLS-1$
+        this.lookup.files.add(this.modelA);
+        this.lookup.files.add(this.modelB);
+        this.lookup.files.add(this.schema);
+        this.lookup.uuids.put(this.modelA, UUID_A);
+        this.lookup.uuids.put(this.modelB, UUID_B);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    static class FakeWorkspaceLookup extends WorkspaceResourceLookup {
+        final Collection<IFile> files = new ArrayList<IFile>();
+        final Map<IFile, String> uuids = new HashMap<IFile, String>();
+        int uuidReadCount;
+
+        @Override
+        protected Collection<IFile> collectWorkspaceFiles() {
+            return new ArrayList<IFile>(this.files);
+        }
+
+        @Override
+        protected String readUuid( final IFile file ) {
+            ++this.uuidReadCount;
+            return this.uuids.get(file);
+        }
+    }
+
+    private IFile helpCreateFile( final String path ) {
+        final IFile file = mock(IFile.class);
+        final Path fullPath = new Path(path);
+        when(file.getFullPath()).thenReturn(fullPath);
+        when(file.getName()).thenReturn(fullPath.lastSegment());
+        when(file.getType()).thenReturn(IResource.FILE);
+        return file;
+    }
+
+    private IFile helpAddCopy( final String path,
+                               final IFile model ) {
+        final IFile copy = helpCreateFile(path);
+        this.lookup.files.add(copy);
+        this.lookup.uuids.put(copy, this.lookup.uuids.get(model));
+        this.lookup.add(copy);
+        return copy;
+    }
+
+    private void helpChangeContent( final IFile file ) {
+        final IResourceDelta delta = mock(IResourceDelta.class);
+        when(delta.getResource()).thenReturn(file);
+        when(delta.getKind()).thenReturn(IResourceDelta.CHANGED);
+        when(delta.getFlags()).thenReturn(IResourceDelta.CONTENT);
+        this.lookup.processResourceDelta(delta);
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testFindByPath() {
+        assertSame(this.modelB, this.lookup.findByPath(new Path("/Project/folder/Orders.xmi"))); //$NON-NLS-1$
+        assertNull(this.lookup.findByPath(new Path("/Project/Orders.xmi"))); //$NON-NLS-1$
+    }
+
+    public void testFindByNameWithExtensionIgnoresCase() {
+        final IFile[] result = this.lookup.findByName("customers.XMI"); //$NON-NLS-1$
+        assertEquals(1, result.length);
+        assertSame(this.modelA, result[0]);
+    }
+
+    public void testFindByNameWithoutExtension() {
+        assertEquals(2, this.lookup.findByName("Customers").length); //$NON-NLS-1$
+        assertEquals(0, this.lookup.findByName("Products").length); //$NON-NLS-1$
+    }
+
+    public void testFindByUuidReadsHeadersOnce() {
+        assertSame(this.modelA, this.lookup.findByUuid(UUID_A));
+        assertSame(this.modelB, this.lookup.findByUuid(UUID_B));
+        assertNull(this.lookup.findByUuid("mmuuid:unknown")); //$NON-NLS-1$
+        // the XSD is never read
+        assertEquals(2, this.lookup.uuidReadCount);
+    }
+
+    public void testRemoveFolder() {
+        this.lookup.findByUuid(UUID_B);
+        this.lookup.removeAll(new Path("/Project/folder")); //$NON-NLS-1$
+        assertEquals(1, this.lookup.size());
+        assertNull(this.lookup.findByUuid(UUID_B));
+        assertEquals(1, this.lookup.findByName("Customers").length); //$NON-NLS-1$
+    }
+
+    public void testAddAfterInitialize() {
+        assertEquals(3, this.lookup.size());
+        final IFile added = helpCreateFile("/Project/Products.xmi"); //$NON-NLS-1$
+        this.lookup.uuids.put(added, "mmuuid:added"); //$NON-NLS-1$
+        this.lookup.add(added);
+        assertSame(added, this.lookup.findByUuid("mmuuid:added")); //$NON-NLS-1$
+        assertSame(added, this.lookup.findByName("products")[0]); //$NON-NLS-1$
+    }
+
+    public void testFindByUuidReturnsFirstVisitedCopy() {
+        assertSame(this.modelA, this.lookup.findByUuid(UUID_A));
+        // visited after the original
+        helpAddCopy("/Project/folder/Customers.xmi", this.modelA); //$NON-NLS-1$
+        assertSame(this.modelA, this.lookup.findByUuid(UUID_A));
+        // visited before the original, although added last
+        final IFile copy = helpAddCopy("/Project/Backup/Customers.xmi", this.modelA); //$NON-NLS-1$
+        assertSame(copy, this.lookup.findByUuid(UUID_A));
+    }
+
+    public void testRemoveCopyKeepsOriginal() {
+        final IFile copy = helpAddCopy("/Project/Backup/Customers.xmi", this.modelA); //$NON-NLS-1$
+        assertSame(copy, this.lookup.findByUuid(UUID_A));
+        this.lookup.removeAll(copy.getFullPath());
+        assertSame(this.modelA, this.lookup.findByUuid(UUID_A));
+        this.lookup.removeAll(this.modelA.getFullPath());
+        assertNull(this.lookup.findByUuid(UUID_A));
+    }
+
+    public void testChangedUuidKeepsCopy() {
+        final IFile copy = helpAddCopy("/Project/folder/Customers.xmi", this.modelA); //$NON-NLS-1$
+        assertSame(this.modelA, this.lookup.findByUuid(UUID_A));
+        this.lookup.uuids.put(this.modelA, "mmuuid:changed"); //$NON-NLS-1$
+        helpChangeContent(this.modelA);
+        assertSame(copy, this.lookup.findByUuid(UUID_A));
+        assertSame(this.modelA, this.lookup.findByUuid("mmuuid:changed")); //$NON-NLS-1$
+    }
+
+    public void testVisitOrder() {
+        final Path[] ordered = {new Path("/A"), new Path("/A/B.xmi"), new Path("/A/b"), new Path("/A/b/C.xmi"), new Path("/A/c.xmi"), new Path("/B")}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+        for (int i = 1; i < ordered.length; i++) {
+            assertTrue(WorkspaceResourceLookup.VISIT_ORDER.compare(ordered[i - 1], ordered[i]) < 0);
+            assertTrue(WorkspaceResourceLookup.VISIT_ORDER.compare(ordered[i], ordered[i - 1]) > 0);
+        }
+    }
+}
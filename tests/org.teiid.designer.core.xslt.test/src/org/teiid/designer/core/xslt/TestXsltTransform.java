@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.xslt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import javax.xml.transform.Templates;
+import javax.xml.transform.sax.SAXSource;
+import junit.framework.TestCase;
+import org.teiid.core.util.SmartTestDesignerSuite;
+import org.xml.sax.InputSource;
+
+/**
+ * TestXsltTransform
+ */
+public class TestXsltTransform extends TestCase {
+
+    private static final String PATH_STYLE = "passthrough.xsl"; //$NON-NLS-1$
+    private static final String PATH_SAMPLE = "sample.xml"; //$NON-NLS-1$
+
+    private File testDataFolder;
+    private Style style;
+
+    /**
+     * Constructor for TestXsltTransform.
+     *
+     * @param name
+     */
+    public TestXsltTransform( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.testDataFolder = new File(SmartTestDesignerSuite.getTestDataPath(getClass()));
+        this.style = new StyleFromResource(new File(this.testDataFolder, PATH_STYLE).toURI().toURL(), "Passthrough"); //$NON-NLS-1$
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testTemplatesAreCompiledOncePerStyle() throws Exception {
+        final Templates templates = XsltTransform.getTemplates(this.style);
+        assertSame(templates, XsltTransform.getTemplates(this.style));
+    }
+
+    public void testTransformSaxSource() throws Exception {
+        final FileInputStream input = new FileInputStream(new File(this.testDataFolder, PATH_SAMPLE));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            new XsltTransform(this.style).transform(new SAXSource(new InputSource(input)), output);
+        } finally {
+            input.close();
+        }
+        assertTrue(output.toString("UTF-8").indexOf("AliasOfTableWithAlias") > 0); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.diagram.ui.layout.spring;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * TestBarnesHutSpring
+ */
+public class TestBarnesHutSpring extends TestCase {
+
+    private static final double NODE_WIDTH = 120.0;
+    private static final double NODE_HEIGHT = 80.0;
+
+    /**
+     * Constructor for TestBarnesHutSpring.
+     *
+     * @param name
+     */
+    public TestBarnesHutSpring( String name ) {
+        super(name);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    static BarnesHutSpring helpCreateEngine( int nNodes ) {
+        final BarnesHutSpring engine = new BarnesHutSpring(nNodes);
+        for (int i = 0; i < nNodes; i++) {
+            engine.setSize(i, NODE_WIDTH, NODE_HEIGHT);
+        }
+        engine.setEdgeLength(2 * NODE_WIDTH);
+        return engine;
+    }
+
+    /**
+     * A square grid, each node linked to its right and lower neighbors
+     */
+    static BarnesHutSpring helpCreateGrid( int side ) {
+        final BarnesHutSpring engine = helpCreateEngine(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                final int node = row * side + column;
+                if (column + 1 < side) {
+                    engine.addEdge(node, node + 1);
+                }
+                if (row + 1 < side) {
+                    engine.addEdge(node, node + side);
+                }
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * A connected schema-like graph: each table references a few earlier tables, preferring the ones already referenced most
+     */
+    static BarnesHutSpring helpCreateSchema( int nNodes,
+                                             int referencesPerTable ) {
+        final BarnesHutSpring engine = helpCreateEngine(nNodes);
+        final Random random = new Random(nNodes);
+        final int[] ends = new int[2 * nNodes * referencesPerTable];
+        int nEnds = 0;
+        for (int node = 1; node < nNodes; node++) {
+            final int nReferences = Math.min(node, 1 + random.nextInt(referencesPerTable));
+            for (int r = 0; r < nReferences; r++) {
+                final int target = (nEnds == 0 || random.nextBoolean() ? random.nextInt(node) : ends[random.nextInt(nEnds)]);
+                engine.addEdge(node, target);
+                ends[nEnds++] = node;
+                ends[nEnds++] = target;
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Fact tables, each referenced by its own set of dimension tables, chained together
+     */
+    static BarnesHutSpring helpCreateStars( int nStars,
+                                            int nPoints ) {
+        final BarnesHutSpring engine = helpCreateEngine(nStars * (nPoints + 1));
+        for (int star = 0; star < nStars; star++) {
+            final int hub = star * (nPoints + 1);
+            for (int point = 1; point <= nPoints; point++) {
+                engine.addEdge(hub + point, hub);
+            }
+            if (star > 0) {
+                engine.addEdge(hub, hub - nPoints - 1);
+            }
+        }
+        return engine;
+    }
+
+    private static double helpDistance( BarnesHutSpring engine,
+                                        int a,
+                                        int b ) {
+        final double dx = engine.getCenterX(a) - engine.getCenterX(b);
+        final double dy = engine.getCenterY(a) - engine.getCenterY(b);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static void helpAssertPlaced( BarnesHutSpring engine ) {
+        for (int i = 0; i < engine.getNodeCount(); i++) {
+            assertFalse(Double.isNaN(engine.getCenterX(i)) || Double.isInfinite(engine.getCenterX(i)));
+            assertFalse(Double.isNaN(engine.getCenterY(i)) || Double.isInfinite(engine.getCenterY(i)));
+            assertTrue(engine.getCenterX(i) >= NODE_WIDTH / 2 - 0.001);
+            assertTrue(engine.getCenterY(i) >= NODE_HEIGHT / 2 - 0.001);
+        }
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testEmptyGraph() {
+        final BarnesHutSpring engine = helpCreateEngine(0);
+        assertTrue(engine.compute(null));
+    }
+
+    public void testSingleNodeIsPlacedAtOrigin() {
+        final BarnesHutSpring engine = helpCreateEngine(1);
+        assertTrue(engine.compute(null));
+        assertEquals(NODE_WIDTH / 2, engine.getCenterX(0), 0.001);
+        assertEquals(NODE_HEIGHT / 2, engine.getCenterY(0), 0.001);
+    }
+
+    public void testInvalidEdge() {
+        try {
+            helpCreateEngine(2).addEdge(0, 2);
+            fail("Expected IllegalArgumentException"); //$NON-NLS-1$
+        } catch (final IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    public void testLinkedNodesArePlacedCloser() {
+        final BarnesHutSpring engine = helpCreateGrid(20);
+        assertTrue(engine.compute(new NullProgressMonitor()));
+        helpAssertPlaced(engine);
+
+        double linked = 0.0;
+        for (int node = 0; node + 1 < 20; node++) {
+            linked += helpDistance(engine, node, node + 1);
+        }
+        linked /= 19;
+        // opposite corners of the grid are 38 links apart
+        assertTrue(helpDistance(engine, 0, 399) > 10 * linked);
+    }
+
+    public void testNodesDoNotOverlap() {
+        final BarnesHutSpring engine = helpCreateSchema(300, 3);
+        assertTrue(engine.compute(null));
+        helpAssertPlaced(engine);
+
+        for (int a = 0; a < engine.getNodeCount(); a++) {
+            for (int b = a + 1; b < engine.getNodeCount(); b++) {
+                final double dx = Math.abs(engine.getCenterX(a) - engine.getCenterX(b));
+                final double dy = Math.abs(engine.getCenterY(a) - engine.getCenterY(b));
+                assertTrue("Nodes " + a + " and " + b + " overlap", dx >= NODE_WIDTH - 0.001 || dy >= NODE_HEIGHT - 0.001); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        }
+    }
+
+    public void testSameSeedGivesSameLayout() {
+        final BarnesHutSpring first = helpCreateSchema(200, 2);
+        final BarnesHutSpring second = helpCreateSchema(200, 2);
+        first.compute(null);
+        second.compute(null);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(first.getCenterX(i), second.getCenterX(i), 0.0);
+            assertEquals(first.getCenterY(i), second.getCenterY(i), 0.0);
+        }
+    }
+
+    public void testLargeGraphIsCoarsened() {
+        final BarnesHutSpring engine = helpCreateSchema(2000, 3);
+        assertTrue(engine.getLevelCount() > 3);
+    }
+
+    public void testStarsAreCollapsed() {
+        final BarnesHutSpring engine = helpCreateStars(5, 400);
+        // each star joins its hub on the first coarsening
+        assertTrue(engine.getLevelCount() <= 3);
+        assertTrue(engine.compute(null));
+        helpAssertPlaced(engine);
+    }
+
+    public void testCanceledLayoutPlacesAllNodes() {
+        final BarnesHutSpring engine = helpCreateSchema(1000, 3);
+        final NullProgressMonitor monitor = new NullProgressMonitor() {
+            private int calls;
+
+            @Override
+            public boolean isCanceled() {
+                return ++calls > 50;
+            }
+        };
+        assertFalse(engine.compute(monitor));
+        helpAssertPlaced(engine);
+        assertTrue(engine.getIterationCount() <= 50);
+        assertTrue(helpDistance(engine, 0, 999) > 0.0);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.diagram.ui.layout.spring;
+
+import junit.framework.TestCase;
+import org.teiid.core.designer.util.Stopwatch;
+
+/**
+ * Benchmark of {@link BarnesHutSpring} over synthetic graphs. The exact runs open every quadtree cell (theta 0), which costs the
+ * same all-pairs repulsion per iteration as {@link Spring}, and show how the Barnes-Hut approximation scales against it.
+ */
+public class TestPerformanceBarnesHutSpring extends TestCase {
+
+    /**
+     * Constructor for TestPerformanceBarnesHutSpring.
+     *
+     * @param name
+     */
+    public TestPerformanceBarnesHutSpring( String name ) {
+        super(name);
+    }
+
+    private static void helpRun( String name,
+                                 BarnesHutSpring engine,
+                                 double theta ) {
+        engine.setTheta(theta);
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        final int nLevels = engine.getLevelCount();
+        assertTrue(engine.compute(null));
+        sw.stop();
+        System.out.println("  " + name + ": nodes = " + engine.getNodeCount() + ", edges = " + engine.getEdgeCount() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                           + ", theta = " + theta + ", levels = " + nLevels + ", iterations = " + engine.getIterationCount() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                           + ", time = " + sw.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testGrid() {
+        System.out.println("\nTestPerformanceBarnesHutSpring.testGrid()"); //$NON-NLS-1$
+        helpRun("grid", TestBarnesHutSpring.helpCreateGrid(23), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+        helpRun("grid", TestBarnesHutSpring.helpCreateGrid(45), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+        helpRun("grid", TestBarnesHutSpring.helpCreateGrid(71), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+    }
+
+    public void testSchema() {
+        System.out.println("\nTestPerformanceBarnesHutSpring.testSchema()"); //$NON-NLS-1$
+        helpRun("schema", TestBarnesHutSpring.helpCreateSchema(500, 3), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+        helpRun("schema", TestBarnesHutSpring.helpCreateSchema(2000, 3), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+        helpRun("schema", TestBarnesHutSpring.helpCreateSchema(5000, 3), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+    }
+
+    public void testStars() {
+        System.out.println("\nTestPerformanceBarnesHutSpring.testStars()"); //$NON-NLS-1$
+        helpRun("stars", TestBarnesHutSpring.helpCreateStars(10, 49), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+        helpRun("stars", TestBarnesHutSpring.helpCreateStars(40, 49), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+        helpRun("stars", TestBarnesHutSpring.helpCreateStars(100, 49), BarnesHutSpring.DEFAULT_THETA); //$NON-NLS-1$
+    }
+
+    public void testSchemaExactRepulsion() {
+        System.out.println("\nTestPerformanceBarnesHutSpring.testSchemaExactRepulsion()"); //$NON-NLS-1$
+        helpRun("schema", TestBarnesHutSpring.helpCreateSchema(500, 3), 0.0); //$NON-NLS-1$
+        helpRun("schema", TestBarnesHutSpring.helpCreateSchema(1000, 3), 0.0); //$NON-NLS-1$
+        helpRun("schema", TestBarnesHutSpring.helpCreateSchema(2000, 3), 0.0); //$NON-NLS-1$
+    }
+}
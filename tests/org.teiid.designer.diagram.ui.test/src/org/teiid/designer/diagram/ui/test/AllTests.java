@@ -0,0 +1,12 @@
+package org.teiid.designer.diagram.ui.test;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.teiid.designer.diagram.ui.layout.spring.TestBarnesHutSpring;
+import org.teiid.designer.diagram.ui.layout.spring.TestPerformanceBarnesHutSpring;
+
+@RunWith( Suite.class )
+@Suite.SuiteClasses( {TestBarnesHutSpring.class, TestPerformanceBarnesHutSpring.class} )
+public class AllTests {
+    // nothing to do
+}
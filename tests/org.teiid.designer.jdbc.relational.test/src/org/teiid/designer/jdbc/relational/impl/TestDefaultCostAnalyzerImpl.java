@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.relational.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * TestDefaultCostAnalyzerImpl
+ */
+public class TestDefaultCostAnalyzerImpl extends TestCase {
+
+    private static final String PRODUCT = "Fake DB"; //$NON-NLS-1$
+
+    /**
+     * The row answering each query, by query
+     */
+    private Map rowsByQuery;
+    private List queries;
+    private List connections;
+    private int closedConnections;
+    private int threads;
+    private int samplePercent;
+    private DefaultCostAnalyzerImpl analyzer;
+
+    /**
+     * Constructor for TestDefaultCostAnalyzerImpl.
+     *
+     * @param name
+     */
+    public TestDefaultCostAnalyzerImpl( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.rowsByQuery = new HashMap();
+        this.queries = Collections.synchronizedList(new ArrayList());
+        this.connections = Collections.synchronizedList(new ArrayList());
+        this.closedConnections = 0;
+        this.threads = 1;
+        this.samplePercent = 0;
+        this.analyzer = new DefaultCostAnalyzerImpl(null, null) {
+            @Override
+            protected Connection createConnection() {
+                final Connection connection = helpCreateConnection();
+                connections.add(connection);
+                return connection;
+            }
+
+            @Override
+            protected int getThreadCount() {
+                return threads;
+            }
+
+            @Override
+            protected int getSamplePercent() {
+                return samplePercent;
+            }
+        };
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private Object helpCreateProxy( final Class type,
+                                    final InvocationHandler handler ) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {type}, handler);
+    }
+
+    Connection helpCreateConnection() {
+        final DatabaseMetaData metadata = (DatabaseMetaData)helpCreateProxy(DatabaseMetaData.class, new InvocationHandler() {
+            @Override
+            public Object invoke( final Object proxy,
+                                  final Method method,
+                                  final Object[] args ) {
+                if (method.getName().equals("getDatabaseProductName")) { //$NON-NLS-1$
+                    return PRODUCT;
+                }
+                return helpCreateResultSet(null);
+            }
+        });
+        final Statement statement = (Statement)helpCreateProxy(Statement.class, new InvocationHandler() {
+            @Override
+            public Object invoke( final Object proxy,
+                                  final Method method,
+                                  final Object[] args ) throws SQLException {
+                if (method.getName().equals("executeQuery")) { //$NON-NLS-1$
+                    queries.add(args[0]);
+                    if (!rowsByQuery.containsKey(args[0])) {
+                        throw new SQLException("unexpected query " + args[0]); //$NON-NLS-1$
+                    }
+                    return helpCreateResultSet((List)rowsByQuery.get(args[0]));
+                }
+                return null;
+            }
+        });
+        return (Connection)helpCreateProxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke( final Object proxy,
+                                  final Method method,
+                                  final Object[] args ) {
+                final String name = method.getName();
+                if (name.equals("getMetaData")) { //$NON-NLS-1$
+                    return metadata;
+                }
+                if (name.equals("createStatement")) { //$NON-NLS-1$
+                    return statement;
+                }
+                if (name.equals("close")) { //$NON-NLS-1$
+                    synchronized (TestDefaultCostAnalyzerImpl.this) {
+                        closedConnections++;
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @param row the values of the only row, or null for no rows
+     */
+    ResultSet helpCreateResultSet( final List row ) {
+        return (ResultSet)helpCreateProxy(ResultSet.class, new InvocationHandler() {
+            private boolean fetched;
+
+            @Override
+            public Object invoke( final Object proxy,
+                                  final Method method,
+                                  final Object[] args ) {
+                final String name = method.getName();
+                if (name.equals("next")) { //$NON-NLS-1$
+                    final boolean next = row != null && !this.fetched;
+                    this.fetched = true;
+                    return Boolean.valueOf(next);
+                }
+                if (name.equals("getInt")) { //$NON-NLS-1$
+                    return row.get(((Integer)args[0]).intValue() - 1);
+                }
+                if (name.equals("getString")) { //$NON-NLS-1$
+                    return String.valueOf(row.get(((Integer)args[0]).intValue() - 1));
+                }
+                return null;
+            }
+        });
+    }
+
+    private TableStatistics helpCreateTable( final String name ) {
+        final TableStatistics tblStat = new TableStatistics(name);
+        final Map colStats = new LinkedHashMap();
+        colStats.put("ID", new ColumnStatistics("ID", Types.INTEGER, false)); //$NON-NLS-1$ //$NON-NLS-2$
+        colStats.put("NAME", new ColumnStatistics("NAME", Types.VARCHAR, true)); //$NON-NLS-1$ //$NON-NLS-2$
+        tblStat.setColumnStats(colStats);
+        return tblStat;
+    }
+
+    private String helpGetQuery( final String from ) {
+        return "select count(*), count(distinct ID), min(ID), max(ID), count(distinct NAME), count(NAME) from " + from; //$NON-NLS-1$
+    }
+
+    private ColumnStatistics helpGetColumn( final TableStatistics tblStat,
+                                            final String name ) {
+        return (ColumnStatistics)tblStat.getColumnStats().get(name);
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testStatisticsQueryComputesOnlyRequiredValues() {
+        final TableStatistics tblStat = helpCreateTable("T"); //$NON-NLS-1$
+        final List colStats = new ArrayList(tblStat.getColumnStats().values());
+        colStats.add(new ColumnStatistics("NOTES", Types.LONGVARCHAR, true)); //$NON-NLS-1$
+        assertEquals(helpGetQuery("T"), this.analyzer.getStatisticsQuery(colStats, "T")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testStatisticsQueryCountsUniqueIdentifiers() {
+        final ColumnStatistics colStat = new ColumnStatistics("GUID", Types.CHAR, false); //$NON-NLS-1$
+        colStat.setNativeType("uniqueidentifier"); //$NON-NLS-1$
+        assertEquals("select count(*), count(GUID) from T", //$NON-NLS-1$
+                     this.analyzer.getStatisticsQuery(Arrays.asList(new Object[] {colStat}), "T")); //$NON-NLS-1$
+    }
+
+    public void testTableSampleClause() {
+        assertEquals("tablesample (10 percent)", this.analyzer.getTableSampleClause("Microsoft SQL Server", 10)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("tablesample system (10)", this.analyzer.getTableSampleClause("PostgreSQL", 10)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("tablesample system (10)", this.analyzer.getTableSampleClause("DB2/LINUXX8664", 10)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertNull(this.analyzer.getTableSampleClause("MySQL", 10)); //$NON-NLS-1$
+    }
+
+    public void testRowLimitQuery() {
+        assertEquals("select * from T limit 5", this.analyzer.getRowLimitQuery("MySQL", "T", 5)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals("select top 5 * from T", this.analyzer.getRowLimitQuery("Sybase", "T", 5)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals("select * from T fetch first 5 rows only", this.analyzer.getRowLimitQuery("Apache Derby", "T", 5)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    public void testOneQueryPerTable() throws Exception {
+        final TableStatistics tblStat = helpCreateTable("T"); //$NON-NLS-1$
+        this.rowsByQuery.put(helpGetQuery("T"), Arrays.asList(new Object[] {100, 100, 1, 100, 40, 90})); //$NON-NLS-1$
+        this.analyzer.collectStatistics(Collections.singletonMap("T", tblStat), new NullProgressMonitor()); //$NON-NLS-1$
+
+        assertEquals(Arrays.asList(new Object[] {helpGetQuery("T")}), this.queries); //$NON-NLS-1$
+        assertEquals(100, tblStat.getCardinality());
+        assertEquals(100, helpGetColumn(tblStat, "ID").getNumDistinctValues()); //$NON-NLS-1$
+        assertEquals("1", helpGetColumn(tblStat, "ID").getMin()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("100", helpGetColumn(tblStat, "ID").getMax()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(40, helpGetColumn(tblStat, "NAME").getNumDistinctValues()); //$NON-NLS-1$
+        assertEquals(10, helpGetColumn(tblStat, "NAME").getNumNullValues()); //$NON-NLS-1$
+        assertEquals(1, this.closedConnections);
+    }
+
+    public void testFailedQueryFallsBackToEachColumn() throws Exception {
+        final TableStatistics tblStat = helpCreateTable("T"); //$NON-NLS-1$
+        this.rowsByQuery.put("select count(*) from T", Arrays.asList(new Object[] {100})); //$NON-NLS-1$
+        this.analyzer.collectStatistics(Collections.singletonMap("T", tblStat), new NullProgressMonitor()); //$NON-NLS-1$
+
+        assertEquals(helpGetQuery("T"), this.queries.get(0)); //$NON-NLS-1$
+        assertEquals("select count(*) from T", this.queries.get(1)); //$NON-NLS-1$
+        assertEquals(100, tblStat.getCardinality());
+    }
+
+    public void testSampleIsScaledToTable() throws Exception {
+        this.samplePercent = 10;
+        final TableStatistics tblStat = helpCreateTable("T"); //$NON-NLS-1$
+        this.rowsByQuery.put("select count(*) from T", Arrays.asList(new Object[] {1000})); //$NON-NLS-1$
+        this.rowsByQuery.put(helpGetQuery("(select * from T fetch first 100 rows only) sampled"), //$NON-NLS-1$
+                             Arrays.asList(new Object[] {100, 100, 1, 100, 40, 90}));
+        this.analyzer.collectStatistics(Collections.singletonMap("T", tblStat), new NullProgressMonitor()); //$NON-NLS-1$
+
+        assertEquals(1000, tblStat.getCardinality());
+        assertEquals(1000, helpGetColumn(tblStat, "ID").getNumDistinctValues()); //$NON-NLS-1$
+        assertEquals(40, helpGetColumn(tblStat, "NAME").getNumDistinctValues()); //$NON-NLS-1$
+        assertEquals(100, helpGetColumn(tblStat, "NAME").getNumNullValues()); //$NON-NLS-1$
+    }
+
+    public void testTablesAreAnalyzedInParallel() throws Exception {
+        this.threads = 3;
+        final Map tblStats = new LinkedHashMap();
+        for (int i = 0; i < 20; ++i) {
+            final String name = "T" + i; //$NON-NLS-1$
+            tblStats.put(name, helpCreateTable(name));
+            this.rowsByQuery.put(helpGetQuery(name), Arrays.asList(new Object[] {i, i, 0, i, i, i}));
+        }
+        this.analyzer.collectStatistics(tblStats, new NullProgressMonitor());
+
+        assertEquals(20, this.queries.size());
+        for (final Iterator iter = tblStats.entrySet().iterator(); iter.hasNext();) {
+            final Map.Entry entry = (Map.Entry)iter.next();
+            final TableStatistics tblStat = (TableStatistics)entry.getValue();
+            assertEquals(Integer.parseInt(((String)entry.getKey()).substring(1)), tblStat.getCardinality());
+        }
+        assertTrue(this.connections.size() <= 3);
+        assertEquals(this.connections.size(), this.closedConnections);
+    }
+}
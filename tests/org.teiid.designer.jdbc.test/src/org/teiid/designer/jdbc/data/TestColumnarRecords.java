@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/**
+ * TestColumnarRecords
+ */
+public class TestColumnarRecords extends TestCase {
+
+    private ColumnarRecords records;
+
+    /**
+     * Constructor for TestColumnarRecords.
+     *
+     * @param name
+     */
+    public TestColumnarRecords( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.records = new ColumnarRecords(3);
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private List helpRecord( final Object first,
+                             final Object second,
+                             final Object third ) {
+        return Arrays.asList(new Object[] {first, second, third});
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testRecordsKeepTheirValues() {
+        final List expected = new ArrayList();
+        for (int i = 0; i < 100; ++i) {
+            final List record = helpRecord(new String("TABLE" + (i % 3)), //$NON-NLS-1$
+                                           (i % 5 == 0 ? null : new Integer(i)),
+                                           (i % 7 == 0 ? (Object)new Short((short)i) : new Integer(-i)));
+            expected.add(record);
+            this.records.add(record);
+        }
+        assertEquals(100, this.records.size());
+        assertEquals(expected, this.records.asList());
+        assertEquals(new Short((short)7), this.records.get(7, 2));
+        assertNull(this.records.get(5, 1));
+    }
+
+    public void testEqualStringsAreShared() {
+        final Map internedStrings = new HashMap();
+        final ColumnarRecords other = new ColumnarRecords(3, internedStrings);
+        this.records = new ColumnarRecords(3, internedStrings);
+        this.records.add(helpRecord(new String("SCHEMA"), "A", null)); //$NON-NLS-1$ //$NON-NLS-2$
+        other.add(helpRecord(new String("SCHEMA"), "B", null)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertSame(this.records.get(0, 0), other.get(0, 0));
+    }
+
+    public void testSetThroughRecord() {
+        this.records.add(helpRecord("A", new Integer(1), new Integer(2))); //$NON-NLS-1$
+        final List record = this.records.getRecord(0);
+        assertEquals(new Integer(1), record.set(1, "one")); //$NON-NLS-1$
+        record.set(2, null);
+        assertEquals(helpRecord("A", "one", null), this.records.getRecord(0)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testRecordWithWrongColumnCountIsRejected() {
+        try {
+            this.records.add(Arrays.asList(new Object[] {"A"})); //$NON-NLS-1$
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testRowOutOfRange() {
+        try {
+            this.records.getRecord(0);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+}
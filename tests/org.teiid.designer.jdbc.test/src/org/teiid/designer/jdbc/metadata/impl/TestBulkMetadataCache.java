@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.metadata.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import junit.framework.TestCase;
+import org.teiid.designer.jdbc.data.Request;
+
+/**
+ * TestBulkMetadataCache
+ */
+public class TestBulkMetadataCache extends TestCase {
+
+    private static final String SCHEMA = "SCHEMA"; //$NON-NLS-1$
+
+    /**
+     * The rows of the fake driver, each holding the schema name, the table name and a column name
+     */
+    private List rows;
+    private List calls;
+    private boolean rejectAllTables;
+    private DatabaseMetaData metadata;
+    private BulkMetadataCache cache;
+
+    /**
+     * Constructor for TestBulkMetadataCache.
+     *
+     * @param name
+     */
+    public TestBulkMetadataCache( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.rows = new ArrayList();
+        this.calls = new ArrayList();
+        this.rejectAllTables = false;
+        this.metadata = (DatabaseMetaData)Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                  new Class[] {DatabaseMetaData.class},
+                                                                  new FakeMetadataHandler());
+        this.cache = new BulkMetadataCache();
+        helpAddRow("T1", "A"); //$NON-NLS-1$ //$NON-NLS-2$
+        helpAddRow("T1", "B"); //$NON-NLS-1$ //$NON-NLS-2$
+        helpAddRow("T2", "C"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private void helpAddRow( final String table,
+                             final String column ) {
+        this.rows.add(Arrays.asList(new Object[] {SCHEMA, table, column}));
+    }
+
+    /**
+     * Answers getColumns and getPrimaryKeys with the rows of the matching tables. Like many drivers, treats the table name of
+     * getPrimaryKeys literally.
+     */
+    private class FakeMetadataHandler implements InvocationHandler {
+        @Override
+        public Object invoke( final Object proxy,
+                              final Method method,
+                              final Object[] args ) throws Throwable {
+            final String table = (String)args[2];
+            calls.add(method.getName() + '(' + table + ')');
+            if (table == null && rejectAllTables) {
+                throw new SQLException("table name required"); //$NON-NLS-1$
+            }
+            final boolean pattern = method.getName().equals("getColumns"); //$NON-NLS-1$
+            final List result = new ArrayList();
+            for (final Iterator iter = rows.iterator(); iter.hasNext();) {
+                final List row = (List)iter.next();
+                if (table == null || table.equals(row.get(1)) || (pattern && table.equals(JdbcNodeImpl.WILDCARD_PATTERN))) {
+                    result.add(row);
+                }
+            }
+            return helpCreateResultSet(result);
+        }
+    }
+
+    /**
+     * Describes three columns, answering every other question with a default value.
+     */
+    private static class FakeResultSetMetaDataHandler implements InvocationHandler {
+        @Override
+        public Object invoke( final Object proxy,
+                              final Method method,
+                              final Object[] args ) {
+            if (method.getReturnType() == Integer.TYPE) {
+                return new Integer(3);
+            }
+            if (method.getReturnType() == Boolean.TYPE) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+    }
+
+    private ResultSet helpCreateResultSet( final List result ) {
+        final Iterator iter = result.iterator();
+        final ResultSetMetaData rsmd = (ResultSetMetaData)Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                                 new Class[] {ResultSetMetaData.class},
+                                                                                 new FakeResultSetMetaDataHandler());
+        return (ResultSet)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {ResultSet.class}, new InvocationHandler() {
+            private List current;
+
+            @Override
+            public Object invoke( Object proxy,
+                                  Method method,
+                                  Object[] args ) {
+                final String name = method.getName();
+                if (name.equals("next")) { //$NON-NLS-1$
+                    this.current = iter.hasNext() ? (List)iter.next() : null;
+                    return Boolean.valueOf(this.current != null);
+                }
+                if (name.equals("getObject")) { //$NON-NLS-1$
+                    return this.current.get(((Integer)args[0]).intValue() - 1);
+                }
+                if (name.equals("getMetaData")) { //$NON-NLS-1$
+                    return rsmd;
+                }
+                return null;
+            }
+        });
+    }
+
+    private TableMetadataRequest helpCreateColumnsRequest( final String table ) {
+        final TableMetadataRequest request = new GetColumnsRequest(this.metadata, null, SCHEMA, table, JdbcNodeImpl.WILDCARD_PATTERN) {
+            @Override
+            protected int getTableNameColumn() {
+                return 1;
+            }
+        };
+        request.setBulkMetadataCache(this.cache);
+        request.setMetadataRequested(false);
+        return request;
+    }
+
+    private TableMetadataRequest helpCreatePrimaryKeyRequest( final String table ) {
+        final TableMetadataRequest request = new GetPrimaryKeyRequest(this.metadata, null, SCHEMA, table) {
+            @Override
+            protected int getTableNameColumn() {
+                return 1;
+            }
+        };
+        request.setBulkMetadataCache(this.cache);
+        request.setMetadataRequested(false);
+        return request;
+    }
+
+    private void helpAssertRowCount( final Request request,
+                                     final int count ) {
+        assertTrue(request.invoke());
+        assertEquals(count, request.getResults().getRowCount());
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testColumnsAreFetchedOncePerSchema() {
+        helpAssertRowCount(helpCreateColumnsRequest("T1"), 2); //$NON-NLS-1$
+        helpAssertRowCount(helpCreateColumnsRequest("T2"), 1); //$NON-NLS-1$
+        helpAssertRowCount(helpCreateColumnsRequest("T3"), 0); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"getColumns(%)"}), this.calls); //$NON-NLS-1$
+    }
+
+    public void testPrimaryKeysAreFetchedWithNullTableName() {
+        helpAssertRowCount(helpCreatePrimaryKeyRequest("T1"), 2); //$NON-NLS-1$
+        helpAssertRowCount(helpCreatePrimaryKeyRequest("T2"), 1); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"getPrimaryKeys(null)"}), this.calls); //$NON-NLS-1$
+    }
+
+    public void testFallsBackToEachTableWhenDriverRejectsAllTables() {
+        this.rejectAllTables = true;
+        helpAssertRowCount(helpCreatePrimaryKeyRequest("T1"), 2); //$NON-NLS-1$
+        helpAssertRowCount(helpCreatePrimaryKeyRequest("T2"), 1); //$NON-NLS-1$
+        assertEquals(Arrays.asList(new Object[] {"getPrimaryKeys(null)", "getPrimaryKeys(%)", //$NON-NLS-1$ //$NON-NLS-2$
+            "getPrimaryKeys(T1)", "getPrimaryKeys(T2)"}), this.calls); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testClearFetchesAgain() {
+        helpAssertRowCount(helpCreateColumnsRequest("T1"), 2); //$NON-NLS-1$
+        helpAddRow("T1", "D"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.cache.clear();
+        helpAssertRowCount(helpCreateColumnsRequest("T1"), 3); //$NON-NLS-1$
+        assertEquals(2, this.calls.size());
+    }
+
+    public void testRequestsAskingForMetadataCallTheDriverForEachTable() {
+        final TableMetadataRequest request = helpCreateColumnsRequest("T1"); //$NON-NLS-1$
+        request.setMetadataRequested(true);
+        request.invoke();
+        assertEquals(Arrays.asList(new Object[] {"getColumns(T1)"}), this.calls); //$NON-NLS-1$
+    }
+}
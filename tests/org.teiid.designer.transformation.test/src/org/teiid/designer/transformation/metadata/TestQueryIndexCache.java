@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.transformation.metadata;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import junit.framework.TestCase;
+import org.teiid.designer.core.index.AbstractIndexSelector;
+import org.teiid.designer.core.index.EntryResult;
+import org.teiid.designer.core.index.IEntryResult;
+import org.teiid.designer.core.index.Index;
+import org.teiid.designer.core.index.IndexSelector;
+
+/**
+ * TestQueryIndexCache
+ */
+public class TestQueryIndexCache extends TestCase {
+
+    private static final char[] PATTERN = "G|MODEL.TABLE|".toCharArray(); //$NON-NLS-1$
+
+    private File indexFile;
+    private Index[] indexes;
+    private IndexSelector selector;
+    private QueryIndexCache cache;
+
+    /**
+     * Constructor for TestQueryIndexCache.
+     *
+     * @param name
+     */
+    public TestQueryIndexCache( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.indexFile = File.createTempFile("queryCache", ".INDEX"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.indexFile.delete();
+        this.indexes = new Index[] {new Index(this.indexFile.getAbsolutePath(), false)};
+        this.selector = helpCreateSelector();
+        this.cache = new QueryIndexCache(2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.indexFile.delete();
+        super.tearDown();
+    }
+
+    // =========================================================================
+    // H E L P E R M E T H O D S
+    // =========================================================================
+
+    private IndexSelector helpCreateSelector() {
+        return new AbstractIndexSelector() {
+            @Override
+            public Index[] getIndexes() {
+                return TestQueryIndexCache.this.indexes;
+            }
+        };
+    }
+
+    private QueryIndexCache.Key helpCreateKey( final String pattern ) {
+        return this.cache.createKey(this.selector, this.indexes, pattern.toCharArray(), true, true, false);
+    }
+
+    private IEntryResult[] helpCreateResults( final String word ) {
+        return new IEntryResult[] {new EntryResult(word.toCharArray(), new int[] {1})};
+    }
+
+    // =========================================================================
+    // T E S T C A S E S
+    // =========================================================================
+
+    public void testHitAndMiss() {
+        final QueryIndexCache.Key key = this.cache.createKey(this.selector, this.indexes, PATTERN, true, true, false);
+        assertNull(this.cache.getResults(key));
+        final IEntryResult[] results = helpCreateResults("G|MODEL.TABLE|uuid"); //$NON-NLS-1$
+        this.cache.putResults(key, results);
+
+        assertSame(results, this.cache.getResults(this.cache.createKey(this.selector, this.indexes, PATTERN, true, true, false)));
+        assertEquals(1, this.cache.getHitCount());
+        assertEquals(1, this.cache.getMissCount());
+    }
+
+    public void testQueryFlagsLimitAndSelectorArePartOfKey() {
+        this.cache.putResults(this.cache.createKey(this.selector, this.indexes, PATTERN, true, true, false), helpCreateResults("G|X")); //$NON-NLS-1$
+        assertNull(this.cache.getResults(this.cache.createKey(this.selector, this.indexes, PATTERN, false, true, false)));
+        assertNull(this.cache.getResults(this.cache.createKey(this.selector, this.indexes, PATTERN, true, false, false)));
+        assertNull(this.cache.getResults(this.cache.createKey(this.selector, this.indexes, PATTERN, true, true, true)));
+        assertNull(this.cache.getResults(this.cache.createKey(helpCreateSelector(), this.indexes, PATTERN, true, true, false)));
+        assertNull(this.cache.getResults(this.cache.createKey(this.selector, this.indexes, PATTERN, true, true, false, 1)));
+        assertEquals(0, this.cache.getHitCount());
+    }
+
+    public void testChangedIndexFileDropsCache() {
+        this.cache.putResults(helpCreateKey("G|A|"), helpCreateResults("G|A|1")); //$NON-NLS-1$ //$NON-NLS-2$
+        this.cache.putResults(helpCreateKey("G|B|"), helpCreateResults("G|B|1")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(2, this.cache.size());
+
+        assertTrue(this.indexFile.setLastModified(this.indexFile.lastModified() - 10000));
+        assertNull(this.cache.getResults(helpCreateKey("G|A|"))); //$NON-NLS-1$
+        assertEquals(0, this.cache.size());
+        assertEquals(1, this.cache.getInvalidationCount());
+    }
+
+    public void testLeastRecentlyUsedQueryIsEvicted() {
+        final IEntryResult[] resultsA = helpCreateResults("G|A|1"); //$NON-NLS-1$
+        this.cache.putResults(helpCreateKey("G|A|"), resultsA); //$NON-NLS-1$
+        this.cache.putRecords(resultsA, Collections.singletonList("recordA")); //$NON-NLS-1$
+        this.cache.putResults(helpCreateKey("G|B|"), helpCreateResults("G|B|1")); //$NON-NLS-1$ //$NON-NLS-2$
+        this.cache.putResults(helpCreateKey("G|C|"), helpCreateResults("G|C|1")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals(2, this.cache.size());
+        assertNull(this.cache.getResults(helpCreateKey("G|A|"))); //$NON-NLS-1$
+        assertNull(this.cache.getRecords(resultsA));
+    }
+
+    public void testRecordsAreCopied() {
+        final IEntryResult[] results = helpCreateResults("G|A|1"); //$NON-NLS-1$
+        this.cache.putResults(helpCreateKey("G|A|"), results); //$NON-NLS-1$
+        final Collection records = new ArrayList(Collections.singletonList("recordA")); //$NON-NLS-1$
+        this.cache.putRecords(results, records);
+        records.clear();
+
+        final Collection cached = this.cache.getRecords(results);
+        assertEquals(1, cached.size());
+        cached.clear();
+        assertEquals(1, this.cache.getRecords(results).size());
+    }
+
+    public void testRecordsNotCachedForUnknownResults() {
+        final IEntryResult[] results = helpCreateResults("G|A|1"); //$NON-NLS-1$
+        this.cache.putRecords(results, Collections.singletonList("recordA")); //$NON-NLS-1$
+        assertNull(this.cache.getRecords(results));
+    }
+}
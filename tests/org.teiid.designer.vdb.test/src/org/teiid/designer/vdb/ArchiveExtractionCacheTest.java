@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.teiid.core.designer.util.FileUtils;
+
+/**
+ *
+ */
+public class ArchiveExtractionCacheTest {
+
+    private static final String MODEL = "Project/model.xmi"; //$NON-NLS-1$
+
+    private File folder;
+    private File archive;
+    private File extractFolder;
+    private ArchiveExtractionCache cache;
+
+    @Before
+    public void before() throws Exception {
+        folder = File.createTempFile("archiveExtractionCache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        extractFolder = new File(folder, "extracted"); //$NON-NLS-1$
+        archive = createArchive("first.vdb", "<model>first</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+        cache = new ArchiveExtractionCache();
+    }
+
+    @After
+    public void after() {
+        FileUtils.removeDirectoryAndChildren(folder);
+    }
+
+    private File createArchive( final String name,
+                                final String modelContents ) throws Exception {
+        final File model = createFile(new File(folder, "model.xmi"), modelContents); //$NON-NLS-1$
+        final File file = new File(folder, name);
+        final ZipArchiveWriter writer = new ZipArchiveWriter(file, null);
+        try {
+            final OutputStream manifest = writer.putNextEntry("META-INF/vdb.xml", null, System.currentTimeMillis()); //$NON-NLS-1$
+            manifest.write("<vdb/>".getBytes("UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+            writer.closeEntry();
+            writer.putFile(MODEL, null, model, null);
+            writer.finish();
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    private File createFile( final File file,
+                             final String contents ) throws Exception {
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(contents.getBytes("UTF-8")); //$NON-NLS-1$
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private String read( final File file ) throws Exception {
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] bytes = new byte[(int)file.length()];
+            int count = 0;
+            while (count < bytes.length)
+                count += in.read(bytes, count, bytes.length - count);
+            return new String(bytes, "UTF-8"); //$NON-NLS-1$
+        } finally {
+            in.close();
+        }
+    }
+
+    private Map<String, ZipArchiveWriter.Entry> readEntries( final File file ) throws Exception {
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            return ZipArchiveWriter.readEntries(zipFile);
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private boolean extract( final File file,
+                             final String name ) throws Exception {
+        final Map<String, ZipArchiveWriter.Entry> entries = readEntries(file);
+        return cache.extract(file, ArchiveExtractionCache.computeChecksum(entries), entries.get(name), new File(extractFolder, name));
+    }
+
+    @Test
+    public void shouldExtractEntryOnce() throws Exception {
+        assertThat(extract(archive, MODEL), is(true));
+        assertThat(extract(archive, MODEL), is(false));
+        assertThat(cache.getExtractedCount(), is(1));
+        assertThat(read(new File(extractFolder, MODEL)), is("<model>first</model>")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldExtractBatchOfEntries() throws Exception {
+        final Map<String, ZipArchiveWriter.Entry> entries = readEntries(archive);
+        final long checksum = ArchiveExtractionCache.computeChecksum(entries);
+        final Map<ZipArchiveWriter.Entry, File> files = new LinkedHashMap<ZipArchiveWriter.Entry, File>();
+        for (final ZipArchiveWriter.Entry entry : entries.values())
+            files.put(entry, new File(extractFolder, entry.name));
+
+        assertThat(cache.extract(archive, checksum, files), is(2));
+        assertThat(read(new File(extractFolder, MODEL)), is("<model>first</model>")); //$NON-NLS-1$
+        assertThat(read(new File(extractFolder, "META-INF/vdb.xml")), is("<vdb/>")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // Nothing left to extract, so the archive is not even opened
+        archive.delete();
+        assertThat(cache.extract(archive, checksum, files), is(0));
+        assertThat(cache.getExtractedCount(), is(2));
+    }
+
+    @Test
+    public void shouldExtractAgainWhenFileIsReplaced() throws Exception {
+        extract(archive, MODEL);
+        createFile(new File(extractFolder, MODEL), "<model>snapshot</model>"); //$NON-NLS-1$
+
+        assertThat(extract(archive, MODEL), is(true));
+        assertThat(read(new File(extractFolder, MODEL)), is("<model>first</model>")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldExtractAgainFromChangedArchive() throws Exception {
+        extract(archive, MODEL);
+        final File second = createArchive("second.vdb", "<model>second</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertThat(extract(second, MODEL), is(true));
+        assertThat(read(new File(extractFolder, MODEL)), is("<model>second</model>")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldExtractAgainAfterFolderIsRemoved() throws Exception {
+        extract(archive, MODEL);
+        FileUtils.removeDirectoryAndChildren(extractFolder);
+        cache.remove(extractFolder);
+
+        assertThat(extract(archive, MODEL), is(true));
+        assertThat(read(new File(extractFolder, MODEL)), is("<model>first</model>")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldComputeChecksumFromContent() throws Exception {
+        final File copy = createArchive("copy.vdb", "<model>first</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+        final File second = createArchive("second.vdb", "<model>second</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+        final long checksum = ArchiveExtractionCache.computeChecksum(readEntries(archive));
+
+        assertThat(ArchiveExtractionCache.computeChecksum(readEntries(copy)), is(checksum));
+        assertThat(ArchiveExtractionCache.computeChecksum(readEntries(second)) == checksum, is(false));
+    }
+
+    @Test( expected = ZipException.class )
+    public void shouldFailWhenEntryHasChangedSinceArchiveWasOpened() throws Exception {
+        final Map<String, ZipArchiveWriter.Entry> entries = readEntries(archive);
+        createArchive(archive.getName(), "<model>second</model>"); //$NON-NLS-1$
+        cache.extract(archive, ArchiveExtractionCache.computeChecksum(entries), entries.get(MODEL), new File(extractFolder, MODEL));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Test;
+import org.teiid.core.designer.util.ChecksumUtil;
+import org.teiid.designer.core.ModelResourceMockFactory;
+
+/**
+ *
+ */
+public class WorkspaceChecksumCacheTest {
+
+    private WorkspaceChecksumCache cache;
+    private File first;
+    private File second;
+
+    @Before
+    public void before() throws Exception {
+        cache = new WorkspaceChecksumCache(4);
+        first = ModelResourceMockFactory.createTempFile("first", "", null, "abcdefxyz"); //$NON-NLS-1$ //$NON-NLS-2$
+        second = ModelResourceMockFactory.createTempFile("second", "", null, "xyz"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private IFile mockFile( final File... contents ) {
+        return mockFile(mock(IPath.class), contents);
+    }
+
+    private IFile mockFile( final IPath path,
+                            final File... contents ) {
+        final IFile file = mock(IFile.class);
+        final IPath location = mock(IPath.class);
+        when(file.getFullPath()).thenReturn(path);
+        when(file.getLocation()).thenReturn(location);
+        if (contents.length == 1) when(location.toFile()).thenReturn(contents[0]);
+        else when(location.toFile()).thenReturn(contents[0], contents[1]);
+        when(file.getModificationStamp()).thenReturn(1L);
+        when(file.getLocalTimeStamp()).thenReturn(1000L);
+        return file;
+    }
+
+    private IResourceDelta mockDelta( final String path,
+                                      final int type,
+                                      final int kind,
+                                      final int flags ) {
+        final IResource resource = mock(IResource.class);
+        when(resource.getFullPath()).thenReturn(new Path(path));
+        when(resource.getType()).thenReturn(type);
+        final IResourceDelta delta = mock(IResourceDelta.class);
+        when(delta.getResource()).thenReturn(resource);
+        when(delta.getKind()).thenReturn(kind);
+        when(delta.getFlags()).thenReturn(flags);
+        return delta;
+    }
+
+    private long checksum( final File file ) throws Exception {
+        return ChecksumUtil.computeChecksum(new FileInputStream(file)).getValue();
+    }
+
+    @Test
+    public void shouldComputeSameChecksumAsStream() throws Exception {
+        assertThat(cache.getChecksum(mockFile(first)), is(checksum(first)));
+    }
+
+    @Test
+    public void shouldNotReadUnchangedFileAgain() throws Exception {
+        final IFile file = mockFile(first, second);
+        cache.getChecksum(file);
+
+        assertThat(cache.isCached(file), is(true));
+        assertThat(cache.getChecksum(file), is(checksum(first)));
+    }
+
+    @Test
+    public void shouldReadFileAgainWhenModificationStampChanges() throws Exception {
+        final IFile file = mockFile(first, second);
+        cache.getChecksum(file);
+        when(file.getModificationStamp()).thenReturn(2L);
+
+        assertThat(cache.isCached(file), is(false));
+        assertThat(cache.getChecksum(file), is(checksum(second)));
+    }
+
+    @Test
+    public void shouldReadFileAgainWhenLocalTimeStampChanges() throws Exception {
+        final IFile file = mockFile(first, second);
+        cache.getChecksum(file);
+        when(file.getLocalTimeStamp()).thenReturn(2000L);
+
+        assertThat(cache.getChecksum(file), is(checksum(second)));
+    }
+
+    @Test
+    public void shouldComputeChecksumsOfAllFiles() throws Exception {
+        final Collection<IFile> files = new ArrayList<IFile>();
+        for (int i = 0; i < 10; ++i)
+            files.add(mockFile(i % 2 == 0 ? first : second));
+        cache.computeChecksums(files);
+
+        int i = 0;
+        for (final IFile file : files) {
+            assertThat(cache.isCached(file), is(true));
+            assertThat(cache.getChecksum(file), is(checksum(i++ % 2 == 0 ? first : second)));
+        }
+    }
+
+    @Test
+    public void shouldForgetRemovedFile() throws Exception {
+        final IFile removed = mockFile(new Path("/Project/Removed.xmi"), first); //$NON-NLS-1$
+        final IFile kept = mockFile(new Path("/Project/Kept.xmi"), second); //$NON-NLS-1$
+        cache.getChecksum(removed);
+        cache.getChecksum(kept);
+
+        assertThat(cache.processResourceDelta(mockDelta("/Project/Removed.xmi", IResource.FILE, IResourceDelta.REMOVED, 0)), is(false)); //$NON-NLS-1$
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.isCached(kept), is(true));
+    }
+
+    @Test
+    public void shouldForgetFilesOfRemovedFolder() throws Exception {
+        cache.getChecksum(mockFile(new Path("/Project/Folder/First.xmi"), first)); //$NON-NLS-1$
+        cache.getChecksum(mockFile(new Path("/Project/Folder/Sub/Second.xmi"), second)); //$NON-NLS-1$
+        final IFile kept = mockFile(new Path("/Project/FolderTwo/Second.xmi"), second); //$NON-NLS-1$
+        cache.getChecksum(kept);
+
+        cache.processResourceDelta(mockDelta("/Project/Folder", IResource.FOLDER, IResourceDelta.REMOVED, 0)); //$NON-NLS-1$
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.isCached(kept), is(true));
+    }
+
+    @Test
+    public void shouldForgetFilesOfClosedProject() throws Exception {
+        cache.getChecksum(mockFile(new Path("/Project/First.xmi"), first)); //$NON-NLS-1$
+        final IFile kept = mockFile(new Path("/OtherProject/Second.xmi"), second); //$NON-NLS-1$
+        cache.getChecksum(kept);
+
+        assertThat(cache.processResourceDelta(mockDelta("/Project", IResource.PROJECT, IResourceDelta.CHANGED, IResourceDelta.OPEN)), //$NON-NLS-1$
+                   is(false));
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.isCached(kept), is(true));
+    }
+
+    @Test
+    public void shouldKeepChangedFile() throws Exception {
+        final IFile file = mockFile(new Path("/Project/First.xmi"), first); //$NON-NLS-1$
+        cache.getChecksum(file);
+
+        assertThat(cache.processResourceDelta(mockDelta("/Project", IResource.PROJECT, IResourceDelta.CHANGED, 0)), is(true)); //$NON-NLS-1$
+        cache.processResourceDelta(mockDelta("/Project/First.xmi", IResource.FILE, IResourceDelta.CHANGED, IResourceDelta.CONTENT)); //$NON-NLS-1$
+
+        assertThat(cache.isCached(file), is(true));
+    }
+}
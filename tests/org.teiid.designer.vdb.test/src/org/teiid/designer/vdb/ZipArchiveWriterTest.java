@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ZipArchiveWriterTest {
+
+    private File folder;
+    private File archive;
+    private File model;
+    private File index;
+
+    @Before
+    public void before() throws Exception {
+        folder = File.createTempFile("zipArchiveWriter", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        archive = new File(folder, "test.vdb"); //$NON-NLS-1$
+        model = createFile("model.xmi", "<model>first</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+        index = createFile("model.INDEX", "index contents"); //$NON-NLS-1$ //$NON-NLS-2$
+        write(archive, null, "first description", null); //$NON-NLS-1$
+    }
+
+    @After
+    public void after() {
+        for (final File file : folder.listFiles())
+            file.delete();
+        folder.delete();
+    }
+
+    private File createFile( final String name,
+                             final String contents ) throws Exception {
+        final File file = new File(folder, name);
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(contents.getBytes("UTF-8")); //$NON-NLS-1$
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private ZipArchiveWriter write( final File target,
+                                    final File source,
+                                    final String description,
+                                    final Long modelChecksum ) throws Exception {
+        final ZipArchiveWriter writer = new ZipArchiveWriter(target, source);
+        try {
+            final OutputStream manifest = writer.putNextEntry("META-INF/vdb.xml", description, System.currentTimeMillis()); //$NON-NLS-1$
+            manifest.write("<vdb/>".getBytes("UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+            writer.closeEntry();
+            writer.putFile("Project/model.xmi", description, model, modelChecksum); //$NON-NLS-1$
+            writer.putFile("runtime-inf/model.INDEX", null, index, null); //$NON-NLS-1$
+            writer.finish();
+        } finally {
+            writer.close();
+        }
+        return writer;
+    }
+
+    private String read( final File file,
+                         final String name ) throws Exception {
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            final ZipEntry entry = zipFile.getEntry(name);
+            final InputStream in = zipFile.getInputStream(entry);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int b = in.read(); b >= 0; b = in.read())
+                out.write(b);
+            in.close();
+            return out.toString("UTF-8"); //$NON-NLS-1$
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private long checksum( final String contents ) throws Exception {
+        final CRC32 crc = new CRC32();
+        crc.update(contents.getBytes("UTF-8")); //$NON-NLS-1$
+        return crc.getValue();
+    }
+
+    @Test
+    public void shouldWriteReadableArchive() throws Exception {
+        assertThat(read(archive, "META-INF/vdb.xml"), is("<vdb/>")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertThat(read(archive, "Project/model.xmi"), is("<model>first</model>")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertThat(read(archive, "runtime-inf/model.INDEX"), is("index contents")); //$NON-NLS-1$ //$NON-NLS-2$
+        final Map<String, ZipArchiveWriter.Entry> entries = ZipArchiveWriter.readEntries(archive);
+        assertThat(entries.size(), is(3));
+        assertThat(entries.get("Project/model.xmi").crc, is(checksum("<model>first</model>"))); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void shouldCopyUnchangedEntries() throws Exception {
+        final File copy = new File(folder, "copy.vdb"); //$NON-NLS-1$
+        final ZipArchiveWriter writer = write(copy, archive, "second description", checksum("<model>first</model>")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertThat(writer.getEntryCount(), is(3));
+        assertThat(writer.getCopiedCount(), is(2));
+        assertThat(read(copy, "Project/model.xmi"), is("<model>first</model>")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertThat(read(copy, "runtime-inf/model.INDEX"), is("index contents")); //$NON-NLS-1$ //$NON-NLS-2$
+        final ZipFile zipFile = new ZipFile(copy);
+        try {
+            assertThat(zipFile.getEntry("Project/model.xmi").getComment(), is("second description")); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            zipFile.close();
+        }
+        final ZipArchiveWriter.Entry copied = ZipArchiveWriter.readEntries(copy).get("Project/model.xmi"); //$NON-NLS-1$
+        final ZipArchiveWriter.Entry original = ZipArchiveWriter.readEntries(archive).get("Project/model.xmi"); //$NON-NLS-1$
+        assertThat(copied.compressedSize, is(original.compressedSize));
+    }
+
+    @Test
+    public void shouldCompressChangedEntries() throws Exception {
+        model = createFile("model.xmi", "<model>second</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+        final File copy = new File(folder, "copy.vdb"); //$NON-NLS-1$
+        final ZipArchiveWriter writer = write(copy, archive, null, checksum("<model>second</model>")); //$NON-NLS-1$
+
+        assertThat(writer.getCopiedCount(), is(1));
+        assertThat(read(copy, "Project/model.xmi"), is("<model>second</model>")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void shouldNotTrustWrongChecksum() throws Exception {
+        // same size, different contents
+        model = createFile("model.xmi", "<model>FIRST</model>"); //$NON-NLS-1$ //$NON-NLS-2$
+        final File copy = new File(folder, "copy.vdb"); //$NON-NLS-1$
+        final ZipArchiveWriter writer = write(copy, archive, null, null);
+
+        assertThat(writer.getCopiedCount(), is(1));
+        assertThat(read(copy, "Project/model.xmi"), is("<model>FIRST</model>")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void shouldCompressEverythingWhenSourceIsNotAnArchive() throws Exception {
+        final File notAnArchive = createFile("bad.vdb", "not a zip file"); //$NON-NLS-1$ //$NON-NLS-2$
+        final File copy = new File(folder, "copy.vdb"); //$NON-NLS-1$
+        final ZipArchiveWriter writer = write(copy, notAnArchive, null, null);
+
+        assertThat(writer.getCopiedCount(), is(0));
+        assertThat(read(copy, "runtime-inf/model.INDEX"), is("index contents")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}